@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010 IBM Corporation and others.
+ * Copyright (c) 2010, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,9 +15,14 @@ package org.eclipse.pde.api.tools.apiusescan.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.osgi.util.NLS;
@@ -27,13 +32,20 @@ import org.eclipse.pde.api.tools.internal.provisional.model.IApiBaseline;
 import org.eclipse.pde.api.tools.internal.provisional.model.IApiComponent;
 import org.eclipse.pde.api.tools.internal.search.IReferenceCollection;
 import org.eclipse.pde.api.tools.internal.search.IReferenceDescriptor;
+import org.eclipse.pde.api.tools.internal.search.UseScanIndex;
 import org.eclipse.pde.api.tools.internal.search.UseScanManager;
+import org.eclipse.pde.api.tools.internal.search.UseScanReferences;
 import org.eclipse.pde.api.tools.model.tests.TestSuiteHelper;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class ReferenceCountTests {
 
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
 	private IApiBaseline fBaseline;
 	private UseScanManager fUseScanManager;
 
@@ -75,6 +87,58 @@ public class ReferenceCountTests {
 		fUseScanManager.clearCache();
 	}
 
+	@Test
+	public void testReferenceCountFromIndex() throws Exception {
+		String location = ExternalDependencyTestUtils.setupReport("reportAll", true); //$NON-NLS-1$
+		if (location == null) {
+			fail("Could not setup the report : reportAll.zip"); //$NON-NLS-1$
+		}
+		Path indexFile = folder.getRoot().toPath().resolve("reportAll.index"); //$NON-NLS-1$
+		UseScanIndex.load(location, indexFile, new NullProgressMonitor());
+		UseScanIndex index = UseScanIndex.open(indexFile);
+		assertNotNull("The index should have been persisted", index); //$NON-NLS-1$
+		assertTrue("The index should match the report", index.isCurrent()); //$NON-NLS-1$
+		String[][] apiUseTpes = new String[][] {
+				{"tests.apiusescan.coretestproject.ClassWithInnerType"},  //$NON-NLS-1$
+				{"tests.apiusescan.coretestproject.ClassWithInnerType",  //$NON-NLS-1$
+					"tests.apiusescan.coretestproject.IConstants"},  //$NON-NLS-1$
+				{"tests.apiusescan.coretestproject.ITestInterface"},  //$NON-NLS-1$
+				{"tests.apiusescan.coretestproject.TestInterfaceImpl"} //$NON-NLS-1$
+		};
+		int[] expectedResult = new int[] {7, 9, 5, 6};
+		String errorMessage = "Incorrect number of references for the set {0}"; //$NON-NLS-1$
+		for (int i = 0; i < apiUseTpes.length; i++) {
+			UseScanReferences references = new UseScanReferences();
+			index.collect(ExternalDependencyTestUtils.PROJECT_NAME, apiUseTpes[i], references);
+			assertEquals(NLS.bind(errorMessage, i + 1), expectedResult[i],
+					references.getExternalDependenciesTo(apiUseTpes[i]).length);
+		}
+	}
+
+	@Test
+	public void testIndexReplacedWhileOpen() throws Exception {
+		String location = ExternalDependencyTestUtils.setupReport("reportAll", true); //$NON-NLS-1$
+		if (location == null) {
+			fail("Could not setup the report : reportAll.zip"); //$NON-NLS-1$
+		}
+		Path indexFile = folder.getRoot().toPath().resolve("reportAll.index"); //$NON-NLS-1$
+		UseScanIndex outdated = UseScanIndex.load(location, indexFile, new NullProgressMonitor());
+		// the scan changes while the previous index is still in use
+		File scan = new File(location);
+		assertTrue(scan.setLastModified(scan.lastModified() + 2000));
+		assertFalse("The index should be outdated", outdated.isCurrent()); //$NON-NLS-1$
+
+		UseScanIndex index = UseScanIndex.load(location, indexFile, new NullProgressMonitor());
+		assertTrue("The index should match the report", index.isCurrent()); //$NON-NLS-1$
+		assertTrue("The rewritten index should match the report", UseScanIndex.open(indexFile).isCurrent()); //$NON-NLS-1$
+		String[] types = new String[] { "tests.apiusescan.coretestproject.ITestInterface" }; //$NON-NLS-1$
+		UseScanReferences references = new UseScanReferences();
+		outdated.collect(ExternalDependencyTestUtils.PROJECT_NAME, types, references);
+		assertEquals(5, references.getExternalDependenciesTo(types).length);
+		// the index file is not held open by the loaded indexes
+		Files.delete(indexFile);
+	}
+
 	@Test
 	public void testReferenceCountReportOne() {
 		String location = ExternalDependencyTestUtils.setupReport("reportOne", false); //$NON-NLS-1$
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.applications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceDescription;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.pde.api.tools.internal.ApiAnalysisApplication;
+import org.eclipse.pde.api.tools.internal.ApiBaselineManager;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiBaseline;
+import org.eclipse.pde.api.tools.internal.util.Util;
+import org.eclipse.pde.internal.core.ICoreConstants;
+import org.eclipse.pde.internal.core.PDECore;
+import org.eclipse.pde.internal.core.PDEPreferencesManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Element;
+
+/**
+ * Tests the analysis of several projects by one run of the
+ * {@link ApiAnalysisApplication}
+ */
+public class ApiAnalysisApplicationTest {
+
+	private static final String BASELINE_NAME = "baseline"; //$NON-NLS-1$
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private File baseline;
+	private File reports;
+	private boolean autoBuilding;
+	private boolean disableBuilder;
+	private boolean runAsJob;
+	private String defaultBaseline;
+
+	@Before
+	public void setUp() throws Exception {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		autoBuilding = workspace.getDescription().isAutoBuilding();
+		PDEPreferencesManager preferences = PDECore.getDefault().getPreferencesManager();
+		disableBuilder = preferences.getBoolean(ICoreConstants.DISABLE_API_ANALYSIS_BUILDER);
+		runAsJob = preferences.getBoolean(ICoreConstants.RUN_API_ANALYSIS_AS_JOB);
+		IApiBaseline current = ApiBaselineManager.getManager().getDefaultApiBaseline();
+		defaultBaseline = current != null ? current.getName() : null;
+		// an empty baseline, the projects are no API tools projects
+		baseline = folder.newFile(BASELINE_NAME + ".txt"); //$NON-NLS-1$
+		reports = new File(folder.getRoot(), "reports"); //$NON-NLS-1$
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IWorkspaceDescription description = workspace.getDescription();
+		description.setAutoBuilding(autoBuilding);
+		workspace.setDescription(description);
+		PDEPreferencesManager preferences = PDECore.getDefault().getPreferencesManager();
+		preferences.setValue(ICoreConstants.DISABLE_API_ANALYSIS_BUILDER, disableBuilder);
+		preferences.setValue(ICoreConstants.RUN_API_ANALYSIS_AS_JOB, runAsJob);
+		ApiBaselineManager.getManager().removeApiBaseline(BASELINE_NAME);
+		ApiBaselineManager.getManager().setDefaultApiBaseline(defaultBaseline);
+	}
+
+	/**
+	 * Tests that projects with the same name each get their own report
+	 */
+	@Test
+	public void testReportsOfProjectsWithSameName() throws Exception {
+		File first = createProject("first", "same"); //$NON-NLS-1$ //$NON-NLS-2$
+		File second = createProject("second", "same"); //$NON-NLS-1$ //$NON-NLS-2$
+		File other = createProject("other", "Same"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		Object result = run("-project", first.getPath(), second.getPath(), other.getPath(), //$NON-NLS-1$
+				"-baseline", baseline.getPath(), "-report", reports.getPath()); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(IStatus.OK, result);
+
+		Element firstReport = readReport("same.xml"); //$NON-NLS-1$
+		Element secondReport = readReport("same_2.xml"); //$NON-NLS-1$
+		// the name differs in case only
+		Element otherReport = readReport("Same_3.xml"); //$NON-NLS-1$
+		assertEquals(first.getAbsolutePath(), firstReport.getAttribute("location")); //$NON-NLS-1$
+		assertEquals(second.getAbsolutePath(), secondReport.getAttribute("location")); //$NON-NLS-1$
+		assertEquals(other.getAbsolutePath(), otherReport.getAttribute("location")); //$NON-NLS-1$
+		for (Element report : List.of(firstReport, secondReport, otherReport)) {
+			assertEquals(Integer.toString(IStatus.OK), report.getAttribute("status")); //$NON-NLS-1$
+		}
+		assertEquals(3, reports.list().length);
+		// the projects are removed from the workspace after the analysis
+		assertFalse(ResourcesPlugin.getWorkspace().getRoot().getProject("same").exists()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that a project that can not be analyzed fails the run but not the
+	 * analysis of the other projects
+	 */
+	@Test
+	public void testMissingProject() throws Exception {
+		File project = createProject("project", "project"); //$NON-NLS-1$ //$NON-NLS-2$
+		File missing = new File(folder.getRoot(), "missing"); //$NON-NLS-1$
+
+		Object result = run("-project", missing.getPath(), project.getPath(), //$NON-NLS-1$
+				"-baseline", baseline.getPath(), "-report", reports.getPath()); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(IStatus.ERROR, result);
+		assertEquals(Integer.toString(IStatus.ERROR), readReport("missing.xml").getAttribute("status")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Integer.toString(IStatus.OK), readReport("project.xml").getAttribute("status")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Tests that the projects read from the standard input are analyzed with
+	 * the projects given as arguments and a result is printed for each
+	 */
+	@Test
+	public void testServerMode() throws Exception {
+		File first = createProject("first", "same"); //$NON-NLS-1$ //$NON-NLS-2$
+		File second = createProject("second", "same"); //$NON-NLS-1$ //$NON-NLS-2$
+		String input = second.getPath() + System.lineSeparator() + "exit" + System.lineSeparator(); //$NON-NLS-1$
+
+		InputStream in = System.in;
+		PrintStream out = System.out;
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Object result;
+		try {
+			System.setIn(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+			System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+			result = run("-project", first.getPath(), "-baseline", baseline.getPath(), "-report", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					reports.getPath(), "-server"); //$NON-NLS-1$
+		} finally {
+			System.setIn(in);
+			System.setOut(out);
+		}
+		assertEquals(IStatus.OK, result);
+		List<String> results = output.toString(StandardCharsets.UTF_8).lines()
+				.filter(line -> line.startsWith("[RESULT]")).collect(Collectors.toList()); //$NON-NLS-1$
+		assertEquals(results.toString(), 2, results.size());
+		assertTrue(results.get(0).endsWith("location=" + first.getAbsolutePath())); //$NON-NLS-1$
+		assertTrue(results.get(1).endsWith("location=" + second.getAbsolutePath())); //$NON-NLS-1$
+		assertNotEquals(readReport("same.xml").getAttribute("location"), //$NON-NLS-1$ //$NON-NLS-2$
+				readReport("same_2.xml").getAttribute("location")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static Object run(String... args) throws Exception {
+		Map<String, Object> arguments = Map.of(IApplicationContext.APPLICATION_ARGS, args);
+		IApplicationContext context = (IApplicationContext) Proxy.newProxyInstance(
+				ApiAnalysisApplicationTest.class.getClassLoader(), new Class<?>[] { IApplicationContext.class },
+				(proxy, method, methodArgs) -> "getArguments".equals(method.getName()) ? arguments : null); //$NON-NLS-1$
+		return new ApiAnalysisApplication().start(context);
+	}
+
+	private File createProject(String directory, String name) throws Exception {
+		File project = folder.newFolder(directory);
+		Files.writeString(new File(project, ".project").toPath(), String.join(System.lineSeparator(), //$NON-NLS-1$
+				"<?xml version=\"1.0\" encoding=\"UTF-8\"?>", //$NON-NLS-1$
+				"<projectDescription>", //$NON-NLS-1$
+				"	<name>" + name + "</name>", //$NON-NLS-1$ //$NON-NLS-2$
+				"	<comment></comment>", //$NON-NLS-1$
+				"	<projects></projects>", //$NON-NLS-1$
+				"	<buildSpec></buildSpec>", //$NON-NLS-1$
+				"	<natures></natures>", //$NON-NLS-1$
+				"</projectDescription>")); //$NON-NLS-1$
+		return project;
+	}
+
+	private Element readReport(String fileName) throws Exception {
+		File report = new File(reports, fileName);
+		assertTrue(fileName + " must exist in " + Arrays.toString(reports.list()), report.isFile()); //$NON-NLS-1$
+		return Util.parseDocument(Files.readString(report.toPath()));
+	}
+
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.builder.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.pde.api.tools.internal.IApiCoreConstants;
+import org.eclipse.pde.api.tools.internal.provisional.ApiPlugin;
+import org.eclipse.test.performance.Dimension;
+
+import junit.framework.Test;
+
+/**
+ * Compares the sequential and the parallel compatibility checks of a full
+ * source workspace build
+ */
+public class ParallelCompatibilityBuildTests extends PerformanceTest {
+
+	private static final String DEBUG_CORE = "org.eclipse.debug.core"; //$NON-NLS-1$
+	private static final String CHANGED = "changed"; //$NON-NLS-1$
+	private static final String REVERT = "revert"; //$NON-NLS-1$
+
+	public ParallelCompatibilityBuildTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * @return the tests for this class
+	 */
+	public static Test suite() {
+		return buildTestSuite(ParallelCompatibilityBuildTests.class);
+	}
+
+	@Override
+	protected String getBaselineLocation() {
+		return getTestSourcePath().append("bin-baseline.zip").toOSString(); //$NON-NLS-1$
+	}
+
+	@Override
+	protected String getWorkspaceLocation() {
+		return getTestSourcePath().append("source-ws.zip").toOSString(); //$NON-NLS-1$
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		setParallelCompatibilityCheck(false);
+		super.tearDown();
+	}
+
+	/**
+	 * Tests a full build with sequential compatibility checks
+	 */
+	public void testSequentialFullBuild() throws Exception {
+		tagAsSummary("Full Build - Sequential Compatibility Check", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+		setParallelCompatibilityCheck(false);
+		measureFullBuild();
+	}
+
+	/**
+	 * Tests a full build with parallel compatibility checks and ensures the
+	 * same problems are reported as by the sequential checks
+	 */
+	public void testParallelFullBuild() throws Exception {
+		tagAsSummary("Full Build - Parallel Compatibility Check", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+		fullBuild();
+		IProject[] projects = getEnv().getProjectBuildOrder();
+
+		setParallelCompatibilityCheck(false);
+		orderedBuild(projects);
+		List<String> sequentialProblems = getApiProblems();
+		setParallelCompatibilityCheck(true);
+		orderedBuild(projects);
+		assertEquals("Parallel check must report the same problems", sequentialProblems, getApiProblems()); //$NON-NLS-1$
+
+		measureFullBuild();
+	}
+
+	/**
+	 * Tests that an incremental build, which only compares the changed types,
+	 * reports the same problems with parallel and sequential compatibility
+	 * checks
+	 */
+	public void testParallelIncrementalBuild() throws Exception {
+		fullBuild();
+		IProject project = getEnv().getWorkspace().getRoot().getProject(DEBUG_CORE);
+		IPath file = JavaCore.create(project).findType(DEBUG_CORE + ".Launch").getPath(); //$NON-NLS-1$
+
+		setParallelCompatibilityCheck(false);
+		List<String> sequentialProblems = changeAndBuild(project, file);
+		assertFalse("The changed type must have API problems", sequentialProblems.isEmpty()); //$NON-NLS-1$
+		setParallelCompatibilityCheck(true);
+		assertEquals("Parallel check must report the same problems", sequentialProblems, changeAndBuild(project, file)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Replaces the given file with its changed version, builds the project
+	 * incrementally and reverts the change again
+	 *
+	 * @return the API problems reported for the changed file
+	 */
+	private List<String> changeAndBuild(IProject project, IPath file) throws Exception {
+		updateWorkspaceFile(file, getIncrementalFilePath(CHANGED, file.lastSegment()));
+		project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+		List<String> problems = getApiProblems();
+		updateWorkspaceFile(file, getIncrementalFilePath(REVERT, file.lastSegment()));
+		project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+		return problems;
+	}
+
+	private IPath getIncrementalFilePath(String kind, String filename) {
+		return getTestSourcePath().append("incremental").append("test1").append(kind).append(filename); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private void measureFullBuild() throws Exception {
+		// get everything built
+		fullBuild();
+		IProject[] projects = getEnv().getProjectBuildOrder();
+
+		// WARM-UP
+		for (int j = 0; j < 2; j++) {
+			orderedBuild(projects);
+		}
+
+		// TEST
+		for (int j = 0; j < 15; j++) {
+			startMeasuring();
+
+			// *** build each project ***
+			for (IProject project : projects) {
+				project.build(IncrementalProjectBuilder.FULL_BUILD, ApiPlugin.BUILDER_ID, null, null);
+			}
+
+			stopMeasuring();
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static void setParallelCompatibilityCheck(boolean parallel) {
+		IEclipsePreferences node = InstanceScope.INSTANCE.getNode(ApiPlugin.PLUGIN_ID);
+		node.putBoolean(IApiCoreConstants.PARALLEL_COMPATIBILITY_CHECK, parallel);
+	}
+
+	/**
+	 * @return the API problem markers of the workspace in the order they were
+	 *         created
+	 */
+	private static List<String> getApiProblems() throws CoreException {
+		List<String> problems = new ArrayList<>();
+		IMarker[] markers = ResourcesPlugin.getWorkspace().getRoot().findMarkers(null, true, IResource.DEPTH_INFINITE);
+		// marker ids are assigned in creation order
+		Arrays.sort(markers, Comparator.comparingLong(IMarker::getId));
+		for (IMarker marker : markers) {
+			if (marker.getType().startsWith(ApiPlugin.PLUGIN_ID)) {
+				problems.add(marker.getResource().getFullPath() + ":" + marker.getAttribute(IMarker.LINE_NUMBER, -1) //$NON-NLS-1$
+						+ ":" + marker.getAttribute(IMarker.MESSAGE, "")); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		return problems;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2018 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -76,7 +76,9 @@ public abstract class PerformanceTest extends ApiBuilderTest {
 	private static Class<?>[] getAllTestClasses() {
 		Class<?>[] classes = new Class[] {
 				FullSourceBuildTests.class, ApiDescriptionTests.class,
-				IncrementalBuildTests.class, ExternalDependencyPerfTests.class, UseScanTests.class };
+				IncrementalBuildTests.class, ExternalDependencyPerfTests.class, UseScanTests.class,
+				ParallelCompatibilityBuildTests.class, ReferenceAnalyzerPerfTests.class,
+				ReferenceExtractorPerfTests.class };
 		return classes;
 	}
 
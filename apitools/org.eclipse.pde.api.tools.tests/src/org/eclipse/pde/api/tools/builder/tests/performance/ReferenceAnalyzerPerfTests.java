@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.builder.tests.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.pde.api.tools.internal.builder.ApiAnalysisPool;
+import org.eclipse.pde.api.tools.internal.builder.ReferenceAnalyzer;
+import org.eclipse.pde.api.tools.internal.provisional.ApiPlugin;
+import org.eclipse.pde.api.tools.internal.provisional.Factory;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiBaseline;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiComponent;
+import org.eclipse.pde.api.tools.internal.provisional.problems.IApiProblem;
+import org.eclipse.test.performance.Dimension;
+
+import junit.framework.Test;
+
+/**
+ * Measures the API use scan of the {@link ReferenceAnalyzer} over the binary
+ * platform bundles of the performance baseline
+ */
+public class ReferenceAnalyzerPerfTests extends PerformanceTest {
+
+	public ReferenceAnalyzerPerfTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * @return the tests for this class
+	 */
+	public static Test suite() {
+		return buildTestSuite(ReferenceAnalyzerPerfTests.class);
+	}
+
+	@Override
+	protected String getBaselineLocation() {
+		return getTestSourcePath().append("bin-baseline.zip").toOSString(); //$NON-NLS-1$
+	}
+
+	@Override
+	protected String getWorkspaceLocation() {
+		return getTestSourcePath().append("source-ws.zip").toOSString(); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests the reference extraction, resolution and problem detection of all
+	 * bundles of the baseline
+	 */
+	public void testAnalyzeBaselineComponents() throws Exception {
+		tagAsSummary("API Use Scan - Baseline Components", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+		measureAnalysis(null);
+	}
+
+	/**
+	 * Tests the reference extraction, resolution and problem detection of all
+	 * bundles of the baseline with the packages of each bundle analyzed on the
+	 * shared analysis pool
+	 */
+	public void testAnalyzeBaselineComponentsInParallel() throws Exception {
+		tagAsSummary("API Use Scan - Baseline Components (parallel)", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+		measureAnalysis(ApiAnalysisPool.getPool());
+	}
+
+	private void measureAnalysis(ExecutorService executor) throws Exception {
+		IApiBaseline baseline = ApiPlugin.getDefault().getApiBaselineManager().getDefaultApiBaseline();
+		assertNotNull("The performance baseline must exist", baseline); //$NON-NLS-1$
+		IApiComponent[] components = baseline.getApiComponents();
+
+		// WARM-UP
+		for (int j = 0; j < 2; j++) {
+			analyze(components, executor);
+		}
+
+		// TEST
+		for (int j = 0; j < 10; j++) {
+			startMeasuring();
+			analyze(components, executor);
+			stopMeasuring();
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Tests that the parallel scan reports the same problems in the same order
+	 * as the sequential scan for the components with several packages
+	 */
+	public void testParallelAnalysisMatchesSequential() throws Exception {
+		IApiBaseline baseline = ApiPlugin.getDefault().getApiBaselineManager().getDefaultApiBaseline();
+		assertNotNull("The performance baseline must exist", baseline); //$NON-NLS-1$
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			int compared = 0;
+			for (IApiComponent component : baseline.getApiComponents()) {
+				if (component.isSystemComponent() || component.getPackageNames().length < 2) {
+					continue;
+				}
+				List<String> sequential = getProblems(new ReferenceAnalyzer(), component);
+				List<String> parallel = getProblems(new ReferenceAnalyzer(executor), component);
+				assertEquals("Parallel scan must report the same problems for " + component.getSymbolicName(), //$NON-NLS-1$
+						sequential, parallel);
+				compared++;
+			}
+			assertTrue("The performance baseline must contain components with several packages", compared > 0); //$NON-NLS-1$
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static List<String> getProblems(ReferenceAnalyzer analyzer, IApiComponent component) throws CoreException {
+		IApiProblem[] problems = analyzer.analyze(component, Factory.newScope(new IApiComponent[] { component }),
+				new NullProgressMonitor());
+		List<String> result = new ArrayList<>(problems.length);
+		for (IApiProblem problem : problems) {
+			result.add(problem.toString() + " @" + problem.getLineNumber()); //$NON-NLS-1$
+		}
+		return result;
+	}
+
+	private static void analyze(IApiComponent[] components, ExecutorService executor) throws Exception {
+		for (IApiComponent component : components) {
+			if (component.isSystemComponent()) {
+				continue;
+			}
+			new ReferenceAnalyzer(executor).analyze(component, Factory.newScope(new IApiComponent[] { component }),
+					new NullProgressMonitor());
+		}
+	}
+
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.builder.tests.performance;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.pde.api.tools.internal.builder.ReferenceExtractor;
+import org.eclipse.pde.api.tools.internal.model.AbstractApiTypeRoot;
+import org.eclipse.pde.api.tools.internal.provisional.ApiPlugin;
+import org.eclipse.pde.api.tools.internal.provisional.builder.IReference;
+import org.eclipse.pde.api.tools.internal.provisional.model.ApiTypeContainerVisitor;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiBaseline;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiComponent;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiType;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiTypeRoot;
+import org.eclipse.test.performance.Dimension;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import junit.framework.Test;
+
+/**
+ * Measures the time and the memory allocated by the {@link ReferenceExtractor}
+ * for the class files of the binary platform bundles of the performance
+ * baseline. The bytes allocated per class are printed. The extraction is
+ * measured as it is done now, streaming the class files through the extractor,
+ * and with every class file additionally visited into an ASM
+ * <code>ClassNode</code>, which the extractor used to build as a side effect,
+ * so one run gives both numbers to compare.
+ */
+public class ReferenceExtractorPerfTests extends PerformanceTest {
+
+	public ReferenceExtractorPerfTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * @return the tests for this class
+	 */
+	public static Test suite() {
+		return buildTestSuite(ReferenceExtractorPerfTests.class);
+	}
+
+	@Override
+	protected String getBaselineLocation() {
+		return getTestSourcePath().append("bin-baseline.zip").toOSString(); //$NON-NLS-1$
+	}
+
+	@Override
+	protected String getWorkspaceLocation() {
+		return getTestSourcePath().append("source-ws.zip").toOSString(); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests the extraction of all references of all types of the baseline
+	 */
+	public void testExtractReferences() throws Exception {
+		tagAsSummary("Reference Extraction - Baseline Types", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+		measureExtraction("Reference extraction", ReferenceExtractorPerfTests::extract); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests the extraction of all references of all types of the baseline with
+	 * every class file also visited into a <code>ClassNode</code>, the cost of
+	 * the extraction before the class files were streamed through the extractor
+	 */
+	public void testExtractReferencesWithClassNode() throws Exception {
+		tagAsSummary("Reference Extraction - Baseline Types (ClassNode)", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+		measureExtraction("Reference extraction with ClassNode", types -> { //$NON-NLS-1$
+			for (IApiType type : types) {
+				ClassReader reader = new ClassReader(((AbstractApiTypeRoot) type.getTypeRoot()).getContents());
+				reader.accept(new ClassNode(), ClassReader.SKIP_FRAMES);
+			}
+			extract(types);
+		});
+	}
+
+	private interface Extraction {
+		void run(List<IApiType> types) throws CoreException;
+	}
+
+	private void measureExtraction(String name, Extraction extraction) throws Exception {
+		IApiBaseline baseline = ApiPlugin.getDefault().getApiBaselineManager().getDefaultApiBaseline();
+		assertNotNull("The performance baseline must exist", baseline); //$NON-NLS-1$
+		List<IApiType> types = collectTypes(baseline.getApiComponents());
+		assertFalse("The performance baseline must contain types", types.isEmpty()); //$NON-NLS-1$
+
+		// WARM-UP
+		for (int j = 0; j < 2; j++) {
+			extraction.run(types);
+		}
+
+		// TEST
+		long allocated = 0;
+		for (int j = 0; j < 10; j++) {
+			long before = getAllocatedBytes();
+			startMeasuring();
+			extraction.run(types);
+			stopMeasuring();
+			allocated += getAllocatedBytes() - before;
+		}
+		System.out.println(name + " allocated " + (allocated / 10 / types.size()) //$NON-NLS-1$
+				+ " bytes per class for " + types.size() + " classes"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static List<IApiType> collectTypes(IApiComponent[] components) throws CoreException {
+		List<IApiType> types = new ArrayList<>();
+		for (IApiComponent component : components) {
+			if (component.isSystemComponent()) {
+				continue;
+			}
+			component.accept(new ApiTypeContainerVisitor() {
+				@Override
+				public void visit(String packageName, IApiTypeRoot typeroot) {
+					try {
+						IApiType type = typeroot.getStructure();
+						if (type != null) {
+							types.add(type);
+						}
+					} catch (CoreException e) {
+						ApiPlugin.log(e);
+					}
+				}
+			});
+		}
+		return types;
+	}
+
+	private static void extract(List<IApiType> types) throws CoreException {
+		for (IApiType type : types) {
+			type.extractReferences(IReference.MASK_REF_ALL, null);
+		}
+	}
+
+	/**
+	 * @return the number of bytes allocated by the current thread so far
+	 */
+	private static long getAllocatedBytes() throws Exception {
+		Object bytes = ManagementFactory.getPlatformMBeanServer().invoke(
+				new ObjectName(ManagementFactory.THREAD_MXBEAN_NAME), "getThreadAllocatedBytes", //$NON-NLS-1$
+				new Object[] { Long.valueOf(Thread.currentThread().getId()) }, new String[] { long.class.getName() });
+		return ((Long) bytes).longValue();
+	}
+
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.pde.api.tools.internal.model.ApiBaseline;
+import org.eclipse.pde.api.tools.internal.model.ApiBaselineSnapshot;
+import org.eclipse.pde.api.tools.internal.model.ApiModelFactory;
+import org.eclipse.pde.api.tools.internal.provisional.Factory;
+import org.eclipse.pde.api.tools.internal.provisional.IApiAnnotations;
+import org.eclipse.pde.api.tools.internal.provisional.VisibilityModifiers;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiBaseline;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiComponent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that a baseline restored from a binary snapshot is equivalent to the
+ * baseline the snapshot was written for
+ */
+public class ApiBaselineSnapshotTests {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	IApiBaseline fBaseline;
+	ApiBaseline fRestored;
+
+	@Before
+	public void setUp() throws Exception {
+		fBaseline = TestSuiteHelper.createTestingBaseline(ApiBaselineTests.TEST_PLUGINS);
+		assertNotNull("the testing baseline should exist", fBaseline); //$NON-NLS-1$
+	}
+
+	@After
+	public void tearDown() {
+		fBaseline.dispose();
+		if (fRestored != null) {
+			fRestored.dispose();
+		}
+	}
+
+	@Test
+	public void testRestoreComponents() throws Exception {
+		ApiBaselineSnapshot snapshot = writeAndOpen(42);
+		assertEquals(42, snapshot.getProfileChecksum());
+		fRestored = restore(snapshot);
+		assertFalse("No bundle has changed", snapshot.isStale()); //$NON-NLS-1$
+		assertEquals(getComponentIds(fBaseline), getComponentIds(fRestored));
+		IApiComponent component = fRestored.getApiComponent(ApiBaselineTests.COMPONENT_B);
+		assertNotNull("Missing component.b", component); //$NON-NLS-1$
+		assertEquals(ApiBaselineTests._1_0_0, component.getVersion());
+		assertEquals(1, component.getExecutionEnvironments().length);
+		assertEquals("J2SE-1.4", component.getExecutionEnvironments()[0]); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testRestoreApiDescription() throws Exception {
+		fRestored = restore(writeAndOpen(0));
+		IApiComponent component = fRestored.getApiComponent(ApiBaselineTests.COMPONENT_A);
+		assertNotNull("Missing component.a", component); //$NON-NLS-1$
+		IApiAnnotations api = component.getApiDescription()
+				.resolveAnnotations(Factory.typeDescriptor("component.a.A")); //$NON-NLS-1$
+		assertNotNull("Missing API description", api); //$NON-NLS-1$
+		assertTrue("Should be API", VisibilityModifiers.isAPI(api.getVisibility())); //$NON-NLS-1$
+		IApiAnnotations internal = component.getApiDescription()
+				.resolveAnnotations(Factory.typeDescriptor("component.a.internal.InternalClass")); //$NON-NLS-1$
+		assertNotNull("Missing API description", internal); //$NON-NLS-1$
+		assertTrue("Should be private", VisibilityModifiers.isPrivate(internal.getVisibility())); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testRestoreAfterSnapshotReplaced() throws Exception {
+		fRestored = restore(writeAndOpen(0));
+		// the data of the components is read lazily, a rewritten snapshot
+		// has other offsets so the components read their bundles instead
+		Files.delete(folder.getRoot().toPath().resolve("test.snapshot")); //$NON-NLS-1$
+		writeAndOpen(1);
+		IApiComponent component = fRestored.getApiComponent(ApiBaselineTests.COMPONENT_A);
+		assertNotNull("Missing component.a", component); //$NON-NLS-1$
+		IApiAnnotations api = component.getApiDescription()
+				.resolveAnnotations(Factory.typeDescriptor("component.a.A")); //$NON-NLS-1$
+		assertNotNull("Missing API description", api); //$NON-NLS-1$
+		assertTrue("Should be API", VisibilityModifiers.isAPI(api.getVisibility())); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testInvalidSnapshot() throws Exception {
+		Path file = folder.newFile("invalid.snapshot").toPath(); //$NON-NLS-1$
+		Files.writeString(file, "<apiprofile/>"); //$NON-NLS-1$
+		assertThrows(IOException.class, () -> ApiBaselineSnapshot.open(file));
+	}
+
+	private ApiBaselineSnapshot writeAndOpen(long checksum) throws Exception {
+		Path file = folder.getRoot().toPath().resolve("test.snapshot"); //$NON-NLS-1$
+		ApiBaselineSnapshot.write(fBaseline, checksum, file);
+		return ApiBaselineSnapshot.open(file);
+	}
+
+	private static ApiBaseline restore(ApiBaselineSnapshot snapshot) throws CoreException {
+		ApiBaseline baseline = (ApiBaseline) ApiModelFactory.newApiBaseline("restored", //$NON-NLS-1$
+				TestSuiteHelper.getEEDescription(), null);
+		baseline.restoreFrom(snapshot);
+		return baseline;
+	}
+
+	private static List<String> getComponentIds(IApiBaseline baseline) {
+		return Arrays.stream(baseline.getApiComponents()).filter(c -> !c.isSystemComponent())
+				.map(IApiComponent::getSymbolicName).sorted().toList();
+	}
+}
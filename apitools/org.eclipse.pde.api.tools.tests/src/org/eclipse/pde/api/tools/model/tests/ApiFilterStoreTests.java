@@ -19,6 +19,11 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -232,6 +237,93 @@ public class ApiFilterStoreTests extends AbstractApiTest {
 		assertFalse("src/x/y/z/C4.java should not have a filter", store.isFiltered(problem)); //$NON-NLS-1$
 	}
 
+	/**
+	 * Tests that a filter with qualified message arguments matches a problem
+	 * with the simple names of the same types and nothing else
+	 */
+	@Test
+	public void testFilterMatchesSimpleNameArguments() throws CoreException {
+		IApiComponent component = getProjectApiComponent(TESTING_PLUGIN_PROJECT_NAME);
+		assertNotNull("the testing project api component must exist", component); //$NON-NLS-1$
+		IProject project = getTestingJavaProject(TESTING_PLUGIN_PROJECT_NAME).getProject();
+		IResource resource = project.findMember(IPath.fromOSString("src/x/y/z/C4.java")); //$NON-NLS-1$
+		assertNotNull("the resource src/x/y/z/C4.java must exist", resource); //$NON-NLS-1$
+		String path = resource.getProjectRelativePath().toPortableString();
+		IApiProblem problem = ApiProblemFactory.newApiProblem(path, "x.y.z.C4", //$NON-NLS-1$
+				new String[] { "x.y.z.C4", "m()" }, null, null, -1, -1, -1, IApiProblem.CATEGORY_USAGE, //$NON-NLS-1$ //$NON-NLS-2$
+				IElementDescriptor.METHOD, IApiProblem.ILLEGAL_OVERRIDE, IApiProblem.NO_FLAGS);
+		IApiFilterStore store = component.getFilterStore();
+		store.addFiltersFor(new IApiProblem[] { problem });
+		IApiProblem simple = ApiProblemFactory.newApiProblem(path, "x.y.z.C4", new String[] { "C4", "m()" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				null, null, -1, -1, -1, IApiProblem.CATEGORY_USAGE, IElementDescriptor.METHOD,
+				IApiProblem.ILLEGAL_OVERRIDE, IApiProblem.NO_FLAGS);
+		assertTrue("the problem with simple names should be filtered", store.isFiltered(simple)); //$NON-NLS-1$
+		IApiProblem other = ApiProblemFactory.newApiProblem(path, "x.y.z.C4", new String[] { "C5", "m()" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				null, null, -1, -1, -1, IApiProblem.CATEGORY_USAGE, IElementDescriptor.METHOD,
+				IApiProblem.ILLEGAL_OVERRIDE, IApiProblem.NO_FLAGS);
+		assertFalse("the problem for another type should not be filtered", store.isFiltered(other)); //$NON-NLS-1$
+		IApiProblem otherType = ApiProblemFactory.newApiProblem(path, "x.y.z.C5", new String[] { "C4", "m()" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				null, null, -1, -1, -1, IApiProblem.CATEGORY_USAGE, IElementDescriptor.METHOD,
+				IApiProblem.ILLEGAL_OVERRIDE, IApiProblem.NO_FLAGS);
+		assertFalse("the problem with another type name should not be filtered", store.isFiltered(otherType)); //$NON-NLS-1$
+		store.removeFilters(new IApiProblemFilter[] {
+				ApiProblemFactory.newProblemFilter(component.getSymbolicName(), problem, null) });
+		assertFalse("the removed filter should not match anymore", store.isFiltered(simple)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that problems are matched correctly while other threads match
+	 * problems and the filters of the store change
+	 */
+	@Test
+	public void testConcurrentIsFiltered() throws Exception {
+		IApiComponent component = getProjectApiComponent(TESTING_PLUGIN_PROJECT_NAME);
+		assertNotNull("the testing project api component must exist", component); //$NON-NLS-1$
+		IProject project = getTestingJavaProject(TESTING_PLUGIN_PROJECT_NAME).getProject();
+		IResource c4 = project.findMember(IPath.fromOSString("src/x/y/z/C4.java")); //$NON-NLS-1$
+		IResource c1 = project.findMember(IPath.fromOSString("src/x/C1.java")); //$NON-NLS-1$
+		assertNotNull("the resource src/x/y/z/C4.java must exist", c4); //$NON-NLS-1$
+		assertNotNull("the resource src/x/C1.java must exist", c1); //$NON-NLS-1$
+		IApiProblem filtered = ApiProblemFactory.newApiProblem(c4.getProjectRelativePath().toPortableString(), null,
+				null, null, null, -1, -1, -1, IApiProblem.CATEGORY_USAGE, IElementDescriptor.TYPE,
+				IApiProblem.ILLEGAL_IMPLEMENT, IApiProblem.NO_FLAGS);
+		IApiProblem unfiltered = ApiProblemFactory.newApiProblem(c4.getProjectRelativePath().toPortableString(),
+				null, null, null, null, -1, -1, -1, IApiProblem.CATEGORY_USAGE, 0, IApiProblem.MINOR_VERSION_CHANGE,
+				IDelta.ADDED);
+		IApiProblem changing = ApiProblemFactory.newApiProblem(c1.getProjectRelativePath().toPortableString(), null,
+				null, null, null, -1, -1, -1, IApiProblem.CATEGORY_USAGE, 0, RestrictionModifiers.NO_IMPLEMENT,
+				IApiProblem.NO_FLAGS);
+		IApiProblemFilter changingFilter = ApiProblemFactory.newProblemFilter(component.getSymbolicName(), changing,
+				null);
+		IApiFilterStore store = component.getFilterStore();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < 2000; j++) {
+						assertTrue("the usage problem for src/x/y/z/C4.java should be filtered", //$NON-NLS-1$
+								store.isFiltered(filtered));
+						assertFalse("the bogus problem should not be filtered", store.isFiltered(unfiltered)); //$NON-NLS-1$
+					}
+				}));
+			}
+			futures.add(executor.submit(() -> {
+				for (int j = 0; j < 50; j++) {
+					store.addFilters(new IApiProblemFilter[] { changingFilter });
+					assertTrue("the added filter should match", store.isFiltered(changing)); //$NON-NLS-1$
+					store.removeFilters(new IApiProblemFilter[] { changingFilter });
+					assertFalse("the removed filter should not match", store.isFiltered(changing)); //$NON-NLS-1$
+				}
+			}));
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	/**
 	 * Tests that a filter store will not be annotated from a bundle
 	 */
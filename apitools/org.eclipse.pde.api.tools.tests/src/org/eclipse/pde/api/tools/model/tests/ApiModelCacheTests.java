@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2018 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,12 +13,14 @@
  *******************************************************************************/
 package org.eclipse.pde.api.tools.model.tests;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import org.eclipse.pde.api.tools.internal.model.ApiModelCache;
+import org.eclipse.pde.api.tools.internal.model.ApiModelCache.Statistics;
 import org.eclipse.pde.api.tools.internal.provisional.model.IApiElement;
 import org.eclipse.pde.api.tools.internal.provisional.model.IApiType;
 import org.junit.After;
@@ -160,4 +162,26 @@ public class ApiModelCacheTests {
 		assertTrue("The type 'a.b.c.testee1' should have been removed from the cache", ApiModelCache.getCache().removeElementInfo(element)); //$NON-NLS-1$
 		assertTrue("The cache should be empty", ApiModelCache.getCache().isEmpty()); //$NON-NLS-1$
 	}
+
+	/**
+	 * Tests that lookups are counted and the size of cached types is tracked
+	 */
+	@Test
+	public void testStatistics() throws Exception {
+		Statistics before = ApiModelCache.getCache().getStatistics();
+		cacheType("a.b.c.counted"); //$NON-NLS-1$
+		cacheType("a.b.c.counted$inner"); //$NON-NLS-1$
+		assertNotNull(ApiModelCache.getCache().getElementInfo(TEST_BASELINE_ID, TEST_COMP_ID, "a.b.c.counted", IApiElement.TYPE)); //$NON-NLS-1$
+		assertNotNull(ApiModelCache.getCache().getElementInfo(TEST_BASELINE_ID, TEST_COMP_ID, "a.b.c.counted$inner", IApiElement.TYPE)); //$NON-NLS-1$
+		assertNull(ApiModelCache.getCache().getElementInfo(TEST_BASELINE_ID, TEST_COMP_ID, "a.b.c.missing", IApiElement.TYPE)); //$NON-NLS-1$
+		Statistics after = ApiModelCache.getCache().getStatistics();
+		assertEquals("Wrong number of hits", 2, after.hits() - before.hits()); //$NON-NLS-1$
+		assertEquals("Wrong number of misses", 1, after.misses() - before.misses()); //$NON-NLS-1$
+		assertTrue("Root type size must be tracked", after.typeSize() > 0); //$NON-NLS-1$
+		assertTrue("Member type size must be tracked", after.memberTypeSize() > 0); //$NON-NLS-1$
+		ApiModelCache.getCache().flushCaches();
+		Statistics flushed = ApiModelCache.getCache().getStatistics();
+		assertEquals(0, flushed.typeSize());
+		assertEquals(0, flushed.memberTypeSize());
+	}
 }
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.pde.api.tools.internal.model.AbstractApiTypeRoot;
+import org.eclipse.pde.api.tools.internal.model.ClassFileCache;
+import org.eclipse.pde.api.tools.internal.model.DirectoryApiTypeContainer;
+import org.eclipse.pde.api.tools.internal.model.ResourceApiTypeRoot;
+import org.eclipse.pde.api.tools.internal.provisional.builder.IReference;
+import org.eclipse.pde.api.tools.internal.provisional.model.ApiTypeContainerVisitor;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiType;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiTypeRoot;
+import org.junit.After;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Tests the {@link ClassFileCache} shared by the compatibility check and the
+ * API usage scan of a build
+ */
+public class ClassFileCacheTests {
+
+	private static final IPath BIN_LOC = TestSuiteHelper.getPluginDirectoryPath().append("test-bin-dir"); //$NON-NLS-1$
+
+	private static final String PROJECT_NAME = "ClassFileCacheTests"; //$NON-NLS-1$
+
+	@After
+	public void tearDown() throws CoreException {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(PROJECT_NAME);
+		if (project.exists()) {
+			project.delete(true, true, null);
+		}
+	}
+
+	/**
+	 * Tests that building the type structures and extracting the references
+	 * of all class files reads each class file once
+	 */
+	@Test
+	public void testClassFilesReadOncePerBuild() throws CoreException {
+		List<AbstractApiTypeRoot> roots = new ArrayList<>();
+		new DirectoryApiTypeContainer(null, BIN_LOC.toOSString()).accept(new ApiTypeContainerVisitor() {
+			@Override
+			public void visit(String packageName, IApiTypeRoot typeroot) {
+				roots.add((AbstractApiTypeRoot) typeroot);
+			}
+		});
+		assertTrue("there must be class files to read", roots.size() > 1); //$NON-NLS-1$
+		ClassFileCache.open();
+		try {
+			long hits = ClassFileCache.getHitCount();
+			long misses = ClassFileCache.getMissCount();
+			for (AbstractApiTypeRoot root : roots) {
+				// compatibility check
+				IApiType type = root.getStructure();
+				assertNotNull("the structure must be built for " + root.getTypeName(), type); //$NON-NLS-1$
+				// API usage scan
+				type.extractReferences(IReference.MASK_REF_ALL, null);
+			}
+			assertEquals("each class file must be read once", roots.size(), ClassFileCache.getMissCount() - misses); //$NON-NLS-1$
+			assertTrue("the references must be extracted from the cached class files", //$NON-NLS-1$
+					ClassFileCache.getHitCount() - hits >= roots.size());
+		} finally {
+			ClassFileCache.close();
+		}
+	}
+
+	/**
+	 * Tests that a changed class file in the workspace is read again
+	 */
+	@Test
+	public void testChangedResourceIsReadAgain() throws CoreException, IOException {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(PROJECT_NAME);
+		project.create(null);
+		project.open(null);
+		IFile file = project.getFile("DefA.class"); //$NON-NLS-1$
+		file.create(new ByteArrayInputStream(readClassFile("DefA.class")), true, null); //$NON-NLS-1$
+		ResourceApiTypeRoot root = new ResourceApiTypeRoot(null, file, "DefA"); //$NON-NLS-1$
+
+		ClassFileCache.open();
+		try {
+			long hits = ClassFileCache.getHitCount();
+			long misses = ClassFileCache.getMissCount();
+			ClassReader reader = ClassFileCache.getClassReader(root);
+			assertSame(reader, ClassFileCache.getClassReader(root));
+			assertEquals(1, ClassFileCache.getMissCount() - misses);
+			assertEquals(1, ClassFileCache.getHitCount() - hits);
+
+			file.setContents(new ByteArrayInputStream(readClassFile("DefB.class")), IResource.FORCE, null); //$NON-NLS-1$
+			ClassReader changed = ClassFileCache.getClassReader(root);
+			assertNotSame(reader, changed);
+			assertEquals("DefB", changed.getClassName()); //$NON-NLS-1$
+			assertEquals(2, ClassFileCache.getMissCount() - misses);
+			assertEquals(1, ClassFileCache.getHitCount() - hits);
+		} finally {
+			ClassFileCache.close();
+		}
+	}
+
+	/**
+	 * Tests that class files are not cached outside of a build
+	 */
+	@Test
+	public void testNotCachedWhenClosed() throws CoreException {
+		AbstractApiTypeRoot root = (AbstractApiTypeRoot) new DirectoryApiTypeContainer(null, BIN_LOC.toOSString())
+				.findTypeRoot("DefA"); //$NON-NLS-1$
+		assertNotNull(root);
+		assertNotSame(ClassFileCache.getClassReader(root), ClassFileCache.getClassReader(root));
+	}
+
+	private static byte[] readClassFile(String name) throws IOException {
+		return Files.readAllBytes(new File(BIN_LOC.toFile(), name).toPath());
+	}
+}
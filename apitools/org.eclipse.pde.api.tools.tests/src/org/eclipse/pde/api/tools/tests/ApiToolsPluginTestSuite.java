@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2018 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,10 +15,12 @@
 package org.eclipse.pde.api.tools.tests;
 
 import org.eclipse.pde.api.tools.anttasks.tests.ApiToolsAntTasksTestSuite;
+import org.eclipse.pde.api.tools.applications.ApiAnalysisApplicationTest;
 import org.eclipse.pde.api.tools.applications.BundleJarFilesTest;
 import org.eclipse.pde.api.tools.builder.tests.ApiBuilderTest;
 import org.eclipse.pde.api.tools.builder.tests.ApiTestingEnvironment;
 import org.eclipse.pde.api.tools.model.tests.ApiFilterStoreTests;
+import org.eclipse.pde.api.tools.model.tests.ClassFileCacheTests;
 import org.eclipse.pde.api.tools.model.tests.FilterStoreTests;
 import org.eclipse.pde.api.tools.problems.tests.ApiProblemTests;
 import org.eclipse.pde.api.tools.util.tests.ApiBaselineManagerTests;
@@ -41,7 +43,7 @@ import org.junit.runners.Suite;
 		ProjectCreationTests.class, ApiDescriptionProcessorTests.class, PreferencesTests.class,
 		ApiBaselineManagerTests.class, ApiFilterStoreTests.class, FilterStoreTests.class, ApiProblemTests.class,
 		TargetAsBaselineTests.class, ApiBuilderTest.class, ApiToolsAntTasksTestSuite.class,
-		BundleJarFilesTest.class
+		BundleJarFilesTest.class, ApiAnalysisApplicationTest.class, ClassFileCacheTests.class
 })
 public class ApiToolsPluginTestSuite {
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2018 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,7 @@ package org.eclipse.pde.api.tools.tests;
 
 import org.eclipse.pde.api.tools.builder.tests.OSGiLessAnalysisTests;
 import org.eclipse.pde.api.tools.comparator.tests.AllDeltaTests;
+import org.eclipse.pde.api.tools.model.tests.ApiBaselineSnapshotTests;
 import org.eclipse.pde.api.tools.model.tests.ApiBaselineTests;
 import org.eclipse.pde.api.tools.model.tests.ApiDescriptionTests;
 import org.eclipse.pde.api.tools.model.tests.ApiModelCacheTests;
@@ -59,7 +60,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 		ApiDescriptionTests.class, SearchEngineTests.class, SkippedComponentTests.class, UseSearchTests.class,
 		HeadlessApiBaselineManagerTests.class, TagScannerTests.class, ComponentManifestTests.class, UtilTests.class,
-		SignaturesTests.class, ApiBaselineTests.class, ApiTypeContainerTests.class, ClassFileScannerTests.class,
+		SignaturesTests.class, ApiBaselineTests.class, ApiBaselineSnapshotTests.class, ApiTypeContainerTests.class, ClassFileScannerTests.class,
 		Java8ClassfileScannerTests.class, ElementDescriptorTests.class, SearchScopeTests.class, ApiProblemTests.class,
 		ApiProblemFactoryTests.class, ApiFilterTests.class, TarEntryTests.class, TarExceptionTests.class,
 		OSGiLessAnalysisTests.class, ApiModelCacheTests.class, BadClassfileTests.class,
@@ -13,12 +13,19 @@
  *******************************************************************************/
 package org.eclipse.pde.api.tools.internal;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -39,6 +46,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobManager;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
@@ -48,6 +56,7 @@ import org.eclipse.pde.api.tools.internal.model.BundleComponent;
 import org.eclipse.pde.api.tools.internal.provisional.ApiPlugin;
 import org.eclipse.pde.api.tools.internal.provisional.model.IApiBaseline;
 import org.eclipse.pde.api.tools.internal.provisional.model.IApiComponent;
+import org.eclipse.pde.api.tools.internal.util.Util;
 import org.eclipse.pde.core.target.ITargetDefinition;
 import org.eclipse.pde.core.target.ITargetLocation;
 import org.eclipse.pde.core.target.ITargetPlatformService;
@@ -57,7 +66,23 @@ import org.eclipse.pde.internal.core.ICoreConstants;
 import org.eclipse.pde.internal.core.PDECore;
 import org.eclipse.pde.internal.core.target.TargetPlatformService;
 import org.osgi.framework.Bundle;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
+/**
+ * Headless application that runs the API analysis on one or more projects.
+ * <p>
+ * The projects are either given with the <code>-project</code> argument, which
+ * can be repeated or followed by several project directories, or, with the
+ * <code>-server</code> argument, read from the standard input one project
+ * directory per line until an empty line, <code>exit</code> or the end of the
+ * input. The API baseline and the target platform are only loaded once and
+ * reused for all projects. With <code>-report &lt;directory&gt;</code> an XML
+ * report named after the project is written for every project, reports of
+ * further projects with the same name get a numbered suffix. In server mode a
+ * <code>[RESULT]</code> line is printed after each project.
+ * </p>
+ */
 public class ApiAnalysisApplication implements IApplication {
 
 	private static class Request {
@@ -66,6 +91,8 @@ public class ApiAnalysisApplication implements IApplication {
 		private static final String BASELINE_ARG = "baseline"; //$NON-NLS-1$
 		private static final String BASELINE_DEFAULT_VALUE = "default"; //$NON-NLS-1$
 		private static final String DEPENDENCY_LIST_ARG = "dependencyList"; //$NON-NLS-1$
+		private static final String SERVER_ARG = "server"; //$NON-NLS-1$
+		private static final String REPORT_ARG = "report"; //$NON-NLS-1$
 
 		private Request() {
 		}
@@ -79,14 +106,19 @@ public class ApiAnalysisApplication implements IApplication {
 						res.failOnError = true;
 					}
 					currentKey = param.substring(1);
+					if (SERVER_ARG.equals(currentKey)) {
+						res.server = true;
+					}
 				} else if (PROJECT_ARG.equals(currentKey)) {
-					res.project = new File(param);
+					res.projects.add(new File(param));
 				} else if (BASELINE_ARG.equals(currentKey) && !BASELINE_DEFAULT_VALUE.equals(param)) {
 					res.baselinePath = new File(param);
 				} else if (FAIL_ON_ERROR_ARG.equals(currentKey)) {
 					res.failOnError = Boolean.parseBoolean(param);
 				} else if (DEPENDENCY_LIST_ARG.equals(currentKey)) {
 					res.tpFile = new File(param);
+				} else if (REPORT_ARG.equals(currentKey)) {
+					res.reportDirectory = new File(param);
 				}
 			}
 			if (FAIL_ON_ERROR_ARG.equals(currentKey)) {
@@ -95,17 +127,33 @@ public class ApiAnalysisApplication implements IApplication {
 			return res;
 		}
 
-		public File project;
+		public final List<File> projects = new ArrayList<>();
 		public File baselinePath;
 		public boolean failOnError;
 		public File tpFile;
+		public boolean server;
+		public File reportDirectory;
 	}
 
+	/**
+	 * Exit code if a project has blocking (non API) errors
+	 */
+	private static final int FATAL_ERRORS = 10;
+
+	private static final String SERVER_EXIT = "exit"; //$NON-NLS-1$
+
 	private ICoreRunnable restoreOriginalProjectState = null;
 
+	/**
+	 * The file names of the reports written by this run, in lower case as
+	 * the file system may not be case sensitive
+	 */
+	private final Set<String> reportFileNames = new HashSet<>();
+
 	@Override
 	public Object start(IApplicationContext context) throws Exception {
 		restoreOriginalProjectState = null;
+		reportFileNames.clear();
 		try {
 			IWorkspaceDescription desc = ResourcesPlugin.getWorkspace().getDescription();
 			desc.setAutoBuilding(false);
@@ -115,11 +163,12 @@ public class ApiAnalysisApplication implements IApplication {
 
 			Request args = Request
 					.readFromArgs((String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS));
-			IProject project = importProject(args.project);
-			if (project == null) {
+			if (args.projects.isEmpty() && !args.server) {
 				System.err.println("Project not loaded."); //$NON-NLS-1$
 				return IStatus.ERROR;
 			}
+			// the baseline and the target platform are loaded once and reused
+			// for all analyzed projects
 			IApiBaseline baseline = setBaseline(args.baselinePath);
 			if (baseline == null) {
 				System.err.println("Baseline shouldn't be null."); //$NON-NLS-1$
@@ -127,67 +176,220 @@ public class ApiAnalysisApplication implements IApplication {
 			}
 			setTargetPlatform(args.tpFile);
 
-			project.build(IncrementalProjectBuilder.FULL_BUILD, new NullProgressMonitor());
-			// wait untill all jobs has finished that might be sceduled as part of the
-			// build...
-			while (!Job.getJobManager().isIdle()) {
-				Thread.yield();
+			int result = IStatus.OK;
+			for (File project : args.projects) {
+				result = Math.max(result, analyze(project, args));
 			}
-			IMarker[] allProblemMarkers = project.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE);
-			Predicate<IMarker> isAPIMarker = marker -> {
-				try {
-					return marker.getType().startsWith(ApiPlugin.PLUGIN_ID);
-				} catch (CoreException e) {
-					ApiPlugin.log(e);
-					return false;
-				}
-			};
-			IMarker[] allAPIProbleMarkers = Arrays.stream(allProblemMarkers) //
-					.filter(isAPIMarker) //
-					.toArray(IMarker[]::new);
-			IMarker[] allNonAPIErrors = Arrays.stream(allProblemMarkers) //
-					.filter(isAPIMarker.negate()) //
-					.filter(marker -> marker.getAttribute(IMarker.SEVERITY, -1) == IMarker.SEVERITY_ERROR) //
-					.toArray(IMarker[]::new);
-			if (allNonAPIErrors.length > 0) {
-				System.err.println("Some blocking (most likely link/compilation) errors are present:"); //$NON-NLS-1$
-				for (IMarker marker : allNonAPIErrors) {
-					printMarker(marker, "FATAL"); //$NON-NLS-1$
+			if (args.server) {
+				BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+				String line;
+				while ((line = in.readLine()) != null) {
+					line = line.trim();
+					if (line.isEmpty() || SERVER_EXIT.equals(line)) {
+						break;
+					}
+					result = Math.max(result, analyze(new File(line), args));
 				}
-				System.err.println("Some blocking (most likely link/compilation) errors are present ^^^"); //$NON-NLS-1$
-				return 10;
-			}
-			// errors
-			IMarker[] errorMarkers = Arrays.stream(allAPIProbleMarkers)
-					.filter(marker -> marker.getAttribute(IMarker.SEVERITY, -1) == IMarker.SEVERITY_ERROR)
-					.toArray(IMarker[]::new);
-			System.err.println(errorMarkers.length + " API ERRORS"); //$NON-NLS-1$
-			for (IMarker marker : errorMarkers) {
-				printMarker(marker, "API ERROR"); //$NON-NLS-1$
-			}
-			// warnings
-			IMarker[] warningMarkers = Arrays.stream(allAPIProbleMarkers)
-					.filter(marker -> marker.getAttribute(IMarker.SEVERITY, -1) == IMarker.SEVERITY_WARNING)
-					.toArray(IMarker[]::new);
-			System.out.println(warningMarkers.length + " API warnings"); //$NON-NLS-1$
-			for (IMarker marker : warningMarkers) {
-				printMarker(marker, "API WARNING"); //$NON-NLS-1$
-			}
-			// fail
-			if (args.failOnError && errorMarkers.length > 0) {
-				return IStatus.ERROR;
 			}
-			return IStatus.OK;
+			return result;
 		} catch (CoreException e) {
 			System.err.println(e.getStatus());
 			return IStatus.ERROR;
 		} catch (Exception e) {
 			e.printStackTrace();
 			return IStatus.ERROR;
+		}
+	}
+
+	/**
+	 * Imports and builds the given project and reports its API problems
+	 *
+	 * @return the exit code for the project
+	 */
+	private int analyze(File projectPath, Request args) {
+		ProjectReport report = new ProjectReport(projectPath);
+		try {
+			report.status = analyze(projectPath, args, report);
+		} catch (CoreException e) {
+			System.err.println(e.getStatus());
+			report.status = IStatus.ERROR;
+		} catch (Exception e) {
+			e.printStackTrace();
+			report.status = IStatus.ERROR;
 		} finally {
 			if (restoreOriginalProjectState != null) {
-				restoreOriginalProjectState.run(new NullProgressMonitor());
+				try {
+					restoreOriginalProjectState.run(new NullProgressMonitor());
+				} catch (CoreException e) {
+					ApiPlugin.log(e);
+				}
+				restoreOriginalProjectState = null;
+			}
+		}
+		if (args.reportDirectory != null) {
+			try {
+				report.write(args.reportDirectory.toPath().resolve(getReportFileName(report.name)));
+			} catch (CoreException | IOException e) {
+				System.err.println("Writing the report for " + projectPath + " failed: " + e); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		if (args.server) {
+			System.out.println(report.getSummary());
+			System.out.flush();
+		}
+		return report.status;
+	}
+
+	/**
+	 * Returns a report file name for the project with the given name that is
+	 * not used by another report of this run
+	 */
+	private String getReportFileName(String projectName) {
+		String fileName = projectName + ".xml"; //$NON-NLS-1$
+		for (int i = 2; !reportFileNames.add(fileName.toLowerCase(Locale.ROOT)); i++) {
+			fileName = projectName + '_' + i + ".xml"; //$NON-NLS-1$
+		}
+		return fileName;
+	}
+
+	private int analyze(File projectPath, Request args, ProjectReport report) throws Exception {
+		IProject project = importProject(projectPath);
+		if (project == null) {
+			System.err.println("Project not loaded."); //$NON-NLS-1$
+			return IStatus.ERROR;
+		}
+		report.name = project.getName();
+
+		project.build(IncrementalProjectBuilder.FULL_BUILD, new NullProgressMonitor());
+		// wait until all jobs have finished that might be scheduled as part of
+		// the build...
+		waitForJobs();
+		IMarker[] allProblemMarkers = project.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE);
+		Predicate<IMarker> isAPIMarker = marker -> {
+			try {
+				return marker.getType().startsWith(ApiPlugin.PLUGIN_ID);
+			} catch (CoreException e) {
+				ApiPlugin.log(e);
+				return false;
+			}
+		};
+		IMarker[] allAPIProbleMarkers = Arrays.stream(allProblemMarkers) //
+				.filter(isAPIMarker) //
+				.toArray(IMarker[]::new);
+		IMarker[] allNonAPIErrors = Arrays.stream(allProblemMarkers) //
+				.filter(isAPIMarker.negate()) //
+				.filter(marker -> marker.getAttribute(IMarker.SEVERITY, -1) == IMarker.SEVERITY_ERROR) //
+				.toArray(IMarker[]::new);
+		if (allNonAPIErrors.length > 0) {
+			System.err.println("Some blocking (most likely link/compilation) errors are present:"); //$NON-NLS-1$
+			for (IMarker marker : allNonAPIErrors) {
+				printMarker(marker, "FATAL"); //$NON-NLS-1$
+				report.add(marker, "fatal"); //$NON-NLS-1$
+			}
+			System.err.println("Some blocking (most likely link/compilation) errors are present ^^^"); //$NON-NLS-1$
+			return FATAL_ERRORS;
+		}
+		// errors
+		IMarker[] errorMarkers = Arrays.stream(allAPIProbleMarkers)
+				.filter(marker -> marker.getAttribute(IMarker.SEVERITY, -1) == IMarker.SEVERITY_ERROR)
+				.toArray(IMarker[]::new);
+		System.err.println(errorMarkers.length + " API ERRORS"); //$NON-NLS-1$
+		for (IMarker marker : errorMarkers) {
+			printMarker(marker, "API ERROR"); //$NON-NLS-1$
+			report.add(marker, "error"); //$NON-NLS-1$
+		}
+		// warnings
+		IMarker[] warningMarkers = Arrays.stream(allAPIProbleMarkers)
+				.filter(marker -> marker.getAttribute(IMarker.SEVERITY, -1) == IMarker.SEVERITY_WARNING)
+				.toArray(IMarker[]::new);
+		System.out.println(warningMarkers.length + " API warnings"); //$NON-NLS-1$
+		for (IMarker marker : warningMarkers) {
+			printMarker(marker, "API WARNING"); //$NON-NLS-1$
+			report.add(marker, "warning"); //$NON-NLS-1$
+		}
+		// fail
+		if (args.failOnError && errorMarkers.length > 0) {
+			return IStatus.ERROR;
+		}
+		return IStatus.OK;
+	}
+
+	/**
+	 * Waits until no job is running or waiting anymore, jobs scheduled while
+	 * waiting are joined as well
+	 */
+	private static void waitForJobs() throws InterruptedException {
+		IJobManager jobManager = Job.getJobManager();
+		while (!jobManager.isIdle()) {
+			for (Job job : jobManager.find(null)) {
+				int state = job.getState();
+				if (state == Job.RUNNING || state == Job.WAITING) {
+					job.join();
+				}
+			}
+		}
+	}
+
+	/**
+	 * The machine readable result of the analysis of one project
+	 */
+	private static class ProjectReport {
+
+		private final File fLocation;
+		String name;
+		int status;
+		private int fErrors;
+		private int fWarnings;
+		private final List<String[]> fProblems = new ArrayList<>();
+
+		ProjectReport(File location) {
+			fLocation = location;
+			name = location.getName();
+		}
+
+		void add(IMarker marker, String severity) {
+			if ("error".equals(severity)) { //$NON-NLS-1$
+				fErrors++;
+			} else if ("warning".equals(severity)) { //$NON-NLS-1$
+				fWarnings++;
+			}
+			String type;
+			try {
+				type = marker.getType();
+			} catch (CoreException e) {
+				type = IMarker.PROBLEM;
+			}
+			fProblems.add(new String[] { severity, type, marker.getResource().getName(), getFullPath(marker),
+					Integer.toString(marker.getAttribute(IMarker.LINE_NUMBER, -1)),
+					marker.getAttribute(IMarker.MESSAGE, "").trim() }); //$NON-NLS-1$
+		}
+
+		String getSummary() {
+			return String.format("[RESULT] project=%s status=%d errors=%d warnings=%d location=%s", name, status, //$NON-NLS-1$
+					fErrors, fWarnings, fLocation.getAbsolutePath());
+		}
+
+		void write(Path file) throws CoreException, IOException {
+			Document document = Util.newDocument();
+			Element root = document.createElement("apiAnalysis"); //$NON-NLS-1$
+			root.setAttribute("project", name); //$NON-NLS-1$
+			root.setAttribute("location", fLocation.getAbsolutePath()); //$NON-NLS-1$
+			root.setAttribute("status", Integer.toString(status)); //$NON-NLS-1$
+			root.setAttribute("errors", Integer.toString(fErrors)); //$NON-NLS-1$
+			root.setAttribute("warnings", Integer.toString(fWarnings)); //$NON-NLS-1$
+			document.appendChild(root);
+			for (String[] problem : fProblems) {
+				Element element = document.createElement("problem"); //$NON-NLS-1$
+				element.setAttribute("severity", problem[0]); //$NON-NLS-1$
+				element.setAttribute("type", problem[1]); //$NON-NLS-1$
+				element.setAttribute("file", problem[2]); //$NON-NLS-1$
+				element.setAttribute("path", problem[3]); //$NON-NLS-1$
+				element.setAttribute("line", problem[4]); //$NON-NLS-1$
+				element.setAttribute("message", problem[5]); //$NON-NLS-1$
+				root.appendChild(element);
 			}
+			Files.createDirectories(file.getParent());
+			Util.writeDocumentToFile(document, file);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2021 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -30,6 +30,7 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.FactoryConfigurationError;
@@ -56,6 +57,7 @@ import org.eclipse.pde.api.tools.internal.builder.ApiAnalysisBuilder;
 import org.eclipse.pde.api.tools.internal.builder.ApiAnalysisBuilder.ApiAnalysisJob;
 import org.eclipse.pde.api.tools.internal.builder.ApiAnalysisBuilder.ApiAnalysisJobRule;
 import org.eclipse.pde.api.tools.internal.model.ApiBaseline;
+import org.eclipse.pde.api.tools.internal.model.ApiBaselineSnapshot;
 import org.eclipse.pde.api.tools.internal.model.ApiModelCache;
 import org.eclipse.pde.api.tools.internal.model.ApiModelFactory;
 import org.eclipse.pde.api.tools.internal.model.StubApiComponent;
@@ -104,6 +106,12 @@ public final class ApiBaselineManager implements IApiBaselineManager, ISaveParti
 	 */
 	private static final String BASELINE_FILE_EXTENSION = ".profile"; //$NON-NLS-1$
 
+	/**
+	 * Constant representing the file extension for a binary baseline
+	 * snapshot. Value is: <code>.snapshot</code>
+	 */
+	private static final String SNAPSHOT_FILE_EXTENSION = ".snapshot"; //$NON-NLS-1$
+
 	/**
 	 * The main cache for the manager. The form of the cache is:
 	 *
@@ -220,6 +228,11 @@ public final class ApiBaselineManager implements IApiBaselineManager, ISaveParti
 					ApiPlugin.log(e);
 				}
 			}
+			try {
+				Files.deleteIfExists(getSnapshotFile(file.toPath()));
+			} catch (IOException e) {
+				ApiPlugin.log(e);
+			}
 			fNeedsSaving = true;
 
 			// flush the model cache
@@ -244,16 +257,72 @@ public final class ApiBaselineManager implements IApiBaselineManager, ISaveParti
 		if (filename != null) {
 			File file = new File(filename);
 			if (file.exists()) {
-				try (FileInputStream inputStream = new FileInputStream(file)) {
-					baseline.restoreFrom(inputStream);
-				} catch (IOException e) {
-					ApiPlugin.log(e);
+				if (!restoreFromSnapshot(baseline, file.toPath())) {
+					try (FileInputStream inputStream = new FileInputStream(file)) {
+						baseline.restoreFrom(inputStream);
+					} catch (IOException e) {
+						ApiPlugin.log(e);
+					}
 				}
 				hasinfos.add(baseline.getName());
 			}
 		}
 	}
 
+	/**
+	 * Restores the given baseline from the binary snapshot next to its XML
+	 * profile if the snapshot was written for the current profile.
+	 *
+	 * @param baseline the baseline to restore
+	 * @param profile the XML profile of the baseline
+	 * @return <code>true</code> if the baseline was restored from the snapshot,
+	 *         <code>false</code> if it must be restored from the XML profile
+	 */
+	private boolean restoreFromSnapshot(ApiBaseline baseline, Path profile) {
+		Path file = getSnapshotFile(profile);
+		if (!Files.isRegularFile(file)) {
+			return false;
+		}
+		long start = System.currentTimeMillis();
+		try {
+			ApiBaselineSnapshot snapshot = ApiBaselineSnapshot.open(file);
+			if (snapshot.getProfileChecksum() != getChecksum(profile)) {
+				if (ApiPlugin.DEBUG_BASELINE_MANAGER) {
+					System.out.println("Ignoring outdated baseline snapshot: " + file); //$NON-NLS-1$
+				}
+				return false;
+			}
+			baseline.restoreFrom(snapshot);
+		} catch (IOException | CoreException e) {
+			ApiPlugin.log("Unable to restore API baseline from snapshot " + file, e); //$NON-NLS-1$
+			return false;
+		}
+		if (ApiPlugin.DEBUG_BASELINE_MANAGER) {
+			System.out.println("Time to restore a baseline snapshot : " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return true;
+	}
+
+	/**
+	 * @return the binary snapshot file that belongs to the given XML profile
+	 */
+	private static Path getSnapshotFile(Path profile) {
+		String name = profile.getFileName().toString();
+		if (name.endsWith(BASELINE_FILE_EXTENSION)) {
+			name = name.substring(0, name.length() - BASELINE_FILE_EXTENSION.length());
+		}
+		return profile.resolveSibling(name + SNAPSHOT_FILE_EXTENSION);
+	}
+
+	/**
+	 * @return the checksum of the contents of the given file
+	 */
+	private static long getChecksum(Path file) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(Files.readAllBytes(file));
+		return crc.getValue();
+	}
+
 	public boolean isBaselineLoaded(IApiBaseline baseline) {
 		return hasinfos.contains(baseline.getName());
 	}
@@ -341,6 +410,7 @@ public final class ApiBaselineManager implements IApiBaselineManager, ISaveParti
 				}
 				Path file = dir.resolve(id + BASELINE_FILE_EXTENSION);
 				writeBaselineDescription(baseline, file);
+				writeBaselineSnapshot(baseline, file);
 				// need to save the api baseline state in order to be able
 				// to reload it later
 				handlecache.put(baseline.getName(), file.toAbsolutePath().toString());
@@ -360,6 +430,36 @@ public final class ApiBaselineManager implements IApiBaselineManager, ISaveParti
 		}
 	}
 
+	/**
+	 * Writes the binary snapshot of the {@link IApiBaseline} next to its XML
+	 * profile, unless an up-to-date snapshot already exists. Failures are
+	 * logged, the XML profile is always sufficient to restore the baseline.
+	 */
+	private void writeBaselineSnapshot(IApiBaseline baseline, Path profile) {
+		Path file = getSnapshotFile(profile);
+		try {
+			long checksum = getChecksum(profile);
+			ApiBaselineSnapshot snapshot = baseline instanceof ApiBaseline apiBaseline ? apiBaseline.getSnapshot() : null;
+			if (snapshot == null && Files.isRegularFile(file)) {
+				try {
+					snapshot = ApiBaselineSnapshot.open(file);
+				} catch (IOException e) {
+					// invalid snapshot, replace it
+				}
+			}
+			if (snapshot != null && !snapshot.isStale() && snapshot.getProfileChecksum() == checksum) {
+				return;
+			}
+			long start = System.currentTimeMillis();
+			ApiBaselineSnapshot.write(baseline, checksum, file);
+			if (ApiPlugin.DEBUG_BASELINE_MANAGER) {
+				System.out.println("Time to write a baseline snapshot : " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		} catch (IOException | CoreException e) {
+			ApiPlugin.log("Unable to write API baseline snapshot " + file, e); //$NON-NLS-1$
+		}
+	}
+
 	/**
 	 * Returns an XML description of the given baseline.
 	 *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -274,7 +274,7 @@ public class ApiDescription implements IApiDescription {
 	}
 
 	@Override
-	public void accept(ApiDescriptionVisitor visitor, IProgressMonitor monitor) {
+	public synchronized void accept(ApiDescriptionVisitor visitor, IProgressMonitor monitor) {
 		visitChildren(visitor, fPackageMap, monitor);
 	}
 
@@ -296,7 +296,7 @@ public class ApiDescription implements IApiDescription {
 	}
 
 	@Override
-	public boolean accept(ApiDescriptionVisitor visitor, IElementDescriptor element, IProgressMonitor monitor) {
+	public synchronized boolean accept(ApiDescriptionVisitor visitor, IElementDescriptor element, IProgressMonitor monitor) {
 		ManifestNode node = findNode(element, false);
 		if (node != null) {
 			visitNode(visitor, node);
@@ -374,13 +374,17 @@ public class ApiDescription implements IApiDescription {
 	 * visibility and no restrictions if insert is <code>true</code> and a node
 	 * is not present. Default visibility for packages is API, and for types is
 	 * inherited.
+	 * <p>
+	 * Nodes are created while annotations are resolved, so lookups and
+	 * modifications of the node tree are synchronized on this description.
+	 * </p>
 	 *
 	 * @param element element
 	 * @param write <code>true</code> if setting a node, <code>false</code> if
 	 *            getting a node
 	 * @return manifest node or <code>null</code>
 	 */
-	protected ManifestNode findNode(IElementDescriptor element, boolean write) {
+	protected synchronized ManifestNode findNode(IElementDescriptor element, boolean write) {
 		if (ApiPlugin.DEBUG_API_DESCRIPTION) {
 			StringBuilder buffer = new StringBuilder();
 			buffer.append("Looking up manifest node for element: "); //$NON-NLS-1$
@@ -431,7 +435,7 @@ public class ApiDescription implements IApiDescription {
 	}
 
 	@Override
-	public IApiAnnotations resolveAnnotations(IElementDescriptor element) {
+	public synchronized IApiAnnotations resolveAnnotations(IElementDescriptor element) {
 		ManifestNode node = findNode(element, false);
 		if (node != null) {
 			return resolveAnnotations(node, element);
@@ -492,7 +496,7 @@ public class ApiDescription implements IApiDescription {
 	/**
 	 * Internal hook to clear the package map to remove stale data
 	 */
-	protected void clearPackages() {
+	protected synchronized void clearPackages() {
 		if (fPackageMap != null) {
 			if (ApiPlugin.DEBUG_API_DESCRIPTION) {
 				System.out.println("Clearing package map"); //$NON-NLS-1$
@@ -530,7 +534,7 @@ public class ApiDescription implements IApiDescription {
 	}
 
 	@Override
-	public IStatus setRestrictions(IElementDescriptor element, int restrictions) {
+	public synchronized IStatus setRestrictions(IElementDescriptor element, int restrictions) {
 		ManifestNode node = findNode(element, true);
 		if (node != null) {
 			if (ApiPlugin.DEBUG_API_DESCRIPTION) {
@@ -549,7 +553,7 @@ public class ApiDescription implements IApiDescription {
 	}
 
 	@Override
-	public IStatus setVisibility(IElementDescriptor element, int visibility) {
+	public synchronized IStatus setVisibility(IElementDescriptor element, int visibility) {
 		ManifestNode node = findNode(element, true);
 		if (node != null) {
 			if (ApiPlugin.DEBUG_API_DESCRIPTION) {
@@ -640,7 +644,7 @@ public class ApiDescription implements IApiDescription {
 	}
 
 	@Override
-	public IApiAccess resolveAccessLevel(IElementDescriptor element, IPackageDescriptor pelement) {
+	public synchronized IApiAccess resolveAccessLevel(IElementDescriptor element, IPackageDescriptor pelement) {
 		if (fAccessMap != null) {
 			HashMap<IElementDescriptor, IApiAccess> map = fAccessMap.get(pelement);
 			if (map != null) {
@@ -651,7 +655,7 @@ public class ApiDescription implements IApiDescription {
 	}
 
 	@Override
-	public void setAccessLevel(IElementDescriptor element, IPackageDescriptor pelement, int access) {
+	public synchronized void setAccessLevel(IElementDescriptor element, IPackageDescriptor pelement, int access) {
 		if (element != null && pelement != null && access != IApiAccess.NORMAL) {
 			if (fAccessMap == null) {
 				fAccessMap = new HashMap<>();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2017 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -78,7 +78,7 @@ public class ApiFilterStore extends FilterStore implements IResourceChangeListen
 	/**
 	 * Map used to collect unused {@link IApiProblemFilter}s
 	 */
-	private Map<IResource, Set<IApiProblemFilter>> fUnusedFilters = null;
+	private volatile Map<IResource, Set<IApiProblemFilter>> fUnusedFilters = null;
 
 	/**
 	 * The backing {@link IJavaProject}
@@ -89,6 +89,14 @@ public class ApiFilterStore extends FilterStore implements IResourceChangeListen
 	boolean fTriggeredChange = false;
 	Map<IResource, Map<String, Set<IApiProblemFilter>>> fFilterMap;
 
+	/**
+	 * The index used to match problems against the filters of
+	 * {@link #fFilterMap}, <code>null</code> if it has to be created again
+	 * because the filters changed. Matching only reads the current index and
+	 * does not need to lock the store.
+	 */
+	private volatile ProblemFilterIndex fFilterIndex;
+
 	/**
 	 * Constructor
 	 *
@@ -208,6 +216,7 @@ public class ApiFilterStore extends FilterStore implements IResourceChangeListen
 			}
 			fNeedsSaving |= pfilters.add(filter);
 		}
+		fFilterIndex = null;
 		persistApiFilters();
 	}
 
@@ -241,39 +250,47 @@ public class ApiFilterStore extends FilterStore implements IResourceChangeListen
 	}
 
 	@Override
-	public synchronized boolean isFiltered(IApiProblem problem) {
-		initializeApiFilters();
-		String resourcePath = problem.getResourcePath();
-		if (resourcePath == null) {
-			return false;
-		}
-		IResource resource = fProject.getProject().findMember(IPath.fromOSString(resourcePath));
-		if (resource == null) {
+	public boolean isFiltered(IApiProblem problem) {
+		ProblemFilterIndex.Node match = getFilterIndex().find(problem);
+		if (match == null) {
 			if (ApiPlugin.DEBUG_FILTER_STORE) {
-				System.out.println("no resource exists: [" + resourcePath + "]"); //$NON-NLS-1$ //$NON-NLS-2$
+				System.out.println("no filter defined for problem: [" + problem.toString() + "]"); //$NON-NLS-1$ //$NON-NLS-2$
 			}
 			return false;
 		}
-		IApiProblemFilter[] filters = this.getFilters(resource);
-		if (filters == null) {
+		if (!match.resource.exists()) {
 			if (ApiPlugin.DEBUG_FILTER_STORE) {
-				System.out.println("no filters defined for [" + resourcePath + "] return not filtered"); //$NON-NLS-1$ //$NON-NLS-2$
+				System.out.println("no resource exists: [" + problem.getResourcePath() + "]"); //$NON-NLS-1$ //$NON-NLS-2$
 			}
 			return false;
 		}
-		for (IApiProblemFilter filter : filters) {
-			if (problemsMatch(filter.getUnderlyingProblem(), problem)) {
-				if (ApiPlugin.DEBUG_FILTER_STORE) {
-					System.out.println("recording filter used: [" + filter.toString() + "]"); //$NON-NLS-1$ //$NON-NLS-2$
-				}
-				recordFilterUsed(resource, filter);
-				return true;
-			}
-		}
 		if (ApiPlugin.DEBUG_FILTER_STORE) {
-			System.out.println("no filter defined for problem: [" + problem.toString() + "]"); //$NON-NLS-1$ //$NON-NLS-2$
+			System.out.println("recording filter used: [" + match.filter.toString() + "]"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		recordFilterUsed(match.resource, match.filter);
+		return true;
+	}
+
+	/**
+	 * Returns the index of the current filters, creating it if the filters
+	 * changed since it was created last
+	 *
+	 * @return the index of the filters, never <code>null</code>
+	 */
+	private ProblemFilterIndex getFilterIndex() {
+		ProblemFilterIndex index = fFilterIndex;
+		if (index != null) {
+			return index;
+		}
+		synchronized (this) {
+			initializeApiFilters();
+			index = fFilterIndex;
+			if (index == null) {
+				index = ProblemFilterIndex.create(fFilterMap);
+				fFilterIndex = index;
+			}
+			return index;
 		}
-		return false;
 	}
 
 	@Override
@@ -283,10 +300,7 @@ public class ApiFilterStore extends FilterStore implements IResourceChangeListen
 		// https://bugs.eclipse.org/bugs/show_bug.cgi?id=299319
 		persistApiFilters();
 		clearFilters();
-		if (fUnusedFilters != null) {
-			fUnusedFilters.clear();
-			fUnusedFilters = null;
-		}
+		fUnusedFilters = null;
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
 	}
 
@@ -346,6 +360,7 @@ public class ApiFilterStore extends FilterStore implements IResourceChangeListen
 				success &= false;
 			}
 		}
+		fFilterIndex = null;
 		persistApiFilters();
 		return success;
 	}
@@ -522,6 +537,7 @@ public class ApiFilterStore extends FilterStore implements IResourceChangeListen
 			}
 			fNeedsSaving |= filters.add(filter);
 		}
+		fFilterIndex = null;
 	}
 
 	/**
@@ -554,30 +570,36 @@ public class ApiFilterStore extends FilterStore implements IResourceChangeListen
 	 */
 	public synchronized void recordFilterUsage() {
 		initializeApiFilters();
-		fUnusedFilters = new LinkedHashMap<>();
+		Map<IResource, Set<IApiProblemFilter>> unusedFilters = new LinkedHashMap<>();
 		Map<String, Set<IApiProblemFilter>> types = null;
 		Set<IApiProblemFilter> values = null;
 		for (Entry<IResource, Map<String, Set<IApiProblemFilter>>> filterEntry : fFilterMap.entrySet()) {
 			IResource resource = filterEntry.getKey();
 			types = filterEntry.getValue();
 			values = new LinkedHashSet<>();
-			fUnusedFilters.put(resource, values);
+			unusedFilters.put(resource, values);
 			for (Entry<String, Set<IApiProblemFilter>> entry : types.entrySet()) {
 				values.addAll(entry.getValue());
 			}
 		}
+		fUnusedFilters = unusedFilters;
 	}
 
 	/**
-	 * records that the following filter has been used
+	 * records that the following filter has been used, this is called by
+	 * concurrent {@link #isFiltered(IApiProblem)} calls and guarded by the map
+	 * of unused filters
 	 */
 	private void recordFilterUsed(IResource resource, IApiProblemFilter filter) {
-		if (fUnusedFilters != null) {
-			Set<IApiProblemFilter> unused = fUnusedFilters.get(resource);
-			if (unused != null) {
-				unused.remove(filter);
-				if (unused.isEmpty()) {
-					fUnusedFilters.remove(resource);
+		Map<IResource, Set<IApiProblemFilter>> unusedFilters = fUnusedFilters;
+		if (unusedFilters != null) {
+			synchronized (unusedFilters) {
+				Set<IApiProblemFilter> unused = unusedFilters.get(resource);
+				if (unused != null) {
+					unused.remove(filter);
+					if (unused.isEmpty()) {
+						unusedFilters.remove(resource);
+					}
 				}
 			}
 		}
@@ -595,43 +617,46 @@ public class ApiFilterStore extends FilterStore implements IResourceChangeListen
 	 *         <code>null</code>
 	 */
 	public IApiProblemFilter[] getUnusedFilters(IResource resource, String typeName, int[] categories) {
-		if (fUnusedFilters != null) {
-			Set<IApiProblemFilter> unused = new HashSet<>();
-			Set<IApiProblemFilter> set = null;
-			if (resource != null) {
-				// add any unused filters for the resource
-				set = fUnusedFilters.get(resource);
-				if (set != null) {
-					collectFilterFor(set, typeName, unused, categories);
-				}
-				if (Util.isManifest(resource.getProjectRelativePath())) {
-					// we need to add any filters that are cached for resources
-					// that no longer exist - deleted types
-					// deleted types are only ever passed in with the manifest
-					// associated with them
-					IResource res = null;
-					for (Entry<IResource, Set<IApiProblemFilter>> entry : fUnusedFilters.entrySet()) {
-						res = entry.getKey();
-						if (res == null || !res.exists() || !res.getProject().equals(resource.getProject())) {
-							continue;
-						}
-						set = fUnusedFilters.get(res);
+		Map<IResource, Set<IApiProblemFilter>> unusedFilters = fUnusedFilters;
+		if (unusedFilters != null) {
+			synchronized (unusedFilters) {
+				Set<IApiProblemFilter> unused = new HashSet<>();
+				Set<IApiProblemFilter> set = null;
+				if (resource != null) {
+					// add any unused filters for the resource
+					set = unusedFilters.get(resource);
+					if (set != null) {
 						collectFilterFor(set, typeName, unused, categories);
 					}
-				}
-			} else {
-				for (Entry<IResource, Set<IApiProblemFilter>> entry : fUnusedFilters.entrySet()) {
-					set = entry.getValue();
-					if (set != null) {
-						unused.addAll(set);
+					if (Util.isManifest(resource.getProjectRelativePath())) {
+						// we need to add any filters that are cached for resources
+						// that no longer exist - deleted types
+						// deleted types are only ever passed in with the manifest
+						// associated with them
+						IResource res = null;
+						for (Entry<IResource, Set<IApiProblemFilter>> entry : unusedFilters.entrySet()) {
+							res = entry.getKey();
+							if (res == null || !res.exists() || !res.getProject().equals(resource.getProject())) {
+								continue;
+							}
+							set = unusedFilters.get(res);
+							collectFilterFor(set, typeName, unused, categories);
+						}
+					}
+				} else {
+					for (Entry<IResource, Set<IApiProblemFilter>> entry : unusedFilters.entrySet()) {
+						set = entry.getValue();
+						if (set != null) {
+							unused.addAll(set);
+						}
 					}
 				}
+				int size = unused.size();
+				if (size == 0) {
+					return FilterStore.NO_FILTERS;
+				}
+				return unused.toArray(new IApiProblemFilter[size]);
 			}
-			int size = unused.size();
-			if (size == 0) {
-				return FilterStore.NO_FILTERS;
-			}
-			return unused.toArray(new IApiProblemFilter[size]);
 		}
 		return FilterStore.NO_FILTERS;
 	}
@@ -706,9 +731,12 @@ public class ApiFilterStore extends FilterStore implements IResourceChangeListen
 				if (ApiPlugin.DEBUG_FILTER_STORE) {
 					System.out.println("processed REMOVED delta"); //$NON-NLS-1$
 				}
-				if (fFilterMap != null) {
-					fFilterMap.clear();
-					needsbuild = fProject.getProject().isAccessible();
+				synchronized (this) {
+					if (fFilterMap != null) {
+						fFilterMap.clear();
+						fFilterIndex = null;
+						needsbuild = fProject.getProject().isAccessible();
+					}
 				}
 			} else if (leafdelta.getKind() == IResourceDelta.ADDED || (leafdelta.getFlags() & IResourceDelta.CONTENT) != 0 || (leafdelta.getFlags() & IResourceDelta.REPLACED) != 0) {
 				if (ApiPlugin.DEBUG_FILTER_STORE) {
@@ -744,5 +772,6 @@ public class ApiFilterStore extends FilterStore implements IResourceChangeListen
 			fFilterMap.clear();
 			fFilterMap = null;
 		}
+		fFilterIndex = null;
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2021 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -78,6 +78,8 @@ public class ApiPluginPreferenceInitializer extends AbstractPreferenceInitialize
 		// api component resolution
 		node.put(IApiProblemTypes.REPORT_RESOLUTION_ERRORS_API_COMPONENT, ApiPlugin.VALUE_WARNING);
 		node.putBoolean(IApiProblemTypes.AUTOMATICALLY_REMOVE_UNUSED_PROBLEM_FILTERS, false);
+		node.putBoolean(IApiCoreConstants.PARALLEL_COMPATIBILITY_CHECK, false);
+		node.putBoolean(IApiCoreConstants.PARALLEL_REFERENCE_ANALYSIS, false);
 
 		// api use scans
 		node.put(IApiProblemTypes.API_USE_SCAN_TYPE_SEVERITY, ApiPlugin.VALUE_ERROR);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2017 IBM Corporation and others.
+ * Copyright (c) 2012, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -239,7 +239,7 @@ public class FilterStore implements IApiFilterStore {
 	 * @return <code>true</code> if the arrays are equal, <code>false</code>
 	 *         otherwise
 	 */
-	private boolean argumentsEquals(String[] problemMessageArguments, String[] filterProblemMessageArguments) {
+	static boolean argumentsEquals(String[] problemMessageArguments, String[] filterProblemMessageArguments) {
 		// filter problems message arguments are always simple name
 		// problem message arguments are fully qualified name outside the IDE
 		int length = problemMessageArguments.length;
@@ -256,14 +256,13 @@ public class FilterStore implements IApiFilterStore {
 					if (filterProblemIndex == -1) {
 						return false; // simple names should match
 					}
-					if (!filterProblemMessageArgument.substring(filterProblemIndex + 1)
-							.equals(problemMessageArgument)) {
+					if (!isSimpleNameOf(problemMessageArgument, filterProblemMessageArgument, filterProblemIndex)) {
 						return false;
 					}
 				} else if (filterProblemIndex != -1) {
 					return false; // fully qualified name should match
 				} else {
-					if (!problemMessageArgument.substring(index + 1).equals(filterProblemMessageArgument)) {
+					if (!isSimpleNameOf(filterProblemMessageArgument, problemMessageArgument, index)) {
 						return false;
 					}
 				}
@@ -273,6 +272,14 @@ public class FilterStore implements IApiFilterStore {
 		return false;
 	}
 
+	/**
+	 * Returns if the given simple name is the part of the qualified name after
+	 * its last dot, without creating the substring
+	 */
+	private static boolean isSimpleNameOf(String simpleName, String qualifiedName, int lastDot) {
+		return qualifiedName.length() - lastDot - 1 == simpleName.length() && qualifiedName.startsWith(simpleName, lastDot + 1);
+	}
+
 	@Override
 	public void dispose() {
 		if (fFilterMap != null) {
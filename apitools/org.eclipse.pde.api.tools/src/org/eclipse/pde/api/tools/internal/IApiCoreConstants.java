@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2011 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -74,6 +74,18 @@ public interface IApiCoreConstants {
 	 */
 	public static final String API_USE_SCAN_LOCATION = "API_USE_SCAN_LOCATION"; //$NON-NLS-1$
 
+	/**
+	 * Preference to compare the types of an API component concurrently during
+	 * the compatibility checks
+	 */
+	public static final String PARALLEL_COMPATIBILITY_CHECK = "PARALLEL_COMPATIBILITY_CHECK"; //$NON-NLS-1$
+
+	/**
+	 * Preference to extract and resolve the references of an API component
+	 * concurrently during the API use scan
+	 */
+	public static final String PARALLEL_REFERENCE_ANALYSIS = "PARALLEL_REFERENCE_ANALYSIS"; //$NON-NLS-1$
+
 	/**
 	 * Constant representing <code>XML</code>
 	 */
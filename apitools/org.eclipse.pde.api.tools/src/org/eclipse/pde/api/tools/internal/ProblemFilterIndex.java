@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.pde.api.tools.internal.provisional.problems.IApiProblem;
+import org.eclipse.pde.api.tools.internal.provisional.problems.IApiProblemFilter;
+
+/**
+ * An immutable snapshot of the filters of an {@link ApiFilterStore} that
+ * matches a problem with hash lookups by its resource path, its id, its type
+ * name and the simple names of its message arguments. A snapshot can be used
+ * by any number of threads without locking, the store replaces it whenever its
+ * filters change.
+ *
+ * @see FilterStore#problemsMatch(IApiProblem, IApiProblem)
+ */
+final class ProblemFilterIndex {
+
+	static final ProblemFilterIndex EMPTY = new ProblemFilterIndex(Map.of(), new ResourceFilters[0]);
+
+	/**
+	 * A filter of the index together with the resource it is defined for
+	 */
+	static final class Node {
+		final IResource resource;
+		final IApiProblemFilter filter;
+		final int id;
+		final String typeName;
+		final String[] arguments;
+		final int hash;
+		Node next;
+
+		Node(IResource resource, IApiProblemFilter filter) {
+			IApiProblem problem = filter.getUnderlyingProblem();
+			this.resource = resource;
+			this.filter = filter;
+			this.id = problem.getId();
+			this.typeName = problem.getTypeName();
+			this.arguments = problem.getMessageArguments();
+			this.hash = hash(id, typeName, arguments);
+		}
+
+		boolean matches(IApiProblem problem, int problemHash) {
+			return hash == problemHash && id == problem.getId() && Objects.equals(typeName, problem.getTypeName())
+					&& FilterStore.argumentsEquals(problem.getMessageArguments(), arguments);
+		}
+	}
+
+	/**
+	 * The filters of one resource path
+	 */
+	private static final class ResourceFilters {
+		final IPath path;
+		final Node[] table;
+
+		ResourceFilters(IPath path, List<Node> nodes) {
+			this.path = path;
+			int size = Integer.highestOneBit(Math.max(1, nodes.size() * 2 - 1)) << 1;
+			this.table = new Node[size];
+			for (Node node : nodes) {
+				int slot = node.hash & (size - 1);
+				node.next = table[slot];
+				table[slot] = node;
+			}
+		}
+
+		Node find(IApiProblem problem) {
+			int problemHash = hash(problem.getId(), problem.getTypeName(), problem.getMessageArguments());
+			for (Node node = table[problemHash & (table.length - 1)]; node != null; node = node.next) {
+				if (node.matches(problem, problemHash)) {
+					return node;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * The filters by the resource path as given in the filters and by its
+	 * normalized form
+	 */
+	private final Map<String, ResourceFilters> fByPath;
+
+	private final ResourceFilters[] fAll;
+
+	private ProblemFilterIndex(Map<String, ResourceFilters> byPath, ResourceFilters[] all) {
+		fByPath = byPath;
+		fAll = all;
+	}
+
+	/**
+	 * Creates the index of the given filters
+	 *
+	 * @param filterMap the filters by resource and type name, may be
+	 *            <code>null</code>
+	 * @return the index, never <code>null</code>
+	 */
+	static ProblemFilterIndex create(Map<IResource, Map<String, Set<IApiProblemFilter>>> filterMap) {
+		if (filterMap == null || filterMap.isEmpty()) {
+			return EMPTY;
+		}
+		Map<IPath, List<Node>> nodes = new LinkedHashMap<>();
+		Map<String, IPath> paths = new HashMap<>();
+		for (Map.Entry<IResource, Map<String, Set<IApiProblemFilter>>> entry : filterMap.entrySet()) {
+			for (Set<IApiProblemFilter> filters : entry.getValue().values()) {
+				for (IApiProblemFilter filter : filters) {
+					String resourcePath = filter.getUnderlyingProblem().getResourcePath();
+					if (resourcePath == null) {
+						continue;
+					}
+					IPath path = IPath.fromOSString(resourcePath);
+					nodes.computeIfAbsent(path, p -> new ArrayList<>()).add(new Node(entry.getKey(), filter));
+					paths.put(resourcePath, path);
+					paths.put(path.removeTrailingSeparator().toString(), path);
+				}
+			}
+		}
+		Map<IPath, ResourceFilters> byIPath = new HashMap<>();
+		nodes.forEach((path, list) -> byIPath.put(path, new ResourceFilters(path, list)));
+		Map<String, ResourceFilters> byPath = new HashMap<>();
+		paths.forEach((key, path) -> byPath.put(key, byIPath.get(path)));
+		return new ProblemFilterIndex(byPath, byIPath.values().toArray(ResourceFilters[]::new));
+	}
+
+	/**
+	 * Returns the first filter that matches the given problem
+	 *
+	 * @param problem the problem to find a filter for
+	 * @return the matching filter or <code>null</code> if the problem is not
+	 *         filtered
+	 */
+	Node find(IApiProblem problem) {
+		String resourcePath = problem.getResourcePath();
+		if (resourcePath == null || fAll.length == 0) {
+			return null;
+		}
+		ResourceFilters filters = fByPath.get(resourcePath);
+		if (filters == null) {
+			if (isNormalized(resourcePath)) {
+				return null;
+			}
+			// a path in an unusual form, compare it the way the filters are
+			// matched
+			IPath path = IPath.fromOSString(resourcePath);
+			for (ResourceFilters candidate : fAll) {
+				if (candidate.path.equals(path)) {
+					filters = candidate;
+					break;
+				}
+			}
+			if (filters == null) {
+				return null;
+			}
+		}
+		return filters.find(problem);
+	}
+
+	/**
+	 * @return whether the given path has no device, no backslashes, no empty
+	 *         or relative segments and no trailing separator, such a path is
+	 *         found by its string if there is a filter for it
+	 */
+	private static boolean isNormalized(String path) {
+		int length = path.length();
+		if (length == 0 || path.charAt(length - 1) == '/') {
+			return false;
+		}
+		int segmentStart = 0;
+		for (int i = 0; i <= length; i++) {
+			char c = i < length ? path.charAt(i) : '/';
+			if (c == '\\' || c == ':') {
+				return false;
+			}
+			if (c == '/') {
+				int segmentLength = i - segmentStart;
+				if (segmentLength == 0 && i > 0) {
+					return false;
+				}
+				if (path.charAt(segmentStart) == '.' && (segmentLength == 1 || (segmentLength == 2 && path.charAt(segmentStart + 1) == '.'))) {
+					return false;
+				}
+				segmentStart = i + 1;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes a hash that is equal for all problems that may match each
+	 * other. Message arguments are hashed by their simple names as filters
+	 * match qualified and simple names of the same type.
+	 */
+	static int hash(int id, String typeName, String[] arguments) {
+		int hash = 31 * id + (typeName == null ? 0 : typeName.hashCode());
+		hash = 31 * hash + arguments.length;
+		for (String argument : arguments) {
+			hash = 31 * hash;
+			if (argument != null) {
+				for (int i = argument.lastIndexOf('.') + 1; i < argument.length(); i++) {
+					hash = 31 * hash + argument.charAt(i);
+				}
+			}
+		}
+		return hash ^ (hash >>> 16);
+	}
+}
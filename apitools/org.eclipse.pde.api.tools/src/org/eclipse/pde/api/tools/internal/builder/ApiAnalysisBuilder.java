@@ -66,6 +66,7 @@ import org.eclipse.osgi.util.NLS;
 import org.eclipse.pde.api.tools.internal.ApiBaselineManager.ApiBaselineManagerRule;
 import org.eclipse.pde.api.tools.internal.ApiDescriptionManager;
 import org.eclipse.pde.api.tools.internal.IApiCoreConstants;
+import org.eclipse.pde.api.tools.internal.model.ClassFileCache;
 import org.eclipse.pde.api.tools.internal.problems.ApiProblemFactory;
 import org.eclipse.pde.api.tools.internal.provisional.ApiPlugin;
 import org.eclipse.pde.api.tools.internal.provisional.IApiMarkerConstants;
@@ -390,6 +391,7 @@ public class ApiAnalysisBuilder extends IncrementalProjectBuilder {
 		SubMonitor localMonitor = SubMonitor.convert(monitor, BuilderMessages.api_analysis_builder, 8);
 
 		IApiBaseline baseline = ApiPlugin.getDefault().getApiBaselineManager().getDefaultApiBaseline();
+		ClassFileCache.open();
 		try {
 			SubMonitor switchMonitor = localMonitor.split(4);
 			if (fullBuild) {
@@ -469,6 +471,7 @@ public class ApiAnalysisBuilder extends IncrementalProjectBuilder {
 			}
 			ApiPlugin.log(e);
 		} finally {
+			ClassFileCache.close();
 			try {
 				localMonitor.split(1);
 				if (this.analyzer != null) {
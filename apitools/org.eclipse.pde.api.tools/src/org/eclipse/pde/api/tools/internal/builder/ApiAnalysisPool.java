@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.internal.builder;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Holds the pool the API analysis uses to process the types or packages of a
+ * component concurrently. The compatibility check and the API use scan both
+ * run on this pool, so a build never uses more analysis threads than the pool
+ * has, regardless of which parallel options are enabled.
+ */
+public final class ApiAnalysisPool {
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+	private ApiAnalysisPool() {
+	}
+
+	/**
+	 * @return the shared analysis pool
+	 */
+	public static ForkJoinPool getPool() {
+		return POOL;
+	}
+
+	/**
+	 * Waits for the given task and returns its result. {@link CoreException}s
+	 * and runtime exceptions thrown by the task are passed on to the caller.
+	 *
+	 * @param task the task to wait for
+	 * @return the result of the task
+	 * @throws CoreException if the task failed with a {@link CoreException}
+	 * @throws OperationCanceledException if the calling thread is interrupted
+	 */
+	static <T> T join(Future<T> task) throws CoreException {
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof CoreException coreException) {
+				throw coreException;
+			}
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Cancels all tasks that have not been started yet.
+	 *
+	 * @param tasks the tasks to cancel
+	 */
+	static void cancel(Collection<? extends Future<?>> tasks) {
+		for (Future<?> task : tasks) {
+			task.cancel(false);
+		}
+	}
+
+}
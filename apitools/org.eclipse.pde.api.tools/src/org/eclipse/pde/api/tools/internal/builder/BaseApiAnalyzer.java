@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2023 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,6 +31,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.jar.JarFile;
 
 import org.eclipse.core.resources.IFile;
@@ -46,6 +48,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
@@ -611,6 +614,10 @@ public class BaseApiAnalyzer implements IApiAnalyzer {
 	 * @param component API component being checked for compatibility
 	 */
 	private void checkCompatibility(String[] changedtypes, IApiComponent reference, IApiComponent component, SubMonitor localMonitor) throws CoreException {
+		if (isParallelCompatibilityCheck()) {
+			checkCompatibilityInParallel(changedtypes, reference, component, localMonitor);
+			return;
+		}
 		localMonitor.setWorkRemaining(changedtypes.length);
 		for (String changedtype : changedtypes) {
 			if (changedtype == null) {
@@ -620,6 +627,40 @@ public class BaseApiAnalyzer implements IApiAnalyzer {
 		}
 	}
 
+	/**
+	 * Checks the compatibility of each type like
+	 * {@link #checkCompatibility(String[], IApiComponent, IApiComponent, SubMonitor)}
+	 * but computes the deltas of the types concurrently. The deltas are
+	 * processed in the order of the given types, so the problems are reported
+	 * in the same order as by the sequential check.
+	 *
+	 * @param changedtypes type names, may have <code>null</code> entries
+	 * @param reference API component in the reference baseline
+	 * @param component API component being checked for compatibility
+	 */
+	private void checkCompatibilityInParallel(String[] changedtypes, IApiComponent reference, IApiComponent component, SubMonitor localMonitor) throws CoreException {
+		List<Future<TypeDelta>> deltas = new ArrayList<>(changedtypes.length);
+		for (String changedtype : changedtypes) {
+			if (changedtype == null) {
+				continue;
+			}
+			deltas.add(ApiAnalysisPool.getPool().submit(() -> {
+				if (localMonitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				return computeTypeDelta(changedtype, reference, component, null);
+			}));
+		}
+		localMonitor.setWorkRemaining(deltas.size());
+		try {
+			for (Future<TypeDelta> delta : deltas) {
+				processTypeDelta(ApiAnalysisPool.join(delta), reference, component, localMonitor.split(1));
+			}
+		} finally {
+			ApiAnalysisPool.cancel(deltas);
+		}
+	}
+
 	/**
 	 * Checks for unused API problem filters
 	 *
@@ -1102,6 +1143,27 @@ public class BaseApiAnalyzer implements IApiAnalyzer {
 		return ApiPlugin.getDefault().getSeverityLevel(IApiProblemTypes.INVALID_ANNOTATION, fJavaProject.getProject()) == ApiPlugin.SEVERITY_IGNORE;
 	}
 
+	/**
+	 * @return if the types of a component should be compared concurrently
+	 */
+	private boolean isParallelCompatibilityCheck() {
+		if (fJavaProject == null) {
+			return fPreferences != null && Boolean.parseBoolean(fPreferences.getProperty(IApiCoreConstants.PARALLEL_COMPATIBILITY_CHECK));
+		}
+		return Platform.getPreferencesService().getBoolean(ApiPlugin.PLUGIN_ID, IApiCoreConstants.PARALLEL_COMPATIBILITY_CHECK, false, null);
+	}
+
+	/**
+	 * @return if the references of a component should be extracted and
+	 *         resolved concurrently
+	 */
+	private boolean isParallelReferenceAnalysis() {
+		if (fJavaProject == null) {
+			return fPreferences != null && Boolean.parseBoolean(fPreferences.getProperty(IApiCoreConstants.PARALLEL_REFERENCE_ANALYSIS));
+		}
+		return Platform.getPreferencesService().getBoolean(ApiPlugin.PLUGIN_ID, IApiCoreConstants.PARALLEL_REFERENCE_ANALYSIS, false, null);
+	}
+
 	/**
 	 * @return if the unused problem filter check should be ignored or not
 	 */
@@ -1242,7 +1304,7 @@ public class BaseApiAnalyzer implements IApiAnalyzer {
 			scope = getSearchScope(component, null); // entire component
 		}
 		SubMonitor localMonitor = SubMonitor.convert(monitor, MessageFormat.format(BuilderMessages.checking_api_usage, component.getSymbolicName()), 2);
-		ReferenceAnalyzer analyzer = new ReferenceAnalyzer();
+		ReferenceAnalyzer analyzer = new ReferenceAnalyzer(isParallelReferenceAnalysis() ? ApiAnalysisPool.getPool() : null);
 		try {
 			long start = System.currentTimeMillis();
 			IApiProblem[] illegal = analyzer.analyze(component, scope, localMonitor.split(2));
@@ -1303,6 +1365,34 @@ public class BaseApiAnalyzer implements IApiAnalyzer {
 	 * @param typeName the type to check in each component
 	 */
 	private void checkCompatibility(final String typeName, final IApiComponent reference, final IApiComponent component, IProgressMonitor monitor) throws CoreException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, BuilderMessages.BaseApiAnalyzer_checking_compat, 4);
+		TypeDelta typeDelta = computeTypeDelta(typeName, reference, component, subMonitor.split(2));
+		processTypeDelta(typeDelta, reference, component, subMonitor.split(2));
+	}
+
+	/**
+	 * The result of the comparison of one type
+	 *
+	 * @param typeName the name of the compared type
+	 * @param delta the delta or <code>null</code> if the type could not be
+	 *            compared
+	 * @param compared whether the type was compared to the reference, i.e. the
+	 *            type was not removed
+	 */
+	private record TypeDelta(String typeName, IDelta delta, boolean compared) {
+	}
+
+	/**
+	 * Computes the delta of the given type between the two API components.
+	 * <p>
+	 * This method does not modify the state of this analyzer and can therefore
+	 * be called concurrently for different types, the delta is processed
+	 * afterwards by {@link #processTypeDelta(TypeDelta, IApiComponent, IApiComponent, IProgressMonitor)}.
+	 * </p>
+	 *
+	 * @param typeName the type to check in each component
+	 */
+	private TypeDelta computeTypeDelta(final String typeName, final IApiComponent reference, final IApiComponent component, IProgressMonitor monitor) throws CoreException {
 		String id = component.getSymbolicName();
 		if (ApiPlugin.DEBUG_API_ANALYZER) {
 			System.out.println("comparing components [" + reference.getSymbolicName() + "] and [" + id + "] for type [" + typeName + "]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
@@ -1313,7 +1403,7 @@ public class BaseApiAnalyzer implements IApiAnalyzer {
 		} catch (CoreException e) {
 			ApiPlugin.log(e);
 		}
-		SubMonitor subMonitor = SubMonitor.convert(monitor, BuilderMessages.BaseApiAnalyzer_checking_compat, 4);
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 2);
 		IDelta delta = null;
 		IApiComponent provider = null;
 		boolean reexported = false;
@@ -1358,7 +1448,7 @@ public class BaseApiAnalyzer implements IApiAnalyzer {
 				try {
 					IApiType type = referenceClassFile.getStructure();
 					if (type == null) {
-						return;
+						return new TypeDelta(typeName, null, false);
 					}
 					final IApiDescription referenceApiDescription = reference.getApiDescription();
 					IApiAnnotations elementDescription = referenceApiDescription.resolveAnnotations(type.getHandle());
@@ -1374,7 +1464,7 @@ public class BaseApiAnalyzer implements IApiAnalyzer {
 						// if the visibility is API, we only consider public
 						// and protected types
 						if (Util.isDefault(type.getModifiers()) || Flags.isPrivate(type.getModifiers())) {
-							return;
+							return new TypeDelta(typeName, null, false);
 						}
 						if (VisibilityModifiers.isAPI(visibility)) {
 							String deltaComponentID = Util.getDeltaComponentVersionsId(reference);
@@ -1388,30 +1478,43 @@ public class BaseApiAnalyzer implements IApiAnalyzer {
 				}
 			}
 			subMonitor.split(1);
-		} else {
-			fBuildState.cleanup(typeName);
-			long time = System.currentTimeMillis();
-			try {
-				IApiComponent exporter = null;
-				if (reexported) {
-					exporter = component;
-				}
-				delta = ApiComparator.compare(classFile, reference, provider, exporter, reference.getBaseline(), provider.getBaseline(), VisibilityModifiers.API, subMonitor.split(1));
-			} catch (OperationCanceledException oce) {
-				// do nothing, but don't forward it
-				// https://bugs.eclipse.org/bugs/show_bug.cgi?id=304315
-				if (ApiPlugin.DEBUG_API_ANALYZER) {
-					System.out.println("Trapped OperationCanceledException"); //$NON-NLS-1$
-				}
-			} catch (Exception e) {
-				ApiPlugin.log(e);
-			} finally {
-				if (ApiPlugin.DEBUG_API_ANALYZER) {
-					System.out.println("Time spent for " + typeName + " : " + (System.currentTimeMillis() - time) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-				}
-				fPendingDeltaInfos.clear();
+			return new TypeDelta(typeName, delta, false);
+		}
+		long time = System.currentTimeMillis();
+		try {
+			IApiComponent exporter = null;
+			if (reexported) {
+				exporter = component;
+			}
+			delta = ApiComparator.compare(classFile, reference, provider, exporter, reference.getBaseline(), provider.getBaseline(), VisibilityModifiers.API, subMonitor.split(1));
+		} catch (OperationCanceledException oce) {
+			// do nothing, but don't forward it
+			// https://bugs.eclipse.org/bugs/show_bug.cgi?id=304315
+			if (ApiPlugin.DEBUG_API_ANALYZER) {
+				System.out.println("Trapped OperationCanceledException"); //$NON-NLS-1$
 			}
+		} catch (Exception e) {
+			ApiPlugin.log(e);
+		} finally {
+			if (ApiPlugin.DEBUG_API_ANALYZER) {
+				System.out.println("Time spent for " + typeName + " : " + (System.currentTimeMillis() - time) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		}
+		return new TypeDelta(typeName, delta, true);
+	}
+
+	/**
+	 * Creates the problems for the delta computed by
+	 * {@link #computeTypeDelta(String, IApiComponent, IApiComponent, IProgressMonitor)}
+	 * and updates the build state accordingly.
+	 */
+	private void processTypeDelta(TypeDelta typeDelta, final IApiComponent reference, final IApiComponent component, IProgressMonitor monitor) {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 2);
+		if (typeDelta.compared()) {
+			fBuildState.cleanup(typeDelta.typeName());
+			fPendingDeltaInfos.clear();
 		}
+		IDelta delta = typeDelta.delta();
 		if (delta == null) {
 			return;
 		}
@@ -1446,7 +1549,8 @@ public class BaseApiAnalyzer implements IApiAnalyzer {
 			localmonitor.split(1);
 		} else {
 			try {
-				delta = ApiComparator.compare(reference, component, VisibilityModifiers.API, localmonitor.split(1));
+				ExecutorService executor = isParallelCompatibilityCheck() ? ApiAnalysisPool.getPool() : null;
+				delta = ApiComparator.compare(reference, component, VisibilityModifiers.API, executor, localmonitor.split(1));
 			} finally {
 				if (ApiPlugin.DEBUG_API_ANALYZER) {
 					System.out.println("Time spent for " + component.getSymbolicName() + " : " + (System.currentTimeMillis() - time) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
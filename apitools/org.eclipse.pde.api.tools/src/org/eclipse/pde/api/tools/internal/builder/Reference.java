@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2021 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -364,29 +364,56 @@ public class Reference implements IReference {
 			return;
 		}
 		if (fResolved == null) {
-			IApiComponent sourceComponent = getMember().getApiComponent();
-			if (sourceComponent != null) {
-				IApiTypeRoot result = Util.getClassFile(sourceComponent.getBaseline().resolvePackage(sourceComponent, Signatures.getPackageName(getReferencedTypeName())), getReferencedTypeName());
-				if (result != null) {
-					IApiType type = result.getStructure();
-					if (type == null) {
-						// cannot resolve a type that is in a bad classfile
-						return;
-					}
-					switch (getReferenceType()) {
-						case IReference.T_TYPE_REFERENCE -> {
-							fResolved = type;
-						}
-						case IReference.T_FIELD_REFERENCE -> {
-							resolveField(type, getReferencedMemberName());
-						}
-						case IReference.T_METHOD_REFERENCE -> {
-							resolveVirtualMethod(type, getReferencedMemberName(), getReferencedSignature());
-						}
-						default -> { /**/ }
-					}
-				}
+			IApiType type = findReferencedType();
+			if (type != null) {
+				resolve(type);
+			}
+		}
+	}
+
+	/**
+	 * Looks up the referenced type in the baseline of the component this
+	 * reference originates from.
+	 *
+	 * @return the referenced type or <code>null</code> if the type cannot be
+	 *         found or is in a bad class file
+	 * @throws CoreException if the lookup fails
+	 */
+	IApiType findReferencedType() throws CoreException {
+		IApiComponent sourceComponent = getMember().getApiComponent();
+		if (sourceComponent != null) {
+			IApiTypeRoot result = Util.getClassFile(sourceComponent.getBaseline().resolvePackage(sourceComponent, Signatures.getPackageName(getReferencedTypeName())), getReferencedTypeName());
+			if (result != null) {
+				// a type that is in a bad classfile has no structure
+				return result.getStructure();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Resolves this reference against the given referenced type, as returned
+	 * by {@link #findReferencedType()}. This allows references to the same
+	 * type to share a single lookup.
+	 *
+	 * @param type the referenced type
+	 * @throws CoreException if resolving fails
+	 */
+	void resolve(IApiType type) throws CoreException {
+		if (!this.fStatus || fResolved != null) {
+			return;
+		}
+		switch (getReferenceType()) {
+			case IReference.T_TYPE_REFERENCE -> {
+				fResolved = type;
+			}
+			case IReference.T_FIELD_REFERENCE -> {
+				resolveField(type, getReferencedMemberName());
+			}
+			case IReference.T_METHOD_REFERENCE -> {
+				resolveVirtualMethod(type, getReferencedMemberName(), getReferencedSignature());
 			}
+			default -> { /**/ }
 		}
 	}
 
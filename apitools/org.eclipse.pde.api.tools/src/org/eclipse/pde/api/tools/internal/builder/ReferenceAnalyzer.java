@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2015 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,11 +14,18 @@
 package org.eclipse.pde.api.tools.internal.builder;
 
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
@@ -59,78 +66,60 @@ public class ReferenceAnalyzer {
 	private static final IApiProblemDetector[] NO_PROBLEM_DETECTORS = new IApiProblemDetector[0];
 
 	/**
-	 * Visits each class file, extracting references.
+	 * The number of packages whose references are extracted ahead of the
+	 * package handed to the problem detectors, bounds the number of
+	 * references kept in memory
 	 */
-	class Visitor extends ApiTypeContainerVisitor {
+	private static final int MAX_PENDING_PACKAGES = 2 * Runtime.getRuntime().availableProcessors();
 
-		private IProgressMonitor fMonitor = null;
+	/**
+	 * Collects the class files of each package in visiting order.
+	 */
+	static class Collector extends ApiTypeContainerVisitor {
 
-		public Visitor(IProgressMonitor monitor) {
-			fMonitor = monitor;
-		}
+		final List<PackageTypes> fPackages = new ArrayList<>();
 
 		@Override
 		public boolean visitPackage(String packageName) {
-			fMonitor.subTask(MessageFormat.format(BuilderMessages.ReferenceAnalyzer_checking_api_used_by, packageName));
+			fPackages.add(new PackageTypes(packageName, new ArrayList<>()));
 			return true;
 		}
 
-		@Override
-		public void endVisitPackage(String packageName) {
-			fMonitor.worked(1);
-		}
-
 		@Override
 		public void visit(String packageName, IApiTypeRoot classFile) {
-			if (!fMonitor.isCanceled()) {
-				try {
-					IApiType type = classFile.getStructure();
-					if (type == null) {
-						// do nothing for bad class files
-						return;
-					}
-					// don't process inner/anonymous/local types, this is done
-					// in the extractor
-					if (type.isMemberType() || type.isLocal() || type.isAnonymous()) {
-						return;
-					}
-					List<IReference> references = type.extractReferences(fAllReferenceKinds, null);
-					// keep potential matches
-					for (IReference ref : references) {
-						if (fMonitor.isCanceled()) {
-							break;
-						}
-						// compute index of interested problem detectors
-						int index = getLog2(ref.getReferenceKind());
-						IApiProblemDetector[] detectors = fIndexedDetectors[index];
-						boolean added = false;
-						if (detectors != null) {
-							for (IApiProblemDetector detector : detectors) {
-								if (fMonitor.isCanceled()) {
-									break;
-								}
-								if (detector.considerReference(ref, fMonitor)) {
-									if (!added) {
-										fReferences.add(ref);
-										added = true;
-									}
-								}
-							}
-						}
-					}
-				} catch (CoreException e) {
-					fStatus.add(e.getStatus());
-					AbstractProblemDetector.checkIfDisposed(classFile.getApiComponent(), fMonitor);
-				}
+			PackageTypes current = fPackages.isEmpty() ? null : fPackages.get(fPackages.size() - 1);
+			if (current == null || !current.packageName().equals(packageName)) {
+				current = new PackageTypes(packageName, new ArrayList<>());
+				fPackages.add(current);
 			}
+			current.classFiles().add(classFile);
 		}
 	}
 
+	/**
+	 * The class files of one visited package
+	 */
+	record PackageTypes(String packageName, List<IApiTypeRoot> classFiles) {
+	}
+
+	/**
+	 * The references extracted from the class files of one package, in the
+	 * order of the class files
+	 */
+	record PackageReferences(String packageName, List<IReference> references, List<IStatus> errors) {
+	}
+
 	/**
 	 * Scan status
 	 */
 	MultiStatus fStatus;
 
+	/**
+	 * Executor to extract and resolve references concurrently or
+	 * <code>null</code> to scan sequentially
+	 */
+	private final ExecutorService fExecutor;
+
 	/**
 	 * Bit mask of reference kinds that problem detectors care about.
 	 */
@@ -148,6 +137,24 @@ public class ReferenceAnalyzer {
 	 */
 	private IApiProblemDetector[][] fIndexedDetectors;
 
+	/**
+	 * Creates an analyzer that scans sequentially
+	 */
+	public ReferenceAnalyzer() {
+		this(null);
+	}
+
+	/**
+	 * Creates an analyzer that extracts and resolves references with the given
+	 * executor
+	 *
+	 * @param executor executor to extract and resolve references concurrently
+	 *            or <code>null</code> to scan sequentially
+	 */
+	public ReferenceAnalyzer(ExecutorService executor) {
+		fExecutor = executor;
+	}
+
 	/**
 	 * Indexes the problem detectors by the reference kinds they are interested
 	 * in. For example, a detector interested in a
@@ -195,6 +202,14 @@ public class ReferenceAnalyzer {
 
 	/**
 	 * Scans the given scope extracting all reference information.
+	 * <p>
+	 * With an executor the references of the packages are extracted
+	 * concurrently but handed to the problem detectors in the order the class
+	 * files are visited, so the detectors see the same references in the same
+	 * order as when scanning the scope sequentially. Only a bounded number of
+	 * packages is extracted ahead, the references of a package are filtered as
+	 * soon as it is its turn.
+	 * </p>
 	 *
 	 * @param scope scope to scan
 	 * @param monitor progress monitor
@@ -204,19 +219,110 @@ public class ReferenceAnalyzer {
 		fStatus = new MultiStatus(ApiPlugin.PLUGIN_ID, 0, BuilderMessages.ReferenceAnalyzer_api_analysis_error, null);
 		String[] packageNames = scope.getPackageNames();
 		SubMonitor localMonitor = SubMonitor.convert(monitor, packageNames.length);
-		ApiTypeContainerVisitor visitor = new Visitor(localMonitor);
 		long start = System.currentTimeMillis();
+		Collector collector = new Collector();
 		try {
-			scope.accept(visitor);
+			scope.accept(collector);
 		} catch (CoreException e) {
 			fStatus.add(e.getStatus());
 		}
+		if (fExecutor == null) {
+			for (PackageTypes types : collector.fPackages) {
+				considerPackage(extractReferences(types, localMonitor), localMonitor);
+			}
+		} else {
+			Iterator<PackageTypes> packages = collector.fPackages.iterator();
+			Deque<Future<PackageReferences>> pending = new ArrayDeque<>(MAX_PENDING_PACKAGES);
+			try {
+				while (packages.hasNext() || !pending.isEmpty()) {
+					while (packages.hasNext() && pending.size() < MAX_PENDING_PACKAGES) {
+						PackageTypes types = packages.next();
+						pending.add(fExecutor.submit(() -> extractReferences(types, localMonitor)));
+					}
+					considerPackage(ApiAnalysisPool.join(pending.poll()), localMonitor);
+				}
+			} finally {
+				ApiAnalysisPool.cancel(pending);
+			}
+		}
 		long end = System.currentTimeMillis();
 		if (!fStatus.isOK()) {
 			throw new CoreException(fStatus);
 		}
 		if (ApiPlugin.DEBUG_REFERENCE_ANALYZER) {
-			System.out.println("Reference Analyzer: extracted " + fReferences.size() + " references in " + (end - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			System.out.println("Reference Analyzer: extracted " + fReferences.size() + " references from " + collector.fPackages.size() + " packages in " + (end - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		}
+	}
+
+	/**
+	 * Extracts the references of the given class files. Does not modify the
+	 * state of this analyzer and is called concurrently for different
+	 * packages.
+	 */
+	PackageReferences extractReferences(PackageTypes types, IProgressMonitor monitor) {
+		List<IReference> references = new ArrayList<>();
+		List<IStatus> errors = new ArrayList<>(0);
+		for (IApiTypeRoot classFile : types.classFiles()) {
+			if (monitor.isCanceled()) {
+				break;
+			}
+			try {
+				IApiType type = classFile.getStructure();
+				if (type == null) {
+					// do nothing for bad class files
+					continue;
+				}
+				// don't process inner/anonymous/local types, this is done
+				// in the extractor
+				if (type.isMemberType() || type.isLocal() || type.isAnonymous()) {
+					continue;
+				}
+				references.addAll(type.extractReferences(fAllReferenceKinds, null));
+			} catch (CoreException e) {
+				errors.add(e.getStatus());
+				AbstractProblemDetector.checkIfDisposed(classFile.getApiComponent(), monitor);
+			}
+		}
+		return new PackageReferences(types.packageName(), references, errors);
+	}
+
+	/**
+	 * Reports the errors of the given package and keeps the references the
+	 * problem detectors are interested in.
+	 */
+	private void considerPackage(PackageReferences references, IProgressMonitor monitor) {
+		monitor.subTask(MessageFormat.format(BuilderMessages.ReferenceAnalyzer_checking_api_used_by, references.packageName()));
+		references.errors().forEach(fStatus::add);
+		considerReferences(references.references(), monitor);
+		monitor.worked(1);
+	}
+
+	/**
+	 * Hands the given references to the interested problem detectors and keeps
+	 * the potential matches.
+	 */
+	private void considerReferences(List<IReference> references, IProgressMonitor monitor) {
+		for (IReference ref : references) {
+			if (monitor.isCanceled()) {
+				break;
+			}
+			// compute index of interested problem detectors
+			int index = getLog2(ref.getReferenceKind());
+			IApiProblemDetector[] detectors = fIndexedDetectors[index];
+			boolean added = false;
+			if (detectors != null) {
+				for (IApiProblemDetector detector : detectors) {
+					if (monitor.isCanceled()) {
+						break;
+					}
+					if (detector.considerReference(ref, monitor)) {
+						if (!added) {
+							fReferences.add(ref);
+							added = true;
+						}
+					}
+				}
+			}
 		}
 	}
 
@@ -244,7 +350,7 @@ public class ReferenceAnalyzer {
 			// 2. resolve problematic references
 			localMonitor.subTask(BuilderMessages.ReferenceAnalyzer_analyzing_api_checking_use);
 			if (fReferences.size() != 0) {
-				ReferenceResolver.resolveReferences(fReferences);
+				ReferenceResolver.resolveReferences(fReferences, fExecutor);
 			}
 			// 3. create problems
 			List<IApiProblem> allProblems = new LinkedList<>();
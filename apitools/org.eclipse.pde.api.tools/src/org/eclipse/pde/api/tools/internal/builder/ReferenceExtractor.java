@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2020 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.pde.api.tools.internal.builder;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -27,6 +28,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.pde.api.tools.internal.model.AbstractApiTypeRoot;
+import org.eclipse.pde.api.tools.internal.model.ClassFileCache;
 import org.eclipse.pde.api.tools.internal.provisional.ApiPlugin;
 import org.eclipse.pde.api.tools.internal.provisional.builder.IReference;
 import org.eclipse.pde.api.tools.internal.provisional.model.IApiBaseline;
@@ -50,10 +52,12 @@ import org.objectweb.asm.Type;
 import org.objectweb.asm.TypePath;
 import org.objectweb.asm.signature.SignatureReader;
 import org.objectweb.asm.signature.SignatureVisitor;
-import org.objectweb.asm.tree.ClassNode;
 
 /**
- * Extracts references from a class file
+ * Extracts references from a class file. The class file is streamed through
+ * the visitor without building a tree of it, type and member names are shared
+ * through the {@link SymbolTable} and references are only created if they are
+ * collected.
  *
  * @since 1.0.0
  */
@@ -109,17 +113,13 @@ public class ReferenceExtractor extends ClassVisitor {
 		 * @param name the name of the type
 		 */
 		protected void processType(String name) {
-			Type type = ReferenceExtractor.this.resolveType(Type.getObjectType(name).getDescriptor());
-			if (type != null) {
-				String tname = type.getClassName();
-				if (tname.equals("E") || tname.equals("T")) { //$NON-NLS-1$//$NON-NLS-2$
-					type = Type.getObjectType("java.lang.Object"); //$NON-NLS-1$
-					tname = type.getClassName();
-				}
-				if (ReferenceExtractor.this.consider(tname) && this.kind != -1) {
-					if (this.name != null && this.signature != null) {
-						this.references.add(Reference.typeReference(ReferenceExtractor.this.getMember(), tname, this.signature, this.kind));
-					}
+			String tname = ReferenceExtractor.this.fSymbols.getClassName(name);
+			if (tname.equals("E") || tname.equals("T")) { //$NON-NLS-1$//$NON-NLS-2$
+				tname = "java.lang.Object"; //$NON-NLS-1$
+			}
+			if (ReferenceExtractor.this.consider(tname) && this.kind != -1) {
+				if (this.name != null && this.signature != null) {
+					this.references.add(Reference.typeReference(ReferenceExtractor.this.getMember(), tname, this.signature, this.kind));
 				}
 			}
 			this.kind = this.originalkind;
@@ -222,7 +222,8 @@ public class ReferenceExtractor extends ClassVisitor {
 	/**
 	 * Visitor used to visit the methods of a type [ visitCode ( visitFrame |
 	 * visit<i>X</i>Insn | visitLabel | visitTryCatchBlock | visitLocalVariable
-	 * | visitLineNumber)* visitMaxs ] visitEnd
+	 * | visitLineNumber)* visitMaxs ] visitEnd. One visitor is reused for all
+	 * methods of a class file.
 	 */
 	class ClassFileMethodVisitor extends MethodVisitor {
 		int argumentcount = 0;
@@ -242,13 +243,29 @@ public class ReferenceExtractor extends ClassVisitor {
 		/**
 		 * Constructor
 		 */
-		public ClassFileMethodVisitor(MethodVisitor mv, String name, int argumentcount) {
-			super(Util.LATEST_OPCODES_ASM, mv);
-			this.argumentcount = argumentcount;
+		public ClassFileMethodVisitor(String name, int argumentcount) {
+			super(Util.LATEST_OPCODES_ASM);
 			this.linePositionTracker = new LinePositionTracker();
-			this.lastLineNumber = -1;
 			this.labelsToLocalMarkers = new HashMap<>();
+			reset(name, argumentcount);
+		}
+
+		/**
+		 * Prepares the visitor to visit the code of the given method
+		 *
+		 * @param name the name of the method
+		 * @param argumentcount the number of local variable slots used by the
+		 *            arguments
+		 */
+		void reset(String name, int argumentcount) {
+			this.argumentcount = argumentcount;
 			this.methodName = name;
+			this.lastLineNumber = -1;
+			this.implicitConstructor = false;
+			this.stringLiteral = null;
+			this.localVariableMarker = null;
+			this.linePositionTracker.reset();
+			this.labelsToLocalMarkers.clear();
 		}
 
 		@Override
@@ -257,7 +274,8 @@ public class ReferenceExtractor extends ClassVisitor {
 			this.argumentcount = 0;
 			ReferenceExtractor.this.exitMember();
 			this.linePositionTracker.computeLineNumbers();
-			this.labelsToLocalMarkers = null;
+			this.linePositionTracker.reset();
+			this.labelsToLocalMarkers.clear();
 		}
 
 		@Override
@@ -278,7 +296,7 @@ public class ReferenceExtractor extends ClassVisitor {
 				default -> -1;
 			};
 			if (refType != -1) {
-				Reference reference = ReferenceExtractor.this.addFieldReference(Type.getObjectType(owner), name, refType);
+				Reference reference = ReferenceExtractor.this.addFieldReference(getOwnerTypeName(owner), name, refType);
 				if (reference != null) {
 					this.linePositionTracker.addLocation(reference);
 					if (refType == IReference.REF_GETFIELD || refType == IReference.REF_PUTFIELD) {
@@ -291,8 +309,7 @@ public class ReferenceExtractor extends ClassVisitor {
 		@Override
 		public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
 			if (type != null) {
-				Type ctype = Type.getObjectType(type);
-				Reference reference = ReferenceExtractor.this.addTypeReference(ctype, IReference.REF_CATCHEXCEPTION);
+				Reference reference = ReferenceExtractor.this.addTypeReference(getOwnerTypeName(type), IReference.REF_CATCHEXCEPTION);
 				if (reference != null) {
 					this.linePositionTracker.addCatchLabelInfos(reference, handler);
 					this.linePositionTracker.addLocation(reference);
@@ -318,18 +335,18 @@ public class ReferenceExtractor extends ClassVisitor {
 
 		@Override
 		public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean inf) {
-			Type declaringType = Type.getObjectType(owner);
+			String declaringTypeName = getOwnerTypeName(owner);
 			int kind = -1;
 			int flags = 0;
 			switch (opcode) {
 				case Opcodes.INVOKESPECIAL -> {
 					kind = ("<init>".equals(name) ? IReference.REF_CONSTRUCTORMETHOD : IReference.REF_SPECIALMETHOD); //$NON-NLS-1$
 					if (kind == IReference.REF_CONSTRUCTORMETHOD) {
-						if (!implicitConstructor && this.methodName.equals("<init>") && !fSuperStack.isEmpty() && (fSuperStack.peek()).equals(declaringType.getClassName())) { //$NON-NLS-1$
+						if (!implicitConstructor && this.methodName.equals("<init>") && !fSuperStack.isEmpty() && (fSuperStack.peek()).equals(declaringTypeName)) { //$NON-NLS-1$
 							implicitConstructor = true;
 							kind = IReference.REF_SUPER_CONSTRUCTORMETHOD;
 						} else {
-							Reference reference = ReferenceExtractor.this.addTypeReference(declaringType, IReference.REF_INSTANTIATE);
+							Reference reference = ReferenceExtractor.this.addTypeReference(declaringTypeName, IReference.REF_INSTANTIATE);
 							if (reference != null) {
 								this.linePositionTracker.addLocation(reference);
 							}
@@ -401,7 +418,7 @@ public class ReferenceExtractor extends ClassVisitor {
 				default -> { /**/ }
 			}
 			if (kind != -1) {
-				Reference reference = ReferenceExtractor.this.addMethodReference(declaringType, name, desc, kind, flags);
+				Reference reference = ReferenceExtractor.this.addMethodReference(declaringTypeName, name, desc, kind, flags);
 				if (reference != null) {
 					this.linePositionTracker.addLocation(reference);
 					if (kind == IReference.REF_STATICMETHOD) {
@@ -416,8 +433,7 @@ public class ReferenceExtractor extends ClassVisitor {
 		public void visitInvokeDynamicInsn(String name, String desc, Handle bsm, Object... bsmArgs) {
 			for (Object arg : bsmArgs) {
 				if (arg instanceof Handle handle) {
-					Type declaringType = Type.getObjectType(handle.getOwner());
-					Reference reference = ReferenceExtractor.this.addMethodReference(declaringType, handle.getName(), handle.getDesc(), IReference.REF_VIRTUALMETHOD, 0);
+					Reference reference = ReferenceExtractor.this.addMethodReference(getOwnerTypeName(handle.getOwner()), handle.getName(), handle.getDesc(), IReference.REF_VIRTUALMETHOD, 0);
 					if (reference != null) {
 						this.linePositionTracker.addLocation(reference);
 					}
@@ -432,8 +448,8 @@ public class ReferenceExtractor extends ClassVisitor {
 
 		@Override
 		public void visitMultiANewArrayInsn(String desc, int dims) {
-			Type type = this.getTypeFromDescription(desc);
-			Reference reference = ReferenceExtractor.this.addTypeReference(type, IReference.REF_ARRAYALLOC);
+			String typeName = this.getTypeNameFromDescription(desc);
+			Reference reference = ReferenceExtractor.this.addTypeReference(typeName, IReference.REF_ARRAYALLOC);
 			if (reference != null) {
 				this.linePositionTracker.addLocation(reference);
 			}
@@ -456,29 +472,27 @@ public class ReferenceExtractor extends ClassVisitor {
 		}
 
 		/**
-		 * Creates a type from a type description. Works around bugs creating
+		 * Returns the name of the type from a type description, which is
+		 * either an internal name or a descriptor. Works around bugs creating
 		 * types from array type signatures in ASM.
 		 *
 		 * @param desc signature
-		 * @return Type
+		 * @return the name of the (element) type
 		 */
-		private Type getTypeFromDescription(String desc) {
-			String ldesc = desc;
-			while (ldesc.charAt(0) == '[') {
-				ldesc = ldesc.substring(1);
+		private String getTypeNameFromDescription(String desc) {
+			if (desc.charAt(desc.length() - 1) == ';') {
+				return fSymbols.getTypeName(desc);
 			}
-			Type type = null;
-			if (ldesc.endsWith(";")) { //$NON-NLS-1$
-				type = Type.getType(ldesc);
-			} else {
-				type = Type.getObjectType(ldesc);
+			int dimensions = 0;
+			while (desc.charAt(dimensions) == '[') {
+				dimensions++;
 			}
-			return type;
+			return fSymbols.getClassName(dimensions == 0 ? desc : desc.substring(dimensions));
 		}
 
 		@Override
 		public void visitTypeInsn(int opcode, String desc) {
-			Type type = this.getTypeFromDescription(desc);
+			String typeName = this.getTypeNameFromDescription(desc);
 			int kind = -1;
 			switch (opcode) {
 				case Opcodes.ANEWARRAY -> {
@@ -494,7 +508,7 @@ public class ReferenceExtractor extends ClassVisitor {
 					// we can omit the NEW case as it is caught by the
 					// constructor call
 					// handle it only for anonymous / local types
-					List<Reference> refs = fAnonymousTypes.get(processName(type.getInternalName()));
+					List<Reference> refs = fAnonymousTypes.get(typeName);
 					if (refs != null) {
 						for (Reference reference : refs) {
 							this.linePositionTracker.addLocation(reference);
@@ -504,7 +518,7 @@ public class ReferenceExtractor extends ClassVisitor {
 				default -> { /**/ }
 			}
 			if (kind != -1) {
-				Reference reference = ReferenceExtractor.this.addTypeReference(type, kind);
+				Reference reference = ReferenceExtractor.this.addTypeReference(typeName, kind);
 				if (reference != null) {
 					this.linePositionTracker.addLocation(reference);
 				}
@@ -547,13 +561,10 @@ public class ReferenceExtractor extends ClassVisitor {
 					for (Reference reference : references) {
 						reference.setLineNumber(lineNumber);
 					}
-				} else {
-					Type type = Type.getType(desc);
-					if (type.getSort() == Type.OBJECT) {
-						Reference reference = ReferenceExtractor.this.addTypeReference(type, IReference.REF_LOCALVARIABLEDECL);
-						if (reference != null) {
-							reference.setLineNumber(lineNumber);
-						}
+				} else if (desc.charAt(0) == 'L') {
+					Reference reference = ReferenceExtractor.this.addTypeReference(fSymbols.getTypeName(desc), IReference.REF_LOCALVARIABLEDECL);
+					if (reference != null) {
+						reference.setLineNumber(lineNumber);
 					}
 				}
 			}
@@ -573,8 +584,7 @@ public class ReferenceExtractor extends ClassVisitor {
 
 		@Override
 		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
-			Type ctype = this.getTypeFromDescription(desc);
-			Reference reference = ReferenceExtractor.this.addTypeReference(ctype, IReference.REF_ANNOTATION_USE);
+			Reference reference = ReferenceExtractor.this.addTypeReference(this.getTypeNameFromDescription(desc), IReference.REF_ANNOTATION_USE);
 			if (reference != null) {
 				linePositionTracker.addLocation(reference);
 			}
@@ -595,7 +605,7 @@ public class ReferenceExtractor extends ClassVisitor {
 
 		@Override
 		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
-			addTypeReference(Type.getType(desc), IReference.REF_ANNOTATION_USE);
+			addTypeReference(fSymbols.getTypeName(desc), IReference.REF_ANNOTATION_USE);
 			return null;
 		}
 
@@ -682,6 +692,16 @@ public class ReferenceExtractor extends ClassVisitor {
 			this.lineMap = new HashMap<>();
 		}
 
+		/**
+		 * Clears the tracker so it can be used for the next method
+		 */
+		void reset() {
+			this.labelsAndLocations.clear();
+			this.lineInfos.clear();
+			this.catchLabelInfos.clear();
+			this.lineMap.clear();
+		}
+
 		void addLocation(Reference location) {
 			this.labelsAndLocations.add(location);
 		}
@@ -926,6 +946,17 @@ public class ReferenceExtractor extends ClassVisitor {
 	 */
 	private final ClassFileFieldVisitor fieldvisitor = new ClassFileFieldVisitor();
 
+	/**
+	 * {@link MethodVisitor} reused for the code of all methods, created on
+	 * first use
+	 */
+	private ClassFileMethodVisitor methodvisitor = null;
+
+	/**
+	 * The table sharing the names of referenced types and members
+	 */
+	final SymbolTable fSymbols = SymbolTable.getDefault();
+
 	/**
 	 * Constructor
 	 *
@@ -935,7 +966,7 @@ public class ReferenceExtractor extends ClassVisitor {
 	 *            {@link ReferenceModifiers}
 	 */
 	public ReferenceExtractor(IApiType type, Set<Reference> collector, int referenceKinds) {
-		super(Util.LATEST_OPCODES_ASM, new ClassNode());
+		super(Util.LATEST_OPCODES_ASM);
 		fType = type;
 		this.collector = collector;
 		fReferenceKinds = referenceKinds;
@@ -947,7 +978,7 @@ public class ReferenceExtractor extends ClassVisitor {
 	 * Constructor
 	 */
 	protected ReferenceExtractor(IApiType type, Set<Reference> collector, int referenceKinds, FieldTracker tracker) {
-		super(Util.LATEST_OPCODES_ASM, new ClassNode());
+		super(Util.LATEST_OPCODES_ASM);
 		fType = type;
 		this.collector = collector;
 		fReferenceKinds = referenceKinds;
@@ -991,7 +1022,19 @@ public class ReferenceExtractor extends ClassVisitor {
 	 * @return whether to include the reference
 	 */
 	protected boolean consider(Reference ref) {
-		int kind = ref.getReferenceKind();
+		return consider(ref.getReferenceKind(), ref.getReferencedTypeName());
+	}
+
+	/**
+	 * Returns whether a reference of the given kind to the given type should
+	 * be considered, this is checked before the reference is created.
+	 *
+	 * @param kind the kind of the reference
+	 * @param referencedTypeName the name of the referenced type
+	 * @return whether to include the reference
+	 * @see #consider(Reference)
+	 */
+	private boolean consider(int kind, String referencedTypeName) {
 		if ((kind & fReferenceKinds) == 0) {
 			return false;
 		}
@@ -999,7 +1042,6 @@ public class ReferenceExtractor extends ClassVisitor {
 			return true;
 		}
 		// don't consider references to anonymous types or elements in them
-		String referencedTypeName = ref.getReferencedTypeName();
 		if (kind == IReference.REF_VIRTUALMETHOD || kind == IReference.REF_OVERRIDE || kind == IReference.REF_GETFIELD || kind == IReference.REF_PUTFIELD) {
 			return true;
 		}
@@ -1018,12 +1060,23 @@ public class ReferenceExtractor extends ClassVisitor {
 	 * The returned name has been modified to be '.' separated
 	 */
 	protected String processName(String name) {
-		String newname = name;
-		Type type = Type.getObjectType(name);
-		if (type != null && type.getSort() == Type.OBJECT) {
-			newname = type.getInternalName();
+		return fSymbols.getClassName(name);
+	}
+
+	/**
+	 * Returns the name of the type that owns a member or is the operand of an
+	 * instruction. Such types are given by their internal name or, for arrays,
+	 * by their descriptor.
+	 *
+	 * @param owner the internal name or array descriptor
+	 * @return the name of the type or of the element type of an array,
+	 *         <code>null</code> for an array of primitive types
+	 */
+	String getOwnerTypeName(String owner) {
+		if (owner.charAt(0) == '[') {
+			return fSymbols.getTypeName(owner);
 		}
-		return newname.replace('/', '.');
+		return fSymbols.getClassName(owner);
 	}
 
 	/**
@@ -1036,11 +1089,23 @@ public class ReferenceExtractor extends ClassVisitor {
 	 * @return reference added, or <code>null</code> if none
 	 */
 	protected Reference addTypeReference(Type type, int kind) {
-		Type rtype = this.resolveType(type.getDescriptor());
-		if (rtype != null) {
-			return addReference(Reference.typeReference(getMember(), rtype.getClassName(), kind));
+		return addTypeReference(fSymbols.getTypeName(type.getDescriptor()), kind);
+	}
+
+	/**
+	 * Adds a reference to the type with the given name from the current
+	 * member, if it is considered.
+	 *
+	 * @param typeName the name of the referenced type or <code>null</code> if
+	 *            it is not an object type
+	 * @param kind kind of reference
+	 * @return reference added, or <code>null</code> if none
+	 */
+	Reference addTypeReference(String typeName, int kind) {
+		if (typeName == null || !consider(kind, typeName)) {
+			return null;
 		}
-		return null;
+		return collect(Reference.typeReference(getMember(), typeName, kind));
 	}
 
 	/**
@@ -1053,11 +1118,24 @@ public class ReferenceExtractor extends ClassVisitor {
 	 * @return reference added, or <code>null</code> if none
 	 */
 	protected Reference addFieldReference(Type declaringType, String name, int kind) {
-		Type rtype = this.resolveType(declaringType.getDescriptor());
-		if (rtype != null) {
-			return addReference(Reference.fieldReference(getMember(), rtype.getClassName(), name, kind));
+		return addFieldReference(fSymbols.getTypeName(declaringType.getDescriptor()), name, kind);
+	}
+
+	/**
+	 * Adds a reference to the given field from the current member, if it is
+	 * considered.
+	 *
+	 * @param typeName the name of the type declaring the field or
+	 *            <code>null</code> if it is not an object type
+	 * @param name of the field being referenced
+	 * @param kind kind of reference
+	 * @return reference added, or <code>null</code> if none
+	 */
+	Reference addFieldReference(String typeName, String name, int kind) {
+		if (typeName == null || !consider(kind, typeName)) {
+			return null;
 		}
-		return null;
+		return collect(Reference.fieldReference(getMember(), typeName, fSymbols.intern(name), kind));
 	}
 
 	/**
@@ -1073,11 +1151,26 @@ public class ReferenceExtractor extends ClassVisitor {
 	 * @return reference added, or <code>null</code> if none
 	 */
 	protected Reference addMethodReference(Type declaringType, String name, String signature, int kind, int flags) {
-		Type rtype = this.resolveType(declaringType.getDescriptor());
-		if (rtype != null) {
-			return this.addReference(Reference.methodReference(getMember(), rtype.getClassName(), name, signature, kind, flags));
+		return addMethodReference(fSymbols.getTypeName(declaringType.getDescriptor()), name, signature, kind, flags);
+	}
+
+	/**
+	 * Adds a reference to the given method from the current member, if it is
+	 * considered.
+	 *
+	 * @param typeName the name of the type declaring the method or
+	 *            <code>null</code> if it is not an object type
+	 * @param name of the method being referenced
+	 * @param signature signature of the method
+	 * @param kind kind of reference
+	 * @param flags the flags for the reference
+	 * @return reference added, or <code>null</code> if none
+	 */
+	Reference addMethodReference(String typeName, String name, String signature, int kind, int flags) {
+		if (typeName == null || !consider(kind, typeName)) {
+			return null;
 		}
-		return null;
+		return collect(Reference.methodReference(getMember(), typeName, fSymbols.intern(name), fSymbols.intern(signature), kind, flags));
 	}
 
 	/**
@@ -1090,12 +1183,16 @@ public class ReferenceExtractor extends ClassVisitor {
 	 */
 	protected Reference addReference(Reference target) {
 		if (this.consider(target)) {
-			this.collector.add(target);
-			return target;
+			return collect(target);
 		}
 		return null;
 	}
 
+	private Reference collect(Reference reference) {
+		this.collector.add(reference);
+		return reference;
+	}
+
 	/**
 	 * Processes the member signature from the specified type with the given
 	 * signature and kind. A member can be either a type, method, field or local
@@ -1121,9 +1218,9 @@ public class ReferenceExtractor extends ClassVisitor {
 		} else {
 			reader.acceptType(this.signaturevisitor);
 		}
-		List<Reference> result = new ArrayList<>();
-		result.addAll(this.signaturevisitor.references);
-		this.collector.addAll(this.signaturevisitor.references);
+		List<Reference> references = this.signaturevisitor.references;
+		List<Reference> result = references.isEmpty() ? Collections.emptyList() : new ArrayList<>(references);
+		this.collector.addAll(references);
 		this.signaturevisitor.reset();
 		return result;
 	}
@@ -1166,22 +1263,19 @@ public class ReferenceExtractor extends ClassVisitor {
 			if ((access & Opcodes.ACC_INTERFACE) != 0) {
 				// the type is an interface and we need to treat the interfaces
 				// set as extends, not implements
-				Type supertype = null;
 				for (String interfaceName : interfaces) {
-					supertype = Type.getObjectType(interfaceName);
+					String supertype = this.processName(interfaceName);
 					this.addTypeReference(supertype, IReference.REF_EXTENDS);
-					this.fSuperStack.add(supertype.getClassName());
+					this.fSuperStack.add(supertype);
 				}
 			} else {
-				Type supertype = null;
 				if (superName != null) {
-					supertype = Type.getObjectType(superName);
+					String supertype = this.processName(superName);
 					this.addTypeReference(supertype, IReference.REF_EXTENDS);
-					this.fSuperStack.add(supertype.getClassName());
+					this.fSuperStack.add(supertype);
 				}
 				for (String interfaceName : interfaces) {
-					supertype = Type.getObjectType(interfaceName);
-					this.addTypeReference(supertype, IReference.REF_IMPLEMENTS);
+					this.addTypeReference(this.processName(interfaceName), IReference.REF_IMPLEMENTS);
 				}
 			}
 		}
@@ -1218,10 +1312,10 @@ public class ReferenceExtractor extends ClassVisitor {
 				if (signature != null) {
 					this.processSignature(name, signature, IReference.REF_PARAMETERIZED_FIELDDECL, FIELD);
 				} else {
-					this.addTypeReference(Type.getType(desc), IReference.REF_FIELDDECL);
+					this.addTypeReference(fSymbols.getTypeName(desc), IReference.REF_FIELDDECL);
 				}
 			} else {
-				fieldtracker.addField(addTypeReference(Type.getType(desc), IReference.REF_FIELDDECL));
+				fieldtracker.addField(addTypeReference(fSymbols.getTypeName(desc), IReference.REF_FIELDDECL));
 			}
 			return fieldvisitor;
 		}
@@ -1274,15 +1368,14 @@ public class ReferenceExtractor extends ClassVisitor {
 	private Set<Reference> processInnerClass(IApiType type, int refkinds) throws CoreException {
 		HashSet<Reference> refs = new HashSet<>();
 		ReferenceExtractor extractor = new ReferenceExtractor(type, refs, refkinds, this.fieldtracker);
-		ClassReader reader = new ClassReader(((AbstractApiTypeRoot) type.getTypeRoot()).getContents());
-		reader.accept(extractor, ClassReader.SKIP_FRAMES);
+		ClassFileCache.getClassReader((AbstractApiTypeRoot) type.getTypeRoot()).accept(extractor, ClassReader.SKIP_FRAMES);
 		return refs;
 	}
 
 	@Override
 	public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
 		try {
-			addTypeReference(Type.getType(desc), IReference.REF_ANNOTATION_USE);
+			addTypeReference(fSymbols.getTypeName(desc), IReference.REF_ANNOTATION_USE);
 		} catch (ArrayIndexOutOfBoundsException e) {
 			// when file has compile errors this gets thrown, but we can ignore
 			// it
@@ -1351,14 +1444,18 @@ public class ReferenceExtractor extends ClassVisitor {
 					this.addTypeReference(Type.getReturnType(desc), IReference.REF_RETURNTYPE);
 					if (exceptions != null) {
 						for (String exception : exceptions) {
-							this.addTypeReference(Type.getObjectType(exception), IReference.REF_THROWS);
+							this.addTypeReference(getOwnerTypeName(exception), IReference.REF_THROWS);
 						}
 					}
 				}
 			}
-			MethodVisitor mv = super.visitMethod(access, name, desc, signature, exceptions);
-			if (mv != null && ((access & (Opcodes.ACC_NATIVE | Opcodes.ACC_ABSTRACT)) == 0)) {
-				return new ClassFileMethodVisitor(mv, name, argumentcount);
+			if ((access & (Opcodes.ACC_NATIVE | Opcodes.ACC_ABSTRACT)) == 0) {
+				if (this.methodvisitor == null) {
+					this.methodvisitor = new ClassFileMethodVisitor(name, argumentcount);
+				} else {
+					this.methodvisitor.reset(name, argumentcount);
+				}
+				return this.methodvisitor;
 			}
 		}
 		return null;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2013 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,11 +17,14 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.pde.api.tools.internal.provisional.ApiPlugin;
 import org.eclipse.pde.api.tools.internal.provisional.builder.IReference;
 import org.eclipse.pde.api.tools.internal.provisional.model.IApiMember;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiType;
 
 /**
  * Utility class used to resolve {@link IReference}s
@@ -44,6 +47,19 @@ public final class ReferenceResolver {
 	 * @throws CoreException if something goes wrong
 	 */
 	public static void resolveReferences(List<IReference> references) throws CoreException {
+		resolveReferences(references, null);
+	}
+
+	/**
+	 * Resolves retained references, the references to different types are
+	 * resolved concurrently with the given executor.
+	 *
+	 * @param references list of {@link IReference} to resolve
+	 * @param executor executor to resolve references concurrently or
+	 *            <code>null</code> to resolve them sequentially
+	 * @throws CoreException if something goes wrong
+	 */
+	public static void resolveReferences(List<IReference> references, ExecutorService executor) throws CoreException {
 		// sort references by target type for 'shared' resolution
 		int refcount = references.size();
 		Map<String, List<IReference>> sigtoref = new LinkedHashMap<>(refcount);
@@ -72,7 +88,7 @@ public final class ReferenceResolver {
 		}
 		// resolve references
 		start = System.currentTimeMillis();
-		resolveReferenceSets(sigtoref);
+		resolveReferenceSets(sigtoref, executor);
 		end = System.currentTimeMillis();
 		if (ApiPlugin.DEBUG_REFERENCE_RESOLVER) {
 			System.out.println("Reference resolver: resolved unique references in " + (end - start) + "ms"); //$NON-NLS-1$//$NON-NLS-2$
@@ -89,16 +105,57 @@ public final class ReferenceResolver {
 	}
 
 	/**
-	 * Resolves the collect sets of references.
+	 * Resolves the collect sets of references. The sets are grouped by the
+	 * referenced type so each type is only looked up once in the baseline,
+	 * with an executor the groups are resolved concurrently.
 	 *
 	 * @param map the mapping of keys to sets of {@link IReference}s
+	 * @param executor executor to resolve the groups or <code>null</code>
 	 * @throws CoreException if something bad happens
 	 */
-	private static void resolveReferenceSets(Map<String, List<IReference>> map) throws CoreException {
-		IReference ref = null;
+	private static void resolveReferenceSets(Map<String, List<IReference>> map, ExecutorService executor) throws CoreException {
+		Map<String, List<List<IReference>>> typetosets = new LinkedHashMap<>();
 		for (List<IReference> refs : map.values()) {
-			ref = refs.get(0);
-			((Reference) ref).resolve();
+			typetosets.computeIfAbsent(createTypeKey(refs.get(0)), k -> new ArrayList<>()).add(refs);
+		}
+		if (ApiPlugin.DEBUG_REFERENCE_RESOLVER) {
+			System.out.println("Reference resolver: resolving " + map.size() + " unique references against " + typetosets.size() + " types"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		if (executor == null) {
+			for (List<List<IReference>> sets : typetosets.values()) {
+				resolveTypeReferenceSets(sets);
+			}
+			return;
+		}
+		List<Future<Void>> tasks = new ArrayList<>(typetosets.size());
+		try {
+			for (List<List<IReference>> sets : typetosets.values()) {
+				tasks.add(executor.submit(() -> {
+					resolveTypeReferenceSets(sets);
+					return null;
+				}));
+			}
+			for (Future<Void> task : tasks) {
+				ApiAnalysisPool.join(task);
+			}
+		} finally {
+			ApiAnalysisPool.cancel(tasks);
+		}
+	}
+
+	/**
+	 * Resolves sets of references that all refer to the same type.
+	 *
+	 * @param sets the sets of {@link IReference}s to the same type
+	 * @throws CoreException if something bad happens
+	 */
+	private static void resolveTypeReferenceSets(List<List<IReference>> sets) throws CoreException {
+		IApiType type = ((Reference) sets.get(0).get(0)).findReferencedType();
+		for (List<IReference> refs : sets) {
+			Reference ref = (Reference) refs.get(0);
+			if (type != null) {
+				ref.resolve(type);
+			}
 			IApiMember resolved = ref.getResolvedReference();
 			if (resolved != null) {
 				for (IReference ref2 : refs) {
@@ -108,6 +165,20 @@ public final class ReferenceResolver {
 		}
 	}
 
+	/**
+	 * Creates a key for the type a given reference refers to, of the form
+	 *
+	 * <pre>
+	 * [component_id]#[type_name]
+	 * </pre>
+	 *
+	 * @param reference reference
+	 * @return a string key for the referenced type
+	 */
+	private static String createTypeKey(IReference reference) {
+		return reference.getMember().getApiComponent().getSymbolicName() + "#" + reference.getReferencedTypeName(); //$NON-NLS-1$
+	}
+
 	/**
 	 * Creates a unique string key for a given reference. The key is of the form
 	 * "component X references type/member"
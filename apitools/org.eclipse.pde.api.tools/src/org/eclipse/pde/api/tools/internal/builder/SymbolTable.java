@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.internal.builder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.objectweb.asm.Type;
+
+/**
+ * Shares the type and member names the {@link ReferenceExtractor} derives
+ * from class files. The names of a type are only converted once and all
+ * references to it hold the same string instances, no matter how many class
+ * files are scanned. The table is bounded, when it gets too large it is
+ * cleared and filled again.
+ */
+final class SymbolTable {
+
+	/**
+	 * The number of entries of a map above which it is cleared
+	 */
+	private static final int MAX_SIZE = 1 << 16;
+
+	/**
+	 * Marks descriptors of primitive types in {@link #fTypeNames}
+	 */
+	private static final String NO_TYPE = new String();
+
+	private static final SymbolTable DEFAULT = new SymbolTable();
+
+	private final Map<String, String> fClassNames = new ConcurrentHashMap<>();
+	private final Map<String, String> fTypeNames = new ConcurrentHashMap<>();
+	private final Map<String, String> fSymbols = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the table shared by all reference extractors
+	 */
+	static SymbolTable getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns the '.' separated name for the given internal name
+	 *
+	 * @param internalName an internal name like <code>java/lang/Object</code>
+	 * @return the '.' separated name
+	 */
+	String getClassName(String internalName) {
+		String name = fClassNames.get(internalName);
+		if (name == null) {
+			name = put(fClassNames, internalName, intern(internalName.replace('/', '.')));
+		}
+		return name;
+	}
+
+	/**
+	 * Returns the '.' separated name of the object type described by the given
+	 * descriptor. For array descriptors the name of the element type is
+	 * returned.
+	 *
+	 * @param descriptor a type descriptor like <code>[Ljava/lang/Object;</code>
+	 * @return the name of the object or element type or <code>null</code> if
+	 *         the descriptor denotes a primitive type or an array of them
+	 */
+	String getTypeName(String descriptor) {
+		String name = fTypeNames.get(descriptor);
+		if (name == null) {
+			Type type = Type.getType(descriptor);
+			if (type.getSort() == Type.ARRAY) {
+				type = type.getElementType();
+			}
+			name = put(fTypeNames, descriptor, type.getSort() == Type.OBJECT ? getClassName(type.getInternalName()) : NO_TYPE);
+		}
+		return name == NO_TYPE ? null : name;
+	}
+
+	/**
+	 * Returns the shared instance of the given member name or signature
+	 *
+	 * @param symbol the symbol or <code>null</code>
+	 * @return the shared instance equal to the symbol
+	 */
+	String intern(String symbol) {
+		if (symbol == null) {
+			return null;
+		}
+		String shared = fSymbols.get(symbol);
+		if (shared == null) {
+			shared = put(fSymbols, symbol, symbol);
+		}
+		return shared;
+	}
+
+	private static String put(Map<String, String> map, String key, String value) {
+		if (map.size() > MAX_SIZE) {
+			map.clear();
+		}
+		String previous = map.putIfAbsent(key, value);
+		return previous != null ? previous : value;
+	}
+}
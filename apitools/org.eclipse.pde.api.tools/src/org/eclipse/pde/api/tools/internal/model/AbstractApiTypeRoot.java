@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2019 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -30,7 +30,7 @@ import org.eclipse.pde.api.tools.internal.provisional.model.IApiTypeRoot;
  */
 public abstract class AbstractApiTypeRoot extends ApiElement implements IApiTypeRoot {
 
-	private IApiType fType;
+	private volatile IApiType fType;
 
 	/**
 	 * Constructor
@@ -44,13 +44,35 @@ public abstract class AbstractApiTypeRoot extends ApiElement implements IApiType
 
 	public abstract byte[] getContents() throws CoreException;
 
+	/**
+	 * Returns a stamp that changes whenever the contents of this type root
+	 * change. Type roots whose contents never change return a constant.
+	 *
+	 * @return the stamp of the contents
+	 * @see ClassFileCache
+	 */
+	long getContentStamp() {
+		return 0;
+	}
+
 	@Override
 	public IApiType getStructure() throws CoreException {
 		// if exists return
-		if (fType != null) {
-			return fType;
+		IApiType current = fType;
+		if (current != null) {
+			return current;
+		}
+		// the structure is built lazily and may be requested by several
+		// analysis threads at once, only one of them builds it
+		synchronized (this) {
+			if (fType != null) {
+				return fType;
+			}
+			return buildStructure();
 		}
+	}
 
+	private IApiType buildStructure() throws CoreException {
 		ApiModelCache cache = ApiModelCache.getCache();
 		IApiComponent comp = getApiComponent();
 		IApiType type = null;
@@ -59,7 +81,7 @@ public abstract class AbstractApiTypeRoot extends ApiElement implements IApiType
 			type = (IApiType) cache.getElementInfo(baseline.getName(), comp.getSymbolicName(), this.getTypeName(), IApiElement.TYPE);
 		}
 		if (type == null) {
-			type = TypeStructureBuilder.buildTypeStructure(getContents(), getApiComponent(), this);
+			type = TypeStructureBuilder.buildTypeStructure(this, getApiComponent());
 			if (type == null) {
 				return null;
 			}
@@ -172,6 +172,11 @@ public class ApiBaseline extends ApiElement implements IApiBaseline, IVMInstallC
 
 	private volatile boolean restored;
 
+	/**
+	 * The snapshot this baseline was restored from or <code>null</code>
+	 */
+	private volatile ApiBaselineSnapshot fSnapshot;
+
 	/**
 	 * Constructs a new API baseline with the given name.
 	 *
@@ -721,6 +726,37 @@ public class ApiBaseline extends ApiElement implements IApiBaseline, IVMInstallC
 			return;
 		}
 		IApiComponent[] components = ApiBaselineManager.getManager().readBaselineComponents(this, stream);
+		addRestoredComponents(components);
+	}
+
+	/**
+	 * Restore a baseline from the given snapshot (persisted baseline).
+	 *
+	 * @param snapshot the snapshot of the baseline
+	 * @throws CoreException if unable to restore the baseline
+	 */
+	public void restoreFrom(ApiBaselineSnapshot snapshot) throws CoreException {
+		if (disposed || restored) {
+			return;
+		}
+		String location = snapshot.getBaselineLocation();
+		if (location != null) {
+			setLocation(location);
+		}
+		IApiComponent[] components = snapshot.restoreComponents(this);
+		fSnapshot = snapshot;
+		addRestoredComponents(components);
+	}
+
+	/**
+	 * @return the snapshot this baseline was restored from or
+	 *         <code>null</code>
+	 */
+	public ApiBaselineSnapshot getSnapshot() {
+		return fSnapshot;
+	}
+
+	private void addRestoredComponents(IApiComponent[] components) throws CoreException {
 		if (components == null) {
 			restored = true;
 			return;
@@ -827,6 +863,7 @@ public class ApiBaseline extends ApiElement implements IApiBaseline, IVMInstallC
 			iApiComponent.dispose();
 		}
 		fSystemLibraryComponentList.clear();
+		fSnapshot = null;
 	}
 
 	/**
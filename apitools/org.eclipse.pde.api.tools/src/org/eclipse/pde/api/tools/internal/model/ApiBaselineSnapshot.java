@@ -0,0 +1,506 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.internal.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.jar.JarFile;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiBaseline;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiComponent;
+
+/**
+ * A binary snapshot of a persisted {@link ApiBaseline}. While the XML profile
+ * only lists the locations of the components, the snapshot additionally
+ * contains the manifest, the local package names and the
+ * <code>.api_description</code> of every component, so a baseline can be
+ * restored without opening the bundle jars.
+ * <p>
+ * Only the component index is read when the snapshot is opened. The data of a
+ * component is read from the file on demand when the component requests it,
+ * the file is not kept open in between, so it can be replaced or deleted while
+ * the snapshot is in use. Once the file was replaced the data of the snapshot
+ * can no longer be read and the components read it from their location. Each
+ * component records the time stamp and size of its bundle (or the manifest for
+ * directory bundles), components that have changed since the snapshot was
+ * written are created from their location as usual.
+ * </p>
+ */
+public final class ApiBaselineSnapshot {
+
+	private static final int MAGIC = 0x41504953; // "APIS"
+
+	private static final int VERSION = 1;
+
+	private final Path fFile;
+	private final BasicFileAttributes fAttributes;
+	private final long fProfileChecksum;
+	private final String fBaselineLocation;
+	private final List<SnapshotEntry> fEntries;
+	private final long fDataStart;
+	private volatile boolean fStale;
+
+	/**
+	 * The index entry of a component in the snapshot
+	 */
+	final class SnapshotEntry {
+
+		private final String fLocation;
+		private final long fLastModified;
+		private final long fLength;
+		private final int fManifestOffset;
+		private final int fPackagesOffset;
+		private final int fDescriptionOffset;
+		private final int fEndOffset;
+
+		SnapshotEntry(String location, long lastModified, long length, int manifestOffset, int packagesOffset,
+				int descriptionOffset, int endOffset) {
+			fLocation = location;
+			fLastModified = lastModified;
+			fLength = length;
+			fManifestOffset = manifestOffset;
+			fPackagesOffset = packagesOffset;
+			fDescriptionOffset = descriptionOffset;
+			fEndOffset = endOffset;
+		}
+
+		/**
+		 * @return the location of the component
+		 */
+		String getLocation() {
+			return fLocation;
+		}
+
+		/**
+		 * @return the time stamp of the bundle the data of the entry was
+		 *         read from
+		 */
+		long getLastModified() {
+			return fLastModified;
+		}
+
+		/**
+		 * @return the size of the bundle the data of the entry was read from
+		 */
+		long getLength() {
+			return fLength;
+		}
+
+		/**
+		 * @return whether the bundle is unchanged since the snapshot was
+		 *         written
+		 */
+		boolean isCurrent() {
+			File stampFile = getStampFile(new File(fLocation));
+			return stampFile.lastModified() == fLastModified && stampFile.length() == fLength;
+		}
+
+		/**
+		 * @return whether the data of the entry can be read, i.e. the
+		 *         snapshot file was not replaced since it was opened
+		 */
+		boolean isReadable() {
+			return isUnchanged();
+		}
+
+		/**
+		 * @return the complete manifest headers of the component
+		 * @throws CoreException if the snapshot cannot be read
+		 */
+		Map<String, String> readManifest() throws CoreException {
+			try {
+				ByteBuffer buffer = read(fManifestOffset, fPackagesOffset);
+				int count = buffer.getInt();
+				Map<String, String> manifest = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+				for (int i = 0; i < count; i++) {
+					manifest.put(readString(buffer), readString(buffer));
+				}
+				return manifest;
+			} catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+				throw corrupted(e);
+			}
+		}
+
+		/**
+		 * @return the names of the packages that originate from the component
+		 * @throws CoreException if the snapshot cannot be read
+		 */
+		Set<String> readPackageNames() throws CoreException {
+			try {
+				ByteBuffer buffer = read(fPackagesOffset, fDescriptionOffset < 0 ? fEndOffset : fDescriptionOffset);
+				int count = buffer.getInt();
+				Set<String> names = new HashSet<>(count * 4 / 3 + 1);
+				for (int i = 0; i < count; i++) {
+					names.add(readString(buffer));
+				}
+				return names;
+			} catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+				throw corrupted(e);
+			}
+		}
+
+		/**
+		 * @return the contents of the <code>.api_description</code> of the
+		 *         component or <code>null</code> if it has none
+		 * @throws CoreException if the snapshot cannot be read
+		 */
+		String readApiDescription() throws CoreException {
+			if (fDescriptionOffset < 0) {
+				return null;
+			}
+			try {
+				return readString(read(fDescriptionOffset, fEndOffset));
+			} catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+				throw corrupted(e);
+			}
+		}
+
+		private CoreException corrupted(Exception e) {
+			return new CoreException(Status.error("Unable to read API baseline snapshot entry for " + fLocation, e)); //$NON-NLS-1$
+		}
+	}
+
+	private ApiBaselineSnapshot(Path file) throws IOException {
+		fFile = file;
+		fAttributes = Files.readAttributes(file, BasicFileAttributes.class);
+		try (InputStream stream = new BufferedInputStream(Files.newInputStream(file))) {
+			DataInputStream in = new DataInputStream(stream);
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not an API baseline snapshot"); //$NON-NLS-1$
+			}
+			if (in.readInt() != VERSION) {
+				throw new IOException("Unsupported API baseline snapshot version"); //$NON-NLS-1$
+			}
+			fProfileChecksum = in.readLong();
+			byte[] location = readBytes(in);
+			// the data follows the index, count the bytes read so far
+			long position = 20 + location.length;
+			fBaselineLocation = location.length == 0 ? null : new String(location, StandardCharsets.UTF_8);
+			int count = in.readInt();
+			position += 4;
+			if (count < 0 || count > fAttributes.size()) {
+				throw new IOException("Corrupted API baseline snapshot"); //$NON-NLS-1$
+			}
+			String[] locations = new String[count];
+			long[] stamps = new long[count * 2];
+			int[] offsets = new int[count * 3];
+			for (int i = 0; i < count; i++) {
+				byte[] bytes = readBytes(in);
+				locations[i] = new String(bytes, StandardCharsets.UTF_8);
+				stamps[i * 2] = in.readLong();
+				stamps[i * 2 + 1] = in.readLong();
+				offsets[i * 3] = in.readInt();
+				offsets[i * 3 + 1] = in.readInt();
+				offsets[i * 3 + 2] = in.readInt();
+				position += 4 + bytes.length + 28;
+			}
+			fDataStart = position;
+			long dataSize = fAttributes.size() - position;
+			List<SnapshotEntry> entries = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				// the data of the components is written one after the other
+				int endOffset = i + 1 < count ? offsets[(i + 1) * 3] : (int) dataSize;
+				entries.add(new SnapshotEntry(locations[i], stamps[i * 2], stamps[i * 2 + 1], offsets[i * 3],
+						offsets[i * 3 + 1], offsets[i * 3 + 2], endOffset));
+			}
+			fEntries = Collections.unmodifiableList(entries);
+		} catch (EOFException | IllegalArgumentException e) {
+			throw new IOException("Corrupted API baseline snapshot", e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Opens the snapshot stored in the given file. Only the component index is
+	 * read, the data of the components is read from the file when requested.
+	 * The file is not kept open.
+	 *
+	 * @param file the snapshot file
+	 * @return the snapshot
+	 * @throws IOException if the file cannot be read or is not a valid
+	 *             snapshot
+	 */
+	public static ApiBaselineSnapshot open(Path file) throws IOException {
+		return new ApiBaselineSnapshot(file);
+	}
+
+	/**
+	 * @return the checksum of the XML profile this snapshot was written for
+	 */
+	public long getProfileChecksum() {
+		return fProfileChecksum;
+	}
+
+	/**
+	 * @return the location of the baseline or <code>null</code> if none
+	 */
+	public String getBaselineLocation() {
+		return fBaselineLocation;
+	}
+
+	/**
+	 * @return whether components had changed since the snapshot was written
+	 *         when they were restored
+	 */
+	public boolean isStale() {
+		return fStale;
+	}
+
+	/**
+	 * Creates the components of the snapshot for the given baseline.
+	 * Components that are unchanged since the snapshot was written read their
+	 * data from the snapshot.
+	 *
+	 * @param baseline the baseline to create the components for
+	 * @return the components sorted by name
+	 * @throws CoreException if a component cannot be created
+	 */
+	IApiComponent[] restoreComponents(IApiBaseline baseline) throws CoreException {
+		List<IApiComponent> components = new ArrayList<>(fEntries.size());
+		for (SnapshotEntry entry : fEntries) {
+			IApiComponent component;
+			if (entry.isCurrent()) {
+				component = ApiModelFactory.newApiComponent(baseline, entry);
+			} else {
+				fStale = true;
+				component = ApiModelFactory.newApiComponent(baseline, entry.getLocation());
+			}
+			if (component != null) {
+				components.add(component);
+			}
+		}
+		IApiComponent[] restored = components.toArray(new IApiComponent[components.size()]);
+		// same order as a baseline restored from the XML profile
+		Arrays.sort(restored, (o1, o2) -> o1.getName().compareTo(o2.getName()));
+		return restored;
+	}
+
+	/**
+	 * Writes a snapshot of the given baseline to the given file. The file is
+	 * written to a temporary file first and then moved to the final location.
+	 *
+	 * @param baseline the baseline
+	 * @param profileChecksum the checksum of the XML profile of the baseline
+	 * @param file the snapshot file
+	 * @throws CoreException if the snapshot cannot be written
+	 */
+	public static void write(IApiBaseline baseline, long profileChecksum, Path file) throws CoreException {
+		ByteArrayOutputStream index = new ByteArrayOutputStream();
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		DataOutputStream indexOut = new DataOutputStream(index);
+		DataOutputStream dataOut = new DataOutputStream(data);
+		int count = 0;
+		try {
+			for (BundleComponent component : getPersistedComponents(baseline)) {
+				File location = new File(component.getLocation());
+				SnapshotEntry entry = component.getSnapshotEntry();
+				// the stamp has to belong to the data, for data read from the
+				// bundle take it before reading so a concurrent modification
+				// is detected the next time
+				long lastModified;
+				long length;
+				if (entry != null) {
+					lastModified = entry.getLastModified();
+					length = entry.getLength();
+				} else {
+					File stampFile = getStampFile(location);
+					lastModified = stampFile.lastModified();
+					length = stampFile.length();
+				}
+				Map<String, String> manifest = entry != null ? entry.readManifest()
+						: BundleComponent.loadManifest(location, component.isWorkspaceBinary());
+				if (manifest == null) {
+					continue;
+				}
+				Collection<String> packages = entry != null ? entry.readPackageNames()
+						: component.getLocalPackageNames();
+				String description = entry != null ? entry.readApiDescription()
+						: BundleComponent.loadApiDescription(location);
+
+				writeString(indexOut, component.getLocation());
+				indexOut.writeLong(lastModified);
+				indexOut.writeLong(length);
+
+				indexOut.writeInt(dataOut.size());
+				dataOut.writeInt(manifest.size());
+				for (Entry<String, String> header : manifest.entrySet()) {
+					writeString(dataOut, header.getKey());
+					writeString(dataOut, header.getValue());
+				}
+				indexOut.writeInt(dataOut.size());
+				dataOut.writeInt(packages.size());
+				for (String name : new TreeSet<>(packages)) {
+					writeString(dataOut, name);
+				}
+				if (description != null) {
+					indexOut.writeInt(dataOut.size());
+					writeString(dataOut, description);
+				} else {
+					indexOut.writeInt(-1);
+				}
+				count++;
+			}
+			Path tmp = file.resolveSibling(file.getFileName() + ".tmp"); //$NON-NLS-1$
+			try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+				DataOutputStream out = new DataOutputStream(stream);
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(profileChecksum);
+				String baselineLocation = baseline.getLocation();
+				writeString(out, baselineLocation != null ? baselineLocation : ""); //$NON-NLS-1$
+				out.writeInt(count);
+				index.writeTo(out);
+				data.writeTo(out);
+				out.flush();
+			}
+			try {
+				Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			throw new CoreException(Status.error("Error writing API baseline snapshot " + file, e)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @return the same components that are persisted in the XML profile of the
+	 *         baseline, sorted by location
+	 */
+	private static List<BundleComponent> getPersistedComponents(IApiBaseline baseline) {
+		Set<BundleComponent> components = new HashSet<>();
+		for (IApiComponent component : baseline.getApiComponents()) {
+			Set<IApiComponent> versions = baseline.getAllApiComponents(component.getSymbolicName());
+			if (versions.isEmpty()) {
+				versions = Set.of(component);
+			}
+			for (IApiComponent version : versions) {
+				if (!version.isSystemComponent() && version instanceof BundleComponent bundle) {
+					components.add(bundle);
+				}
+			}
+		}
+		List<BundleComponent> sorted = new ArrayList<>(components);
+		sorted.sort(Comparator.comparing(BundleComponent::getLocation));
+		return sorted;
+	}
+
+	/**
+	 * @return the file that tracks modifications of the given bundle location,
+	 *         the manifest for directory bundles
+	 */
+	private static File getStampFile(File location) {
+		if (location.isDirectory()) {
+			return new File(location, JarFile.MANIFEST_NAME);
+		}
+		return location;
+	}
+
+	/**
+	 * @return whether the snapshot file is still the one that was opened
+	 */
+	private boolean isUnchanged() {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(fFile, BasicFileAttributes.class);
+			return attributes.size() == fAttributes.size()
+					&& attributes.lastModifiedTime().equals(fAttributes.lastModifiedTime())
+					&& Objects.equals(attributes.fileKey(), fAttributes.fileKey());
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Reads the given range of the data of the snapshot. Every read opens the
+	 * file on its own so lookups can run concurrently and the file is not kept
+	 * open.
+	 */
+	private ByteBuffer read(int offset, int endOffset) throws IOException {
+		if (offset < 0 || endOffset < offset) {
+			throw new IOException("Invalid data range"); //$NON-NLS-1$
+		}
+		try (FileChannel channel = FileChannel.open(fFile, StandardOpenOption.READ)) {
+			if (!isUnchanged()) {
+				throw new IOException("The snapshot file was replaced: " + fFile); //$NON-NLS-1$
+			}
+			ByteBuffer buffer = ByteBuffer.allocate(endOffset - offset);
+			long position = fDataStart + offset;
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, position + buffer.position()) < 0) {
+					throw new EOFException();
+				}
+			}
+			return buffer.flip();
+		}
+	}
+
+	private byte[] readBytes(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > fAttributes.size()) {
+			throw new IllegalArgumentException("Invalid string length " + length); //$NON-NLS-1$
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0 || length > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		// not writeUTF(), values like the API description exceed 64k
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+}
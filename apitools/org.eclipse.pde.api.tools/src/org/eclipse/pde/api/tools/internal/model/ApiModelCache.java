@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2019 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,58 +13,170 @@
  *******************************************************************************/
 package org.eclipse.pde.api.tools.internal.model;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.jdt.internal.core.util.LRUCache;
-import org.eclipse.pde.api.tools.internal.SynchronizedOverflowingLRUCache;
 import org.eclipse.pde.api.tools.internal.provisional.ApiPlugin;
 import org.eclipse.pde.api.tools.internal.provisional.model.IApiBaseline;
 import org.eclipse.pde.api.tools.internal.provisional.model.IApiComponent;
 import org.eclipse.pde.api.tools.internal.provisional.model.IApiElement;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiField;
+import org.eclipse.pde.api.tools.internal.provisional.model.IApiMethod;
 
 /**
  * Manages the caches of {@link IApiElement}s
+ * <p>
+ * Types are cached per baseline and component, member types are additionally
+ * grouped by their root type so they can be removed together with it. Reads
+ * are lock free. The cache is bounded by the estimated size of the cached
+ * types rather than by their number: root types and member types each have a
+ * byte budget, when a budget is exceeded the least recently used types are
+ * evicted. The budgets can be configured in megabytes with the system
+ * properties {@value #TYPE_BUDGET_PROPERTY} and
+ * {@value #MEMBER_TYPE_BUDGET_PROPERTY}. Cached types are only softly
+ * referenced, so they are also released under memory pressure.
+ * </p>
+ * <p>
+ * Hit, miss and eviction counters are available from
+ * {@link #getStatistics()} and are traced with the
+ * <code>debug/modelcache</code> tracing option.
+ * </p>
  *
  * @since 1.0.2
  */
 public final class ApiModelCache {
 
 	/**
-	 * Cache used for {@link IApiElement}s
+	 * System property for the budget of the root type cache in megabytes
 	 */
-	static class Cache<K, V> extends SynchronizedOverflowingLRUCache<K, V> {
+	static final String TYPE_BUDGET_PROPERTY = "org.eclipse.pde.api.tools.modelcache.types"; //$NON-NLS-1$
 
+	/**
+	 * System property for the budget of the member type cache in megabytes
+	 */
+	static final String MEMBER_TYPE_BUDGET_PROPERTY = "org.eclipse.pde.api.tools.modelcache.membertypes"; //$NON-NLS-1$
+
+	static final long DEFAULT_TYPE_BUDGET = 64;
+	static final long DEFAULT_MEMBER_TYPE_BUDGET = 16;
+
+	/**
+	 * Counters of the cache
+	 *
+	 * @param hits lookups that returned a cached element
+	 * @param misses lookups that did not find a cached element
+	 * @param evictions elements removed because a budget was exceeded
+	 * @param collected elements released by the garbage collector
+	 * @param typeSize the estimated size of the cached root types in bytes
+	 * @param memberTypeSize the estimated size of the cached member types in
+	 *            bytes
+	 */
+	public record Statistics(long hits, long misses, long evictions, long collected, long typeSize,
+			long memberTypeSize) {
+	}
+
+	/**
+	 * A cached element, only softly referenced
+	 */
+	private static final class CacheEntry extends SoftReference<IApiElement> {
+
+		final Map<String, CacheEntry> fOwner;
+		final String fKey;
+		final Pool fPool;
+		final long fSize;
 		/**
-		 * Constructor
+		 * Time of the last access, intentionally not volatile, the eviction
+		 * order is only approximate
 		 */
-		public Cache(int size, int overflow) {
-			super(size, overflow);
+		long fLastAccess;
+
+		CacheEntry(IApiElement element, Map<String, CacheEntry> owner, String key, Pool pool, long size,
+				ReferenceQueue<IApiElement> queue) {
+			super(element, queue);
+			fOwner = owner;
+			fKey = key;
+			fPool = pool;
+			fSize = size;
+			fLastAccess = System.nanoTime();
 		}
 
-		@Override
-		protected boolean close(LRUCacheEntry<K, V> entry) {
-			return true;
+		/**
+		 * Removes this entry from its owner if it is still mapped
+		 *
+		 * @return <code>true</code> if the entry was removed
+		 */
+		boolean remove() {
+			if (fOwner.remove(fKey, this)) {
+				fPool.fSize.addAndGet(-fSize);
+				return true;
+			}
+			return false;
 		}
+	}
+
+	/**
+	 * The types of a component
+	 */
+	private static final class ComponentTypes {
+		final Map<String, CacheEntry> fTypes = new ConcurrentHashMap<>();
+		/**
+		 * Map of root type name to the member types of that root type
+		 */
+		final Map<String, Map<String, CacheEntry>> fMemberTypes = new ConcurrentHashMap<>();
+		/**
+		 * Set when the component is removed from the cache, types that are
+		 * put afterwards have to be removed again by the thread putting them
+		 */
+		volatile boolean fRemoved;
 
-		@Override
-		protected LRUCache<K, V> newInstance(int size, int newOverflow) {
-			return new Cache<>(size, newOverflow);
+		boolean isEmpty() {
+			return fTypes.isEmpty() && fMemberTypes.values().stream().allMatch(Map::isEmpty);
 		}
+	}
 
+	/**
+	 * Entries sharing a byte budget
+	 */
+	private static final class Pool {
+		final long fBudget;
+		final AtomicLong fSize = new AtomicLong();
+
+		Pool(long budget) {
+			fBudget = budget;
+		}
 	}
 
-	static final int DEFAULT_CACHE_SIZE = 1000;
-	static final int DEFAULT_OVERFLOW = (int) (DEFAULT_CACHE_SIZE * 0.1f);
 	static ApiModelCache fInstance = null;
 
-	Cache<String, Cache<String, Cache<String, IApiElement>>> fRootCache;
-	Cache<String, Cache<String, ApiType>> fMemberTypeCache;
+	/**
+	 * Map of baseline id to the map of component id to the types of the
+	 * component
+	 */
+	private final Map<String, Map<String, ComponentTypes>> fBaselines = new ConcurrentHashMap<>();
+	private final Pool fTypePool;
+	private final Pool fMemberTypePool;
+	private final ReferenceQueue<IApiElement> fCollectedQueue = new ReferenceQueue<>();
+	private final ReentrantLock fEvictionLock = new ReentrantLock();
+	private final LongAdder fHits = new LongAdder();
+	private final LongAdder fMisses = new LongAdder();
+	private final LongAdder fEvictions = new LongAdder();
+	private final LongAdder fCollected = new LongAdder();
 
 	/**
 	 * Constructor - no instantiation
 	 */
 	private ApiModelCache() {
+		fTypePool = new Pool(Long.getLong(TYPE_BUDGET_PROPERTY, DEFAULT_TYPE_BUDGET) * 1024 * 1024);
+		fMemberTypePool = new Pool(Long.getLong(MEMBER_TYPE_BUDGET_PROPERTY, DEFAULT_MEMBER_TYPE_BUDGET) * 1024 * 1024);
 	}
 
 	/**
@@ -79,18 +191,6 @@ public final class ApiModelCache {
 		return fInstance;
 	}
 
-	/**
-	 * Returns the key to use in a cache. The key is of the form:
-	 * <code>[baselineid].[componentid].[typename]</code><br>
-	 *
-	 * @return the member type cache key to use
-	 */
-	private String getCacheKey(String baseline, String component, String typename) {
-		StringBuilder buffer = new StringBuilder();
-		buffer.append(baseline).append('.').append(component).append('.').append(typename);
-		return buffer.toString();
-	}
-
 	/**
 	 * Caches the given {@link IApiElement} in the correct cache based on its
 	 * type.
@@ -103,9 +203,6 @@ public final class ApiModelCache {
 	public void cacheElementInfo(IApiElement element) throws CoreException {
 		switch (element.getType()) {
 			case IApiElement.TYPE: {
-				if (fRootCache == null) {
-					fRootCache = new Cache<>(DEFAULT_CACHE_SIZE / 150, DEFAULT_OVERFLOW / 150);
-				}
 				IApiComponent comp = element.getApiComponent();
 				if (comp != null) {
 					IApiBaseline baseline = comp.getBaseline();
@@ -113,45 +210,21 @@ public final class ApiModelCache {
 					if (id == null) {
 						return;
 					}
-					Cache<String, Cache<String, IApiElement>> compcache = fRootCache.get(baseline.getName());
-					if (compcache == null) {
-						compcache = new Cache<>(DEFAULT_CACHE_SIZE / 2, DEFAULT_OVERFLOW / 2);
-						fRootCache.put(baseline.getName(), compcache);
-					}
-					Cache<String, IApiElement> typecache = compcache.get(id);
-					if (typecache == null) {
-						typecache = new Cache<>(DEFAULT_CACHE_SIZE * 2, DEFAULT_OVERFLOW);
-						compcache.put(comp.getSymbolicName(), typecache);
-					}
+					expungeCollected();
+					ComponentTypes types = getOrCreateComponentTypes(baseline.getName(), id);
 					ApiType type = (ApiType) element;
-					if (type.isMemberType() || isMemberType(type.getName()) /*
-																			 * cache
-																			 * even
-																			 * a
-																			 * root
-																			 * type
-																			 * with
-																			 * a
-																			 * '$'
-																			 * in
-																			 * its
-																			 * name
-																			 * here
-																			 * as
-																			 * well
-																			 */) {
-						if (this.fMemberTypeCache == null) {
-							this.fMemberTypeCache = new Cache<>(DEFAULT_CACHE_SIZE, DEFAULT_OVERFLOW);
-						}
-						String key = getCacheKey(baseline.getName(), id, getRootName(type.getName()));
-						Cache<String, ApiType> mcache = this.fMemberTypeCache.get(key);
-						if (mcache == null) {
-							mcache = new Cache<>(DEFAULT_CACHE_SIZE, DEFAULT_OVERFLOW);
-							this.fMemberTypeCache.put(key, mcache);
-						}
-						mcache.put(type.getName(), type);
+					// cache even a root type with a '$' in its name as a member
+					// type
+					if (type.isMemberType() || isMemberType(type.getName())) {
+						Map<String, CacheEntry> members = types.fMemberTypes.computeIfAbsent(getRootName(type.getName()),
+								k -> new ConcurrentHashMap<>());
+						put(members, type.getName(), element, fMemberTypePool);
 					} else {
-						typecache.put(element.getName(), element);
+						put(types.fTypes, element.getName(), element, fTypePool);
+					}
+					if (types.fRemoved) {
+						// the component was removed while the type was put
+						removeAll(types);
 					}
 				}
 				break;
@@ -161,6 +234,121 @@ public final class ApiModelCache {
 		}
 	}
 
+	/**
+	 * Returns the types of the given component, the lookup is atomic with the
+	 * removal of the component or the baseline so the returned types are
+	 * either still mapped or marked as removed.
+	 */
+	private ComponentTypes getOrCreateComponentTypes(String baselineid, String componentid) {
+		ComponentTypes[] types = new ComponentTypes[1];
+		fBaselines.compute(baselineid, (k, components) -> {
+			Map<String, ComponentTypes> result = components == null ? new ConcurrentHashMap<>() : components;
+			types[0] = result.computeIfAbsent(componentid, c -> new ComponentTypes());
+			return result;
+		});
+		return types[0];
+	}
+
+	private void put(Map<String, CacheEntry> owner, String key, IApiElement element, Pool pool) {
+		CacheEntry entry = new CacheEntry(element, owner, key, pool, estimateSize(element), fCollectedQueue);
+		pool.fSize.addAndGet(entry.fSize);
+		CacheEntry previous = owner.put(key, entry);
+		if (previous != null) {
+			pool.fSize.addAndGet(-previous.fSize);
+		}
+		if (pool.fSize.get() > pool.fBudget) {
+			evict(pool);
+		}
+	}
+
+	/**
+	 * Evicts the least recently used entries of the given pool until it is
+	 * below 90% of its budget. Only one thread evicts at a time, other threads
+	 * do not wait for it.
+	 */
+	private void evict(Pool pool) {
+		if (!fEvictionLock.tryLock()) {
+			return;
+		}
+		try {
+			long target = pool.fBudget / 10 * 9;
+			if (pool.fSize.get() <= target) {
+				return;
+			}
+			List<CacheEntry> entries = new ArrayList<>();
+			for (Map<String, ComponentTypes> components : fBaselines.values()) {
+				for (ComponentTypes types : components.values()) {
+					if (pool == fTypePool) {
+						entries.addAll(types.fTypes.values());
+					} else {
+						for (Map<String, CacheEntry> members : types.fMemberTypes.values()) {
+							entries.addAll(members.values());
+						}
+					}
+				}
+			}
+			entries.sort(Comparator.comparingLong(entry -> entry.fLastAccess));
+			long evicted = 0;
+			for (CacheEntry entry : entries) {
+				if (pool.fSize.get() <= target) {
+					break;
+				}
+				if (entry.remove()) {
+					evicted++;
+				}
+			}
+			fEvictions.add(evicted);
+			if (ApiPlugin.DEBUG_MODEL_CACHE) {
+				System.out.println("API model cache: evicted " + evicted + " elements, " + getStatistics()); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		} finally {
+			fEvictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the entries whose elements have been released by the garbage
+	 * collector
+	 */
+	private void expungeCollected() {
+		Reference<? extends IApiElement> reference;
+		while ((reference = fCollectedQueue.poll()) != null) {
+			if (((CacheEntry) reference).remove()) {
+				fCollected.increment();
+			}
+		}
+	}
+
+	/**
+	 * Returns the estimated retained size of the given element in bytes
+	 */
+	private static long estimateSize(IApiElement element) {
+		long size = 128 + sizeOf(element.getName());
+		if (element instanceof ApiType type) {
+			size += sizeOf(type.getSignature()) + sizeOf(type.getGenericSignature());
+			for (IApiField field : type.getFields()) {
+				size += 96 + sizeOf(field.getName()) + sizeOf(field.getSignature())
+						+ sizeOf(field.getGenericSignature());
+			}
+			for (IApiMethod method : type.getMethods()) {
+				size += 128 + sizeOf(method.getName()) + sizeOf(method.getSignature())
+						+ sizeOf(method.getGenericSignature());
+				String[] exceptions = method.getExceptionNames();
+				if (exceptions != null) {
+					for (String exception : exceptions) {
+						size += 16 + sizeOf(exception);
+					}
+				}
+			}
+		}
+		return size;
+	}
+
+	private static long sizeOf(String value) {
+		// header of the string and its array, assumes compact strings
+		return value == null ? 0 : 40 + value.length();
+	}
+
 	/**
 	 * Returns the root type name assuming that the '$' char is a member type
 	 * boundary
@@ -203,67 +391,76 @@ public final class ApiModelCache {
 		if (baselineid == null || componentid == null) {
 			return null;
 		}
-		switch (type) {
-			case IApiElement.TYPE: {
-				if (isMemberType(identifier)) {
-					if (this.fMemberTypeCache != null) {
-						Cache<String, ApiType> mcache = this.fMemberTypeCache
-								.get(getCacheKey(baselineid, componentid, getRootName(identifier)));
-						if (mcache != null) {
-							return mcache.get(identifier);
-						}
-					}
-				} else {
-					if (this.fRootCache != null) {
-						Cache<String, Cache<String, IApiElement>> compcache = fRootCache.get(baselineid);
-						if (compcache != null) {
-							Cache<String, IApiElement> typecache = compcache.get(componentid);
-							if (typecache != null && identifier != null) {
-								IApiElement ele = typecache.get(identifier);
-								if (ele != null) {
-									return ele;
-								}
-
-							}
-						}
-					}
-				}
-				break;
-			}
-			default:
-				break;
+		if (type == IApiElement.TYPE && identifier != null) {
+			IApiElement element = getType(baselineid, componentid, identifier);
+			if (element != null) {
+				fHits.increment();
+				return element;
 			}
-		if (componentid.startsWith("JavaSE-") && this.fRootCache != null) { //$NON-NLS-1$
+		}
+		if (componentid.startsWith("JavaSE-") && identifier != null) { //$NON-NLS-1$
 			// for system component, retrieve element from any baseline instead
 			// of recreating the structure and caching the equivalent element info
-			IApiElement element = getElementInfoFromAnyBaseline(baselineid, componentid, identifier);
-			if (element != null) {
-				return element;
+			for (String otherBaseline : fBaselines.keySet()) {
+				if (otherBaseline.equals(baselineid)) {
+					continue;
+				}
+				IApiElement element = getRootType(otherBaseline, componentid, identifier);
+				if (element != null) {
+					fHits.increment();
+					return element;
+				}
 			}
 		}
+		fMisses.increment();
 		return null;
 	}
 
-	private IApiElement getElementInfoFromAnyBaseline(String baselineid, String componentid, String updatedIdentifier) {
-		List<String> elements = fRootCache.keysSnapshot();
-		for (String otherBaselines : elements) {
-				if (otherBaselines.equals(baselineid)) {
-					continue;
-				}
-				Cache<String, Cache<String, IApiElement>> compcache = fRootCache.get(otherBaselines);
-				if (compcache != null) {
-					Cache<String, IApiElement> typecache = compcache.get(componentid);
-					if (typecache != null && updatedIdentifier != null) {
-						IApiElement ele = typecache.get(updatedIdentifier);
-						if (ele != null) {
-							return ele;
-						}
-					}
+	private IApiElement getType(String baselineid, String componentid, String identifier) {
+		if (isMemberType(identifier)) {
+			ComponentTypes types = getComponentTypes(baselineid, componentid);
+			if (types != null) {
+				Map<String, CacheEntry> members = types.fMemberTypes.get(getRootName(identifier));
+				if (members != null) {
+					return get(members.get(identifier));
 				}
 			}
+			return null;
+		}
+		return getRootType(baselineid, componentid, identifier);
+	}
+
+	private IApiElement getRootType(String baselineid, String componentid, String identifier) {
+		ComponentTypes types = getComponentTypes(baselineid, componentid);
+		if (types != null) {
+			return get(types.fTypes.get(identifier));
+		}
 		return null;
 	}
 
+	private IApiElement get(CacheEntry entry) {
+		if (entry == null) {
+			return null;
+		}
+		IApiElement element = entry.get();
+		if (element == null) {
+			// released by the garbage collector
+			if (entry.remove()) {
+				fCollected.increment();
+			}
+			return null;
+		}
+		entry.fLastAccess = System.nanoTime();
+		return element;
+	}
+
+	private ComponentTypes getComponentTypes(String baselineid, String componentid) {
+		Map<String, ComponentTypes> components = fBaselines.get(baselineid);
+		if (components != null) {
+			return components.get(componentid);
+		}
+		return null;
+	}
 
 	/**
 	 * Removes the {@link IApiElement} from the given component (given its id)
@@ -282,60 +479,34 @@ public final class ApiModelCache {
 		switch (type) {
 			case IApiElement.TYPE: {
 				if (componentid != null && identifier != null) {
-					boolean removed = true;
-					// clean member type cache
-					if (this.fMemberTypeCache != null) {
-						if (isMemberType(identifier)) {
-							Cache<String, ApiType> mcache = this.fMemberTypeCache.get(getCacheKey(baselineid, componentid, getRootName(identifier)));
-							if (mcache != null) {
-								return mcache.remove(identifier) != null;
-							}
-						} else {
-							this.fMemberTypeCache.remove(getCacheKey(baselineid, componentid, getRootName(identifier)));
-						}
+					ComponentTypes types = getComponentTypes(baselineid, componentid);
+					if (types == null) {
+						return false;
 					}
-					if (fRootCache != null) {
-						Cache<String, Cache<String, IApiElement>> compcache = fRootCache.get(baselineid);
-						if (compcache != null) {
-							Cache<String, IApiElement> typecache = compcache.get(componentid);
-							if (typecache != null) {
-								removed &= typecache.remove(identifier) != null;
-								if (typecache.isEmpty()) {
-									removed &= compcache.remove(componentid) != null;
-								}
-								if (compcache.isEmpty()) {
-									removed &= fRootCache.remove(baselineid) != null;
-								}
-								return removed;
-							}
-
-						}
+					boolean removed;
+					if (isMemberType(identifier)) {
+						Map<String, CacheEntry> members = types.fMemberTypes.get(getRootName(identifier));
+						removed = members != null && remove(members.get(identifier));
 					} else {
-						return false;
+						// a root type is removed together with its member types
+						removeAll(types.fMemberTypes.remove(identifier));
+						removed = remove(types.fTypes.get(identifier));
+					}
+					if (types.isEmpty()) {
+						removeComponent(baselineid, componentid);
 					}
+					return removed;
 				}
 				break;
 			}
 			case IApiElement.COMPONENT: {
-				flushMemberCache();
-				if (fRootCache != null && componentid != null) {
-					Cache<String, Cache<String, IApiElement>> compcache = fRootCache.get(baselineid);
-					if (compcache != null) {
-						boolean removed = compcache.remove(componentid) != null;
-						if (compcache.isEmpty()) {
-							removed &= fRootCache.remove(baselineid) != null;
-						}
-						return removed;
-					}
+				if (componentid != null) {
+					return removeComponent(baselineid, componentid);
 				}
 				break;
 			}
 			case IApiElement.BASELINE: {
-				flushMemberCache();
-				if (fRootCache != null) {
-					return fRootCache.remove(baselineid) != null;
-				}
-				break;
+				return removeBaseline(baselineid);
 			}
 			default:
 				break;
@@ -356,26 +527,19 @@ public final class ApiModelCache {
 		switch (element.getType()) {
 			case IApiElement.COMPONENT:
 			case IApiElement.TYPE: {
-				if (fRootCache != null) {
-					IApiComponent comp = element.getApiComponent();
-					if (comp != null) {
-						try {
-							IApiBaseline baseline = comp.getBaseline();
-							return removeElementInfo(baseline.getName(), comp.getSymbolicName(), element.getName(), element.getType());
-						} catch (CoreException ce) {
-							ApiPlugin.log("Failed to remove element info for " + comp.getName(), ce); //$NON-NLS-1$
-						}
+				IApiComponent comp = element.getApiComponent();
+				if (comp != null) {
+					try {
+						IApiBaseline baseline = comp.getBaseline();
+						return removeElementInfo(baseline.getName(), comp.getSymbolicName(), element.getName(), element.getType());
+					} catch (CoreException ce) {
+						ApiPlugin.log("Failed to remove element info for " + comp.getName(), ce); //$NON-NLS-1$
 					}
 				}
 				break;
 			}
 			case IApiElement.BASELINE: {
-				flushMemberCache();
-				if (fRootCache != null) {
-					IApiBaseline baseline = (IApiBaseline) element;
-					return fRootCache.remove(baseline.getName()) != null;
-				}
-				break;
+				return removeBaseline(((IApiBaseline) element).getName());
 			}
 			default:
 				break;
@@ -383,23 +547,64 @@ public final class ApiModelCache {
 		return false;
 	}
 
-	/**
-	 * Clears out all cached information.
-	 */
-	public void flushCaches() {
-		if (fRootCache != null) {
-			fRootCache.flush();
+	private boolean removeComponent(String baselineid, String componentid) {
+		ComponentTypes[] removed = new ComponentTypes[1];
+		fBaselines.computeIfPresent(baselineid, (k, components) -> {
+			removed[0] = components.remove(componentid);
+			if (removed[0] != null) {
+				removed[0].fRemoved = true;
+			}
+			return components.isEmpty() ? null : components;
+		});
+		if (removed[0] == null) {
+			return false;
+		}
+		removeAll(removed[0]);
+		return true;
+	}
+
+	private boolean removeBaseline(String baselineid) {
+		Map<String, ComponentTypes> components = fBaselines.remove(baselineid);
+		if (components == null) {
+			return false;
+		}
+		for (ComponentTypes types : components.values()) {
+			types.fRemoved = true;
+			removeAll(types);
+		}
+		return true;
+	}
+
+	private static boolean remove(CacheEntry entry) {
+		return entry != null && entry.remove();
+	}
+
+	private static void removeAll(ComponentTypes types) {
+		removeAll(types.fTypes);
+		for (Map<String, CacheEntry> members : types.fMemberTypes.values()) {
+			removeAll(members);
+		}
+	}
+
+	private static void removeAll(Map<String, CacheEntry> entries) {
+		if (entries != null) {
+			for (CacheEntry entry : entries.values()) {
+				entry.remove();
+			}
 		}
-		flushMemberCache();
 	}
 
 	/**
-	 * Flushes the cache of member types
+	 * Clears out all cached information.
 	 */
-	private void flushMemberCache() {
-		if (this.fMemberTypeCache != null) {
-			this.fMemberTypeCache.flush();
+	public void flushCaches() {
+		if (ApiPlugin.DEBUG_MODEL_CACHE) {
+			System.out.println("API model cache: flushing, " + getStatistics()); //$NON-NLS-1$
+		}
+		for (String baselineid : fBaselines.keySet()) {
+			removeBaseline(baselineid);
 		}
+		expungeCollected();
 	}
 
 	/**
@@ -408,13 +613,21 @@ public final class ApiModelCache {
 	 * @return true if the cache has no entries, false otherwise
 	 */
 	public boolean isEmpty() {
-		boolean empty = true;
-		if (fRootCache != null) {
-			empty &= fRootCache.isEmpty();
-		}
-		if (this.fMemberTypeCache != null) {
-			empty &= this.fMemberTypeCache.isEmpty();
+		for (Map<String, ComponentTypes> components : fBaselines.values()) {
+			for (ComponentTypes types : components.values()) {
+				if (!types.isEmpty()) {
+					return false;
+				}
+			}
 		}
-		return empty;
+		return true;
+	}
+
+	/**
+	 * @return the current counters of the cache
+	 */
+	public Statistics getStatistics() {
+		return new Statistics(fHits.sum(), fMisses.sum(), fEvictions.sum(), fCollected.sum(), fTypePool.fSize.get(),
+				fMemberTypePool.fSize.get());
 	}
 }
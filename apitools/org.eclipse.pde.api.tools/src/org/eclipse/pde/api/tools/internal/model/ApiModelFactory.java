@@ -95,6 +95,26 @@ public class ApiModelFactory {
 		return null;
 	}
 
+	/**
+	 * Creates and returns a new API component for this baseline that reads its
+	 * manifest and API description from the given baseline snapshot entry or
+	 * <code>null</code> if the entry does not describe a valid API component.
+	 * The component is not added to the baseline.
+	 *
+	 * @param baseline the baseline the component is created for
+	 * @param entry the snapshot entry of the component
+	 * @return API component or <code>null</code>
+	 * @exception CoreException if unable to create the component
+	 */
+	static IApiComponent newApiComponent(IApiBaseline baseline, ApiBaselineSnapshot.SnapshotEntry entry)
+			throws CoreException {
+		BundleComponent component = new BundleComponent(baseline, entry.getLocation(), getBundleID(), entry);
+		if (component.isValidBundle()) {
+			return component;
+		}
+		return null;
+	}
+
 	/**
 	 * Creates and returns a new API component for this baseline based on the
 	 * given model or <code>null</code> if the given model cannot be resolved or
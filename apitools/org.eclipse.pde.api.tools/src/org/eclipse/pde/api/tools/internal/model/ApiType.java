@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2018 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -157,8 +157,7 @@ public class ApiType extends ApiMember implements IApiType {
 	public List<IReference> extractReferences(int referenceMask, IProgressMonitor monitor) throws CoreException {
 		HashSet<Reference> references = new HashSet<>();
 		ReferenceExtractor extractor = new ReferenceExtractor(this, references, referenceMask);
-		ClassReader reader = new ClassReader(((AbstractApiTypeRoot) fStorage).getContents());
-		reader.accept(extractor, ClassReader.SKIP_FRAMES);
+		ClassFileCache.getClassReader((AbstractApiTypeRoot) fStorage).accept(extractor, ClassReader.SKIP_FRAMES);
 		return new LinkedList<>(references);
 	}
 
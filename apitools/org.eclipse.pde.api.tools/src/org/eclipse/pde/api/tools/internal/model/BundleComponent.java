@@ -163,6 +163,12 @@ public class BundleComponent extends Component {
 	 */
 	private volatile String[] fdeclaredRequiredEE;
 
+	/**
+	 * The entry of the baseline snapshot this component reads its manifest and
+	 * API description from or <code>null</code> if read from the location
+	 */
+	private final ApiBaselineSnapshot.SnapshotEntry fSnapshotEntry;
+
 	/**
 	 * Constructs a new API component from the specified location in the file
 	 * system in the given baseline.
@@ -173,9 +179,26 @@ public class BundleComponent extends Component {
 	 *                specified location
 	 */
 	public BundleComponent(IApiBaseline baseline, String location, long bundleid) throws CoreException {
+		this(baseline, location, bundleid, null);
+	}
+
+	/**
+	 * Constructs a new API component from the specified location in the file
+	 * system in the given baseline that is restored from a baseline snapshot.
+	 *
+	 * @param baseline owning API baseline
+	 * @param location directory or jar file
+	 * @param snapshotEntry the snapshot entry of the component or
+	 *            <code>null</code>
+	 * @exception CoreException if unable to create a component from the
+	 *                specified location
+	 */
+	BundleComponent(IApiBaseline baseline, String location, long bundleid,
+			ApiBaselineSnapshot.SnapshotEntry snapshotEntry) throws CoreException {
 		super(baseline);
 		fLocation = location;
 		fBundleId = bundleid;
+		fSnapshotEntry = snapshotEntry;
 		fWorkspaceBinary = isBinary() && ApiBaselineManager.WORKSPACE_API_BASELINE_ID.equals(baseline.getName())
 		/*
 		 * Workaround for bad architecture, see bug 488694: We don't know if the
@@ -214,7 +237,9 @@ public class BundleComponent extends Component {
 		if (fManifest != null) {
 			return fManifest;
 		}
-		Map<String, String> manifest = loadManifest(new File(fLocation), isWorkspaceBinary());
+		ApiBaselineSnapshot.SnapshotEntry entry = getSnapshotEntry();
+		Map<String, String> manifest = entry != null ? entry.readManifest()
+				: loadManifest(new File(fLocation), isWorkspaceBinary());
 		synchronized (this) {
 			if (fManifest == null) {
 				fManifest = manifest;
@@ -223,7 +248,7 @@ public class BundleComponent extends Component {
 		}
 	}
 
-	private static Map<String, String> loadManifest(File bundleLocation, boolean isWorkspaceBinary)
+	static Map<String, String> loadManifest(File bundleLocation, boolean isWorkspaceBinary)
 			throws CoreException {
 		try {
 			Map<String, String> manifest = ManifestUtils.loadManifest(bundleLocation);
@@ -429,10 +454,13 @@ public class BundleComponent extends Component {
 	 */
 	protected IApiDescription createLocalApiDescription() throws CoreException {
 		IApiDescription apiDesc = new ApiDescription(getSymbolicName());
+		ApiBaselineSnapshot.SnapshotEntry entry = getSnapshotEntry();
 		// first mark all packages as internal
-		initializeApiDescription(apiDesc, getBundleDescription(), getLocalPackageNames());
+		initializeApiDescription(apiDesc, getBundleDescription(),
+				entry != null ? entry.readPackageNames() : getLocalPackageNames());
 		try {
-			String xml = loadApiDescription(new File(fLocation));
+			String xml = entry != null ? entry.readApiDescription()
+					: loadApiDescription(new File(fLocation));
 			setHasApiDescription(xml != null);
 			if (xml != null) {
 				ApiDescriptionProcessor.annotateApiSettings(null, apiDesc, xml);
@@ -984,6 +1012,16 @@ public class BundleComponent extends Component {
 		return fLocation;
 	}
 
+	/**
+	 * @return the entry of the baseline snapshot this component was restored
+	 *         from or <code>null</code> if it was not restored from a snapshot
+	 *         or the snapshot file was replaced since
+	 */
+	ApiBaselineSnapshot.SnapshotEntry getSnapshotEntry() {
+		ApiBaselineSnapshot.SnapshotEntry entry = fSnapshotEntry;
+		return entry != null && entry.isReadable() ? entry : null;
+	}
+
 	@Override
 	public boolean isSystemComponent() {
 		return false;
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.internal.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.pde.api.tools.internal.provisional.ApiPlugin;
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Shares the decoded class files of the {@link AbstractApiTypeRoot}s during an
+ * API analysis build. The type structures built for the compatibility check
+ * and the references extracted for the API usage scan are read from the same
+ * {@link ClassReader}, a class file is only read and decoded once per build.
+ * <p>
+ * Entries are keyed by the identity of the type root and the stamp of its
+ * contents, a changed class file is read again. The cache is only active
+ * between {@link #open()} and {@link #close()}, outside of a build each request
+ * reads the class file.
+ * </p>
+ */
+public final class ClassFileCache {
+
+	/**
+	 * The number of entries above which the cache is cleared
+	 */
+	private static final int MAX_SIZE = 1 << 14;
+
+	private static final AtomicInteger fOpenCount = new AtomicInteger();
+	private static final Map<TypeRootKey, Entry> fEntries = new ConcurrentHashMap<>();
+	private static final LongAdder fHits = new LongAdder();
+	private static final LongAdder fMisses = new LongAdder();
+
+	/**
+	 * Identifies a type root by identity, some type roots consider equal all
+	 * roots with the same name
+	 */
+	private static final class TypeRootKey {
+		private final AbstractApiTypeRoot fRoot;
+
+		TypeRootKey(AbstractApiTypeRoot root) {
+			fRoot = root;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof TypeRootKey other && other.fRoot == fRoot;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(fRoot);
+		}
+	}
+
+	private record Entry(long stamp, ClassReader reader) {
+	}
+
+	private ClassFileCache() {
+	}
+
+	/**
+	 * Activates the cache, each call must be followed by a call to
+	 * {@link #close()}. Concurrent builds share the cache, it is cleared when
+	 * the last of them closes it.
+	 */
+	public static void open() {
+		if (fOpenCount.getAndIncrement() == 0) {
+			fHits.reset();
+			fMisses.reset();
+		}
+	}
+
+	/**
+	 * Releases the cache opened by {@link #open()}
+	 */
+	public static void close() {
+		if (fOpenCount.decrementAndGet() == 0) {
+			if (ApiPlugin.DEBUG_BUILDER) {
+				System.out.println("ClassFileCache: " + getHitCount() + " hits, " + getMissCount() + " misses"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+			fEntries.clear();
+		}
+	}
+
+	/**
+	 * Returns the reader for the class file of the given type root. The
+	 * returned reader must not be modified, it may be shared with other
+	 * callers.
+	 *
+	 * @param root the type root to read
+	 * @return the reader for the contents of the type root
+	 * @throws CoreException if the class file cannot be read
+	 */
+	public static ClassReader getClassReader(AbstractApiTypeRoot root) throws CoreException {
+		if (fOpenCount.get() == 0) {
+			return new ClassReader(root.getContents());
+		}
+		TypeRootKey key = new TypeRootKey(root);
+		long stamp = root.getContentStamp();
+		Entry entry = fEntries.get(key);
+		if (entry != null && entry.stamp() == stamp) {
+			fHits.increment();
+			return entry.reader();
+		}
+		fMisses.increment();
+		ClassReader reader = new ClassReader(root.getContents());
+		if (fEntries.size() > MAX_SIZE) {
+			fEntries.clear();
+		}
+		fEntries.put(key, new Entry(stamp, reader));
+		return reader;
+	}
+
+	/**
+	 * @return the number of requests answered from the cache since it was
+	 *         opened
+	 */
+	public static long getHitCount() {
+		return fHits.sum();
+	}
+
+	/**
+	 * @return the number of class files read since the cache was opened
+	 */
+	public static long getMissCount() {
+		return fMisses.sum();
+	}
+}
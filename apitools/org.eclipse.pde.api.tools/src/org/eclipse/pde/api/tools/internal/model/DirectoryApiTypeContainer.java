@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -92,6 +92,11 @@ public class DirectoryApiTypeContainer extends ApiElement implements IApiTypeCon
 				return null;
 			}
 		}
+
+		@Override
+		long getContentStamp() {
+			return new File(fLocation).lastModified();
+		}
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2020 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -269,6 +269,28 @@ public class TypeStructureBuilder extends ClassVisitor {
 		return visitor.fType;
 	}
 
+	/**
+	 * Builds a type structure for the class file of the given type root in the
+	 * specified API component.
+	 *
+	 * @param file class file to read
+	 * @param component originating API component
+	 * @throws CoreException if the class file cannot be read
+	 */
+	static IApiType buildTypeStructure(AbstractApiTypeRoot file, IApiComponent component) throws CoreException {
+		TypeStructureBuilder visitor = new TypeStructureBuilder(new ClassNode(), component, file);
+		try {
+			ClassFileCache.getClassReader(file).accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+		} catch (ArrayIndexOutOfBoundsException e) {
+			logAndReturn(file, e);
+			return null;
+		} catch (IllegalArgumentException iae) {
+			// thrown from ASM 5.0 for bad bytecodes
+			return logAndReturn(file, iae);
+		}
+		return visitor.fType;
+	}
+
 	/**
 	 * Builds a type structure with the given .class file bytes in the specified
 	 * API component.
@@ -278,8 +300,7 @@ public class TypeStructureBuilder extends ClassVisitor {
 		if (typeRoot instanceof AbstractApiTypeRoot abstractApiTypeRoot) {
 			EnclosingMethodSetter visitor = new EnclosingMethodSetter(new ClassNode(), currentAnonymousLocalType.getName());
 			try {
-				ClassReader classReader = new ClassReader(abstractApiTypeRoot.getContents());
-				classReader.accept(visitor, ClassReader.SKIP_FRAMES);
+				ClassFileCache.getClassReader(abstractApiTypeRoot).accept(visitor, ClassReader.SKIP_FRAMES);
 			} catch (ArrayIndexOutOfBoundsException | CoreException e) {
 				// bytes could not be retrieved for abstractApiTypeRoot
 				ApiPlugin.log(e);
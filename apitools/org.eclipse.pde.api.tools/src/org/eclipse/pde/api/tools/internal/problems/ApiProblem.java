@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2021 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -53,6 +53,10 @@ public class ApiProblem implements IApiProblem {
 	 * The listing of corresponding arguments for the problem
 	 */
 	private Object[] fExtraArguments = null;
+	/**
+	 * The message arguments of a problem without arguments
+	 */
+	private static final String[] NO_MESSAGE_ARGUMENTS = new String[0];
 	/**
 	 * The listing of arguments used to fill localized messages
 	 */
@@ -203,7 +207,7 @@ public class ApiProblem implements IApiProblem {
 	@Override
 	public String[] getMessageArguments() {
 		if (fMessageArguments == null) {
-			return new String[0];
+			return NO_MESSAGE_ARGUMENTS;
 		}
 		return fMessageArguments;
 	}
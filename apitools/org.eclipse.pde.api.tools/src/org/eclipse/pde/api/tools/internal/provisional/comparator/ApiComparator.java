@@ -13,12 +13,19 @@
  *******************************************************************************/
 package org.eclipse.pde.api.tools.internal.provisional.comparator;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.pde.api.tools.internal.builder.AbstractProblemDetector;
@@ -245,6 +252,10 @@ public class ApiComparator {
 	 *                </ul>
 	 */
 	public static IDelta compare(final IApiComponent referenceComponent, final IApiComponent component2, final IApiBaseline referenceBaseline, final IApiBaseline baseline, final int visibilityModifiers, final IProgressMonitor monitor) {
+		return compare(referenceComponent, component2, referenceBaseline, baseline, visibilityModifiers, null, monitor);
+	}
+
+	private static IDelta compare(final IApiComponent referenceComponent, final IApiComponent component2, final IApiBaseline referenceBaseline, final IApiBaseline baseline, final int visibilityModifiers, final ExecutorService executor, final IProgressMonitor monitor) {
 		SubMonitor localmonitor = SubMonitor.convert(monitor, 3);
 		try {
 			if (referenceComponent == null) {
@@ -281,7 +292,7 @@ public class ApiComparator {
 						currentEE,
 						Util.getComponentVersionsId(referenceComponent) }));
 			}
-			return internalCompare(referenceComponent, component2, referenceBaseline, baseline, visibilityModifiers, globalDelta, localmonitor.split(1));
+			return internalCompare(referenceComponent, component2, referenceBaseline, baseline, visibilityModifiers, globalDelta, executor, localmonitor.split(1));
 		} catch (CoreException e) {
 			// null means an error case
 			return null;
@@ -311,6 +322,36 @@ public class ApiComparator {
 		return null;
 	}
 
+	/**
+	 * Returns a delta that corresponds to the difference between the given
+	 * component and the given reference component. The given component cannot
+	 * be null.
+	 * <p>
+	 * The types of the components are compared concurrently using the given
+	 * executor, the resulting delta is the same as the one computed by
+	 * {@link #compare(IApiComponent, IApiComponent, int, IProgressMonitor)}.
+	 * </p>
+	 *
+	 * @param referenceComponent the given API component that is used as the
+	 *            reference
+	 * @param component the given component to compare with
+	 * @param visibilityModifiers the given visibility that triggers what
+	 *            visibility should be used for the comparison
+	 * @param executor the executor to compare the types with or
+	 *            <code>null</code> to compare them in the calling thread
+	 *
+	 * @return a delta, an empty delta if no difference is found or null if the
+	 *         delta detection failed
+	 */
+	public static IDelta compare(final IApiComponent referenceComponent, final IApiComponent component, final int visibilityModifiers, final ExecutorService executor, final IProgressMonitor monitor) {
+		try {
+			return compare(referenceComponent, component, referenceComponent == null ? null : referenceComponent.getBaseline(), component.getBaseline(), visibilityModifiers, executor, monitor);
+		} catch (CoreException e) {
+			ApiPlugin.log(e);
+		}
+		return null;
+	}
+
 	/**
 	 * Returns a delta that corresponds to the comparison of the given class
 	 * file with the reference.
@@ -606,8 +647,9 @@ public class ApiComparator {
 	 *
 	 * @return a delta of changed API elements
 	 */
-	private static IDelta internalCompare(final IApiComponent component, final IApiComponent component2, final IApiBaseline referenceBaseline, final IApiBaseline baseline, final int visibilityModifiers, final Delta globalDelta, final IProgressMonitor monitor) throws CoreException {
+	private static IDelta internalCompare(final IApiComponent component, final IApiComponent component2, final IApiBaseline referenceBaseline, final IApiBaseline baseline, final int visibilityModifiers, final Delta globalDelta, final ExecutorService executor, final IProgressMonitor monitor) throws CoreException {
 		final Set<String> typeRootBaseLineNames = new HashSet<>();
+		final OrderedDeltas typeDeltas = new OrderedDeltas(globalDelta, executor);
 		final String id = component.getSymbolicName();
 		final SubMonitor localmonitor = SubMonitor.convert(monitor, 4);
 		IApiTypeContainer[] typeRootContainers = component.getApiTypeContainers(id);
@@ -689,7 +731,7 @@ public class ApiComparator {
 											return;
 										}
 									}
-									globalDelta.add(new Delta(deltaComponentID, IDelta.API_COMPONENT_ELEMENT_TYPE, IDelta.REMOVED, IDelta.TYPE, RestrictionModifiers.NO_RESTRICTIONS, RestrictionModifiers.NO_RESTRICTIONS, typeDescriptor.getModifiers(), 0, typeName, typeName, new String[] {
+									typeDeltas.add(new Delta(deltaComponentID, IDelta.API_COMPONENT_ELEMENT_TYPE, IDelta.REMOVED, IDelta.TYPE, RestrictionModifiers.NO_RESTRICTIONS, RestrictionModifiers.NO_RESTRICTIONS, typeDescriptor.getModifiers(), 0, typeName, typeName, new String[] {
 											typeName,
 													component2.isFragment()
 															? Util.getComponentVersionsId(component2.getHost())
@@ -715,7 +757,7 @@ public class ApiComparator {
 									}
 									if (Util.isAPI(visibility, typeDescriptor)) {
 										if (!Util.isAPI(visibility2, typeDescriptor2)) {
-											globalDelta.add(new Delta(deltaComponentID, IDelta.API_COMPONENT_ELEMENT_TYPE, IDelta.REMOVED, reexported ? IDelta.REEXPORTED_API_TYPE : IDelta.API_TYPE, elementDescription2 != null ? elementDescription2.getRestrictions() : RestrictionModifiers.NO_RESTRICTIONS, RestrictionModifiers.NO_RESTRICTIONS, typeDescriptor.getModifiers(), typeDescriptor2.getModifiers(), typeName, typeName, new String[] {
+											typeDeltas.add(new Delta(deltaComponentID, IDelta.API_COMPONENT_ELEMENT_TYPE, IDelta.REMOVED, reexported ? IDelta.REEXPORTED_API_TYPE : IDelta.API_TYPE, elementDescription2 != null ? elementDescription2.getRestrictions() : RestrictionModifiers.NO_RESTRICTIONS, RestrictionModifiers.NO_RESTRICTIONS, typeDescriptor.getModifiers(), typeDescriptor2.getModifiers(), typeName, typeName, new String[] {
 													typeName,
 													Util.getComponentVersionsId(component2) }));
 											return;
@@ -723,22 +765,12 @@ public class ApiComparator {
 									}
 									if ((visibility2 & visibilityModifiers) == 0) {
 										// we simply report a changed visibility
-										globalDelta.add(new Delta(deltaComponentID, IDelta.API_COMPONENT_ELEMENT_TYPE, IDelta.CHANGED, IDelta.TYPE_VISIBILITY, elementDescription2 != null ? elementDescription2.getRestrictions() : RestrictionModifiers.NO_RESTRICTIONS, RestrictionModifiers.NO_RESTRICTIONS, typeDescriptor.getModifiers(), typeDescriptor2.getModifiers(), typeName, typeName, new String[] {
+										typeDeltas.add(new Delta(deltaComponentID, IDelta.API_COMPONENT_ELEMENT_TYPE, IDelta.CHANGED, IDelta.TYPE_VISIBILITY, elementDescription2 != null ? elementDescription2.getRestrictions() : RestrictionModifiers.NO_RESTRICTIONS, RestrictionModifiers.NO_RESTRICTIONS, typeDescriptor.getModifiers(), typeDescriptor2.getModifiers(), typeName, typeName, new String[] {
 												typeName,
 												Util.getComponentVersionsId(component2) }));
 									}
 									typeRootBaseLineNames.add(typeName);
-									ClassFileComparator comparator = new ClassFileComparator(typeDescriptor, typeRoot2, component, provider, referenceBaseline, baseline, visibilityModifiers);
-									IDelta delta = comparator.getDelta();
-									if (ApiPlugin.DEBUG_API_COMPARATOR) {
-										IStatus status = comparator.getStatus();
-										if (status != null) {
-											ApiPlugin.log(status);
-										}
-									}
-									if (delta != null && delta != NO_DELTA) {
-										globalDelta.add(delta);
-									}
+									typeDeltas.add(new ClassFileComparator(typeDescriptor, typeRoot2, component, provider, referenceBaseline, baseline, visibilityModifiers));
 								}
 							} catch (CoreException e) {
 								ApiPlugin.log(e);
@@ -751,6 +783,8 @@ public class ApiComparator {
 					AbstractProblemDetector.checkIfDisposed(container.getApiComponent(), loopMonitor);
 				}
 			}
+			// add the deltas in the order the types were visited
+			typeDeltas.flush();
 		}
 		localmonitor.setWorkRemaining(3);
 		IRequiredComponentDescription[] requiredComponents = component.getRequiredComponents();
@@ -976,4 +1010,75 @@ public class ApiComparator {
 		}
 		return globalDelta.isEmpty() ? NO_DELTA : globalDelta;
 	}
+
+	/**
+	 * Collects the deltas of the visited types in visiting order. If an
+	 * executor is given the {@link ClassFileComparator}s run concurrently and
+	 * the deltas are only added to the target delta on {@link #flush()} to
+	 * keep the order independent of the execution order.
+	 */
+	private static final class OrderedDeltas {
+
+		private final Delta fTarget;
+		private final ExecutorService fExecutor;
+		private final List<Future<IDelta>> fPending = new ArrayList<>();
+
+		OrderedDeltas(Delta target, ExecutorService executor) {
+			fTarget = target;
+			fExecutor = executor;
+		}
+
+		void add(IDelta delta) {
+			if (fExecutor == null) {
+				fTarget.add(delta);
+			} else {
+				fPending.add(CompletableFuture.completedFuture(delta));
+			}
+		}
+
+		void add(ClassFileComparator comparator) {
+			if (fExecutor == null) {
+				addDelta(getDelta(comparator));
+			} else {
+				fPending.add(fExecutor.submit(() -> getDelta(comparator)));
+			}
+		}
+
+		void flush() {
+			try {
+				for (Future<IDelta> future : fPending) {
+					try {
+						addDelta(future.get());
+					} catch (ExecutionException e) {
+						ApiPlugin.log(e.getCause());
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} finally {
+				for (Future<IDelta> future : fPending) {
+					future.cancel(false);
+				}
+				fPending.clear();
+			}
+		}
+
+		private void addDelta(IDelta delta) {
+			if (delta != null && delta != NO_DELTA) {
+				fTarget.add(delta);
+			}
+		}
+
+		private static IDelta getDelta(ClassFileComparator comparator) {
+			IDelta delta = comparator.getDelta();
+			if (ApiPlugin.DEBUG_API_COMPARATOR) {
+				IStatus status = comparator.getStatus();
+				if (status != null) {
+					ApiPlugin.log(status);
+				}
+			}
+			return delta;
+		}
+	}
 }
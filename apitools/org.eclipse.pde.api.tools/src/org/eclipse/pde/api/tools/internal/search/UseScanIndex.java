@@ -0,0 +1,440 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.api.tools.internal.search;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.pde.api.tools.internal.provisional.ApiPlugin;
+import org.eclipse.pde.api.tools.internal.provisional.Factory;
+import org.eclipse.pde.api.tools.internal.provisional.descriptors.IComponentDescriptor;
+import org.eclipse.pde.api.tools.internal.provisional.descriptors.IElementDescriptor;
+import org.eclipse.pde.api.tools.internal.provisional.descriptors.IMemberDescriptor;
+import org.eclipse.pde.api.tools.internal.provisional.descriptors.IMethodDescriptor;
+import org.eclipse.pde.api.tools.internal.provisional.descriptors.IReferenceTypeDescriptor;
+
+/**
+ * A binary index of an API use scan (XML directory). The scan is parsed once
+ * with the {@link UseScanParser}, the references are then stored grouped by
+ * the referenced component and the referenced root type, so the references to
+ * a set of types can be read without parsing the XML reports again.
+ * <p>
+ * Only the string table and the segment table are deserialized when an index
+ * is opened, the references are deserialized on demand for the requested
+ * types. The index file is read into the heap rather than mapped, so it can be
+ * replaced while an outdated index is still referenced. The index records a
+ * stamp of the scan directory structure and is rebuilt when the scan changes.
+ * </p>
+ */
+public final class UseScanIndex {
+
+	private static final int MAGIC = 0x41505553; // "APUS"
+
+	private static final int VERSION = 1;
+
+	private static final int NONE = -1;
+
+	private final ByteBuffer fBuffer;
+	private final String fLocation;
+	private final long fStamp;
+	private final String[] fStrings;
+	/**
+	 * referenced component id -> referenced root type -> segments
+	 */
+	private final Map<String, Map<String, List<Segment>>> fSegments;
+	private final int fDataStart;
+
+	/**
+	 * The references of a referenced root type contributed by one version of
+	 * the referenced component
+	 */
+	private record Segment(int offset, int count) {
+	}
+
+	private UseScanIndex(ByteBuffer buffer) throws IOException {
+		fBuffer = buffer;
+		try {
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException("Not an API use scan index"); //$NON-NLS-1$
+			}
+			if (buffer.getInt() != VERSION) {
+				throw new IOException("Unsupported API use scan index version"); //$NON-NLS-1$
+			}
+			fStamp = buffer.getLong();
+			fLocation = readString(buffer);
+			int count = buffer.getInt();
+			fStrings = new String[count];
+			for (int i = 0; i < count; i++) {
+				fStrings[i] = readString(buffer);
+			}
+			count = buffer.getInt();
+			fSegments = new HashMap<>();
+			for (int i = 0; i < count; i++) {
+				String component = getString(buffer.getInt());
+				String type = getString(buffer.getInt());
+				Segment segment = new Segment(buffer.getInt(), buffer.getInt());
+				fSegments.computeIfAbsent(component, c -> new LinkedHashMap<>())
+						.computeIfAbsent(type, t -> new ArrayList<>(1)).add(segment);
+			}
+			fDataStart = buffer.position();
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new IOException("Corrupted API use scan index", e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns the index for the API use scan at the given location. An index
+	 * previously written to the given file is reused if it still matches the
+	 * scan, otherwise the scan is parsed and the index is written to the file.
+	 *
+	 * @param location the API use scan (XML directory)
+	 * @param indexFile the file to persist the index in or <code>null</code>
+	 *            if the index should only be kept in memory
+	 * @param monitor progress monitor
+	 * @return the index of the scan
+	 * @throws Exception if the scan cannot be parsed
+	 */
+	public static UseScanIndex load(String location, Path indexFile, IProgressMonitor monitor) throws Exception {
+		long stamp = computeStamp(location);
+		if (indexFile != null && Files.isRegularFile(indexFile)) {
+			try {
+				UseScanIndex index = open(indexFile);
+				if (index.fStamp == stamp && index.fLocation.equals(location)) {
+					return index;
+				}
+			} catch (IOException e) {
+				// rebuild it below
+			}
+		}
+		byte[] bytes = build(location, stamp, monitor);
+		if (indexFile != null) {
+			try {
+				write(bytes, indexFile);
+			} catch (IOException e) {
+				ApiPlugin.log("Error writing API use scan index " + indexFile, e); //$NON-NLS-1$
+			}
+		}
+		return new UseScanIndex(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Opens the index stored in the given file
+	 *
+	 * @param file the index file
+	 * @return the index
+	 * @throws IOException if the file cannot be read or is not an index
+	 */
+	public static UseScanIndex open(Path file) throws IOException {
+		// a mapped file could not be replaced on all platforms while it is
+		// still mapped by an outdated index
+		return new UseScanIndex(ByteBuffer.wrap(Files.readAllBytes(file)));
+	}
+
+	/**
+	 * @return the location of the indexed API use scan
+	 */
+	public String getLocation() {
+		return fLocation;
+	}
+
+	/**
+	 * @return whether the API use scan is unchanged since the index was built
+	 */
+	public boolean isCurrent() {
+		return computeStamp(fLocation) == fStamp;
+	}
+
+	/**
+	 * Adds the references to the given types of the given component to the
+	 * collection.
+	 *
+	 * @param componentId the symbolic name of the referenced component
+	 * @param types the referenced root types, or <code>null</code> for all
+	 *            types of the component
+	 * @param references the collection to add the references to
+	 * @return the number of references read from the index
+	 * @throws IOException if the index is corrupted
+	 */
+	public int collect(String componentId, String[] types, IReferenceCollection references) throws IOException {
+		Map<String, List<Segment>> segments = fSegments.get(componentId);
+		if (segments == null) {
+			return 0;
+		}
+		int count = 0;
+		try {
+			if (types == null || types.length == 0) {
+				for (Entry<String, List<Segment>> entry : segments.entrySet()) {
+					count += collect(entry.getKey(), entry.getValue(), references);
+				}
+			} else {
+				for (String type : types) {
+					List<Segment> typeSegments = segments.get(type);
+					if (typeSegments != null) {
+						count += collect(type, typeSegments, references);
+					}
+				}
+			}
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new IOException("Corrupted API use scan index " + fLocation, e); //$NON-NLS-1$
+		}
+		return count;
+	}
+
+	private int collect(String type, List<Segment> segments, IReferenceCollection references) {
+		int count = 0;
+		for (Segment segment : segments) {
+			// every reader uses its own view so lookups can run concurrently
+			ByteBuffer buffer = fBuffer.duplicate().position(fDataStart + segment.offset());
+			for (int i = 0; i < segment.count(); i++) {
+				references.add(type, readReference(buffer));
+			}
+			count += segment.count();
+		}
+		return count;
+	}
+
+	private IReferenceDescriptor readReference(ByteBuffer buffer) {
+		IComponentDescriptor component = readComponent(buffer);
+		IMemberDescriptor member = readMember(buffer);
+		int line = buffer.getInt();
+		IComponentDescriptor referencedComponent = readComponent(buffer);
+		IMemberDescriptor referencedMember = readMember(buffer);
+		int kind = buffer.getInt();
+		int flags = buffer.getInt();
+		int visibility = buffer.getInt();
+		return new ReferenceDescriptor(component, member, line, referencedComponent, referencedMember, kind, flags,
+				visibility, null);
+	}
+
+	private IComponentDescriptor readComponent(ByteBuffer buffer) {
+		String id = getString(buffer.getInt());
+		return Factory.componentDescriptor(id, getString(buffer.getInt()));
+	}
+
+	private IMemberDescriptor readMember(ByteBuffer buffer) {
+		int kind = buffer.get();
+		String type = getString(buffer.getInt());
+		String name = getString(buffer.getInt());
+		String signature = getString(buffer.getInt());
+		return switch (kind)
+			{
+			case IElementDescriptor.METHOD -> Factory.methodDescriptor(type, name, signature);
+			case IElementDescriptor.FIELD -> Factory.fieldDescriptor(type, name);
+			case IElementDescriptor.TYPE -> Factory.typeDescriptor(type);
+			default -> throw new IllegalArgumentException("Unknown member kind " + kind); //$NON-NLS-1$
+			};
+	}
+
+	private String getString(int index) {
+		return index == NONE ? null : fStrings[index];
+	}
+
+	/**
+	 * Computes a stamp of the directory structure of the scan, the referee and
+	 * origin directories are recreated whenever a scan is updated.
+	 */
+	private static long computeStamp(String location) {
+		File root = new File(location);
+		long stamp = root.lastModified();
+		File[] referees = root.listFiles(File::isDirectory);
+		if (referees == null) {
+			return stamp;
+		}
+		Arrays.sort(referees);
+		for (File referee : referees) {
+			stamp = 31 * stamp + referee.getName().hashCode();
+			stamp = 31 * stamp + referee.lastModified();
+			File[] origins = referee.listFiles(File::isDirectory);
+			if (origins != null) {
+				Arrays.sort(origins);
+				for (File origin : origins) {
+					stamp = 31 * stamp + origin.getName().hashCode();
+					stamp = 31 * stamp + origin.lastModified();
+				}
+			}
+		}
+		return stamp;
+	}
+
+	private static byte[] build(String location, long stamp, IProgressMonitor monitor) throws Exception {
+		IndexBuilder builder = new IndexBuilder();
+		new UseScanParser().parse(location, monitor, builder);
+		if (builder.fError != null) {
+			throw builder.fError;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(builder.fData.size() + 1024);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(stamp);
+		writeString(out, location);
+		out.writeInt(builder.fStrings.size());
+		for (String value : builder.fStrings.keySet()) {
+			writeString(out, value);
+		}
+		out.writeInt(builder.fTable.size() / 4);
+		for (int value : builder.fTable) {
+			out.writeInt(value);
+		}
+		builder.fData.writeTo(out);
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void write(byte[] bytes, Path file) throws IOException {
+		Files.createDirectories(file.getParent());
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp"); //$NON-NLS-1$
+		try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+			stream.write(bytes);
+		}
+		try {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0 || length > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Collects all references of the scan. The references of a referenced
+	 * component are written when the component has been visited, so only the
+	 * references of one component are held in memory.
+	 */
+	private static final class IndexBuilder extends UseScanVisitor {
+
+		final Map<String, Integer> fStrings = new LinkedHashMap<>();
+		final List<Integer> fTable = new ArrayList<>();
+		final ByteArrayOutputStream fData = new ByteArrayOutputStream();
+		private final DataOutputStream fDataOut = new DataOutputStream(fData);
+		private final Map<String, List<IReferenceDescriptor>> fComponentReferences = new LinkedHashMap<>();
+		private String fCurrentRootType;
+		IOException fError;
+
+		@Override
+		public boolean visitComponent(IComponentDescriptor target) {
+			fComponentReferences.clear();
+			return true;
+		}
+
+		@Override
+		public boolean visitMember(IMemberDescriptor referencedMember) {
+			String rootType;
+			if (referencedMember instanceof IReferenceTypeDescriptor type) {
+				rootType = type.getQualifiedName();
+			} else {
+				rootType = referencedMember.getEnclosingType().getQualifiedName();
+			}
+			int index = rootType.indexOf('$');
+			fCurrentRootType = index > -1 ? rootType.substring(0, index) : rootType;
+			return true;
+		}
+
+		@Override
+		public void visitReference(IReferenceDescriptor reference) {
+			fComponentReferences.computeIfAbsent(fCurrentRootType, t -> new ArrayList<>()).add(reference);
+		}
+
+		@Override
+		public void endVisitComponent(IComponentDescriptor target) {
+			if (fError != null) {
+				return;
+			}
+			try {
+				int component = intern(target.getId());
+				for (Entry<String, List<IReferenceDescriptor>> entry : fComponentReferences.entrySet()) {
+					List<IReferenceDescriptor> references = entry.getValue();
+					Collections.addAll(fTable, component, intern(entry.getKey()), fDataOut.size(),
+							references.size());
+					for (IReferenceDescriptor reference : references) {
+						writeReference(reference);
+					}
+				}
+			} catch (IOException e) {
+				fError = e;
+			}
+			fComponentReferences.clear();
+		}
+
+		private void writeReference(IReferenceDescriptor reference) throws IOException {
+			writeComponent(reference.getComponent());
+			writeMember(reference.getMember());
+			fDataOut.writeInt(reference.getLineNumber());
+			writeComponent(reference.getReferencedComponent());
+			writeMember(reference.getReferencedMember());
+			fDataOut.writeInt(reference.getReferenceKind());
+			fDataOut.writeInt(reference.getReferenceFlags());
+			fDataOut.writeInt(reference.getVisibility());
+		}
+
+		private void writeComponent(IComponentDescriptor component) throws IOException {
+			fDataOut.writeInt(intern(component.getId()));
+			fDataOut.writeInt(intern(component.getVersion()));
+		}
+
+		private void writeMember(IMemberDescriptor member) throws IOException {
+			fDataOut.writeByte(member.getElementType());
+			if (member instanceof IReferenceTypeDescriptor type) {
+				fDataOut.writeInt(intern(type.getQualifiedName()));
+				fDataOut.writeInt(NONE);
+				fDataOut.writeInt(NONE);
+			} else {
+				fDataOut.writeInt(intern(member.getEnclosingType().getQualifiedName()));
+				fDataOut.writeInt(intern(member.getName()));
+				fDataOut.writeInt(member instanceof IMethodDescriptor method ? intern(method.getSignature()) : NONE);
+			}
+		}
+
+		private int intern(String value) {
+			if (value == null) {
+				return NONE;
+			}
+			return fStrings.computeIfAbsent(value, v -> fStrings.size());
+		}
+	}
+}
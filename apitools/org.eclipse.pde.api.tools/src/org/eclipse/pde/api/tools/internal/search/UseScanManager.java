@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2013 IBM Corporation and others.
+ * Copyright (c) 2010, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,9 +16,12 @@ package org.eclipse.pde.api.tools.internal.search;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarFile;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
@@ -89,6 +92,12 @@ public class UseScanManager {
 
 	private String[] fLocations = null;
 
+	/**
+	 * The indexes of the scans that have been used, keyed by the scan (XML
+	 * directory) location
+	 */
+	private final Map<String, UseScanIndex> fIndexes = new ConcurrentHashMap<>();
+
 	/**
 	 * {@link FileFilter} for finding use scan directories
 	 */
@@ -158,8 +167,6 @@ public class UseScanManager {
 	 * fetches the references from the API Use Scan locations
 	 */
 	private void fetch(IApiComponent apiComponent, String[] types, IReferenceCollection references, IProgressMonitor monitor) {
-		UseScanParser parser = new UseScanParser();
-		UseScanReferenceVisitor visitor = new UseScanReferenceVisitor(apiComponent, types, references);
 		SubMonitor localmonitor = SubMonitor.convert(monitor, SearchMessages.load_external_dependencies, 10);
 		try {
 			String[] locations;
@@ -211,7 +218,16 @@ public class UseScanManager {
 							}
 							throw new Exception(message);
 						}
-						parser.parse(locations[i], iterationMonitor, visitor);
+						try {
+							getIndex(locations[i], iterationMonitor).collect(apiComponent.getSymbolicName(), types,
+									references);
+						} catch (IOException e) {
+							// the index is not usable, fall back to the reports
+							ApiPlugin.log(e);
+							fIndexes.remove(locations[i]);
+							new UseScanParser().parse(locations[i], iterationMonitor,
+									new UseScanReferenceVisitor(apiComponent, types, references));
+						}
 					} catch (Exception e) {
 						ApiPlugin.log(e); // log the exception and continue with
 											// next location
@@ -229,6 +245,35 @@ public class UseScanManager {
 		}
 	}
 
+	/**
+	 * Returns the index of the given scan, the index is built from the reports
+	 * the first time a scan is used and persisted in the state location of the
+	 * plug-in
+	 */
+	private UseScanIndex getIndex(String location, IProgressMonitor monitor) throws Exception {
+		UseScanIndex index = fIndexes.get(location);
+		if (index == null || !index.isCurrent()) {
+			// don't keep the outdated index while the new one is built
+			fIndexes.remove(location);
+			index = UseScanIndex.load(location, getIndexFile(location), monitor);
+			fIndexes.put(location, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the file to persist the index of the given scan in or
+	 * <code>null</code> if not running in a framework
+	 */
+	private static Path getIndexFile(String location) {
+		if (!ApiPlugin.isRunningInFramework()) {
+			return null;
+		}
+		String name = Integer.toHexString(location.hashCode()) + ".index"; //$NON-NLS-1$
+		return ApiPlugin.getDefault().getStateLocation().append("ApiUseScans").append("index").append(name) //$NON-NLS-1$ //$NON-NLS-2$
+				.toPath();
+	}
+
 	/**
 	 * Returns the scan
 	 */
@@ -384,5 +429,6 @@ public class UseScanManager {
 			reference.clear();
 		}
 		fApiComponentCache.flush();
+		fIndexes.clear();
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2020 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which accompanies this distribution,
@@ -27,9 +27,12 @@ import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -59,6 +62,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.equinox.internal.p2.publisher.eclipse.Messages;
 import org.eclipse.equinox.p2.publisher.eclipse.FeatureEntry;
+import org.eclipse.osgi.service.resolver.BundleDescription;
 import org.eclipse.pde.build.internal.tests.ant.AntUtils;
 import org.eclipse.pde.build.tests.BuildConfiguration;
 import org.eclipse.pde.build.tests.PDETestCase;
@@ -71,6 +75,7 @@ import org.eclipse.pde.internal.build.builder.BuildDirector;
 import org.eclipse.pde.internal.build.site.BuildTimeFeature;
 import org.eclipse.pde.internal.build.site.BuildTimeFeatureFactory;
 import org.eclipse.pde.internal.build.site.BuildTimeSiteFactory;
+import org.eclipse.pde.internal.build.site.PDEState;
 import org.eclipse.pde.internal.build.site.QualifierReplacer;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -906,6 +911,241 @@ public class ScriptGenerationTests extends PDETestCase {
 		assertEquals("plugins/F", tasks[0].getRuntimeConfigurableWrapper().getAttributeMap().get("dir"));
 	}
 
+	@Test
+	public void testParallelDependencyScheduling() throws Exception {
+		IFolder buildFolder = newTest("parallelDependencyScheduling");
+		IFolder a = Utils.createFolder(buildFolder, "plugins/A");
+		IFolder b = Utils.createFolder(buildFolder, "plugins/B");
+		IFolder c = Utils.createFolder(buildFolder, "plugins/C");
+		IFolder d = Utils.createFolder(buildFolder, "plugins/D");
+
+		Utils.generateFeature(buildFolder, "feature", null, new String[] { "A", "B", "C", "D" });
+
+		Utils.generateBundle(a, "A");
+		Utils.generateBundle(b, "B");
+
+		Attributes attributes = new Attributes();
+		Attributes.Name requireAttribute = new Attributes.Name("Require-Bundle");
+		attributes.put(requireAttribute, "A");
+		Utils.generateBundleManifest(c, "C", "1.0.0", attributes);
+		Utils.generatePluginBuildProperties(c, null);
+
+		attributes.put(requireAttribute, "B, C");
+		Utils.generateBundleManifest(d, "D", "1.0.0", attributes);
+		Utils.generatePluginBuildProperties(d, null);
+
+		Properties properties = BuildConfiguration.getScriptGenerationProperties(buildFolder, "feature", "feature");
+		properties.put("flattenDependencies", "true");
+		properties.put("parallelCompilation", "true");
+		properties.put("parallelDependencyScheduling", "true");
+		generateScripts(buildFolder, properties);
+
+		IFile buildScript = buildFolder.getFile("compile.feature.xml");
+		Project antProject = assertValidAntScript(buildScript);
+		Target main = antProject.getTargets().get("main");
+		assertNotNull(main);
+		assertEquals(0, AntUtils.getChildrenByName(main, "parallel").length);
+
+		Task scheduler = null;
+		for (Task task : main.getTasks()) {
+			if (task.getTaskName().equals("eclipse.compileScheduler"))
+				scheduler = task;
+		}
+		assertNotNull(scheduler);
+
+		// every bundle only waits for the bundles it requires
+		Map<String, String> ids = new HashMap<>();
+		Map<String, String> requires = new HashMap<>();
+		Enumeration<RuntimeConfigurable> bundles = scheduler.getRuntimeConfigurableWrapper().getChildren();
+		while (bundles.hasMoreElements()) {
+			Map<String, Object> bundle = bundles.nextElement().getAttributeMap();
+			String dir = (String) bundle.get("dir");
+			ids.put(dir, (String) bundle.get("id"));
+			requires.put(dir, (String) bundle.get("requires"));
+		}
+		assertEquals(4, ids.size());
+		assertEquals(null, requires.get("plugins/A"));
+		assertEquals(null, requires.get("plugins/B"));
+		assertEquals(ids.get("plugins/A"), requires.get("plugins/C"));
+		Set<String> requiredByD = Set.of(requires.get("plugins/D").split(":"));
+		assertEquals(Set.of(ids.get("plugins/B"), ids.get("plugins/C")), requiredByD);
+	}
+
+	@Test
+	public void testCompileSchedulerOrder() throws Exception {
+		IFolder buildFolder = newTest("compileSchedulerOrder");
+		// A is slow, B and C must still wait for it while D only waits for B and C
+		generateCompileScript(buildFolder, "A", 500);
+		generateCompileScript(buildFolder, "B", 0, "A");
+		generateCompileScript(buildFolder, "C", 0, "A");
+		generateCompileScript(buildFolder, "D", 0, "B", "C");
+		generateSchedulerScript(buildFolder, "<bundle id=\"1\" name=\"A\" dir=\"plugins/A\" />",
+				"<bundle id=\"2\" name=\"B\" dir=\"plugins/B\" requires=\"1\" />",
+				"<bundle id=\"3\" name=\"C\" dir=\"plugins/C\" requires=\"1\" />",
+				"<bundle id=\"4\" name=\"D\" dir=\"plugins/D\" requires=\"2:3\" />");
+
+		runAntScript(buildFolder.getFile("build.xml").getLocation().toOSString(), new String[] { "default" },
+				buildFolder.getLocation().toOSString(), null);
+
+		buildFolder.refreshLocal(IResource.DEPTH_INFINITE, null);
+		for (String bundle : new String[] { "A", "B", "C", "D" }) {
+			assertTrue(bundle + " was not compiled", buildFolder.getFile("plugins/" + bundle + "/compiled").exists());
+		}
+		assertLogContainsLine(buildFolder.getFile("timing.txt"), "# wall time");
+	}
+
+	@Test
+	public void testCompileSchedulerFailure() throws Exception {
+		IFolder buildFolder = newTest("compileSchedulerFailure");
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"A\" default=\"build.jars\">\n");
+		buffer.append("  <target name=\"build.jars\">\n");
+		buffer.append("    <fail message=\"A is broken\" />\n");
+		buffer.append("  </target>\n");
+		buffer.append("</project>\n");
+		Utils.writeBuffer(buildFolder.getFile("plugins/A/build.xml"), buffer);
+		generateCompileScript(buildFolder, "B", 0, "A");
+		generateSchedulerScript(buildFolder, "<bundle id=\"1\" name=\"A\" dir=\"plugins/A\" />",
+				"<bundle id=\"2\" name=\"B\" dir=\"plugins/B\" requires=\"1\" />");
+
+		try {
+			runAntScript(buildFolder.getFile("build.xml").getLocation().toOSString(), new String[] { "default" },
+					buildFolder.getLocation().toOSString(), null);
+			fail("The compilation was expected to fail.");
+		} catch (Exception e) {
+			// expected
+		}
+
+		assertLogContainsLine(buildFolder.getFile("log.log"), "A is broken");
+		// the bundles requiring a failed bundle are not compiled
+		assertFalse(buildFolder.getFile("plugins/B/compiled").exists());
+	}
+
+	@Test
+	public void testCompileSchedulerCycle() throws Exception {
+		IFolder buildFolder = newTest("compileSchedulerCycle");
+		// A and B require each other, A is compiled first as it comes first
+		generateCompileScript(buildFolder, "A", 0);
+		generateCompileScript(buildFolder, "B", 0, "A");
+		generateCompileScript(buildFolder, "C", 0, "A", "B");
+		generateSchedulerScript(buildFolder, "<bundle id=\"1\" name=\"A\" dir=\"plugins/A\" requires=\"2\" />",
+				"<bundle id=\"2\" name=\"B\" dir=\"plugins/B\" requires=\"1\" />",
+				"<bundle id=\"3\" name=\"C\" dir=\"plugins/C\" requires=\"1:2\" />");
+
+		runAntScript(buildFolder.getFile("build.xml").getLocation().toOSString(), new String[] { "default" },
+				buildFolder.getLocation().toOSString(), null);
+
+		buildFolder.refreshLocal(IResource.DEPTH_INFINITE, null);
+		for (String bundle : new String[] { "A", "B", "C" }) {
+			assertTrue(bundle + " was not compiled", buildFolder.getFile("plugins/" + bundle + "/compiled").exists());
+		}
+	}
+
+	/**
+	 * Writes a build script whose build.jars target fails if one of the
+	 * prerequisites was not compiled before and marks the bundle as compiled
+	 */
+	private void generateCompileScript(IFolder buildFolder, String bundle, int delay, String... prerequisites)
+			throws Exception {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"" + bundle + "\" default=\"build.jars\">\n");
+		buffer.append("  <target name=\"build.jars\">\n");
+		for (String prerequisite : prerequisites) {
+			buffer.append("    <fail message=\"" + prerequisite + " was not compiled before " + bundle + "\">\n");
+			buffer.append("      <condition><not><available file=\"../" + prerequisite
+					+ "/compiled\" /></not></condition>\n");
+			buffer.append("    </fail>\n");
+		}
+		if (delay > 0)
+			buffer.append("    <sleep milliseconds=\"" + delay + "\" />\n");
+		buffer.append("    <touch file=\"compiled\" />\n");
+		buffer.append("  </target>\n");
+		buffer.append("</project>\n");
+		Utils.writeBuffer(buildFolder.getFile("plugins/" + bundle + "/build.xml"), buffer);
+	}
+
+	private void generateSchedulerScript(IFolder buildFolder, String... bundles) throws Exception {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">\n");
+		buffer.append("  <target name=\"default\">\n");
+		buffer.append("    <eclipse.compileScheduler threadCount=\"4\" timingLog=\"timing.txt\">\n");
+		for (String bundle : bundles) {
+			buffer.append("      " + bundle + "\n");
+		}
+		buffer.append("    </eclipse.compileScheduler>\n");
+		buffer.append("  </target>\n");
+		buffer.append("</project>\n");
+		Utils.writeBuffer(buildFolder.getFile("build.xml"), buffer);
+	}
+
+	@Test
+	public void testParallelScriptGeneration() throws Exception {
+		IFolder buildFolder = newTest("parallelScriptGeneration");
+		int count = 20;
+		String[] plugins = new String[count];
+		Attributes.Name requireAttribute = new Attributes.Name("Require-Bundle");
+		for (int i = 0; i < count; i++) {
+			plugins[i] = "P" + i;
+			IFolder plugin = Utils.createFolder(buildFolder, "plugins/" + plugins[i]);
+			Attributes attributes = new Attributes();
+			if (i > 0)
+				attributes.put(requireAttribute, i > 1 ? "P" + (i - 1) + ", P" + (i / 2) : "P0");
+			Utils.generateBundleManifest(plugin, plugins[i], "1.0.0", attributes);
+			Utils.generatePluginBuildProperties(plugin, null);
+		}
+		Utils.generateFeature(buildFolder, "feature", null, plugins);
+
+		Properties properties = BuildConfiguration.getScriptGenerationProperties(buildFolder, "feature", "feature");
+		properties.put("scriptGenerationThreadCount", "1");
+		generateScripts(buildFolder, properties);
+		String[] expected = new String[count];
+		for (int i = 0; i < count; i++)
+			expected[i] = readBuildScript(buildFolder, plugins[i]);
+
+		properties.put("scriptGenerationThreadCount", "4");
+		generateScripts(buildFolder, properties);
+
+		// the scripts generated in parallel are the same as the ones generated one after the other
+		for (int i = 0; i < count; i++)
+			assertEquals(plugins[i], expected[i], readBuildScript(buildFolder, plugins[i]));
+	}
+
+	private String readBuildScript(IFolder buildFolder, String plugin) throws Exception {
+		IFile buildScript = buildFolder.getFile("plugins/" + plugin + "/build.xml");
+		buildScript.refreshLocal(IResource.DEPTH_ZERO, null);
+		assertTrue(buildScript.exists());
+		return Files.readString(buildScript.getLocation().toFile().toPath());
+	}
+
+	@Test
+	public void testStableBundleIds() throws Exception {
+		IFolder buildFolder = newTest("stableBundleIds");
+		List<File> locations = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			IFolder plugin = Utils.createFolder(buildFolder, "plugins/P" + i);
+			if (i % 10 == 5)
+				Utils.generatePluginBuildProperties(plugin, null); // no manifest, not added to the state
+			else
+				Utils.generateBundle(plugin, "P" + i);
+			locations.add(plugin.getLocation().toFile());
+		}
+
+		// the manifests are loaded concurrently, the ids are still given in the order of the bundles
+		PDEState state = new PDEState();
+		state.addBundles(locations);
+		long id = 0;
+		for (int i = 0; i < 50; i++) {
+			BundleDescription[] bundles = state.getState().getBundles("P" + i);
+			if (i % 10 == 5) {
+				assertEquals(0, bundles.length);
+				continue;
+			}
+			assertEquals(1, bundles.length);
+			assertEquals(++id, bundles[0].getBundleId());
+			assertEquals(locations.get(i).getAbsolutePath(), bundles[0].getLocation());
+		}
+	}
+
 	public static class TestQualifierDirector extends BuildDirector {
 		public TestQualifierDirector() {
 			super();
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which accompanies this distribution,
+ * and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors: Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.pde.build.internal.tests.performance;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Properties;
+import java.util.jar.Attributes;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.pde.build.internal.tests.Utils;
+import org.eclipse.pde.build.tests.BuildConfiguration;
+import org.eclipse.pde.build.tests.PDETestCase;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
+
+/**
+ * Measures the generation of the build scripts of a feature with 500 plug-ins
+ * with one and with four threads.
+ *
+ * Each plug-in requires its predecessor and the plug-in with half its index.
+ */
+public class ScriptGenerationPerfTest extends PDETestCase {
+
+	private static final int BUNDLE_COUNT = 500;
+
+	@Test
+	public void testSequentialScriptGeneration() throws Exception {
+		measureScriptGeneration("sequentialScriptGeneration", 1,
+				"Generate build scripts of " + BUNDLE_COUNT + " plug-ins with one thread");
+	}
+
+	@Test
+	public void testParallelScriptGeneration() throws Exception {
+		measureScriptGeneration("parallelScriptGeneration", 4,
+				"Generate build scripts of " + BUNDLE_COUNT + " plug-ins with four threads");
+	}
+
+	private void measureScriptGeneration(String name, int threads, String summary) throws Exception {
+		IFolder buildFolder = newTest(name);
+		String[] plugins = new String[BUNDLE_COUNT];
+		Attributes.Name requireAttribute = new Attributes.Name("Require-Bundle");
+		for (int i = 0; i < BUNDLE_COUNT; i++) {
+			plugins[i] = "P" + i;
+			IFolder plugin = Utils.createFolder(buildFolder, "plugins/" + plugins[i]);
+			Attributes attributes = new Attributes();
+			if (i > 0)
+				attributes.put(requireAttribute, i > 1 ? "P" + (i - 1) + ", P" + (i / 2) : "P0");
+			Utils.generateBundleManifest(plugin, plugins[i], "1.0.0", attributes);
+			Utils.generatePluginBuildProperties(plugin, null);
+		}
+		Utils.generateFeature(buildFolder, "feature", null, plugins);
+
+		Properties properties = BuildConfiguration.getScriptGenerationProperties(buildFolder, "feature", "feature");
+		properties.put("scriptGenerationThreadCount", Integer.toString(threads));
+
+		Performance performance = Performance.getDefault();
+		PerformanceMeter meter = performance.createPerformanceMeter(getClass().getName() + '.' + name);
+		try {
+			performance.tagAsSummary(meter, summary, Dimension.ELAPSED_PROCESS);
+			// Warm-up Iteration
+			generateScripts(buildFolder, properties);
+			// Test Iterations
+			for (int i = 0; i < 5; i++) {
+				meter.start();
+				generateScripts(buildFolder, properties);
+				meter.stop();
+			}
+			meter.commit();
+			performance.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+		buildFolder.refreshLocal(IResource.DEPTH_INFINITE, null);
+		assertTrue(buildFolder.getFile("plugins/P" + (BUNDLE_COUNT - 1) + "/build.xml").exists());
+	}
+
+}
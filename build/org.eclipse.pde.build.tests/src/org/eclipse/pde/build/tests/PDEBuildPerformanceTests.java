@@ -0,0 +1,23 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which accompanies this distribution,
+ * and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors: Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.pde.build.tests;
+
+import org.eclipse.pde.build.internal.tests.performance.ScriptGenerationPerfTest;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({ ScriptGenerationPerfTest.class })
+public class PDEBuildPerformanceTests {
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -213,7 +213,7 @@ public abstract class AbstractScriptGenerator implements IXMLConstants, IPDEBuil
 			throw new UnsupportedOperationException();
 		}
 
-		public static MissingProperties getInstance() {
+		public static synchronized MissingProperties getInstance() {
 			if (singleton == null)
 				singleton = new MissingProperties();
 			return singleton;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -79,9 +79,11 @@ public class BuildScriptGenerator extends AbstractScriptGenerator {
 	protected boolean generateJnlp = false;
 	protected boolean generateFeatureVersionSuffix = false;
 	protected boolean parallel = false;
+	protected boolean dependencyScheduling = false;
 	protected boolean workspaceBinaries = false;
 	protected int threadCount = -1;
 	protected int threadsPerProcessor = -1;
+	protected int scriptGenerationThreads = 1;
 	protected String[] eeSources = null;
 
 	protected String product;
@@ -237,6 +239,7 @@ public class BuildScriptGenerator extends AbstractScriptGenerator {
 			generator.setAnalyseChildren(this.children);
 			generator.setBinaryFeatureGeneration(true);
 			generator.setScriptGeneration(generateBuildScript);
+			generator.setScriptGenerationThreads(scriptGenerationThreads);
 			generator.setPluginPath(pluginPath);
 			generator.setBuildSiteFactory(siteFactory);
 			generator.setDevEntries(devEntries);
@@ -456,6 +459,7 @@ public class BuildScriptGenerator extends AbstractScriptGenerator {
 		generator.setAssemblyData(assemblageInformation);
 		generator.setFeatureId(featureInfo[0]);
 		generator.setParallel(parallel);
+		generator.setDependencyScheduling(dependencyScheduling);
 		generator.setThreadCount(threadCount);
 		generator.setThreadsPerProcessor(threadsPerProcessor);
 		generator.generate();
@@ -653,6 +657,10 @@ public class BuildScriptGenerator extends AbstractScriptGenerator {
 		this.parallel = parallel;
 	}
 
+	public void setDependencyScheduling(boolean dependencyScheduling) {
+		this.dependencyScheduling = dependencyScheduling;
+	}
+
 	public void setThreadCount(int threadCount) {
 		this.threadCount = threadCount;
 	}
@@ -661,6 +669,10 @@ public class BuildScriptGenerator extends AbstractScriptGenerator {
 		this.threadsPerProcessor = threadsPerProcessor;
 	}
 
+	public void setScriptGenerationThreads(int scriptGenerationThreads) {
+		this.scriptGenerationThreads = scriptGenerationThreads;
+	}
+
 	public void setEESources(String[] eeSources) {
 		this.eeSources = eeSources;
 	}
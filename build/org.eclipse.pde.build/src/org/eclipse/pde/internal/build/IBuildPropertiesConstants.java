@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2011 IBM Corporation and others.
+ * Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -146,6 +146,7 @@ public interface IBuildPropertiesConstants {
 	public static final String PROPERTY_COMPILE_PROBLEM_MARKER_EXISTS = "compilation.problem.marker.exists"; //$NON-NLS-1$
 	public static final String PROPERTY_COMPILATION_ERROR = "compilation.error.occured"; //$NON-NLS-1$
 	public static final String PROPERTY_PREREQ_COMPILE_LOG = "compilation.prereq.log"; //$NON-NLS-1$
+	public static final String PROPERTY_COMPILE_TIMING_LOG = "compilation.timing.log"; //$NON-NLS-1$
 
 	public static final String PROPERTY_SUPPRESS_RESOLUTION_ERRORS = "suppressResolutionErrors"; //$NON-NLS-1$
 	public static final String PROPERTY_ANT_VERSION = "ant.version"; //$NON-NLS-1$
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -53,7 +53,7 @@ public abstract class AbstractBuildScriptGenerator extends AbstractScriptGenerat
 
 	abstract protected Properties getBuildProperties() throws CoreException;
 
-	static public Properties getExecutionEnvironmentMappings() {
+	static synchronized public Properties getExecutionEnvironmentMappings() {
 		if (executionEnvironmentMappings != null)
 			return executionEnvironmentMappings;
 
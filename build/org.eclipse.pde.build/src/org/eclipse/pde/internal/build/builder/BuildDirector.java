@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,8 @@
 package org.eclipse.pde.internal.build.builder;
 
 import java.io.File;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -22,6 +24,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
@@ -75,6 +81,8 @@ public class BuildDirector extends AbstractBuildScriptGenerator {
 	protected boolean generateJnlp = false;
 	protected boolean workspaceBinaries = false;
 	private boolean sourceReferences = false;
+	/** Number of threads generating the scripts of the plug-ins, 0 or less for one per processor (at most 8) */
+	private int scriptGenerationThreads = 1;
 
 	public static boolean p2Gathering = false;
 
@@ -100,26 +108,66 @@ public class BuildDirector extends AbstractBuildScriptGenerator {
 
 	private final Map<String, String> extractedLocations = new HashMap<>();
 
+	// position of the model generated by the current thread, only set while the scripts are generated in parallel
+	private final ThreadLocal<Integer> generationIndex = new ThreadLocal<>();
+	// generated models and the number of leading models that are generated, guarded by extractedLocations
+	private boolean[] generatedModels;
+	private int generatedPrefix;
+
 	public String getExtractedRoot(ClasspathElement element) {
 		if (element.getSubPath() == null)
 			return element.getPath();
 
-		String absolute = element.getAbsolutePath();
-		if (extractedLocations.containsKey(absolute)) {
-			return extractedLocations.get(absolute);
+		synchronized (extractedLocations) {
+			awaitPreviousModels();
+			String absolute = element.getAbsolutePath();
+			if (extractedLocations.containsKey(absolute)) {
+				return extractedLocations.get(absolute);
+			}
+
+			//Use the jar name, append a suffix if that name is already taken
+			String name = new File(absolute).getName();
+			if (name.endsWith(".jar")) //$NON-NLS-1$
+				name = name.substring(0, name.length() - 4);
+			String destination = name;
+			while (extractedLocations.containsValue(destination)) {
+				destination = name + '_' + Integer.toHexString(destination.hashCode());
+			}
+
+			extractedLocations.put(absolute, destination);
+			return destination;
 		}
+	}
 
-		//Use the jar name, append a suffix if that name is already taken
-		String name = new File(absolute).getName();
-		if (name.endsWith(".jar")) //$NON-NLS-1$
-			name = name.substring(0, name.length() - 4);
-		String destination = name;
-		while (extractedLocations.containsValue(destination)) {
-			destination = name + '_' + Integer.toHexString(destination.hashCode());
+	/*
+	 * The names of the extracted roots depend on the order in which they are requested, so while the scripts
+	 * are generated in parallel a model only gets them once all models before it are generated, as it would
+	 * when the scripts are generated one after the other. The models are started in order, so the models
+	 * waited for are already running.
+	 */
+	private void awaitPreviousModels() {
+		Integer index = generationIndex.get();
+		if (index == null)
+			return;
+		boolean interrupted = false;
+		while (generatedPrefix < index.intValue()) {
+			try {
+				extractedLocations.wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
 		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
 
-		extractedLocations.put(absolute, destination);
-		return destination;
+	private void modelGenerated(int index) {
+		synchronized (extractedLocations) {
+			generatedModels[index] = true;
+			while (generatedPrefix < generatedModels.length && generatedModels[generatedPrefix])
+				generatedPrefix++;
+			extractedLocations.notifyAll();
+		}
 	}
 
 	/**
@@ -520,6 +568,12 @@ public class BuildDirector extends AbstractBuildScriptGenerator {
 		if (binaryFeature == false || models.isEmpty())
 			return;
 
+		// the generators are configured in order since setModel() records the compiled elements
+		List<ModelBuildScriptGenerator> generators = new ArrayList<>(models.size());
+		List<String> compiled = new ArrayList<>();
+		Map<String, Integer> compiledPositions = new HashMap<>();
+		for (String element : getCompiledElements())
+			addCompiledElement(element, compiled, compiledPositions);
 		Set<BundleDescription> generatedScripts = new HashSet<>(models.size());
 		for (BundleDescription model : models) {
 			if (generatedScripts.contains(model))
@@ -532,7 +586,7 @@ public class BuildDirector extends AbstractBuildScriptGenerator {
 			@SuppressWarnings("rawtypes")
 			Set matchingEntries = (Set) ((Properties) model.getUserObject()).get(PLUGIN_ENTRY);
 			if (matchingEntries == null || matchingEntries.isEmpty())
-				return;
+				break;
 
 			@SuppressWarnings("rawtypes")
 			Iterator entryIter = matchingEntries.iterator();
@@ -553,9 +607,126 @@ public class BuildDirector extends AbstractBuildScriptGenerator {
 			generator.setSignJars(signJars);
 			generator.setAssociatedEntry(correspondingEntry);
 			generator.setGenerateSourceReferences(sourceReferences);
-			generator.generate();
+			generators.add(generator);
+			addCompiledElement(ModelBuildScriptGenerator.getNormalizedName(generator.getModel()), compiled, compiledPositions);
+			// a generator only sees the elements compiled so far, as it would if it was generated right away
+			generator.setCompiledElements(new CompiledElements(compiled, compiledPositions, compiled.size()));
 		}
 
+		int threads = getScriptGenerationThreads();
+		if (threads <= 1 || generators.size() <= 1) {
+			for (ModelBuildScriptGenerator generator : generators)
+				generator.generate();
+			return;
+		}
+		generateInParallel(generators, threads);
+	}
+
+	private void generateInParallel(List<ModelBuildScriptGenerator> generators, int threads) throws CoreException {
+		// initialize the lazily created shared data before the generators access it concurrently
+		getSite(false).getRegistry().getProfileManager();
+		getExecutionEnvironmentMappings();
+		AbstractScriptGenerator.MissingProperties.getInstance();
+
+		synchronized (extractedLocations) {
+			generatedModels = new boolean[generators.size()];
+			generatedPrefix = 0;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, generators.size()), r -> {
+			Thread thread = new Thread(r, "PDE Build Script Generator"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<?>> results = new ArrayList<>(generators.size());
+			for (int i = 0; i < generators.size(); i++) {
+				int index = i;
+				ModelBuildScriptGenerator generator = generators.get(i);
+				results.add(executor.submit(() -> {
+					generationIndex.set(Integer.valueOf(index));
+					try {
+						generator.generate();
+					} finally {
+						generationIndex.remove();
+						modelGenerated(index);
+					}
+					return null;
+				}));
+			}
+			// report the failure of the first model, as the sequential generation would
+			for (Future<?> result : results) {
+				try {
+					result.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new CoreException(new Status(IStatus.ERROR, PI_PDEBUILD, EXCEPTION_WRITING_SCRIPT, e.getMessage(), e));
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof CoreException coreException)
+						throw coreException;
+					if (cause instanceof RuntimeException runtimeException)
+						throw runtimeException;
+					if (cause instanceof Error error)
+						throw error;
+					throw new CoreException(new Status(IStatus.ERROR, PI_PDEBUILD, EXCEPTION_WRITING_SCRIPT, cause.getMessage(), cause));
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			synchronized (extractedLocations) {
+				generatedModels = null;
+			}
+		}
+	}
+
+	private void addCompiledElement(String element, List<String> compiled, Map<String, Integer> compiledPositions) {
+		if (getCompiledElements().contains(element) && !compiledPositions.containsKey(element)) {
+			compiledPositions.put(element, Integer.valueOf(compiled.size()));
+			compiled.add(element);
+		}
+	}
+
+	private int getScriptGenerationThreads() {
+		if (scriptGenerationThreads > 0)
+			return scriptGenerationThreads;
+		return Math.min(Runtime.getRuntime().availableProcessors(), 8);
+	}
+
+	/**
+	 * The elements that were compiled when a model was configured, a prefix of the elements
+	 * in the order in which they were added to the compiled elements.
+	 */
+	private static class CompiledElements extends AbstractSet<String> {
+		private final List<String> elements;
+		private final Map<String, Integer> positions;
+		private final int size;
+
+		CompiledElements(List<String> elements, Map<String, Integer> positions, int size) {
+			this.elements = elements;
+			this.positions = positions;
+			this.size = size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			Integer position = positions.get(o);
+			return position != null && position.intValue() < size;
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			return elements.subList(0, size).iterator();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean add(String e) {
+			throw new UnsupportedOperationException();
+		}
 	}
 
 	/**
@@ -654,6 +825,16 @@ public class BuildDirector extends AbstractBuildScriptGenerator {
 		this.scriptGeneration = scriptGeneration;
 	}
 
+	/**
+	 * Sets the number of threads generating the scripts of the plug-ins.
+	 * 
+	 * @param threads the number of threads, 1 (the default) to generate the scripts one after
+	 * the other and 0 or less for one thread per processor (at most 8)
+	 */
+	public void setScriptGenerationThreads(int threads) {
+		this.scriptGenerationThreads = threads;
+	}
+
 	/**
 	 * Sets whether or not to generate JNLP manifests
 	 * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2021 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which accompanies this distribution,
@@ -13,9 +13,13 @@
 package org.eclipse.pde.internal.build.builder;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.StringJoiner;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -30,6 +34,7 @@ public class CompilationScriptGenerator extends AbstractScriptGenerator {
 	private boolean parallel = true;
 	private int threadCount = 0;
 	private int threadsPerProcessor = 3;
+	private boolean dependencyScheduling = false;
 
 	/** Contain the elements that will be assembled */
 	protected AssemblyInformation assemblyData;
@@ -61,6 +66,15 @@ public class CompilationScriptGenerator extends AbstractScriptGenerator {
 		this.parallel = parallel;
 	}
 
+	/**
+	 * Compile each bundle as soon as the bundles it requires are compiled
+	 * instead of in a sequence of <code>parallel</code> blocks. Only has an
+	 * effect for parallel compilation.
+	 */
+	public void setDependencyScheduling(boolean dependencyScheduling) {
+		this.dependencyScheduling = dependencyScheduling;
+	}
+
 	public void setThreadCount(int count) {
 		if (count != -1)
 			this.threadCount = count;
@@ -97,6 +111,11 @@ public class CompilationScriptGenerator extends AbstractScriptGenerator {
 		List<BundleDescription> sortedPlugins = Utils.extractPlugins(getSite(false).getRegistry().getSortedBundles(), plugins);
 		IPath basePath = IPath.fromOSString(workingDirectory);
 
+		if (parallel && dependencyScheduling) {
+			generateScheduledPlugins(sortedPlugins, basePath);
+			return;
+		}
+
 		Set<Long> bucket = null;
 		if (parallel) {
 			bucket = new HashSet<>();
@@ -125,23 +144,78 @@ public class CompilationScriptGenerator extends AbstractScriptGenerator {
 			script.printEndParallel();
 	}
 
-	private boolean requiredInBucket(BundleDescription bundle, Set<Long> bucket) {
+	/**
+	 * Compiles the bundles with the compile scheduler task, which starts every
+	 * bundle as soon as the bundles it requires within this script are
+	 * compiled.
+	 */
+	private void generateScheduledPlugins(List<BundleDescription> sortedPlugins, IPath basePath) throws CoreException {
+		Map<String, String> arguments = new LinkedHashMap<>();
+		if (threadCount > 0)
+			arguments.put("threadCount", String.valueOf(threadCount)); //$NON-NLS-1$
+		if (threadsPerProcessor > 0)
+			arguments.put("threadsPerProcessor", String.valueOf(threadsPerProcessor)); //$NON-NLS-1$
+		arguments.put("antfile", DEFAULT_BUILD_SCRIPT_FILENAME); //$NON-NLS-1$
+		arguments.put("target", TARGET_BUILD_JARS); //$NON-NLS-1$
+		arguments.put("timingLog", Utils.getPropertyFormat(PROPERTY_COMPILE_TIMING_LOG)); //$NON-NLS-1$
+		script.printStartTag("eclipse.compileScheduler", arguments); //$NON-NLS-1$
+		script.incrementIdent();
+
+		Set<Long> compiled = new HashSet<>();
+		for (BundleDescription bundle : sortedPlugins) {
+			// Individual source bundles have empty build.jars targets, skip them
+			if (!Utils.isSourceBundle(bundle))
+				compiled.add(Long.valueOf(bundle.getBundleId()));
+		}
+		for (BundleDescription bundle : sortedPlugins) {
+			if (!compiled.contains(Long.valueOf(bundle.getBundleId())))
+				continue;
+
+			StringJoiner requires = new StringJoiner(":"); //$NON-NLS-1$
+			for (Long id : getRequiredIds(bundle)) {
+				if (compiled.contains(id))
+					requires.add(id.toString());
+			}
+			arguments.clear();
+			arguments.put("id", String.valueOf(bundle.getBundleId())); //$NON-NLS-1$
+			arguments.put("name", bundle.getSymbolicName()); //$NON-NLS-1$
+			arguments.put("dir", Utils.makeRelative(IPath.fromOSString(getLocation(bundle)), basePath).toString()); //$NON-NLS-1$
+			if (requires.length() > 0)
+				arguments.put("requires", requires.toString()); //$NON-NLS-1$
+			script.printElement("bundle", arguments); //$NON-NLS-1$
+		}
+
+		script.decrementIdent();
+		script.printEndTag("eclipse.compileScheduler"); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return the ids of the bundles the given bundle requires, in the order
+	 * in which they are recorded
+	 */
+	private Set<Long> getRequiredIds(BundleDescription bundle) {
+		Set<Long> result = new LinkedHashSet<>();
 		Properties properties = (Properties) bundle.getUserObject();
 		if (properties != null) {
 			String required = properties.getProperty(PROPERTY_REQUIRED_BUNDLE_IDS);
 			if (required != null) {
-				String[] ids = Utils.getArrayFromString(required, ":"); //$NON-NLS-1$
-				for (String id2 : ids) {
+				for (String id : Utils.getArrayFromString(required, ":")) { //$NON-NLS-1$
 					try {
-						if (bucket.contains(Long.valueOf(id2))) {
-							return true;
-						}
+						result.add(Long.valueOf(id));
 					} catch (NumberFormatException e) {
 						//ignore
 					}
 				}
 			}
 		}
+		return result;
+	}
+
+	private boolean requiredInBucket(BundleDescription bundle, Set<Long> bucket) {
+		for (Long id : getRequiredIds(bundle)) {
+			if (bucket.contains(id))
+				return true;
+		}
 		return false;
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2004, 2023 IBM Corporation and others.
+ *  Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -33,6 +33,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.UnaryOperator;
 import java.util.jar.JarFile;
 import java.util.regex.Pattern;
@@ -74,6 +78,7 @@ public class PDEState implements IPDEBuildConstants, IBuildPropertiesConstants {
 	private static final ILog LOGGER = ILog.get();
 	private static final String[] MANIFEST_ENTRIES = {Constants.BUNDLE_LOCALIZATION, Constants.BUNDLE_NAME, Constants.BUNDLE_VENDOR, ECLIPSE_BUNDLE_SHAPE, ECLIPSE_SOURCE_BUNDLE, ECLIPSE_SOURCE_REF};
 	private static final int LAST_SUPPORTED_JDK = Integer.parseInt(JavaCore.latestSupportedJavaVersion());
+	private static final int MANIFEST_LOADING_THREADS = Math.min(Runtime.getRuntime().availableProcessors(), 8);
 	private StateObjectFactory factory;
 	protected State state;
 	private long id;
@@ -132,7 +137,10 @@ public class PDEState implements IPDEBuildConstants, IBuildPropertiesConstants {
 
 	//Add a bundle to the state, updating the version number 
 	public boolean addBundle(Dictionary<String, String> enhancedManifest, File bundleLocation) {
-		String oldVersion = updateVersionNumber(enhancedManifest);
+		return addBundle(enhancedManifest, bundleLocation, updateVersionNumber(enhancedManifest));
+	}
+
+	private boolean addBundle(Dictionary<String, String> enhancedManifest, File bundleLocation, String oldVersion) {
 		try {
 			BundleDescription descriptor;
 			descriptor = factory.createBundleDescription(state, enhancedManifest, bundleLocation.getAbsolutePath(), getNextId());
@@ -252,32 +260,56 @@ public class PDEState implements IPDEBuildConstants, IBuildPropertiesConstants {
 	}
 
 	public boolean addBundle(File bundleLocation) {
+		LoadedBundle bundle = loadBundle(bundleLocation);
+		if (bundle == null)
+			return false;
+		return addBundle(bundle.manifest, bundle.location, bundle.oldVersion);
+	}
+
+	/**
+	 * A bundle whose manifest is loaded and whose version is updated, ready to be added to the state
+	 */
+	private static class LoadedBundle {
+		final File location;
+		final Dictionary<String, String> manifest;
+		final String oldVersion;
+
+		LoadedBundle(File location, Dictionary<String, String> manifest, String oldVersion) {
+			this.location = location;
+			this.manifest = manifest;
+			this.oldVersion = oldVersion;
+		}
+	}
+
+	// does not modify the state and can be called concurrently
+	private LoadedBundle loadBundle(File bundleLocation) {
 		Dictionary<String, String> manifest;
 		manifest = loadManifest(bundleLocation);
 		if (manifest == null) {
-			return addFlexibleRoot(bundleLocation);
+			File root = getFlexibleRoot(bundleLocation);
+			return root != null ? loadBundle(root) : null;
 		}
 		try {
 			hasQualifier(bundleLocation, manifest);
 		} catch (BundleException e) {
 			//should not happen since we know the header
 		}
-		return addBundle(manifest, bundleLocation);
+		return new LoadedBundle(bundleLocation, manifest, updateVersionNumber(manifest));
 	}
 
-	private boolean addFlexibleRoot(File bundleLocation) {
+	private File getFlexibleRoot(File bundleLocation) {
 		if (!new File(bundleLocation, PDE_CORE_PREFS).exists())
-			return false;
+			return null;
 
 		try {
 			Properties properties = AbstractScriptGenerator.readProperties(bundleLocation.getAbsolutePath(), PDE_CORE_PREFS, IStatus.OK);
 			String root = properties.getProperty(BUNDLE_ROOT_PATH);
 			if (root != null)
-				return addBundle(new File(bundleLocation, root));
+				return new File(bundleLocation, root);
 		} catch (CoreException e) {
 			//ignore
 		}
-		return false;
+		return null;
 	}
 
 	private String updateVersionNumber(Dictionary<String, String> manifest) {
@@ -380,8 +412,47 @@ public class PDEState implements IPDEBuildConstants, IBuildPropertiesConstants {
 	}
 
 	public void addBundles(Collection<File> bundles) {
-		for (File bundle : bundles) {
-			addBundle(bundle);
+		if (bundles.size() <= 1 || MANIFEST_LOADING_THREADS <= 1) {
+			for (File bundle : bundles) {
+				addBundle(bundle);
+			}
+			return;
+		}
+		// Load the manifests in parallel, but add the bundles in the given order so the bundle ids
+		// and with them the generated scripts are the same for every build
+		ExecutorService executor = Executors.newFixedThreadPool(MANIFEST_LOADING_THREADS, r -> {
+			Thread thread = new Thread(r, "PDE Build Manifest Loader"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<LoadedBundle>> loadedBundles = new ArrayList<>(bundles.size());
+			for (File bundle : bundles) {
+				loadedBundles.add(executor.submit(() -> loadBundle(bundle)));
+			}
+			for (Future<LoadedBundle> loadedBundle : loadedBundles) {
+				LoadedBundle bundle = getLoadedBundle(loadedBundle);
+				if (bundle != null)
+					addBundle(bundle.manifest, bundle.location, bundle.oldVersion);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private LoadedBundle getLoadedBundle(Future<LoadedBundle> loadedBundle) {
+		try {
+			return loadedBundle.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException runtimeException)
+				throw runtimeException;
+			if (cause instanceof Error error)
+				throw error;
+			throw new IllegalStateException(cause);
 		}
 	}
 
@@ -879,7 +950,7 @@ public class PDEState implements IPDEBuildConstants, IBuildPropertiesConstants {
 		this.eeSources = eeSources;
 	}
 
-	public ProfileManager getProfileManager() {
+	public synchronized ProfileManager getProfileManager() {
 		if (profileManager == null) {
 			profileManager = new ProfileManager(eeSources, true);
 		}
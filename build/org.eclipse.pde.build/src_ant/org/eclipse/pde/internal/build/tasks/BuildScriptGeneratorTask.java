@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -313,6 +313,10 @@ public class BuildScriptGeneratorTask extends Task {
 		generator.setParallel(parallel);
 	}
 
+	public void setParallelDependencyScheduling(boolean dependencyScheduling) {
+		generator.setDependencyScheduling(dependencyScheduling);
+	}
+
 	public void setParallelThreadCount(String count) {
 		try {
 			generator.setThreadCount(Integer.parseInt(count));
@@ -329,6 +333,14 @@ public class BuildScriptGeneratorTask extends Task {
 		}
 	}
 
+	public void setScriptGenerationThreadCount(String count) {
+		try {
+			generator.setScriptGenerationThreads(Integer.parseInt(count));
+		} catch (NumberFormatException e) {
+			//ignore
+		}
+	}
+
 	public void setContextRepository(String contexts) {
 		String[] locations = Utils.getArrayFromString(contexts, ","); //$NON-NLS-1$
 		ArrayList<URI> uris = new ArrayList<>();
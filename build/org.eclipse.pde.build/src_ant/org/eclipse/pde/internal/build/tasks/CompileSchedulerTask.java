@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Project;
+import org.apache.tools.ant.Task;
+import org.apache.tools.ant.taskdefs.Ant;
+
+/**
+ * Compiles a set of bundles on a pool of threads in the order of their
+ * dependencies. Unlike a sequence of <code>parallel</code> blocks, a bundle is
+ * compiled as soon as all bundles it requires are compiled, so one long
+ * running bundle only delays the bundles that depend on it.
+ * <p>
+ * The time taken by each bundle is recorded, the critical path (the chain of
+ * dependent bundles that took the longest) is logged and, if a
+ * <code>timingLog</code> is given, written to that file together with the
+ * times of all bundles.
+ * </p>
+ *
+ * <pre>
+ * &lt;eclipse.compileScheduler threadsPerProcessor="3" timingLog="compile.timing.txt"&gt;
+ *     &lt;bundle id="12" name="org.example.a" dir="plugins/org.example.a" /&gt;
+ *     &lt;bundle id="13" name="org.example.b" dir="plugins/org.example.b" requires="12" /&gt;
+ * &lt;/eclipse.compileScheduler&gt;
+ * </pre>
+ */
+public class CompileSchedulerTask extends Task {
+	private static final String ANT_PREFIX = "${"; //$NON-NLS-1$
+	private static final String NEW_LINE = System.lineSeparator();
+
+	/**
+	 * A bundle to compile
+	 */
+	public static class BundleElement {
+		private String id;
+		private String name;
+		private String dir;
+		private String requires;
+
+		// set while scheduling
+		final List<BundleElement> dependents = new ArrayList<>();
+		final List<BundleElement> prerequisites = new ArrayList<>();
+		int pending;
+		long start;
+		long duration;
+
+		public void setId(String id) {
+			this.id = id;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public void setDir(String dir) {
+			this.dir = dir;
+		}
+
+		/**
+		 * @param requires the ids of the required bundles, separated by
+		 *            <code>:</code>
+		 */
+		public void setRequires(String requires) {
+			this.requires = requires;
+		}
+
+		String getName() {
+			return name != null ? name : dir;
+		}
+	}
+
+	private final List<BundleElement> bundles = new ArrayList<>();
+	private String antfile = "build.xml"; //$NON-NLS-1$
+	private String target = "build.jars"; //$NON-NLS-1$
+	private int threadCount = 0;
+	private int threadsPerProcessor = 0;
+	private String timingLog = null;
+
+	// scheduling state, guarded by this
+	private final Deque<BundleElement> ready = new ArrayDeque<>();
+	private int running;
+	private int remaining;
+	private BuildException failure;
+
+	public BundleElement createBundle() {
+		BundleElement bundle = new BundleElement();
+		bundles.add(bundle);
+		return bundle;
+	}
+
+	public void setAntfile(String antfile) {
+		this.antfile = antfile;
+	}
+
+	public void setTarget(String target) {
+		this.target = target;
+	}
+
+	public void setThreadCount(int threadCount) {
+		this.threadCount = threadCount;
+	}
+
+	public void setThreadsPerProcessor(int threadsPerProcessor) {
+		this.threadsPerProcessor = threadsPerProcessor;
+	}
+
+	public void setTimingLog(String timingLog) {
+		this.timingLog = timingLog;
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		if (bundles.isEmpty())
+			return;
+		link();
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(getThreadCount());
+		try {
+			synchronized (this) {
+				remaining = bundles.size();
+				for (BundleElement bundle : bundles) {
+					if (bundle.pending == 0)
+						ready.add(bundle);
+				}
+				while (remaining > 0) {
+					if (failure == null) {
+						startReady(executor);
+						if (running == 0 && remaining > 0) {
+							// only possible for cyclic requirements, compile the first pending bundle as the sorted order would
+							for (BundleElement bundle : bundles) {
+								if (bundle.pending > 0) {
+									bundle.pending = 0;
+									ready.add(bundle);
+									break;
+								}
+							}
+							continue;
+						}
+					} else if (running == 0) {
+						break;
+					}
+					wait();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BuildException(e, getLocation());
+		} finally {
+			executor.shutdownNow();
+		}
+		if (failure != null)
+			throw failure;
+		reportTimes(System.nanoTime() - start);
+	}
+
+	private void link() {
+		Map<String, BundleElement> byId = new HashMap<>();
+		for (BundleElement bundle : bundles) {
+			if (bundle.id == null || bundle.dir == null)
+				throw new BuildException("Bundles must have an id and a dir", getLocation()); //$NON-NLS-1$
+			byId.put(bundle.id, bundle);
+		}
+		for (BundleElement bundle : bundles) {
+			if (bundle.requires == null)
+				continue;
+			StringTokenizer tokenizer = new StringTokenizer(bundle.requires, ":"); //$NON-NLS-1$
+			while (tokenizer.hasMoreTokens()) {
+				BundleElement prerequisite = byId.get(tokenizer.nextToken().trim());
+				// requirements on bundles that are not compiled here are already available
+				if (prerequisite != null && prerequisite != bundle && !bundle.prerequisites.contains(prerequisite)) {
+					bundle.prerequisites.add(prerequisite);
+					prerequisite.dependents.add(bundle);
+					bundle.pending++;
+				}
+			}
+		}
+	}
+
+	private int getThreadCount() {
+		// same precedence as the parallel task
+		int count = threadCount;
+		if (threadsPerProcessor > 0)
+			count = Runtime.getRuntime().availableProcessors() * threadsPerProcessor;
+		return count > 0 ? count : Runtime.getRuntime().availableProcessors();
+	}
+
+	private void startReady(ExecutorService executor) {
+		while (!ready.isEmpty()) {
+			BundleElement bundle = ready.poll();
+			running++;
+			executor.execute(() -> compile(bundle));
+		}
+	}
+
+	private void compile(BundleElement bundle) {
+		BuildException error = null;
+		bundle.start = System.nanoTime();
+		try {
+			Ant ant = new Ant();
+			ant.bindToOwner(this);
+			ant.init();
+			ant.setAntfile(antfile);
+			ant.setDir(getProject().resolveFile(bundle.dir));
+			ant.setTarget(target);
+			ant.perform();
+		} catch (BuildException e) {
+			error = e;
+		} catch (RuntimeException e) {
+			error = new BuildException(e, getLocation());
+		} finally {
+			bundle.duration = System.nanoTime() - bundle.start;
+			log("Compiled " + bundle.getName() + " in " + toMillis(bundle.duration) + " ms", Project.MSG_VERBOSE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			synchronized (this) {
+				running--;
+				remaining--;
+				if (error != null && failure == null)
+					failure = error;
+				for (BundleElement dependent : bundle.dependents) {
+					if (dependent.pending > 0 && --dependent.pending == 0)
+						ready.add(dependent);
+				}
+				notifyAll();
+			}
+		}
+	}
+
+	private void reportTimes(long wallTime) {
+		// longest chain of dependent bundles, the bundles are given in a topological order
+		Map<BundleElement, Long> pathTime = new HashMap<>();
+		Map<BundleElement, BundleElement> pathPrevious = new HashMap<>();
+		BundleElement last = null;
+		long total = 0;
+		for (BundleElement bundle : bundles) {
+			long longest = 0;
+			for (BundleElement prerequisite : bundle.prerequisites) {
+				Long time = pathTime.get(prerequisite);
+				if (time != null && time.longValue() > longest) {
+					longest = time.longValue();
+					pathPrevious.put(bundle, prerequisite);
+				}
+			}
+			long time = longest + bundle.duration;
+			pathTime.put(bundle, Long.valueOf(time));
+			if (last == null || time > pathTime.get(last).longValue())
+				last = bundle;
+			total += bundle.duration;
+		}
+		Deque<BundleElement> criticalPath = new ArrayDeque<>();
+		for (BundleElement bundle = last; bundle != null; bundle = pathPrevious.get(bundle))
+			criticalPath.addFirst(bundle);
+
+		StringBuilder path = new StringBuilder();
+		for (BundleElement bundle : criticalPath) {
+			if (path.length() > 0)
+				path.append(" -> "); //$NON-NLS-1$
+			path.append(bundle.getName()).append(" (").append(toMillis(bundle.duration)).append(" ms)"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		log("Compiled " + bundles.size() + " bundles in " + toMillis(wallTime) + " ms (" + toMillis(total) + " ms in total), critical path " + toMillis(pathTime.get(last).longValue()) + " ms: " + path); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+		if (timingLog == null || timingLog.startsWith(ANT_PREFIX))
+			return;
+		File log = getProject().resolveFile(timingLog);
+		if (log.getParentFile() != null && !log.getParentFile().exists())
+			log.getParentFile().mkdirs();
+		Set<BundleElement> onPath = new HashSet<>(criticalPath);
+		long first = bundles.stream().mapToLong(bundle -> bundle.start).min().getAsLong();
+		try (PrintWriter writer = new PrintWriter(new FileWriter(log))) {
+			writer.write("# bundle\tstart (ms)\tduration (ms)\tcritical path" + NEW_LINE); //$NON-NLS-1$
+			for (BundleElement bundle : bundles) {
+				writer.write(bundle.getName() + '\t' + toMillis(bundle.start - first) + '\t' + toMillis(bundle.duration) + '\t' + onPath.contains(bundle) + NEW_LINE);
+			}
+			writer.write("# wall time " + toMillis(wallTime) + " ms, critical path " + toMillis(pathTime.get(last).longValue()) + " ms: " + path + NEW_LINE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} catch (IOException e) {
+			log("Unable to write " + log + ": " + e.getMessage(), Project.MSG_WARN); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private static long toMillis(long nanos) {
+		return nanos / 1_000_000;
+	}
+}
@@ -0,0 +1,30 @@
+package org.eclipse.pde.ds.internal.annotations.tests;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.pde.ds.internal.annotations.DSAnnotationCompilationParticipant;
+import org.junit.Test;
+
+public class ComponentPrescanTest {
+
+	private static boolean mayContainComponent(String source) {
+		return DSAnnotationCompilationParticipant.mayContainComponent(source.toCharArray());
+	}
+
+	@Test
+	public void testComponent() {
+		assertTrue(mayContainComponent("@Component public class A {}"));
+		assertTrue(mayContainComponent("class A { @Deprecated @Component(service = B.class) class B {} }"));
+		assertTrue(mayContainComponent("@org.osgi.service.component.annotations.Component class A {}"));
+		assertTrue(mayContainComponent("@ org . osgi.service.component.annotations\n\t.Component class A {}"));
+	}
+
+	@Test
+	public void testNoComponent() {
+		assertFalse(mayContainComponent(""));
+		assertFalse(mayContainComponent("public class Component {}"));
+		assertFalse(mayContainComponent("@Reference @ComponentProperty @interface Component {}"));
+		assertFalse(mayContainComponent("@org.example.Components class A {} @"));
+	}
+}
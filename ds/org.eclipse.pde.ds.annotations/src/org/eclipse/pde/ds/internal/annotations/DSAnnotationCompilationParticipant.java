@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2021 Ecliptical Software Inc. and others.
+ * Copyright (c) 2012, 2024 Ecliptical Software Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -613,6 +613,9 @@ public class DSAnnotationCompilationParticipant extends CompilationParticipant {
 
 	@Override
 	public void processAnnotations(BuildContext[] files) {
+		long start = debug.isDebugging() ? System.nanoTime() : 0;
+		int skipped = 0;
+
 		// we need to process CUs in context of a project; separate them by project
 		HashMap<IJavaProject, Map<ICompilationUnit, BuildContext>> filesByProject = new HashMap<>();
 		for (BuildContext file : files) {
@@ -630,8 +633,10 @@ public class DSAnnotationCompilationParticipant extends CompilationParticipant {
 				continue;
 			}
 
-			if (canSkipFile(cu)) {
+			// only ask the Java model if the source may contain a component at all
+			if (!mayContainComponent(file) || canSkipFile(cu)) {
 				markAsAbandoned(cu);
+				skipped++;
 				continue;
 			}
 
@@ -644,14 +649,105 @@ public class DSAnnotationCompilationParticipant extends CompilationParticipant {
 			map.put(cu, file);
 		}
 
+		if (debug.isDebugging()) {
+			debug.trace(String.format("Skipped %d of %d compilation units without components in %d ms.", skipped, files.length, (System.nanoTime() - start) / 1_000_000)); //$NON-NLS-1$
+		}
+
 		// process all CUs in each project
 		for (Map.Entry<IJavaProject, Map<ICompilationUnit, BuildContext>> entry : filesByProject.entrySet()) {
+			long projectStart = debug.isDebugging() ? System.nanoTime() : 0;
 			if (debug.isDebugging()) {
 				debug.trace(String.format("Processing compilation units in project %s.", entry.getKey().getElementName())); //$NON-NLS-1$
 			}
 
 			processAnnotations(entry.getKey(), entry.getValue());
+
+			if (debug.isDebugging()) {
+				debug.trace(String.format("Processed %d compilation units in project %s in %d ms.", entry.getValue().size(), entry.getKey().getElementName(), (System.nanoTime() - projectStart) / 1_000_000)); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * Scans the source of the given file for an annotation named
+	 * <code>Component</code>, either simple or qualified. This is much cheaper
+	 * than building the Java model of the file and may only report false
+	 * positives (e.g. an annotation in a comment), which are then sorted out by
+	 * {@link #canSkipFile(ICompilationUnit)}.
+	 *
+	 * @param file the file to scan
+	 * @return <code>false</code> if the file can't contain a component
+	 */
+	private boolean mayContainComponent(BuildContext file) {
+		char[] contents;
+		try {
+			contents = file.getContents();
+		} catch (RuntimeException e) {
+			return true;
 		}
+
+		if (contents == null) {
+			return true;
+		}
+
+		return mayContainComponent(contents);
+	}
+
+	public static boolean mayContainComponent(char[] contents) {
+		int length = contents.length;
+		for (int i = 0; i < length; i++) {
+			if (contents[i] != '@') {
+				continue;
+			}
+
+			// the (qualified) annotation name, whitespace is allowed around the separators
+			int segmentStart = -1;
+			int segmentEnd = -1;
+			int j = skipWhitespace(contents, i + 1);
+			while (j < length && Character.isJavaIdentifierStart(contents[j])) {
+				segmentStart = j;
+				while (j < length && Character.isJavaIdentifierPart(contents[j])) {
+					j++;
+				}
+
+				segmentEnd = j;
+				j = skipWhitespace(contents, j);
+				if (j >= length || contents[j] != '.') {
+					break;
+				}
+
+				j = skipWhitespace(contents, j + 1);
+			}
+
+			if (segmentStart >= 0 && isComponent(contents, segmentStart, segmentEnd)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static int skipWhitespace(char[] contents, int index) {
+		while (index < contents.length && Character.isWhitespace(contents[index])) {
+			index++;
+		}
+
+		return index;
+	}
+
+	private static boolean isComponent(char[] contents, int start, int end) {
+		String name = "Component"; //$NON-NLS-1$
+		if (end - start != name.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < name.length(); i++) {
+			if (contents[start + i] != name.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
 	}
 
 	public boolean canSkipFile(ICompilationUnit cu) {
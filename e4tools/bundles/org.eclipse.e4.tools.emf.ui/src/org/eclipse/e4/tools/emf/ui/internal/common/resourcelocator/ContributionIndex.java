@@ -0,0 +1,338 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.e4.tools.emf.ui.internal.common.resourcelocator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.e4.tools.emf.ui.internal.common.resourcelocator.TargetPlatformContributionCollector.Entry;
+
+/**
+ * The index of a {@link TargetPlatformContributionCollector}. The entries are
+ * kept in one segment per install location (a workspace project or a target
+ * bundle), so a changed location can be scanned again on its own. Every
+ * segment has a trigram index of the names of its entries, so a lookup only
+ * has to match the entries that contain all trigrams of the literal parts of
+ * the search pattern. The segments of target bundles are stored on disk
+ * together with the time stamp of their location, for directories the newest
+ * time stamp of their subdirectories, and are reused as long as the location is
+ * unchanged.
+ */
+final class ContributionIndex {
+
+	private static final int FORMAT_VERSION = 2;
+
+	private static final int[] NO_CANDIDATES = new int[0];
+
+	/**
+	 * The entries of an install location
+	 */
+	static final class Segment {
+		final String location;
+		final String bundle;
+		final boolean workspace;
+		final long lastModified;
+		final long length;
+		final Entry[] entries;
+		private final Map<Long, int[]> trigrams;
+
+		/**
+		 * @param location
+		 *            the install location
+		 * @param bundle
+		 *            the symbolic name of the bundle or <code>null</code>
+		 * @param workspace
+		 *            whether the location is a workspace project, these are
+		 *            updated from resource deltas and not stored
+		 * @param entries
+		 *            the entries found in the location
+		 */
+		Segment(String location, String bundle, boolean workspace, Entry[] entries) {
+			// workspace projects are not checked by their time stamp
+			this(location, bundle, workspace, workspace ? 0 : getLastModified(new File(location)),
+					workspace ? 0 : getLength(new File(location)), entries);
+		}
+
+		private Segment(String location, String bundle, boolean workspace, long lastModified, long length,
+				Entry[] entries) {
+			this.location = location;
+			this.bundle = bundle;
+			this.workspace = workspace;
+			this.lastModified = lastModified;
+			this.length = length;
+			this.entries = entries;
+			this.trigrams = createTrigramIndex(entries);
+		}
+
+		/**
+		 * @param file
+		 *            the install location
+		 * @return whether the location is unchanged since it was scanned
+		 */
+		boolean isUpToDate(File file) {
+			return lastModified >= 0 && lastModified == getLastModified(file) && length == getLength(file);
+		}
+
+		/**
+		 * @param patternTrigrams
+		 *            the trigrams of a search pattern
+		 * @return the ascending indices of the entries that contain all given
+		 *         trigrams, <code>null</code> if all entries have to be matched
+		 */
+		int[] getCandidates(long[] patternTrigrams) {
+			if (patternTrigrams.length == 0) {
+				return null;
+			}
+			final int[][] postings = new int[patternTrigrams.length][];
+			for (int i = 0; i < patternTrigrams.length; i++) {
+				postings[i] = trigrams.get(Long.valueOf(patternTrigrams[i]));
+				if (postings[i] == null) {
+					return NO_CANDIDATES;
+				}
+			}
+			Arrays.sort(postings, Comparator.comparingInt(p -> p.length));
+			int[] candidates = postings[0];
+			for (int i = 1; i < postings.length && candidates.length > 0; i++) {
+				candidates = intersect(candidates, postings[i]);
+			}
+			return candidates;
+		}
+	}
+
+	private ContributionIndex() {
+	}
+
+	// directories are checked by the newest time stamp of the directories they
+	// contain, it changes whenever a file is added, removed or renamed, and the
+	// one of their manifest
+	private static long getLastModified(File file) {
+		if (!file.isDirectory()) {
+			return file.lastModified();
+		}
+		final long[] newest = { file.lastModified() };
+		try {
+			Files.walkFileTree(file.toPath(), new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					newest[0] = Math.max(newest[0], attrs.lastModifiedTime().toMillis());
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (final IOException e) {
+			// an unreadable directory is scanned again the next time
+			return -1;
+		}
+		return newest[0];
+	}
+
+	private static long getLength(File file) {
+		if (file.isDirectory()) {
+			return new File(file, "META-INF/MANIFEST.MF").lastModified(); //$NON-NLS-1$
+		}
+		return file.length();
+	}
+
+	/**
+	 * @param namePattern
+	 *            a search pattern with <code>*</code> and <code>?</code>
+	 *            wildcards
+	 * @return the distinct case folded trigrams of the literal parts of the
+	 *         pattern
+	 */
+	static long[] getTrigrams(String namePattern) {
+		final Set<Long> trigrams = new LinkedHashSet<>();
+		int start = 0;
+		for (int i = 0; i <= namePattern.length(); i++) {
+			if (i == namePattern.length() || namePattern.charAt(i) == '*' || namePattern.charAt(i) == '?') {
+				for (int j = start; j + 3 <= i; j++) {
+					trigrams.add(Long.valueOf(trigram(namePattern, j)));
+				}
+				start = i + 1;
+			}
+		}
+		return trigrams.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	private static long trigram(String name, int index) {
+		return (long) fold(name.charAt(index)) << 32 | (long) fold(name.charAt(index + 1)) << 16
+				| fold(name.charAt(index + 2));
+	}
+
+	// the names are matched case insensitive
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	private static Map<Long, int[]> createTrigramIndex(Entry[] entries) {
+		final Map<Long, Postings> postings = new HashMap<>();
+		for (int i = 0; i < entries.length; i++) {
+			final String name = entries[i].name;
+			for (int j = 0; j + 3 <= name.length(); j++) {
+				postings.computeIfAbsent(Long.valueOf(trigram(name, j)), k -> new Postings()).add(i);
+			}
+		}
+		final Map<Long, int[]> index = new HashMap<>(postings.size());
+		postings.forEach((key, ids) -> index.put(key, Arrays.copyOf(ids.ids, ids.size)));
+		return index;
+	}
+
+	/**
+	 * The ascending indices of the entries containing a trigram
+	 */
+	private static final class Postings {
+		int[] ids = new int[4];
+		int size;
+
+		void add(int id) {
+			if (size > 0 && ids[size - 1] == id) {
+				return; // the trigram occurs more than once in the name
+			}
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+		}
+	}
+
+	private static int[] intersect(int[] a, int[] b) {
+		final int[] result = new int[Math.min(a.length, b.length)];
+		int size = 0;
+		for (int i = 0, j = 0; i < a.length && j < b.length;) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[size++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * Loads the stored segments
+	 *
+	 * @param file
+	 *            the index file
+	 * @param filePattern
+	 *            the pattern of the indexed files, an index created for another
+	 *            pattern is ignored
+	 * @return the stored segments by their location, empty if there is no
+	 *         usable index
+	 */
+	static Map<String, Segment> load(Path file, String filePattern) {
+		final Map<String, Segment> segments = new HashMap<>();
+		if (!Files.isRegularFile(file)) {
+			return segments;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != FORMAT_VERSION || !in.readUTF().equals(filePattern)) {
+				return segments;
+			}
+			final int segmentCount = in.readInt();
+			for (int i = 0; i < segmentCount; i++) {
+				final String location = in.readUTF();
+				final String bundle = in.readBoolean() ? in.readUTF() : null;
+				final long lastModified = in.readLong();
+				final long length = in.readLong();
+				final Entry[] entries = new Entry[in.readInt()];
+				for (int j = 0; j < entries.length; j++) {
+					final Entry e = new Entry();
+					e.installLocation = location;
+					e.bundleSymName = bundle;
+					e.name = in.readUTF();
+					e.path = in.readUTF();
+					e.pakage = in.readUTF();
+					e.relativePath = in.readBoolean() ? in.readUTF() : null;
+					entries[j] = e;
+				}
+				segments.put(location, new Segment(location, bundle, false, lastModified, length, entries));
+			}
+		} catch (IOException e) {
+			segments.clear();
+		}
+		return segments;
+	}
+
+	/**
+	 * Stores the segments of the target bundles
+	 *
+	 * @param file
+	 *            the index file
+	 * @param filePattern
+	 *            the pattern of the indexed files
+	 * @param segments
+	 *            the segments to store, segments of workspace projects are
+	 *            skipped
+	 * @throws IOException
+	 *             if the index can't be written
+	 */
+	static void save(Path file, String filePattern, Collection<Segment> segments) throws IOException {
+		Files.createDirectories(file.getParent());
+		final Path tmp = file.resolveSibling(file.getFileName() + ".tmp"); //$NON-NLS-1$
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+			out.writeInt(FORMAT_VERSION);
+			out.writeUTF(filePattern);
+			out.writeInt((int) segments.stream().filter(s -> !s.workspace).count());
+			for (final Segment segment : segments) {
+				if (segment.workspace) {
+					continue;
+				}
+				out.writeUTF(segment.location);
+				out.writeBoolean(segment.bundle != null);
+				if (segment.bundle != null) {
+					out.writeUTF(segment.bundle);
+				}
+				out.writeLong(segment.lastModified);
+				out.writeLong(segment.length);
+				out.writeInt(segment.entries.length);
+				for (final Entry e : segment.entries) {
+					out.writeUTF(e.name);
+					out.writeUTF(e.path);
+					out.writeUTF(e.pakage);
+					out.writeBoolean(e.relativePath != null);
+					if (e.relativePath != null) {
+						out.writeUTF(e.relativePath);
+					}
+				}
+			}
+		}
+		try {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (final AtomicMoveNotSupportedException e) {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
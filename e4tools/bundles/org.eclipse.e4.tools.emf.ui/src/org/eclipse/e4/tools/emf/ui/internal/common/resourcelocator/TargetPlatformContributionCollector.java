@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2023 TwelveTone LLC and others.
+ * Copyright (c) 2014, 2024 TwelveTone LLC and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -25,12 +25,16 @@ import java.io.InputStreamReader;
 import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
@@ -42,10 +46,18 @@ import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.core.internal.runtime.XmlProcessorFactory;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.ILog;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.e4.tools.emf.ui.common.IClassContributionProvider;
@@ -57,10 +69,12 @@ import org.eclipse.e4.tools.emf.ui.common.ResourceSearchScope;
 import org.eclipse.e4.tools.emf.ui.internal.common.ClassContributionCollector;
 import org.eclipse.e4.tools.emf.ui.internal.common.component.dialogs.FilteredContributionDialog;
 import org.eclipse.e4.tools.emf.ui.internal.common.component.tabs.empty.E;
+import org.eclipse.e4.tools.emf.ui.internal.common.resourcelocator.ContributionIndex.Segment;
 import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.pde.core.plugin.IPluginBase;
 import org.eclipse.pde.core.plugin.IPluginModelBase;
+import org.eclipse.pde.internal.core.IPluginModelListener;
 import org.eclipse.pde.internal.core.PDECore;
 import org.eclipse.pde.internal.core.TargetPlatformHelper;
 import org.eclipse.pde.internal.core.util.PatternConstructor;
@@ -73,6 +87,7 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
+import org.osgi.framework.FrameworkUtil;
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
 
@@ -80,17 +95,36 @@ import org.w3c.dom.NodeList;
  * A contribution collector encompassing the current target platform.<br />
  * Uses filter for bundle, package, and location filtering.<br />
  * This implementation finds resources based on file names, not by parsing file
- * contents.
+ * contents.<br />
+ * The found resources are kept in a {@link ContributionIndex} that is stored
+ * across sessions and updated for the target bundles and workspace projects
+ * that changed.
  *
  * @author Steven Spungin
  */
 @SuppressWarnings("restriction")
 public abstract class TargetPlatformContributionCollector extends ClassContributionCollector {
 
-	CopyOnWriteArrayList<Entry> cacheEntry = new CopyOnWriteArrayList<>();
-	HashSet<String> cacheBundleId = new HashSet<>();
-	HashSet<String> cachePackage = new HashSet<>();
-	HashSet<String> cacheLocation = new HashSet<>();
+	private static final String INDEX_DIRECTORY = "contributionIndex"; //$NON-NLS-1$
+
+	/**
+	 * The unmodifiable segments of the index in the order of the workspace
+	 * projects and target bundles, replaced as a whole once the index is
+	 * updated
+	 */
+	private volatile List<Segment> segments = List.of();
+	/** The known segments by their install location, guarded by this */
+	private final Map<String, Segment> segmentsByLocation = new HashMap<>();
+	/** The locations of the workspace projects whose files were added or removed */
+	private final Set<String> changedProjects = ConcurrentHashMap.newKeySet();
+	private boolean storedIndexLoaded;
+	private volatile boolean loaded;
+	private volatile boolean outdated;
+	/** The job updating the index, guarded by jobLock */
+	private Job indexJob;
+	private final Object jobLock = new Object();
+	private final IPluginModelListener pluginModelListener = delta -> outdated = true;
+	private final IResourceChangeListener resourceChangeListener = this::resourceChanged;
 	private Pattern patternFile;
 	protected String cacheName;
 	protected boolean stopFiltering;
@@ -130,8 +164,10 @@ public abstract class TargetPlatformContributionCollector extends ClassContribut
 				int found = 0;
 				boolean more = false;
 
+				final long[] trigrams = ContributionIndex.getTrigrams(filter.namePattern);
+
 				stopFiltering = false;
-				for (final Entry e : cacheEntry) {
+				search: for (final Segment segment : segments) {
 					if (stopFiltering) {
 						break;
 					}
@@ -142,66 +178,35 @@ public abstract class TargetPlatformContributionCollector extends ClassContribut
 							break;
 						}
 						monitor.subTask(Messages.TargetPlatformContributionCollector_Searching
-								+ " " + e.installLocation); //$NON-NLS-1$
+								+ " " + segment.location); //$NON-NLS-1$
 					}
 
-					if (E.notEmpty(filter.getBundles())) {
-						if (!filter.getBundles().contains(e.bundleSymName)) {
-							continue;
-						}
-					}
-					if (E.notEmpty(filter.getPackages())) {
-						if (!filter.getPackages().contains(e.pakage)) {
-							continue;
-						}
-					}
-					if (E.notEmpty(filter.getLocations())) {
-						boolean locationFound = false;
-						for (final String location : filter.getLocations()) {
-							if (e.installLocation.startsWith(location)) {
-								locationFound = true;
-								break;
-							}
-						}
-						if (!locationFound) {
-							continue;
-						}
-					}
-					if (filter.isIncludeNonBundles() == false) {
-						if (e.bundleSymName == null) {
-							continue;
-						}
+					if (!matches(filter, segment)) {
+						continue;
 					}
-					if (filter.getSearchScope().contains(ResourceSearchScope.WORKSPACE)) {
-						if (filter.project != null) {
-							final IWorkspace workspace = filter.project.getWorkspace();
-							boolean fnd = false;
-							for (final IProject project : workspace.getRoot().getProjects()) {
-								// String path =
-								// project.getLocationURI().getPath();
-								final String path = project.getName();
-								if (e.installLocation.contains(path)) {
-									fnd = true;
-									break;
-								}
-							}
-							if (!fnd) {
+
+					// only the entries containing the literal parts of the pattern can match
+					final int[] candidates = segment.getCandidates(trigrams);
+					final int count = candidates == null ? segment.entries.length : candidates.length;
+					for (int i = 0; i < count; i++) {
+						final Entry e = segment.entries[candidates == null ? i : candidates[i]];
+						if (E.notEmpty(filter.getPackages())) {
+							if (!filter.getPackages().contains(e.pakage)) {
 								continue;
 							}
 						}
-					}
 
-					final Matcher m = patternName.matcher(e.name);
-					if (m.find()) {
-						found++;
-						if (found > maxResults) {
-							more = true;
-							handler.moreResults(ContributionResultHandler.MORE_UNKNOWN, filter);
-							break;
+						final Matcher m = patternName.matcher(e.name);
+						if (m.find()) {
+							found++;
+							if (found > maxResults) {
+								more = true;
+								handler.moreResults(ContributionResultHandler.MORE_UNKNOWN, filter);
+								break search;
+							}
+							handler.result(makeData(e));
 						}
-						handler.result(makeData(e));
 					}
-
 				}
 				if (!more) {
 					if (stopFiltering) {
@@ -224,13 +229,122 @@ public abstract class TargetPlatformContributionCollector extends ClassContribut
 			@Override
 			public void clearCache() {
 				stopFiltering = true;
-				cacheEntry.clear();
-				cacheBundleId.clear();
-				cachePackage.clear();
-				cacheLocation.clear();
+				synchronized (TargetPlatformContributionCollector.this) {
+					segments = List.of();
+					segmentsByLocation.clear();
+					storedIndexLoaded = false;
+					loaded = false;
+					try {
+						Files.deleteIfExists(getIndexFile());
+					} catch (final IOException e) {
+						ILog.of(TargetPlatformContributionCollector.class)
+						.error("Unable to delete the contribution index " + getIndexFile(), e); //$NON-NLS-1$
+					}
+				}
 				outputDirectories.clear();
 			}
 		});
+
+		PDECore.getDefault().getModelManager().addPluginModelListener(pluginModelListener);
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(resourceChangeListener,
+				IResourceChangeEvent.POST_CHANGE);
+	}
+
+	/**
+	 * Stops tracking the plug-in models and the workspace and cancels a running
+	 * index update. The collector must not be used afterwards.
+	 */
+	public void dispose() {
+		PDECore.getDefault().getModelManager().removePluginModelListener(pluginModelListener);
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(resourceChangeListener);
+		synchronized (jobLock) {
+			if (indexJob != null) {
+				indexJob.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Checks the filter criteria that are the same for all entries of a segment
+	 */
+	private static boolean matches(Filter filter, Segment segment) {
+		if (E.notEmpty(filter.getBundles())) {
+			if (!filter.getBundles().contains(segment.bundle)) {
+				return false;
+			}
+		}
+		if (E.notEmpty(filter.getLocations())) {
+			boolean locationFound = false;
+			for (final String location : filter.getLocations()) {
+				if (segment.location.startsWith(location)) {
+					locationFound = true;
+					break;
+				}
+			}
+			if (!locationFound) {
+				return false;
+			}
+		}
+		if (filter.isIncludeNonBundles() == false) {
+			if (segment.bundle == null) {
+				return false;
+			}
+		}
+		if (filter.getSearchScope().contains(ResourceSearchScope.WORKSPACE)) {
+			if (filter.project != null) {
+				final IWorkspace workspace = filter.project.getWorkspace();
+				for (final IProject project : workspace.getRoot().getProjects()) {
+					// String path =
+					// project.getLocationURI().getPath();
+					final String path = project.getName();
+					if (segment.location.contains(path)) {
+						return true;
+					}
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// only the names of the files are indexed, so only added and removed files outdate a project
+	private void resourceChanged(IResourceChangeEvent event) {
+		final IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		for (final IResourceDelta projectDelta : delta.getAffectedChildren()) {
+			final IPath location = projectDelta.getResource().getLocation();
+			if (projectDelta.getKind() != IResourceDelta.CHANGED) {
+				outdated = true;
+			} else if ((projectDelta.getFlags() & IResourceDelta.OPEN) != 0 || hasAddedOrRemovedFiles(projectDelta)) {
+				if (location != null) {
+					changedProjects.add(location.toOSString());
+				}
+				outdated = true;
+			}
+		}
+	}
+
+	private static boolean hasAddedOrRemovedFiles(IResourceDelta delta) {
+		final boolean[] found = new boolean[1];
+		try {
+			delta.accept(d -> {
+				if (d.getResource().getType() == IResource.FILE
+						&& (d.getKind() & (IResourceDelta.ADDED | IResourceDelta.REMOVED)) != 0) {
+					found[0] = true;
+				}
+				return !found[0];
+			});
+		} catch (final CoreException e) {
+			return true;
+		}
+		return found[0];
+	}
+
+	Path getIndexFile() {
+		return Platform.getStateLocation(FrameworkUtil.getBundle(TargetPlatformContributionCollector.class))
+				.append(INDEX_DIRECTORY).append(getClass().getSimpleName() + ".idx").toFile().toPath(); //$NON-NLS-1$
 	}
 
 	protected ContributionData makeData(Entry e) {
@@ -253,7 +367,13 @@ public abstract class TargetPlatformContributionCollector extends ClassContribut
 	 */
 	public Collection<String> getBundleIds() {
 		reloadCache(false, null);
-		return new ArrayList<>(cacheBundleId);
+		final Set<String> bundleIds = new HashSet<>();
+		for (final Segment segment : segments) {
+			if (segment.bundle != null && segment.entries.length > 0) {
+				bundleIds.add(segment.bundle);
+			}
+		}
+		return new ArrayList<>(bundleIds);
 	}
 
 	/**
@@ -262,7 +382,13 @@ public abstract class TargetPlatformContributionCollector extends ClassContribut
 	 */
 	public Collection<String> getPackages() {
 		reloadCache(false, null);
-		return new ArrayList<>(cachePackage);
+		final Set<String> packages = new HashSet<>();
+		for (final Segment segment : segments) {
+			for (final Entry e : segment.entries) {
+				packages.add(e.pakage);
+			}
+		}
+		return new ArrayList<>(packages);
 	}
 
 	/**
@@ -271,120 +397,52 @@ public abstract class TargetPlatformContributionCollector extends ClassContribut
 	 */
 	public Collection<String> getLocations() {
 		reloadCache(false, null);
-		return new ArrayList<>(cacheLocation);
+		final Set<String> locations = new HashSet<>();
+		for (final Segment segment : segments) {
+			if (segment.entries.length > 0) {
+				locations.add(segment.location);
+			}
+		}
+		return new ArrayList<>(locations);
 	}
 
 	/**
-	 * Ensures the cache is loaded. By default it is loaded on first access, and
-	 * kept static until forced to reloaded.
+	 * Ensures the cache is loaded. By default it is loaded on first access,
+	 * from the index stored by a previous session where possible, and updated
+	 * for the changed target bundles and workspace projects afterwards. Updates
+	 * run in a job, until they complete lookups see the previous index.
 	 *
 	 * @param force
 	 *            true to force reload the cache
 	 */
 	private void reloadCache(boolean force, final IProviderStatusCallback providerStatusCallback) {
-		if (cacheEntry.isEmpty() || force) {
+		if (loaded && !force) {
+			if (outdated) {
+				scheduleIndexUpdate();
+			}
+		} else {
+			loaded = true;
 			if (providerStatusCallback != null) {
 				providerStatusCallback.onStatusChanged(ProviderStatus.INITIALIZING);
 			}
-			cacheEntry.clear();
-			cacheBundleId.clear();
-			cachePackage.clear();
-			cacheLocation.clear();
-			outputDirectories.clear();
+			if (force) {
+				synchronized (this) {
+					segmentsByLocation.clear();
+				}
+				outputDirectories.clear();
+			}
 
 			final Job job = new Job(Messages.TargetPlatformContributionCollector_BuildTargetPlatformIndex) {
 
 				@Override
 				protected IStatus run(IProgressMonitor monitor) {
-					// load workspace projects
-					final IProject[] projects = PDECore.getWorkspace().getRoot().getProjects();
-					final IPluginModelBase[] models = TargetPlatformHelper.getPDEState().getTargetModels();
-					final int total = projects.length + models.length;
-					monitor.beginTask(Messages.TargetPlatformContributionCollector_updatingTargetPlatformCache
-							+ cacheName + ")", total); //$NON-NLS-1$
-
-					for (final IProject pj : projects) {
-						if (monitor.isCanceled()) {
-							break;
-						}
-						final String rootDirectory = pj.getLocation().toOSString();
-						monitor.subTask(rootDirectory);
-						monitor.worked(1);
-						TargetPlatformContributionCollector.this
-						.visit(monitor, FilteredContributionDialog.getBundle(rootDirectory), rootDirectory,
-								new File(rootDirectory));
-					}
-
-					// load target platform bundles
-					for (final IPluginModelBase pluginModelBase : models) {
-						monitor.subTask(pluginModelBase.getPluginBase().getId());
-						monitor.worked(1);
-						if (monitor.isCanceled()) {
-							break;
-						}
-
-						final IPluginBase pluginBase = pluginModelBase.getPluginBase();
-						if (pluginBase == null) {
-							// bundle = getBundle(new File())
-							continue;
-						}
-						URL url;
-						try {
-							final String installLocation = pluginModelBase.getInstallLocation();
-							if (installLocation.endsWith(".jar")) { //$NON-NLS-1$
-								url = new URL("file:///" + installLocation); //$NON-NLS-1$
-								try (final ZipInputStream zis = new ZipInputStream(url.openStream())) {
-									while (true) {
-										final ZipEntry entry = zis.getNextEntry();
-										if (entry == null) {
-											break;
-										}
-										final String name2 = entry.getName();
-										if (shouldIgnore(name2)) {
-											continue;
-										}
-										final Matcher m = patternFile.matcher(name2);
-										if (m.matches()) {
-											final Entry e = new Entry();
-											e.installLocation = installLocation;
-											cacheLocation.add(installLocation);
-											e.name = m.group(2);
-											e.path = m.group(1);
-											if (e.path != null) {
-												e.pakage = e.path.replace("/", "."); //$NON-NLS-1$ //$NON-NLS-2$
-												if (e.pakage.startsWith(".")) { //$NON-NLS-1$
-													e.pakage = e.pakage.substring(1);
-												}
-												if (e.pakage.endsWith(".")) { //$NON-NLS-1$
-													e.pakage = e.pakage.substring(0, e.pakage.length() - 1);
-												}
-											} else {
-												e.pakage = ""; //$NON-NLS-1$
-											}
-											cachePackage.add(e.pakage);
-
-											e.bundleSymName = pluginBase.getId();
-											if (e.path == null) {
-												e.path = ""; //$NON-NLS-1$
-											}
-											cacheEntry.add(e);
-											cacheBundleId.add(pluginBase.getId());
-										}
-									}
-								}
-							} else {
-								// not a jar file
-								final String bundle = getBundle(new File(installLocation));
-								if (bundle != null) {
-									visit(monitor, bundle, installLocation, new File(installLocation));
-								}
+					try {
+						updateIndex(monitor);
+					} finally {
+						synchronized (jobLock) {
+							if (indexJob == this) {
+								indexJob = null;
 							}
-						} catch (final MalformedURLException e) {
-							// TODO Auto-generated catch block
-							e.printStackTrace();
-						} catch (final IOException e) {
-							// TODO Auto-generated catch block
-							e.printStackTrace();
 						}
 					}
 					monitor.done();
@@ -400,6 +458,9 @@ public abstract class TargetPlatformContributionCollector extends ClassContribut
 					return Status.OK_STATUS;
 				}
 			};
+			synchronized (jobLock) {
+				indexJob = job;
+			}
 			job.schedule();
 
 			// User Job will not display dialog if called from a modal dialog,
@@ -476,6 +537,219 @@ public abstract class TargetPlatformContributionCollector extends ClassContribut
 		}
 	}
 
+	/**
+	 * Schedules a job bringing the outdated index up to date, unless an update
+	 * is already running
+	 */
+	private void scheduleIndexUpdate() {
+		synchronized (jobLock) {
+			if (indexJob != null) {
+				return;
+			}
+			final Job job = new Job(Messages.TargetPlatformContributionCollector_BuildTargetPlatformIndex) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					try {
+						updateIndex(monitor);
+					} finally {
+						synchronized (jobLock) {
+							if (indexJob == this) {
+								indexJob = null;
+							}
+						}
+					}
+					return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+				}
+			};
+			job.setSystem(true);
+			indexJob = job;
+			job.schedule();
+		}
+	}
+
+	/**
+	 * @return the job updating the index or <code>null</code> if there is none
+	 */
+	Job getIndexJob() {
+		synchronized (jobLock) {
+			return indexJob;
+		}
+	}
+
+	/**
+	 * Brings the index up to date with the workspace projects and the target
+	 * platform. Locations that are unchanged since they were indexed, in this
+	 * or a previous session, are not scanned again.
+	 */
+	private synchronized void updateIndex(IProgressMonitor monitor) {
+		outdated = false;
+		if (!storedIndexLoaded) {
+			storedIndexLoaded = true;
+			segmentsByLocation.putAll(ContributionIndex.load(getIndexFile(), patternFile.pattern()));
+		}
+		for (final String changedProject : changedProjects) {
+			changedProjects.remove(changedProject);
+			segmentsByLocation.remove(changedProject);
+		}
+
+		final IProject[] projects = PDECore.getWorkspace().getRoot().getProjects();
+		final IPluginModelBase[] models = TargetPlatformHelper.getPDEState().getTargetModels();
+		final int total = projects.length + models.length;
+		monitor.beginTask(Messages.TargetPlatformContributionCollector_updatingTargetPlatformCache
+				+ cacheName + ")", total); //$NON-NLS-1$
+
+		final boolean initial = segments.isEmpty();
+		final List<Segment> updated = new ArrayList<>(total);
+		final Map<String, Segment> current = new HashMap<>();
+		boolean changed = false;
+
+		// load workspace projects
+		for (final IProject pj : projects) {
+			if (monitor.isCanceled()) {
+				break;
+			}
+			final IPath location = pj.getLocation();
+			if (location == null) {
+				continue;
+			}
+			final String rootDirectory = location.toOSString();
+			monitor.subTask(rootDirectory);
+			monitor.worked(1);
+			Segment segment = segmentsByLocation.get(rootDirectory);
+			if (segment == null || !segment.workspace) {
+				segment = scanDirectory(monitor, FilteredContributionDialog.getBundle(rootDirectory), rootDirectory,
+						true);
+			}
+			current.put(rootDirectory, segment);
+			updated.add(segment);
+		}
+
+		// load target platform bundles
+		for (final IPluginModelBase pluginModelBase : models) {
+			if (monitor.isCanceled()) {
+				break;
+			}
+			final IPluginBase pluginBase = pluginModelBase.getPluginBase();
+			if (pluginBase == null) {
+				// bundle = getBundle(new File())
+				continue;
+			}
+			monitor.subTask(pluginBase.getId());
+			monitor.worked(1);
+
+			final String installLocation = pluginModelBase.getInstallLocation();
+			if (installLocation == null) {
+				continue;
+			}
+			final boolean jar = installLocation.endsWith(".jar"); //$NON-NLS-1$
+			Segment segment = segmentsByLocation.get(installLocation);
+			if (segment == null || segment.workspace || !segment.isUpToDate(new File(installLocation))
+					|| (jar && !pluginBase.getId().equals(segment.bundle))) {
+				segment = jar ? scanJar(pluginBase.getId(), installLocation)
+						: scanDirectory(monitor, getBundle(new File(installLocation)), installLocation, false);
+				if (segment == null || monitor.isCanceled()) {
+					continue;
+				}
+				changed = true;
+			}
+			current.put(installLocation, segment);
+			updated.add(segment);
+		}
+
+		if (monitor.isCanceled()) {
+			// keep what was indexed so far and complete the index on the next lookup
+			segmentsByLocation.putAll(current);
+			if (initial) {
+				segments = List.copyOf(updated);
+			}
+			outdated = true;
+			return;
+		}
+
+		for (final Segment segment : segmentsByLocation.values()) {
+			if (!segment.workspace && !current.containsKey(segment.location)) {
+				changed = true;
+				break;
+			}
+		}
+		segmentsByLocation.clear();
+		segmentsByLocation.putAll(current);
+		segments = List.copyOf(updated);
+		if (changed) {
+			try {
+				ContributionIndex.save(getIndexFile(), patternFile.pattern(), current.values());
+			} catch (final IOException e) {
+				ILog.of(TargetPlatformContributionCollector.class)
+				.error("Unable to save the contribution index " + getIndexFile(), e); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private Segment scanJar(String bundleId, String installLocation) {
+		final List<Entry> entries = new ArrayList<>();
+		try {
+			final URL url = new URL("file:///" + installLocation); //$NON-NLS-1$
+			try (final ZipInputStream zis = new ZipInputStream(url.openStream())) {
+				while (true) {
+					final ZipEntry entry = zis.getNextEntry();
+					if (entry == null) {
+						break;
+					}
+					final String name2 = entry.getName();
+					if (shouldIgnore(name2)) {
+						continue;
+					}
+					final Matcher m = patternFile.matcher(name2);
+					if (m.matches()) {
+						final Entry e = new Entry();
+						e.installLocation = installLocation;
+						e.name = m.group(2);
+						e.path = m.group(1);
+						e.pakage = getPackage(e.path);
+						e.bundleSymName = bundleId;
+						if (e.path == null) {
+							e.path = ""; //$NON-NLS-1$
+						}
+						entries.add(e);
+					}
+				}
+			}
+		} catch (final MalformedURLException e) {
+			// TODO Auto-generated catch block
+			e.printStackTrace();
+			return null;
+		} catch (final IOException e) {
+			// TODO Auto-generated catch block
+			e.printStackTrace();
+			return null;
+		}
+		return new Segment(installLocation, bundleId, false, entries.toArray(new Entry[entries.size()]));
+	}
+
+	private Segment scanDirectory(IProgressMonitor monitor, String bundleName, String installLocation,
+			boolean workspace) {
+		final List<Entry> entries = new ArrayList<>();
+		// target directories without a bundle manifest are not indexed
+		if (workspace || bundleName != null) {
+			visit(monitor, bundleName, installLocation, new File(installLocation), entries);
+		}
+		return new Segment(installLocation, bundleName, workspace, entries.toArray(new Entry[entries.size()]));
+	}
+
+	private static String getPackage(String path) {
+		if (path == null) {
+			return ""; //$NON-NLS-1$
+		}
+		String pakage = path.replace("/", "."); //$NON-NLS-1$ //$NON-NLS-2$
+		if (pakage.startsWith(".")) { //$NON-NLS-1$
+			pakage = pakage.substring(1);
+		}
+		if (pakage.endsWith(".")) { //$NON-NLS-1$
+			pakage = pakage.substring(0, pakage.length() - 1);
+		}
+		return pakage;
+	}
+
 	// @Refactor
 	static public String getBundle(File file) {
 		if (file.isDirectory() == false) {
@@ -499,19 +773,24 @@ public abstract class TargetPlatformContributionCollector extends ClassContribut
 					}
 				}
 			} catch (final IOException e) {
-				e.printStackTrace();
+				ILog.of(TargetPlatformContributionCollector.class).error("Unable to read the manifest " + f, e); //$NON-NLS-1$
 			}
 		}
 		return null;
 	}
 
-	protected void visit(IProgressMonitor monitor, String bundleName, String installLocation, File file) {
-		for (final File fChild : file.listFiles()) {
+	protected void visit(IProgressMonitor monitor, String bundleName, String installLocation, File file,
+			List<Entry> entries) {
+		final File[] children = file.listFiles();
+		if (children == null) {
+			return;
+		}
+		for (final File fChild : children) {
 			if (monitor.isCanceled()) {
 				break;
 			}
 			if (fChild.isDirectory()) {
-				visit(monitor, bundleName, installLocation, fChild);
+				visit(monitor, bundleName, installLocation, fChild, entries);
 			} else {
 				String name2 = fChild.getAbsolutePath().substring(installLocation.length() + 1);
 				name2 = stripOutputDirectory(name2, installLocation);
@@ -522,23 +801,12 @@ public abstract class TargetPlatformContributionCollector extends ClassContribut
 				if (m.matches()) {
 					final Entry e = new Entry();
 					e.installLocation = installLocation;
-					cacheLocation.add(installLocation);
 					e.name = m.group(2);
 					if (e.name.contains("$")) { //$NON-NLS-1$
 						continue;
 					}
 					e.path = m.group(1);
-					if (e.path != null) {
-						e.pakage = e.path.replace("/", "."); //$NON-NLS-1$ //$NON-NLS-2$
-						if (e.pakage.startsWith(".")) { //$NON-NLS-1$
-							e.pakage = e.pakage.substring(1);
-						}
-						if (e.pakage.endsWith(".")) { //$NON-NLS-1$
-							e.pakage = e.pakage.substring(0, e.pakage.length() - 1);
-						}
-					} else {
-						e.pakage = ""; //$NON-NLS-1$
-					}
+					e.pakage = getPackage(e.path);
 					if (e.path == null) {
 						e.path = ""; //$NON-NLS-1$
 					}
@@ -548,11 +816,7 @@ public abstract class TargetPlatformContributionCollector extends ClassContribut
 					e.bundleSymName = bundleName;
 					// TODO we need project to strip source paths.
 					// e.pakage = e.pakage.replaceAll("^bin.", "");
-					cachePackage.add(e.pakage);
-					cacheEntry.add(e);
-					if (bundleName != null) {
-						cacheBundleId.add(bundleName);
-					}
+					entries.add(e);
 				}
 			}
 		}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.e4.tools.emf.ui.internal.common.resourcelocator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.e4.tools.emf.ui.internal.common.resourcelocator.ContributionIndex.Segment;
+import org.eclipse.e4.tools.emf.ui.internal.common.resourcelocator.TargetPlatformContributionCollector.Entry;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the persistent {@link ContributionIndex} of the target platform
+ * contribution collectors
+ */
+public class ContributionIndexTest {
+
+	private static final String PATTERN = "(.*/)?([^/]+)\\.class"; //$NON-NLS-1$
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path indexFile;
+	private File bundle;
+
+	@Before
+	public void setUp() throws IOException {
+		indexFile = folder.getRoot().toPath().resolve("index").resolve("test.idx"); //$NON-NLS-1$ //$NON-NLS-2$
+		bundle = createJar("bundle.jar", "org/example/Foo.class", "org/example/FooBar.class"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		final Segment segment = new Segment(bundle.getAbsolutePath(), "org.example", false, //$NON-NLS-1$
+				new Entry[] { entry("Foo", "org/example/"), entry("FooBar", "org/example/") }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		ContributionIndex.save(indexFile, PATTERN, List.of(segment));
+
+		final Map<String, Segment> loaded = ContributionIndex.load(indexFile, PATTERN);
+		assertEquals(1, loaded.size());
+		final Segment restored = loaded.get(bundle.getAbsolutePath());
+		assertEquals("org.example", restored.bundle); //$NON-NLS-1$
+		assertFalse(restored.workspace);
+		assertEquals(2, restored.entries.length);
+		for (int i = 0; i < restored.entries.length; i++) {
+			final Entry expected = segment.entries[i];
+			final Entry actual = restored.entries[i];
+			assertEquals(expected.name, actual.name);
+			assertEquals(expected.path, actual.path);
+			assertEquals(expected.pakage, actual.pakage);
+			assertEquals(bundle.getAbsolutePath(), actual.installLocation);
+			assertEquals("org.example", actual.bundleSymName); //$NON-NLS-1$
+			assertNull(actual.relativePath);
+		}
+		assertTrue(restored.isUpToDate(bundle));
+	}
+
+	@Test
+	public void testSaveReplacesExistingIndex() throws IOException {
+		ContributionIndex.save(indexFile, PATTERN,
+				List.of(new Segment(bundle.getAbsolutePath(), "org.example", false, new Entry[] { entry("Foo", "") }))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		ContributionIndex.save(indexFile, PATTERN, List.of());
+		assertTrue(ContributionIndex.load(indexFile, PATTERN).isEmpty());
+		assertFalse(Files.exists(indexFile.resolveSibling(indexFile.getFileName() + ".tmp"))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testWorkspaceSegmentsAreNotStored() throws IOException {
+		final Segment workspace = new Segment(folder.getRoot().getAbsolutePath(), null, true,
+				new Entry[] { entry("Foo", "") }); //$NON-NLS-1$ //$NON-NLS-2$
+		final Segment target = new Segment(bundle.getAbsolutePath(), "org.example", false, new Entry[0]); //$NON-NLS-1$
+		ContributionIndex.save(indexFile, PATTERN, List.of(workspace, target));
+
+		final Map<String, Segment> loaded = ContributionIndex.load(indexFile, PATTERN);
+		assertEquals(1, loaded.size());
+		assertTrue(loaded.containsKey(bundle.getAbsolutePath()));
+	}
+
+	@Test
+	public void testIndexOfOtherPatternIsIgnored() throws IOException {
+		ContributionIndex.save(indexFile, PATTERN,
+				List.of(new Segment(bundle.getAbsolutePath(), "org.example", false, new Entry[0]))); //$NON-NLS-1$
+		assertTrue(ContributionIndex.load(indexFile, "(.*/)?([^/]+\\.png)").isEmpty()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testCorruptedIndexIsIgnored() throws IOException {
+		ContributionIndex.save(indexFile, PATTERN,
+				List.of(new Segment(bundle.getAbsolutePath(), "org.example", false, new Entry[] { entry("Foo", "") }))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		final byte[] contents = Files.readAllBytes(indexFile);
+		Files.write(indexFile, java.util.Arrays.copyOf(contents, contents.length - 3));
+		assertTrue(ContributionIndex.load(indexFile, PATTERN).isEmpty());
+		assertTrue(ContributionIndex.load(indexFile.resolveSibling("missing.idx"), PATTERN).isEmpty()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testChangedLocationIsNotUpToDate() throws IOException {
+		final Segment segment = new Segment(bundle.getAbsolutePath(), "org.example", false, new Entry[0]); //$NON-NLS-1$
+		ContributionIndex.save(indexFile, PATTERN, List.of(segment));
+		createJar("bundle.jar", "org/example/Foo.class", "org/example/Other.class", "org/example/More.class"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertTrue(bundle.setLastModified(bundle.lastModified() + 2000));
+
+		final Segment restored = ContributionIndex.load(indexFile, PATTERN).get(bundle.getAbsolutePath());
+		assertFalse(restored.isUpToDate(bundle));
+	}
+
+	@Test
+	public void testChangedDirectoryBundleIsNotUpToDate() throws IOException {
+		final File directory = folder.newFolder("bundle"); //$NON-NLS-1$
+		final File classes = new File(directory, "org/example"); //$NON-NLS-1$
+		assertTrue(classes.mkdirs());
+		Files.createFile(new File(classes, "Foo.class").toPath()); //$NON-NLS-1$
+		final File manifest = new File(directory, "META-INF/MANIFEST.MF"); //$NON-NLS-1$
+		assertTrue(manifest.getParentFile().mkdirs());
+		Files.writeString(manifest.toPath(), "Bundle-SymbolicName: org.example\n"); //$NON-NLS-1$
+		final Segment segment = new Segment(directory.getAbsolutePath(), "org.example", false, //$NON-NLS-1$
+				new Entry[] { entry("Foo", "org/example/") }); //$NON-NLS-1$ //$NON-NLS-2$
+		ContributionIndex.save(indexFile, PATTERN, List.of(segment));
+		assertTrue(ContributionIndex.load(indexFile, PATTERN).get(directory.getAbsolutePath()).isUpToDate(directory));
+
+		// a class added to a package changes neither the bundle directory nor
+		// its manifest
+		Files.createFile(new File(classes, "Bar.class").toPath()); //$NON-NLS-1$
+		assertTrue(classes.setLastModified(classes.lastModified() + 2000));
+
+		final Segment restored = ContributionIndex.load(indexFile, PATTERN).get(directory.getAbsolutePath());
+		assertFalse(restored.isUpToDate(directory));
+	}
+
+	@Test
+	public void testCandidates() {
+		final Segment segment = new Segment(bundle.getAbsolutePath(), "org.example", false, //$NON-NLS-1$
+				new Entry[] { entry("Foo", ""), entry("FooBar", ""), entry("Baz", "") }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+		assertNull(segment.getCandidates(ContributionIndex.getTrigrams("*"))); //$NON-NLS-1$
+		assertArrayEquals(new int[] { 0, 1 }, segment.getCandidates(ContributionIndex.getTrigrams("foo*"))); //$NON-NLS-1$
+		assertArrayEquals(new int[] { 1 }, segment.getCandidates(ContributionIndex.getTrigrams("*Foo*bar"))); //$NON-NLS-1$
+		assertArrayEquals(new int[0], segment.getCandidates(ContributionIndex.getTrigrams("Qux"))); //$NON-NLS-1$
+	}
+
+	private static Entry entry(String name, String path) {
+		final Entry e = new Entry();
+		e.name = name;
+		e.path = path;
+		e.pakage = path.replace('/', '.');
+		return e;
+	}
+
+	private File createJar(String name, String... entries) throws IOException {
+		final File jar = new File(folder.getRoot(), name);
+		try (OutputStream out = Files.newOutputStream(jar.toPath()); ZipOutputStream zip = new ZipOutputStream(out)) {
+			for (final String entry : entries) {
+				zip.putNextEntry(new ZipEntry(entry));
+				zip.closeEntry();
+			}
+		}
+		return jar;
+	}
+}
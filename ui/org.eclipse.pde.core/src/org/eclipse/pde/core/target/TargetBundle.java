@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2023 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,8 +19,6 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.StringWriter;
 import java.util.Map;
 
 import org.eclipse.core.runtime.CoreException;
@@ -36,6 +34,7 @@ import org.eclipse.osgi.util.ManifestElement;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.pde.internal.core.ICoreConstants;
 import org.eclipse.pde.internal.core.PDECore;
+import org.eclipse.pde.internal.core.target.ManifestBundleInfo;
 import org.eclipse.pde.internal.core.target.Messages;
 import org.eclipse.pde.internal.core.util.ManifestUtils;
 import org.osgi.framework.BundleException;
@@ -174,22 +173,9 @@ public class TargetBundle {
 		}
 		Map<String, String> manifest = ManifestUtils.loadManifest(file);
 		try {
-			fInfo = new BundleInfo(file.toURI()) {
-				private String manifestString;
-
-				@Override
-				public String getManifest() {
-					if (manifestString == null) {
-						try {
-							StringWriter writer = new StringWriter();
-							ManifestUtils.writeManifest(manifest, writer);
-							manifestString = writer.toString();
-						} catch (IOException e) {
-						}
-					}
-					return manifestString;
-				}
-			};
+			// keep the headers so the target models can be created without
+			// reading the manifest again
+			fInfo = new ManifestBundleInfo(file, manifest);
 			// Attempt to retrieve additional bundle information from the manifest
 			String header = manifest.get(Constants.BUNDLE_SYMBOLICNAME);
 			if (header != null) {
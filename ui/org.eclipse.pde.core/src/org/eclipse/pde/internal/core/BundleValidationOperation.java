@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2022 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,10 +13,16 @@
  *******************************************************************************/
 package org.eclipse.pde.internal.core;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Dictionary;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.eclipse.core.resources.IWorkspaceRunnable;
@@ -36,8 +42,83 @@ public class BundleValidationOperation implements IWorkspaceRunnable {
 
 	private static StateObjectFactory FACTORY;
 
+	/**
+	 * Maximum number of resolver states kept for repeated validations
+	 */
+	private static final int MAX_CACHED_STATES = 8;
+
+	/**
+	 * The resolver states of the last validations, by their cache key. Each
+	 * state remembers the bundle descriptions of the models it was built from,
+	 * so a revalidation only adds and removes the bundles that have changed
+	 * and resolves them incrementally. The cache is cleared when the target is
+	 * reloaded.
+	 */
+	private static final Map<String, CachedState> STATE_CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Entry<String, CachedState> eldest) {
+			return size() > MAX_CACHED_STATES;
+		}
+	};
+
+	/**
+	 * Weak identity key of the bundle description of a model, so the cache
+	 * does not keep the descriptions and with them the whole PDE state alive
+	 * after they have been replaced
+	 */
+	private static final class BundleKey extends WeakReference<BundleDescription> {
+		private final int fHash;
+
+		BundleKey(BundleDescription bundle) {
+			super(bundle);
+			fHash = System.identityHashCode(bundle);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			return obj instanceof BundleKey other && other.fHash == fHash && other.get() != null
+					&& other.get() == get();
+		}
+
+		@Override
+		public int hashCode() {
+			return fHash;
+		}
+	}
+
+	/**
+	 * A cached resolver state, must only be accessed while holding its lock
+	 */
+	private static final class CachedState {
+		final State state;
+		final Dictionary<String, String>[] properties;
+		/**
+		 * The copies added to the state, by the bundle description of the
+		 * model they were created from
+		 */
+		final Map<BundleKey, BundleDescription> bundles = new HashMap<>();
+
+		CachedState(State state, Dictionary<String, String>[] properties) {
+			this.state = state;
+			this.properties = properties;
+		}
+	}
+
 	private final Set<IPluginModelBase> fModels;
 	private final Dictionary<String, String>[] fProperties;
+	private final String fCacheKey;
+	/**
+	 * The results of the validation, recorded while the state was locked as a
+	 * cached state may be updated by a later validation with the same key
+	 */
+	private BundleDescription[] fBundles;
+	private Map<Object, Object[]> fResolverErrors;
+	private Set<String> fSymbolicNames;
 	private State fState;
 
 	@SuppressWarnings("unchecked")
@@ -46,8 +127,28 @@ public class BundleValidationOperation implements IWorkspaceRunnable {
 	}
 
 	public BundleValidationOperation(Set<IPluginModelBase> models, Dictionary<String, String>[] properties) {
+		this(models, properties, null);
+	}
+
+	/**
+	 * Creates an operation that reuses the resolver state of the last
+	 * validation with the same cache key, e.g. of the same launch
+	 * configuration. Only the bundles of models that were added, removed or
+	 * changed since then are updated in the state and resolved. The state is
+	 * created from scratch if the platform properties have changed. As the
+	 * state is shared with later validations, {@link #getState()} returns a
+	 * copy of it.
+	 *
+	 * @param models the models to validate
+	 * @param properties the platform properties
+	 * @param cacheKey the key of the cached state or <code>null</code> to
+	 *            always create a new state
+	 */
+	public BundleValidationOperation(Set<IPluginModelBase> models, Dictionary<String, String>[] properties,
+			String cacheKey) {
 		fModels = models;
 		fProperties = properties;
+		fCacheKey = cacheKey;
 	}
 
 	@Override
@@ -56,28 +157,146 @@ public class BundleValidationOperation implements IWorkspaceRunnable {
 			FACTORY = BundleHelper.getPlatformAdmin().getFactory();
 		}
 		SubMonitor subMonitor = SubMonitor.convert(monitor, fModels.size() + 1);
-		fState = FACTORY.createState(true);
+		fState = null;
+		if (fCacheKey == null) {
+			CachedState cached = new CachedState(FACTORY.createState(true), fProperties);
+			update(cached, subMonitor);
+			recordResults(cached.state);
+			fState = cached.state;
+			return;
+		}
+		CachedState cached;
+		synchronized (STATE_CACHE) {
+			cached = STATE_CACHE.get(fCacheKey);
+			if (cached == null || !equalProperties(cached.properties, fProperties)) {
+				cached = new CachedState(FACTORY.createState(true), fProperties);
+				STATE_CACHE.put(fCacheKey, cached);
+			}
+		}
+		synchronized (cached) {
+			update(cached, subMonitor);
+			recordResults(cached.state);
+		}
+	}
+
+	/**
+	 * Has to be called while holding the lock of a cached state. Records the
+	 * results of the validation of the given state.
+	 */
+	private void recordResults(State state) {
+		fBundles = state.getBundles();
+		fResolverErrors = getResolverErrors(state);
+		fSymbolicNames = new HashSet<>();
+		for (BundleDescription bundle : fBundles) {
+			fSymbolicNames.add(bundle.getSymbolicName());
+		}
+	}
+
+	/**
+	 * Discards all cached resolver states, e.g. because the target has been
+	 * reloaded and the models they were created from are gone.
+	 */
+	public static void clearCachedStates() {
+		synchronized (STATE_CACHE) {
+			STATE_CACHE.clear();
+		}
+	}
+
+	/**
+	 * Discards the cached resolver states whose cache key starts with the
+	 * given prefix, e.g. because the launch configuration they belong to has
+	 * been deleted.
+	 *
+	 * @param cacheKeyPrefix the prefix of the cache keys to discard
+	 */
+	public static void clearCachedStates(String cacheKeyPrefix) {
+		synchronized (STATE_CACHE) {
+			STATE_CACHE.keySet().removeIf(key -> key.startsWith(cacheKeyPrefix));
+		}
+	}
+
+	/**
+	 * @return the number of cached resolver states
+	 */
+	public static int getCachedStateCount() {
+		synchronized (STATE_CACHE) {
+			return STATE_CACHE.size();
+		}
+	}
+
+	private void update(CachedState cached, SubMonitor subMonitor) {
+		State state = cached.state;
+		boolean initial = cached.bundles.isEmpty() && state.getBundles().length == 0;
+		Set<BundleKey> current = new HashSet<>();
+		List<BundleKey> added = new ArrayList<>();
 		for (IPluginModelBase fModel : fModels) {
 			BundleDescription bundle = fModel.getBundleDescription();
 			if (bundle != null) {
-				fState.addBundle(FACTORY.createBundleDescription(bundle));
+				BundleKey key = new BundleKey(bundle);
+				if (current.add(key) && !cached.bundles.containsKey(key)) {
+					added.add(key);
+				}
 			}
 			subMonitor.split(1);
 		}
-		fState.setPlatformProperties(fProperties);
-		fState.resolve(false);
+		boolean changed = false;
+		// also removes the bundles of descriptions that are already collected
+		for (Iterator<Entry<BundleKey, BundleDescription>> iterator = cached.bundles.entrySet().iterator(); iterator
+				.hasNext();) {
+			Entry<BundleKey, BundleDescription> entry = iterator.next();
+			if (!current.contains(entry.getKey())) {
+				state.removeBundle(entry.getValue());
+				iterator.remove();
+				changed = true;
+			}
+		}
+		for (BundleKey key : added) {
+			BundleDescription copy = FACTORY.createBundleDescription(key.get());
+			if (state.addBundle(copy)) {
+				cached.bundles.put(key, copy);
+			}
+			changed = true;
+		}
+		if (initial) {
+			state.setPlatformProperties(fProperties);
+			state.resolve(false);
+		} else if (changed) {
+			state.resolve(true);
+		}
 		subMonitor.split(1);
 	}
 
+	private static boolean equalProperties(Dictionary<String, String>[] a, Dictionary<String, String>[] b) {
+		if (a.length != b.length) {
+			return false;
+		}
+		for (int i = 0; i < a.length; i++) {
+			if (a[i].size() != b[i].size()) {
+				return false;
+			}
+			for (Iterator<String> keys = a[i].keys().asIterator(); keys.hasNext();) {
+				String key = keys.next();
+				if (!a[i].get(key).equals(b[i].get(key))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
 	public Map<Object, Object[]> getResolverErrors() {
+		return new LinkedHashMap<>(fResolverErrors);
+	}
+
+	private static Map<Object, Object[]> getResolverErrors(State state) {
 		Set<String> alreadyDuplicated = new HashSet<>();
 		Map<Object, Object[]> map = new LinkedHashMap<>();
-		BundleDescription[] bundles = fState.getBundles();
+		BundleDescription[] bundles = state.getBundles();
 		for (BundleDescription bundle : bundles) {
 			if (!bundle.isResolved()) {
-				map.put(bundle, fState.getResolverErrors(bundle));
+				map.put(bundle, state.getResolverErrors(bundle));
 			} else if (bundle.isSingleton() && !alreadyDuplicated.contains(bundle.getSymbolicName())) {
-				BundleDescription[] dups = fState.getBundles(bundle.getSymbolicName());
+				BundleDescription[] dups = state.getBundles(bundle.getSymbolicName());
 				if (dups.length > 1) {
 					// more than 1 singleton present
 					alreadyDuplicated.add(bundle.getSymbolicName());
@@ -92,26 +311,46 @@ public class BundleValidationOperation implements IWorkspaceRunnable {
 		return map;
 	}
 
+	/**
+	 * Returns the resolver state of the validation. If the state is cached and
+	 * shared with later validations, a state without resolution data is
+	 * created from the validated bundles, use {@link #getResolverErrors()},
+	 * {@link #hasErrors()}, {@link #containsBundle(String)} and
+	 * {@link #isEmpty()} to query the results of the validation.
+	 *
+	 * @return the resolver state of the validation
+	 */
 	public State getState() {
+		if (fState == null) {
+			State state = FACTORY.createState(true);
+			state.setPlatformProperties(fProperties);
+			for (BundleDescription bundle : fBundles) {
+				state.addBundle(FACTORY.createBundleDescription(bundle));
+			}
+			fState = state;
+		}
 		return fState;
 	}
 
+	/**
+	 * @param symbolicName the symbolic name of the bundle
+	 * @return whether the validated bundles contain a bundle with the given
+	 *         symbolic name
+	 */
+	public boolean containsBundle(String symbolicName) {
+		return fSymbolicNames.contains(symbolicName);
+	}
+
+	/**
+	 * @return whether no bundles were validated
+	 */
+	public boolean isEmpty() {
+		return fBundles.length == 0;
+	}
+
 	public boolean hasErrors() {
-		if (fState.getHighestBundleId() > -1) {
-			BundleDescription[] bundles = fState.getBundles();
-			for (BundleDescription bundle : bundles) {
-				if (!bundle.isResolved()) {
-					return true;
-				} else if (bundle.isSingleton()) {
-					BundleDescription[] dups = fState.getBundles(bundle.getSymbolicName());
-					if (dups.length > 1) {
-						// more than one singleton
-						return true;
-					}
-				}
-			}
-		}
-		return false;
+		// the errors contain all unresolved bundles and duplicate singletons
+		return !fResolverErrors.isEmpty();
 	}
 
 }
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.core;
+
+import java.lang.ref.SoftReference;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.pde.internal.core.PDEClasspathContainer.Rule;
+
+/**
+ * Cache for the parts of the classpath computation of the
+ * {@link RequiredPluginsClasspathContainer} that only depend on the state and
+ * are therefore the same for all projects, e.g. the re-exported dependencies
+ * of a bundle or the packages visible to a bundle.
+ * <p>
+ * There is one cache per state, so containers computed against different
+ * states, e.g. the workspace state and the state of a launch, don't discard
+ * each others values. A cache is bound to the time stamp of its state, as soon
+ * as the state is modified or resolved again all cached values are discarded.
+ * The caches are softly referenced. As the cached bundles refer to their
+ * state, a state stays reachable as long as its cache, i.e. until the garbage
+ * collector clears the cache when memory gets low. The cache is thread safe so
+ * containers can be computed concurrently.
+ * </p>
+ */
+final class ClasspathComputationCache {
+
+	/**
+	 * The dependencies of a bundle that are added to the classpath together
+	 * with the bundle itself.
+	 *
+	 * @param patchFragments resolved patch fragments that must be added before
+	 *            the bundle
+	 * @param fragments resolved fragments that are added after the bundle
+	 * @param reexportedBundles the bundles required with
+	 *            <code>visibility:=reexport</code>
+	 */
+	record BundleDependencies(List<BundleDescription> patchFragments, List<BundleDescription> fragments,
+			List<BundleDescription> reexportedBundles) {
+	}
+
+	/**
+	 * The caches by state, the values are softly referenced as the cached
+	 * bundles refer to their state, which therefore stays reachable until the
+	 * soft reference is cleared
+	 */
+	private static final Map<State, SoftReference<ClasspathComputationCache>> CACHES = new WeakHashMap<>();
+
+	private final long fTimeStamp;
+	private final Map<BundleDescription, Map<BundleDescription, List<Rule>>> fVisiblePackages = new ConcurrentHashMap<>();
+	private final Map<BundleDescription, BundleDependencies> fDependencies = new ConcurrentHashMap<>();
+	private volatile List<BundleDescription> fJunit5RuntimeClosure;
+
+	private ClasspathComputationCache(State state) {
+		fTimeStamp = state.getTimeStamp();
+	}
+
+	/**
+	 * Returns the cache for the state containing the given bundle.
+	 *
+	 * @param desc the bundle
+	 * @return the cache for the current time stamp of the containing state or
+	 *         <code>null</code> if the bundle is not contained in a state
+	 */
+	static ClasspathComputationCache forBundle(BundleDescription desc) {
+		State state = desc.getContainingState();
+		if (state == null) {
+			return null;
+		}
+		synchronized (CACHES) {
+			SoftReference<ClasspathComputationCache> reference = CACHES.get(state);
+			ClasspathComputationCache cache = reference != null ? reference.get() : null;
+			if (cache == null || cache.fTimeStamp != state.getTimeStamp()) {
+				cache = new ClasspathComputationCache(state);
+				CACHES.put(state, new SoftReference<>(cache));
+			}
+			return cache;
+		}
+	}
+
+	/**
+	 * Returns the packages visible to the given bundle grouped by their
+	 * exporter.
+	 *
+	 * @param desc the bundle
+	 * @param computer computes the visible packages if they are not cached,
+	 *            the returned map and lists must not be modified afterwards
+	 * @return the unmodifiable visible packages
+	 */
+	Map<BundleDescription, List<Rule>> getVisiblePackages(BundleDescription desc,
+			Function<BundleDescription, Map<BundleDescription, List<Rule>>> computer) {
+		return getOrCompute(fVisiblePackages, desc, computer);
+	}
+
+	/**
+	 * Returns the fragments and re-exported bundles of the given bundle.
+	 *
+	 * @param desc the bundle
+	 * @param computer computes the dependencies if they are not cached
+	 * @return the dependencies of the bundle
+	 */
+	BundleDependencies getDependencies(BundleDescription desc,
+			Function<BundleDescription, BundleDependencies> computer) {
+		return getOrCompute(fDependencies, desc, computer);
+	}
+
+	/**
+	 * @param computer computes the closure if it is not cached
+	 * @return the bundles required to run JUnit 5 tests
+	 */
+	List<BundleDescription> getJunit5RuntimeClosure(Supplier<List<BundleDescription>> computer) {
+		List<BundleDescription> closure = fJunit5RuntimeClosure;
+		if (closure == null) {
+			closure = computer.get();
+			fJunit5RuntimeClosure = closure;
+		}
+		return closure;
+	}
+
+	private static <V> V getOrCompute(Map<BundleDescription, V> map, BundleDescription desc,
+			Function<BundleDescription, V> computer) {
+		// don't use computeIfAbsent() to not block other threads while
+		// computing, at worst a value is computed twice
+		V value = map.get(desc);
+		if (value == null) {
+			value = computer.apply(desc);
+			V existing = map.putIfAbsent(desc, value);
+			if (existing != null) {
+				return existing;
+			}
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Persistent cache of the extension descriptors (<code>plugin.xml</code> or
+ * <code>fragment.xml</code>) of bundle archives.
+ * <p>
+ * Entries are keyed by the absolute archive location and are only used if the
+ * size and the last modification time of the archive are unchanged, so the
+ * {@link PDERegistryStrategy} does not have to open unchanged archives again
+ * when it registers their contributions. Archives without an extension
+ * descriptor are cached as well.
+ * </p>
+ * <p>
+ * Only the index of the cache file is read into memory, the descriptors are
+ * read from the file when they are requested. Descriptors read from an archive
+ * are kept in memory until they are written by {@link #save()}. Entries of
+ * archives that are no longer part of the models are dropped through
+ * {@link #retainAll(Collection)}.
+ * </p>
+ * <p>
+ * Lookups are thread safe.
+ * </p>
+ */
+public class ExtensionContributionCache {
+
+	private static final String CACHE_FILE = ".extension_contributions"; //$NON-NLS-1$
+
+	/**
+	 * Version of the cache file format, increment when the format changes
+	 */
+	private static final int CACHE_VERSION = 2;
+
+	/**
+	 * @param length the length of the descriptor or <code>-1</code> if the
+	 *            archive has none
+	 * @param offset the position of the descriptor in the cache file,
+	 *            <code>-1</code> if it is not stored yet
+	 * @param contents the descriptor read from the archive that is not stored
+	 *            yet, <code>null</code> otherwise
+	 */
+	private record Entry(long size, long lastModified, String entryName, int length, long offset, byte[] contents) {
+	}
+
+	private static final class DefaultHolder {
+		static final ExtensionContributionCache DEFAULT = load(getCacheFile());
+	}
+
+	private final File fCacheFile;
+	private final Map<String, Entry> fEntries;
+	private final AtomicBoolean fModified = new AtomicBoolean();
+	private final AtomicInteger fHits = new AtomicInteger();
+	private final AtomicInteger fMisses = new AtomicInteger();
+
+	/**
+	 * The cache file opened for reading stored descriptors, guarded by
+	 * <code>this</code> and closed whenever the file is written
+	 */
+	private RandomAccessFile fReader;
+
+	private ExtensionContributionCache(File cacheFile, Map<String, Entry> entries) {
+		fCacheFile = cacheFile;
+		fEntries = new ConcurrentHashMap<>(entries);
+	}
+
+	/**
+	 * @return the cache shared by all extension registries, loaded from the
+	 *         PDE state location on first access
+	 */
+	public static ExtensionContributionCache getDefault() {
+		return DefaultHolder.DEFAULT;
+	}
+
+	/**
+	 * @return the file the contribution cache is persisted to
+	 */
+	public static File getCacheFile() {
+		return new File(PDECore.getDefault().getStateLocation().toFile(), CACHE_FILE);
+	}
+
+	/**
+	 * Reads the index of the given contribution cache file. If the file does
+	 * not exist or can't be read an empty cache is returned.
+	 *
+	 * @param file the cache file
+	 * @return the contribution cache, never <code>null</code>
+	 */
+	public static ExtensionContributionCache load(File file) {
+		Map<String, Entry> entries = new HashMap<>();
+		if (file.isFile()) {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+				if (in.readInt() == CACHE_VERSION) {
+					// the descriptors follow the index
+					long offset = Integer.BYTES * 2 + in.readInt();
+					int count = in.readInt();
+					for (int i = 0; i < count; i++) {
+						String location = readString(in);
+						long size = in.readLong();
+						long lastModified = in.readLong();
+						String entryName = readString(in);
+						int length = in.readInt();
+						entries.put(location, new Entry(size, lastModified, entryName, length, offset, null));
+						if (length > 0) {
+							offset += length;
+						}
+					}
+					if (offset != file.length()) {
+						throw new IOException("Truncated cache file " + file); //$NON-NLS-1$
+					}
+				}
+			} catch (IOException e) {
+				// corrupt or outdated cache, the archives are simply read again
+				entries.clear();
+				if (PDECore.DEBUG_MODEL) {
+					System.out.println("Unable to read extension contribution cache: " + e.getMessage()); //$NON-NLS-1$
+				}
+			}
+		}
+		return new ExtensionContributionCache(file, entries);
+	}
+
+	/**
+	 * Returns the contents of the given extension descriptor of the bundle
+	 * archive, either from the cache if the archive is unchanged or by reading
+	 * it from the archive.
+	 *
+	 * @param archive the bundle archive
+	 * @param entryName the name of the extension descriptor in the archive
+	 * @return the contents of the descriptor or <code>null</code> if the
+	 *         archive has no such entry, the returned array must not be
+	 *         modified
+	 * @throws IOException if the archive can't be read
+	 */
+	public byte[] getContents(File archive, String entryName) throws IOException {
+		String location = archive.getAbsolutePath();
+		long size = archive.length();
+		long lastModified = archive.lastModified();
+		Entry entry = fEntries.get(location);
+		if (entry != null && entry.size() == size && entry.lastModified() == lastModified
+				&& entry.entryName().equals(entryName)) {
+			if (entry.length() < 0) {
+				fHits.incrementAndGet();
+				return null;
+			}
+			byte[] contents = entry.contents() != null ? entry.contents() : readStored(location, entry);
+			if (contents != null) {
+				fHits.incrementAndGet();
+				return contents;
+			}
+		}
+		fMisses.incrementAndGet();
+		byte[] contents = null;
+		try (ZipFile zipFile = new ZipFile(archive, ZipFile.OPEN_READ)) {
+			ZipEntry zipEntry = zipFile.getEntry(entryName);
+			if (zipEntry != null) {
+				try (InputStream is = zipFile.getInputStream(zipEntry)) {
+					contents = is.readAllBytes();
+				}
+			}
+		}
+		if (lastModified != 0) {
+			fEntries.put(location, new Entry(size, lastModified, entryName, contents == null ? -1 : contents.length,
+					-1, contents));
+			fModified.set(true);
+		}
+		return contents;
+	}
+
+	/**
+	 * Reads a stored descriptor from the cache file.
+	 *
+	 * @return the descriptor or <code>null</code> if the entry was replaced or
+	 *         the cache file can't be read
+	 */
+	private synchronized byte[] readStored(String location, Entry entry) {
+		// the file is rewritten by save(), entries looked up before refer to
+		// the previous file
+		if (fEntries.get(location) != entry) {
+			return null;
+		}
+		try {
+			return read(entry);
+		} catch (IOException e) {
+			closeReader();
+			return null;
+		}
+	}
+
+	private byte[] read(Entry entry) throws IOException {
+		if (fReader == null) {
+			fReader = new RandomAccessFile(fCacheFile, "r"); //$NON-NLS-1$
+		}
+		byte[] contents = new byte[entry.length()];
+		fReader.seek(entry.offset());
+		fReader.readFully(contents);
+		return contents;
+	}
+
+	/**
+	 * Drops the entries of all archives that are not in the given locations.
+	 *
+	 * @param locations the absolute locations of the archives of the current
+	 *            models
+	 */
+	public void retainAll(Collection<String> locations) {
+		Set<String> retained = locations instanceof Set<String> set ? set : new HashSet<>(locations);
+		if (fEntries.keySet().retainAll(retained)) {
+			fModified.set(true);
+		}
+	}
+
+	/**
+	 * Writes the cache to its file, dropping the entries of archives that no
+	 * longer exist. The written descriptors are no longer kept in memory. Does
+	 * nothing if all descriptors were read from the cache.
+	 */
+	public synchronized void save() {
+		if (!fModified.getAndSet(false)) {
+			closeReader();
+			return;
+		}
+		fEntries.keySet().removeIf(location -> !new File(location).isFile());
+		List<Map.Entry<String, Entry>> entries = new ArrayList<>(fEntries.entrySet());
+		Map<String, Entry> written = new HashMap<>();
+		File tmpFile = new File(fCacheFile.getParentFile(), fCacheFile.getName() + ".tmp"); //$NON-NLS-1$
+		try {
+			ByteArrayOutputStream index = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(index)) {
+				out.writeInt(entries.size());
+				for (Map.Entry<String, Entry> e : entries) {
+					Entry entry = e.getValue();
+					writeString(out, e.getKey());
+					out.writeLong(entry.size());
+					out.writeLong(entry.lastModified());
+					writeString(out, entry.entryName());
+					out.writeInt(entry.length());
+				}
+			}
+			long offset = Integer.BYTES * 2 + index.size();
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath())))) {
+				out.writeInt(CACHE_VERSION);
+				out.writeInt(index.size());
+				index.writeTo(out);
+				for (Map.Entry<String, Entry> e : entries) {
+					Entry entry = e.getValue();
+					if (entry.length() > 0) {
+						// stored descriptors are copied from the current file
+						out.write(entry.contents() != null ? entry.contents() : read(entry));
+					}
+					written.put(e.getKey(), new Entry(entry.size(), entry.lastModified(), entry.entryName(),
+							entry.length(), offset, null));
+					if (entry.length() > 0) {
+						offset += entry.length();
+					}
+				}
+			}
+			closeReader();
+			try {
+				Files.move(tmpFile.toPath(), fCacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmpFile.toPath(), fCacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			// entries that were replaced meanwhile are written with the next save
+			for (Map.Entry<String, Entry> e : entries) {
+				fEntries.replace(e.getKey(), e.getValue(), written.get(e.getKey()));
+			}
+		} catch (IOException e) {
+			PDECore.log(e);
+			closeReader();
+			tmpFile.delete();
+		}
+	}
+
+	private void closeReader() {
+		if (fReader != null) {
+			try {
+				fReader.close();
+			} catch (IOException e) {
+				// only read from
+			}
+			fReader = null;
+		}
+	}
+
+	/**
+	 * @return number of descriptors that were served from the cache
+	 */
+	public int getHits() {
+		return fHits.get();
+	}
+
+	/**
+	 * @return number of descriptors that had to be read from the archive
+	 */
+	public int getMisses() {
+		return fMisses.get();
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+}
@@ -31,7 +31,7 @@ import org.eclipse.pde.internal.core.util.CoreUtility;
 
 public class ExternalModelManager extends AbstractModelManager {
 
-	private IPluginModelBase[] fModels = new IPluginModelBase[0];
+	private volatile IPluginModelBase[] fModels = new IPluginModelBase[0];
 	private final ExternalLibraryCache fLibCache = new ExternalLibraryCache();
 
 	public IPluginModelBase[] getAllModels() {
@@ -204,7 +204,7 @@ public class MinimalState {
 		return addBundle(bundleLocation, bundleId, manifest);
 	}
 
-	private BundleDescription addBundle(File bundleLocation, long bundleId, Map<String, String> manifest)
+	protected BundleDescription addBundle(File bundleLocation, long bundleId, Map<String, String> manifest)
 			throws CoreException {
 		// update for development mode
 		TargetWeaver.weaveManifest(manifest, bundleLocation);
@@ -329,8 +329,8 @@ public class MinimalState {
 		if (state.fNoProfile) {
 			return Status.OK_STATUS;
 		}
-		state.fEEListChanged = true;
-		StateDelta delta = state.internalResolveState(true);
+		// the published state is not modified, a copy is resolved and published
+		StateDelta delta = PDECore.getDefault().getModelManager().reloadSystemPackages();
 		if (delta.getChanges().length == 0) {
 			return Status.OK_STATUS;
 		}
@@ -348,6 +348,17 @@ public class MinimalState {
 		return status;
 	}
 
+	/**
+	 * Re-reads the known execution environments and resolves this state
+	 * against their system packages.
+	 *
+	 * @return the delta of the resolution
+	 */
+	StateDelta reloadSystemPackages() {
+		fEEListChanged = true;
+		return internalResolveState(true);
+	}
+
 	public void removeBundleDescription(BundleDescription description) {
 		if (description != null) {
 			fState.removeBundle(description);
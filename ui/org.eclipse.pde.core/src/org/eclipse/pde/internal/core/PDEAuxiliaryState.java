@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2012 IBM Corporation and others.
+ * Copyright (c) 2006, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -387,6 +387,15 @@ public class PDEAuxiliaryState {
 		fPluginInfos.put(Long.toString(desc.getBundleId()), info);
 	}
 
+	/**
+	 * Removes the auxiliary information of a bundle that was removed from the
+	 * state.
+	 * @param desc bundle description of the removed bundle
+	 */
+	protected void removeAuxiliaryData(BundleDescription desc) {
+		fPluginInfos.remove(Long.toString(desc.getBundleId()));
+	}
+
 	/**
 	 * Retrieves the classpath entries from the manifest dictionary
 	 * @param manifest dictionary containing manifest headers
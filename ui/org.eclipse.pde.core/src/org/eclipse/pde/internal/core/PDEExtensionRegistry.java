@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2012 IBM Corporation and others.
+ * Copyright (c) 2006, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -48,6 +48,12 @@ public class PDEExtensionRegistry {
 	private IPluginModelBase[] fModels = null;
 	private final ArrayList<IRegistryChangeListener> fListeners = new ArrayList<>();
 
+	/**
+	 * Whether the target has changed since the contributions of the registry
+	 * were last brought in line with the models
+	 */
+	private volatile boolean fTargetChanged = false;
+
 	private static final String EXTENSION_DIR = ".extensions"; //$NON-NLS-1$
 
 	public PDEExtensionRegistry() {
@@ -86,16 +92,24 @@ public class PDEExtensionRegistry {
 	public void stop() {
 		if (fRegistry != null) {
 			fRegistry.stop(fMasterKey);
+			if (fTargetChanged) {
+				// the written contributions still refer to the previous target
+				CoreUtility.deleteContent(new File(PDECore.getDefault().getStateLocation().toFile(), EXTENSION_DIR));
+			}
 		}
 		dispose();
 	}
 
 	protected synchronized IExtensionRegistry getRegistry() {
 		if (fRegistry == null) {
+			fTargetChanged = false;
 			fRegistry = createRegistry();
 			for (ListIterator<IRegistryChangeListener> li = fListeners.listIterator(); li.hasNext();) {
 				fRegistry.addRegistryChangeListener(li.next());
 			}
+		} else if (fTargetChanged) {
+			fTargetChanged = false;
+			fStrategy.synchronizeContributions(fRegistry);
 		}
 		return fRegistry;
 	}
@@ -105,6 +119,12 @@ public class PDEExtensionRegistry {
 	}
 
 	public void targetReloaded() {
+		if (fRegistry != null && fStrategy.canSynchronizeContributions()) {
+			// keep the registry, only the contributions of changed bundles are
+			// replaced on the next access
+			fTargetChanged = true;
+			return;
+		}
 		// stop old registry (which will write contents to FS) and delete the cache it creates
 		// might see if we can dispose of a registry without writing to file system.  NOTE: Don't call stop() because we want to still reuse fStrategy
 		if (fRegistry != null) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2017 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,12 +14,17 @@
 package org.eclipse.pde.internal.core;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.parsers.SAXParserFactory;
 
@@ -49,6 +54,33 @@ public class PDERegistryStrategy extends RegistryStrategy {
 	private ExtensionListener fExtensionListener = null;
 	private PDEExtensionRegistry fPDERegistry = null;
 
+	private final ExtensionContributionCache fContributionCache = ExtensionContributionCache.getDefault();
+
+	/**
+	 * The contributions added to the registry by the actual id of their
+	 * contributor
+	 */
+	private final Map<String, Contribution> fContributions = new ConcurrentHashMap<>();
+
+	/**
+	 * Serializes the updates of the registry contributions and of
+	 * {@link #fContributions} by the model listeners with the ones done when
+	 * the registry is started or synchronized. The models are always computed
+	 * before this lock is acquired, as the model listeners are notified while
+	 * the model manager is locked.
+	 */
+	private final Object fContributionLock = new Object();
+
+	private volatile boolean fLoadedFromCache = false;
+
+	/**
+	 * Identifies the bundle and the version of its extension descriptor a
+	 * contribution was created from
+	 */
+	private record Contribution(String name, String id, String hostName, String location, long size,
+			long lastModified) {
+	}
+
 	class RegistryListener {
 		IExtensionRegistry fRegistry;
 
@@ -74,6 +106,12 @@ public class PDERegistryStrategy extends RegistryStrategy {
 			if (fRegistry == null) {
 				createRegistry();
 			}
+			synchronized (fContributionLock) {
+				handleDelta(delta);
+			}
+		}
+
+		private void handleDelta(PluginModelDelta delta) {
 			// can ignore removed models since the ModelEntries is empty
 			ModelEntry[] entries = delta.getChangedEntries();
 			for (int i = 0; i < entries.length; i++) {
@@ -97,7 +135,7 @@ public class PDERegistryStrategy extends RegistryStrategy {
 						IContributor[] contributors = registry.getAllContributors();
 						for (IContributor contributor : contributors) {
 							if (entry.getId().equals(contributor.getName())) {
-								registry.removeContributor(contributor, fKey);
+								removeContributor(registry, contributor);
 								break;
 							}
 						}
@@ -118,16 +156,21 @@ public class PDERegistryStrategy extends RegistryStrategy {
 			if (fRegistry == null) {
 				createRegistry();
 			}
-			IPluginModelBase[] bases = event.getRemovedModels();
-			removeModels(bases, false);
-			removeModels(event.getChangedModels(), false);
-			addBundles(fRegistry, event.getChangedModels());
-			addBundles(fRegistry, event.getAddedModels());
 			// if we remove the last workspace model for a Bundle-SymbolicName, then refresh the external models by removing then adding them
+			List<IPluginModelBase[]> refreshedModels = new ArrayList<>();
+			IPluginModelBase[] bases = event.getRemovedModels();
 			for (IPluginModelBase base : bases) {
 				ModelEntry entry = PluginRegistry.findEntry(base.getPluginBase().getId());
 				if (entry != null && entry.getWorkspaceModels().length == 0) {
-					IPluginModelBase[] externalModels = entry.getExternalModels();
+					refreshedModels.add(entry.getExternalModels());
+				}
+			}
+			synchronized (fContributionLock) {
+				removeModels(bases, false);
+				removeModels(event.getChangedModels(), false);
+				addBundles(fRegistry, event.getChangedModels());
+				addBundles(fRegistry, event.getAddedModels());
+				for (IPluginModelBase[] externalModels : refreshedModels) {
 					removeModels(externalModels, false);
 					addBundles(fRegistry, externalModels);
 				}
@@ -172,6 +215,10 @@ public class PDERegistryStrategy extends RegistryStrategy {
 	public void onStart(IExtensionRegistry registry, boolean loadedFromCache) {
 		super.onStart(registry, loadedFromCache);
 		setListenerRegistry(registry);
+		synchronized (fContributionLock) {
+			fContributions.clear();
+		}
+		fLoadedFromCache = loadedFromCache;
 		if (!loadedFromCache) {
 			processBundles(registry);
 		}
@@ -181,6 +228,7 @@ public class PDERegistryStrategy extends RegistryStrategy {
 	public void onStop(IExtensionRegistry registry) {
 		super.onStop(registry);
 		setListenerRegistry(null);
+		fContributionCache.save();
 	}
 
 	@Override
@@ -193,7 +241,72 @@ public class PDERegistryStrategy extends RegistryStrategy {
 	}
 
 	private void processBundles(IExtensionRegistry registry) {
-		addBundles(registry, fPDERegistry.getModels());
+		IPluginModelBase[] models = fPDERegistry.getModels();
+		synchronized (fContributionLock) {
+			addBundles(registry, models);
+		}
+		retainCachedContributions(models);
+		fContributionCache.save();
+	}
+
+	/**
+	 * Drops the cached extension descriptors of archives that are not part of
+	 * the given models, so the contribution cache does not grow with every
+	 * target that was ever used.
+	 *
+	 * @param models all models of the registry
+	 */
+	protected void retainCachedContributions(IPluginModelBase[] models) {
+		List<String> locations = new ArrayList<>(models.length);
+		for (IPluginModelBase base : models) {
+			String location = base.getInstallLocation();
+			if (location != null) {
+				locations.add(new File(location).getAbsolutePath());
+			}
+		}
+		fContributionCache.retainAll(locations);
+	}
+
+	/**
+	 * @return whether the contributions of the registry are known to this
+	 *         strategy and can be updated by
+	 *         {@link #synchronizeContributions(IExtensionRegistry)}, this is
+	 *         not the case if the registry was restored from its cache
+	 */
+	boolean canSynchronizeContributions() {
+		return !fLoadedFromCache;
+	}
+
+	/**
+	 * Updates the contributions of the registry after the target has changed.
+	 * Contributors that are no longer in the models or whose bundle has
+	 * changed are removed and the new and changed bundles are added, the
+	 * contributions of unchanged bundles are kept.
+	 *
+	 * @param registry the registry started with this strategy
+	 */
+	void synchronizeContributions(IExtensionRegistry registry) {
+		IPluginModelBase[] models = fPDERegistry.getModels();
+		Set<String> contributorIds = new HashSet<>();
+		for (IPluginModelBase base : models) {
+			RegistryContributor contributor = createContributor(base);
+			if (contributor != null) {
+				contributorIds.add(contributor.getActualId());
+			}
+		}
+		IDynamicExtensionRegistry dynamicRegistry = (IDynamicExtensionRegistry) registry;
+		synchronized (fContributionLock) {
+			for (Map.Entry<String, Contribution> entry : fContributions.entrySet()) {
+				if (!contributorIds.contains(entry.getKey())) {
+					removeContributor(dynamicRegistry,
+							new RegistryContributor(entry.getKey(), entry.getValue().name(), null, null));
+				}
+			}
+			// changed bundles are replaced when they are added again
+			addBundles(registry, models);
+		}
+		retainCachedContributions(models);
+		fContributionCache.save();
 	}
 
 	private void addBundles(IExtensionRegistry registry, IPluginModelBase[] bases) {
@@ -203,40 +316,44 @@ public class PDERegistryStrategy extends RegistryStrategy {
 	}
 
 	private void addBundle(IExtensionRegistry registry, IPluginModelBase base) {
-		IContributor contributor = createContributor(base);
+		RegistryContributor contributor = createContributor(base);
 		if (contributor == null) {
 			return;
 		}
-		if (((IDynamicExtensionRegistry) registry).hasContributor(contributor)) {
-			return;
-		}
-
 		File input = getFile(base);
+		IDynamicExtensionRegistry dynamicRegistry = (IDynamicExtensionRegistry) registry;
+		if (dynamicRegistry.hasContributor(contributor)) {
+			Contribution existing = fContributions.get(contributor.getActualId());
+			if (existing == null || existing.equals(createContribution(contributor, input))) {
+				return;
+			}
+			// the bundle has changed or the id now belongs to another bundle
+			removeContributor(dynamicRegistry, contributor);
+		}
 		if (input == null) {
 			return;
 		}
 		try {
+			boolean added = false;
 			if (new File(base.getInstallLocation()).isDirectory()) {
 				// Directory bundle, access the extensions file directly
 				try (InputStream is = new BufferedInputStream(new FileInputStream(input))) {
-					registry.addContribution(is, contributor, true, input.getPath(), null, fKey);
+					added = registry.addContribution(is, contributor, true, input.getPath(), null, fKey);
 				}
 			} else {
-				// Archived bundle, need to extract the file
-				try (ZipFile jfile = new ZipFile(input, ZipFile.OPEN_READ)) {
-					String fileName = (base.isFragmentModel()) ? ICoreConstants.FRAGMENT_FILENAME_DESCRIPTOR
-							: ICoreConstants.PLUGIN_FILENAME_DESCRIPTOR;
-					ZipEntry entry = jfile.getEntry(fileName);
-					if (entry != null) {
-						try (InputStream is = jfile.getInputStream(entry)) {
-							if (is != null) {
-								registry.addContribution(new BufferedInputStream(is), contributor, true,
-										input.getPath(), null, fKey);
-							}
-						}
-					}
+				// Archived bundle, the descriptor is only extracted if the
+				// archive has changed
+				String fileName = (base.isFragmentModel()) ? ICoreConstants.FRAGMENT_FILENAME_DESCRIPTOR
+						: ICoreConstants.PLUGIN_FILENAME_DESCRIPTOR;
+				byte[] contents = fContributionCache.getContents(input, fileName);
+				if (contents != null) {
+					added = registry.addContribution(new ByteArrayInputStream(contents), contributor, true,
+							input.getPath(), null, fKey);
 				}
 			}
+			if (added) {
+				fContributions.put(contributor.getActualId(), createContribution(contributor, input));
+			}
 		} catch (IOException ignored) {
 		}
 	}
@@ -245,11 +362,26 @@ public class PDERegistryStrategy extends RegistryStrategy {
 		if (registry instanceof IDynamicExtensionRegistry) {
 			IContributor contributor = createContributor(base);
 			if (contributor != null && ((IDynamicExtensionRegistry) registry).hasContributor(contributor)) {
-				((IDynamicExtensionRegistry) registry).removeContributor(createContributor(base), fKey);
+				removeContributor((IDynamicExtensionRegistry) registry, contributor);
 			}
 		}
 	}
 
+	private void removeContributor(IDynamicExtensionRegistry registry, IContributor contributor) {
+		registry.removeContributor(contributor, fKey);
+		if (contributor instanceof RegistryContributor registryContributor) {
+			fContributions.remove(registryContributor.getActualId());
+		}
+	}
+
+	private static Contribution createContribution(RegistryContributor contributor, File input) {
+		if (input == null) {
+			return null;
+		}
+		return new Contribution(contributor.getActualName(), contributor.getId(), contributor.getName(),
+				input.getAbsolutePath(), input.length(), input.lastModified());
+	}
+
 	//	added for releasing cached information from IPluginModelBase
 	//	private void resetModel(IPluginModelBase model) {
 	//		IPluginBase base = model.getPluginBase();
@@ -280,7 +412,7 @@ public class PDERegistryStrategy extends RegistryStrategy {
 		return (inputFile.exists()) ? inputFile : null;
 	}
 
-	public IContributor createContributor(IPluginModelBase base) {
+	public RegistryContributor createContributor(IPluginModelBase base) {
 		BundleDescription desc = base == null ? null : base.getBundleDescription();
 		// return null if the IPluginModelBase does not have a BundleDescription (since then we won't have a valid 'id')
 		if (desc == null) {
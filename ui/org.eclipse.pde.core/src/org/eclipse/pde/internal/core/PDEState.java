@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,11 +18,18 @@ import java.io.File;
 import java.net.URI;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
+import java.util.jar.JarFile;
 
 import org.eclipse.core.filesystem.URIUtil;
 import org.eclipse.core.resources.IWorkspaceRoot;
@@ -30,15 +37,19 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.osgi.service.resolver.BaseDescription;
 import org.eclipse.osgi.service.resolver.BundleDescription;
 import org.eclipse.osgi.service.resolver.State;
 import org.eclipse.pde.core.plugin.IPluginModelBase;
 import org.eclipse.pde.core.target.LoadTargetDefinitionJob;
+import org.eclipse.pde.core.target.TargetBundle;
 import org.eclipse.pde.internal.core.plugin.ExternalFragmentModel;
 import org.eclipse.pde.internal.core.plugin.ExternalPluginModel;
 import org.eclipse.pde.internal.core.plugin.ExternalPluginModelBase;
+import org.eclipse.pde.internal.core.target.ManifestBundleInfo;
 import org.eclipse.pde.internal.core.util.CoreUtility;
 import org.eclipse.pde.internal.core.util.ManifestUtils;
 import org.osgi.framework.Version;
@@ -47,6 +58,13 @@ public class PDEState extends MinimalState {
 
 	private final PDEAuxiliaryState fAuxiliaryState;
 	private final ArrayList<IPluginModelBase> fTargetModels = new ArrayList<>();
+	private final Map<String, Long> fTargetStamps = new HashMap<>();
+
+	/**
+	 * Number of threads used to read the manifests of the target bundles
+	 */
+	private static final int MANIFEST_LOADER_THREADS = Math.max(1,
+			Math.min(Runtime.getRuntime().availableProcessors(), 8));
 
 	/**
 	 * Creates a new PDE State containing bundles from the given URLs.
@@ -57,11 +75,31 @@ public class PDEState extends MinimalState {
 	 * @param monitor progress monitor
 	 */
 	public PDEState(URI[] target, boolean addResolver, boolean removeDuplicates, IProgressMonitor monitor) {
+		this(target, Map.of(), addResolver, removeDuplicates, monitor);
+	}
+
+	/**
+	 * Creates a new PDE State containing the given resolved target bundles.
+	 * The manifests read while the target was resolved are reused, so
+	 * unchanged bundles are not opened again.
+	 *
+	 * @param target resolved target bundles
+	 * @param addResolver whether to add a resolver to the state
+	 * @param removeDuplicates whether to remove duplicate conflicting bundles from the state
+	 * @param monitor progress monitor
+	 */
+	public PDEState(TargetBundle[] target, boolean addResolver, boolean removeDuplicates, IProgressMonitor monitor) {
+		this(getLocations(target), getResolvedInfos(target), addResolver, removeDuplicates, monitor);
+	}
+
+	private PDEState(URI[] target, Map<URI, ManifestBundleInfo> resolved, boolean addResolver,
+			boolean removeDuplicates, IProgressMonitor monitor) {
 		long start = System.currentTimeMillis();
 		fAuxiliaryState = new PDEAuxiliaryState();
 
-		// We no longer try and restore from a cached state as it had no performance benefit
-		createNewTargetState(addResolver, target, monitor);
+		// The resolver state itself is always created new, only the manifests
+		// of unchanged target bundles are restored from the manifest cache
+		createNewTargetState(addResolver, target, resolved, monitor);
 
 		if (removeDuplicates) {
 			removeDuplicatesFromState(fState);
@@ -76,31 +114,248 @@ public class PDEState extends MinimalState {
 		}
 	}
 
-	private void createNewTargetState(boolean resolve, URI[] uris, IProgressMonitor monitor) {
+	/**
+	 * Creates a copy of the given state that can be modified while the given
+	 * state is still in use. The copy contains copies of the bundle
+	 * descriptions with the same bundle ids and is resolved like the given
+	 * state, so resolving it again after a modification only reports the
+	 * changes made to the copy. The models are not changed, they still refer
+	 * to the bundle descriptions of the given state.
+	 *
+	 * @param state the state to copy
+	 */
+	PDEState(PDEState state) {
+		super(state);
+		fAuxiliaryState = new PDEAuxiliaryState(state.fAuxiliaryState);
+		fTargetModels.addAll(state.fTargetModels);
+		fTargetStamps.putAll(state.fTargetStamps);
+		setSelectionPolicy();
+		resolveState(false);
+	}
+
+	/**
+	 * @return the locations of the given target bundles
+	 */
+	static URI[] getLocations(TargetBundle[] bundles) {
+		URI[] uris = new URI[bundles.length];
+		for (int i = 0; i < bundles.length; i++) {
+			uris[i] = bundles[i].getBundleInfo().getLocation();
+		}
+		return uris;
+	}
+
+	private static Map<URI, ManifestBundleInfo> getResolvedInfos(TargetBundle[] bundles) {
+		Map<URI, ManifestBundleInfo> infos = new HashMap<>();
+		for (TargetBundle bundle : bundles) {
+			if (bundle.getBundleInfo() instanceof ManifestBundleInfo info) {
+				infos.put(info.getLocation(), info);
+			}
+		}
+		return infos;
+	}
+
+	private void createNewTargetState(boolean resolve, URI[] uris, Map<URI, ManifestBundleInfo> resolved,
+			IProgressMonitor monitor) {
 		fState = stateObjectFactory.createState(resolve);
 		if (resolve) {
-			final String systemBSN = getSystemBundle();
-			Comparator<BaseDescription> policy = systemBundlesFirst(systemBSN)
-					.thenComparing(BaseDescription::getVersion, HIGHER_VERSION_FIRST)
-					.thenComparing(BaseDescription::getSupplier, HIGHER_LOCAL_VERSION_FIRST);
-			fState.getResolver().setSelectionPolicy(policy);
+			setSelectionPolicy();
 		}
+		loadTargetBundles(uris, resolved, true, monitor);
+	}
+
+	private void setSelectionPolicy() {
+		final String systemBSN = getSystemBundle();
+		Comparator<BaseDescription> policy = systemBundlesFirst(systemBSN)
+				.thenComparing(BaseDescription::getVersion, HIGHER_VERSION_FIRST)
+				.thenComparing(BaseDescription::getSupplier, HIGHER_LOCAL_VERSION_FIRST);
+		fState.getResolver().setSelectionPolicy(policy);
+	}
+
+	/**
+	 * Reads the manifests of the bundles at the given locations and adds them
+	 * to the state.
+	 *
+	 * @param uris locations of the target bundles
+	 * @param resolved the infos of the target bundles that carry the manifest
+	 *            read while the target was resolved
+	 * @param completeTarget whether the given locations form the complete
+	 *            target, in that case the manifest cache only retains the
+	 *            given bundles
+	 * @param monitor progress monitor
+	 * @return the bundle descriptions added to the state
+	 */
+	private List<BundleDescription> loadTargetBundles(URI[] uris, Map<URI, ManifestBundleInfo> resolved,
+			boolean completeTarget, IProgressMonitor monitor) {
 		SubMonitor subMonitor = SubMonitor.convert(monitor, PDECoreMessages.PDEState_CreatingTargetModelState,
 				uris.length);
+		List<File> files = new ArrayList<>(uris.length);
+		List<ManifestBundleInfo> infos = new ArrayList<>(uris.length);
 		for (URI uri : uris) {
 			File file = toFile(uri);
-			if (file == null) {
-				continue;
+			if (file != null) {
+				files.add(file);
+				infos.add(resolved.get(uri));
+			}
+		}
+		List<BundleDescription> added = new ArrayList<>(files.size());
+		long start = System.currentTimeMillis();
+		TargetManifestCache manifestCache = TargetManifestCache.load();
+		// Manifests are read and parsed concurrently, but added to the state
+		// strictly in the order of the given URIs so that bundle ids (and with
+		// them the selection policy) stay the same as for a sequential load
+		ExecutorService executor = Executors.newFixedThreadPool(MANIFEST_LOADER_THREADS, r -> {
+			Thread thread = new Thread(r, "PDE Target Manifest Loader"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<Map<String, String>>> manifests = new ArrayList<>(files.size());
+			for (int i = 0; i < files.size(); i++) {
+				File file = files.get(i);
+				ManifestBundleInfo info = infos.get(i);
+				manifests.add(executor.submit(
+						() -> manifestCache.loadManifest(file, info == null ? null : info.getManifestHeaders())));
 			}
-			try {
-				subMonitor.subTask(file.getName());
-				addBundle(file, -1);
-			} catch (CoreException e) {
-				if (e.getStatus().getCode() != ManifestUtils.STATUS_CODE_NOT_A_BUNDLE_MANIFEST) {
-					PDECore.log(e);
+			for (int i = 0; i < files.size(); i++) {
+				File file = files.get(i);
+				try {
+					subMonitor.subTask(file.getName());
+					BundleDescription desc = addBundle(file, -1, getManifest(manifests.get(i)));
+					if (desc != null) {
+						fTargetStamps.put(desc.getLocation(), getStamp(file));
+						added.add(desc);
+					}
+				} catch (CoreException e) {
+					if (e.getStatus().getCode() != ManifestUtils.STATUS_CODE_NOT_A_BUNDLE_MANIFEST) {
+						PDECore.log(e);
+					}
 				}
+				subMonitor.split(1);
 			}
-			subMonitor.split(1);
+		} finally {
+			executor.shutdownNow();
+		}
+		manifestCache.save(completeTarget);
+		if (PDECore.DEBUG_MODEL) {
+			System.out.println("Time to load " + files.size() + " target manifests using " + MANIFEST_LOADER_THREADS //$NON-NLS-1$ //$NON-NLS-2$
+					+ " threads: " + (System.currentTimeMillis() - start) + " ms (" + manifestCache.getHits() //$NON-NLS-1$ //$NON-NLS-2$
+					+ " cached, " + manifestCache.getResolved() + " from target resolution, " //$NON-NLS-1$ //$NON-NLS-2$
+					+ manifestCache.getMisses() + " read, " //$NON-NLS-1$
+					+ (manifestCache.getHits() + manifestCache.getResolved()) + " bundle opens avoided)"); //$NON-NLS-1$
+		}
+		return added;
+	}
+
+	/**
+	 * Adds the bundles at the given locations to this state and creates target
+	 * models for them. Used to apply a changed target without creating a new
+	 * state, the caller is responsible to resolve the state afterwards.
+	 * <p>
+	 * Bundles with the same symbolic name and version as a target bundle
+	 * already in this state are skipped.
+	 * </p>
+	 *
+	 * @param uris locations of the target bundles to add
+	 * @param monitor progress monitor
+	 * @return the created target models
+	 */
+	public IPluginModelBase[] addTargetBundles(URI[] uris, IProgressMonitor monitor) {
+		return addTargetBundles(uris, Map.of(), monitor);
+	}
+
+	/**
+	 * Adds the given resolved target bundles to this state and creates target
+	 * models for them, reusing the manifests read while the target was
+	 * resolved.
+	 *
+	 * @param bundles the resolved target bundles to add
+	 * @param monitor progress monitor
+	 * @return the created target models
+	 * @see #addTargetBundles(URI[], IProgressMonitor)
+	 */
+	public IPluginModelBase[] addTargetBundles(TargetBundle[] bundles, IProgressMonitor monitor) {
+		return addTargetBundles(getLocations(bundles), getResolvedInfos(bundles), monitor);
+	}
+
+	private IPluginModelBase[] addTargetBundles(URI[] uris, Map<URI, ManifestBundleInfo> resolved,
+			IProgressMonitor monitor) {
+		List<IPluginModelBase> models = new ArrayList<>(uris.length);
+		for (BundleDescription desc : loadTargetBundles(uris, resolved, false, monitor)) {
+			if (hasDuplicate(desc)) {
+				removeTargetBundle(desc);
+				continue;
+			}
+			IPluginModelBase model = createExternalModel(desc);
+			fTargetModels.add(model);
+			models.add(model);
+		}
+		return models.toArray(new IPluginModelBase[models.size()]);
+	}
+
+	private boolean hasDuplicate(BundleDescription desc) {
+		for (BundleDescription other : fState.getBundles(desc.getSymbolicName())) {
+			if (other != desc && fTargetStamps.containsKey(other.getLocation())
+					&& other.getVersion().equals(desc.getVersion())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the given target models and their bundle descriptions from this
+	 * state, the caller is responsible to resolve the state afterwards.
+	 *
+	 * @param models target models to remove
+	 */
+	public void removeTargetModels(Collection<IPluginModelBase> models) {
+		for (IPluginModelBase model : models) {
+			BundleDescription desc = model.getBundleDescription();
+			if (desc != null) {
+				removeTargetBundle(desc);
+			}
+		}
+		fTargetModels.removeAll(models);
+	}
+
+	private void removeTargetBundle(BundleDescription desc) {
+		fState.removeBundle(desc);
+		fTargetStamps.remove(desc.getLocation());
+		fAuxiliaryState.removeAuxiliaryData(desc);
+	}
+
+	/**
+	 * Returns whether the given target model was modified on disk since it was
+	 * added to this state, for example a bundle that is replaced in place.
+	 *
+	 * @param model a target model of this state
+	 * @return <code>true</code> if the bundle has changed on disk
+	 */
+	public boolean isTargetBundleModified(IPluginModelBase model) {
+		BundleDescription desc = model.getBundleDescription();
+		if (desc == null || desc.getLocation() == null) {
+			return true;
+		}
+		Long stamp = fTargetStamps.get(desc.getLocation());
+		return stamp == null || stamp.longValue() != getStamp(new File(desc.getLocation()));
+	}
+
+	private static long getStamp(File bundleLocation) {
+		File file = bundleLocation.isDirectory() ? new File(bundleLocation, JarFile.MANIFEST_NAME) : bundleLocation;
+		return file.lastModified() * 31 + file.length();
+	}
+
+	private static Map<String, String> getManifest(Future<Map<String, String>> manifest) throws CoreException {
+		try {
+			return manifest.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CoreException coreException) {
+				throw coreException;
+			}
+			throw new CoreException(Status.error(e.getCause().getMessage(), e.getCause()));
 		}
 	}
 
@@ -223,6 +478,14 @@ public class PDEState extends MinimalState {
 		return model;
 	}
 
+	/**
+	 * @param model a plug-in model
+	 * @return whether the given model is a target model of this state
+	 */
+	public boolean isTargetModel(IPluginModelBase model) {
+		return fTargetModels.contains(model);
+	}
+
 	public IPluginModelBase[] getTargetModels() {
 		return fTargetModels.toArray(new IPluginModelBase[fTargetModels.size()]);
 	}
@@ -21,9 +21,12 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
@@ -31,12 +34,18 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.eclipse.core.filesystem.URIUtil;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.Adapters;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
@@ -50,6 +59,7 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.osgi.service.resolver.BundleDelta;
 import org.eclipse.osgi.service.resolver.BundleDescription;
 import org.eclipse.osgi.service.resolver.HostSpecification;
+import org.eclipse.osgi.service.resolver.State;
 import org.eclipse.osgi.service.resolver.StateDelta;
 import org.eclipse.pde.core.IModel;
 import org.eclipse.pde.core.IModelProviderEvent;
@@ -68,6 +78,12 @@ import org.osgi.resource.Resource;
 
 public class PluginModelManager implements IModelProviderListener {
 	private static final String fExternalPluginListFile = "SavedExternalPluginList.txt"; //$NON-NLS-1$
+	/**
+	 * The maximum number of threads used to compute the state derived parts of
+	 * the classpath containers
+	 */
+	private static final int CLASSPATH_COMPUTATION_THREADS = Math.max(1,
+			Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
 	private static PluginModelManager fModelManager;
 
 	/**
@@ -77,8 +93,11 @@ public class PluginModelManager implements IModelProviderListener {
 	 */
 	class UpdateClasspathsJob extends Job {
 
-		private final List<IJavaProject> fProjects = new ArrayList<>();
-		private final List<IClasspathContainer> fContainers = new ArrayList<>();
+		/**
+		 * Pending containers by project, a container queued again for the same
+		 * project replaces the previous one
+		 */
+		private final Map<IJavaProject, IClasspathContainer> fPending = new LinkedHashMap<>();
 
 		/**
 		 * Constructs a new job.
@@ -96,15 +115,28 @@ public class PluginModelManager implements IModelProviderListener {
 				do {
 					IJavaProject[] projects = null;
 					IClasspathContainer[] containers = null;
-					synchronized (fProjects) {
-						projects = fProjects.toArray(new IJavaProject[fProjects.size()]);
-						containers = fContainers.toArray(new IClasspathContainer[fContainers.size()]);
-						fProjects.clear();
-						fContainers.clear();
+					synchronized (fPending) {
+						projects = fPending.keySet().toArray(new IJavaProject[fPending.size()]);
+						containers = fPending.values().toArray(new IClasspathContainer[fPending.size()]);
+						fPending.clear();
+					}
+					long start = System.currentTimeMillis();
+					computeStateDependencies(containers, monitor);
+					// computing the entries accesses the workspace and the
+					// Java model, which is done sequentially
+					for (IClasspathContainer container : containers) {
+						if (monitor.isCanceled()) {
+							break;
+						}
+						container.getClasspathEntries();
+					}
+					if (PDECore.DEBUG_CLASSPATH) {
+						System.out.println("Computed " + containers.length + " classpath containers in " //$NON-NLS-1$ //$NON-NLS-2$
+								+ (System.currentTimeMillis() - start) + " ms"); //$NON-NLS-1$
 					}
 					JavaCore.setClasspathContainer(PDECore.REQUIRED_PLUGINS_CONTAINER_PATH, projects, containers, monitor);
-					synchronized (fProjects) {
-						more = !fProjects.isEmpty();
+					synchronized (fPending) {
+						more = !fPending.isEmpty();
 					}
 				} while (more);
 
@@ -114,13 +146,57 @@ public class PluginModelManager implements IModelProviderListener {
 			return Status.OK_STATUS;
 		}
 
+		/**
+		 * Computes the state derived parts of the given containers on a
+		 * dedicated pool, the containers share them through the
+		 * {@link ClasspathComputationCache}.
+		 */
+		private void computeStateDependencies(IClasspathContainer[] containers, IProgressMonitor monitor) {
+			List<RequiredPluginsClasspathContainer> pluginContainers = new ArrayList<>(containers.length);
+			for (IClasspathContainer container : containers) {
+				if (container instanceof RequiredPluginsClasspathContainer pluginContainer) {
+					pluginContainers.add(pluginContainer);
+				}
+			}
+			int threads = Math.min(pluginContainers.size(), CLASSPATH_COMPUTATION_THREADS);
+			if (threads <= 1) {
+				return;
+			}
+			ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+				Thread thread = new Thread(r, "PDE Classpath Computation"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+			try {
+				List<Future<?>> futures = new ArrayList<>(pluginContainers.size());
+				for (RequiredPluginsClasspathContainer container : pluginContainers) {
+					futures.add(executor.submit(() -> {
+						if (!monitor.isCanceled()) {
+							container.computeStateDependencies();
+						}
+					}));
+				}
+				for (Future<?> future : futures) {
+					try {
+						future.get();
+					} catch (ExecutionException e) {
+						// the entries are computed sequentially again
+						PDECore.log(e.getCause());
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
 		/**
 		 * Queues more projects/containers.
 		 */
 		void add(IJavaProject project, IClasspathContainer container) {
-			synchronized (fProjects) {
-				fProjects.add(project);
-				fContainers.add(container);
+			synchronized (fPending) {
+				fPending.put(project, container);
 			}
 		}
 
@@ -150,6 +226,18 @@ public class PluginModelManager implements IModelProviderListener {
 			super(id);
 		}
 
+		/**
+		 * Constructs a copy of the given entry. The model lists are shared,
+		 * they are never modified but replaced as a whole.
+		 *
+		 * @param entry the entry to copy
+		 */
+		public LocalModelEntry(LocalModelEntry entry) {
+			super(entry.getId());
+			fWorkspaceEntries = entry.fWorkspaceEntries;
+			fExternalEntries = entry.fExternalEntries;
+		}
+
 		/**
 		 * Adds a model to the entry.
 		 * An entry keeps two lists: one for workspace models
@@ -160,10 +248,15 @@ public class PluginModelManager implements IModelProviderListener {
 		 * @param model  model to be added to the entry
 		 */
 		public void addModel(IPluginModelBase model) {
+			// copy on write, readers access the lists without holding a lock
 			if (model.getUnderlyingResource() != null) {
-				fWorkspaceEntries.add(model);
+				ArrayList<IPluginModelBase> entries = new ArrayList<>(fWorkspaceEntries);
+				entries.add(model);
+				fWorkspaceEntries = entries;
 			} else {
-				fExternalEntries.add(model);
+				ArrayList<IPluginModelBase> entries = new ArrayList<>(fExternalEntries);
+				entries.add(model);
+				fExternalEntries = entries;
 			}
 		}
 
@@ -175,26 +268,62 @@ public class PluginModelManager implements IModelProviderListener {
 		 */
 		public void removeModel(IPluginModelBase model) {
 			if (model.getUnderlyingResource() != null) {
-				fWorkspaceEntries.remove(model);
+				ArrayList<IPluginModelBase> entries = new ArrayList<>(fWorkspaceEntries);
+				entries.remove(model);
+				fWorkspaceEntries = entries;
 			} else {
-				fExternalEntries.remove(model);
+				ArrayList<IPluginModelBase> entries = new ArrayList<>(fExternalEntries);
+				entries.remove(model);
+				fExternalEntries = entries;
 			}
 		}
 	}
 
 	private final ExternalModelManager fExternalManager; // keeps track of changes in target models
 	private final WorkspacePluginModelManager fWorkspaceManager; // keeps track of changes in the workspace
+	/**
+	 * The state being modified, only accessed while holding
+	 * fEntriesSynchronizer. Readers get the state published together with the
+	 * master table, which is never modified. Writers obtain the state through
+	 * {@link #getModifiableState()}, which replaces a published state by a
+	 * copy first.
+	 */
 	private PDEState fState; // keeps the combined view of the target and workspace
 
 	/**
-	 * only access synchronized with fEntriesSynchronizer
+	 * Immutable snapshot of the master table and the state it was computed
+	 * against
+	 *
+	 * @param entries a master table keyed by plugin ID and the value is a
+	 *            ModelEntry
+	 * @param state the state the table was computed against
+	 */
+	private record EntryTable(Map<String, LocalModelEntry> entries, PDEState state) {
+	}
+
+	/**
+	 * Snapshot of the master table, only replaced as a whole while holding
+	 * fEntriesSynchronizer so readers never have to lock. Writers modify a
+	 * copy obtained from {@link #copyEntryTable()}, copy each entry they modify
+	 * through {@link #getModifiableEntry(Map, String)} and publish the table
+	 * with {@link #publishEntryTable(Map)}.
 	 **/
-	private Map<String, LocalModelEntry> fEntries; // a master table keyed by plugin ID and the value is a ModelEntry
+	private volatile EntryTable fEntries;
 	/**
-	 * used to synchronize all public methods which (indirectly) use fEntries
+	 * used to synchronize the initialization and all modifications of fEntries
+	 * and fState
 	 **/
 	private final Object fEntriesSynchronizer = new Object();
 
+	/**
+	 * Active models computed from a snapshot of the master table
+	 */
+	private record ActiveModels(Map<String, LocalModelEntry> table, IPluginModelBase[] models) {
+	}
+
+	private volatile ActiveModels fActiveModels; // including fragments
+	private volatile ActiveModels fActivePluginModels; // without fragments
+
 	private ArrayList<IPluginModelListener> fListeners; // a list of listeners interested in changes to the plug-in models
 	private ArrayList<IStateDeltaListener> fStateListeners; // a list of listeners interested in changes to the PDE/resolver State
 	private boolean fCancelled = false;
@@ -242,6 +371,10 @@ public class PluginModelManager implements IModelProviderListener {
 
 	private void modelsChangedSynchronized(IModelProviderEvent e) {
 		PluginModelDelta delta = new PluginModelDelta();
+		Map<String, LocalModelEntry> entries = copyEntryTable();
+		if (fState != null) {
+			getModifiableState();
+		}
 
 		// Removes from the master table and the state all workspace plug-ins that have been
 		// removed (project closed/deleted) from the workspace.
@@ -252,7 +385,7 @@ public class PluginModelManager implements IModelProviderListener {
 				IPluginModelBase model = (IPluginModelBase) element;
 				String id = model.getPluginBase().getId();
 				if (id != null) {
-					handleRemove(id, model, delta);
+					handleRemove(entries, id, model, delta);
 				}
 			}
 		}
@@ -267,7 +400,7 @@ public class PluginModelManager implements IModelProviderListener {
 				IPluginModelBase model = (IPluginModelBase) element;
 				String id = model.getPluginBase().getId();
 				if (id != null) {
-					handleAdd(id, model, delta);
+					handleAdd(entries, id, model, delta);
 					addedBSNs.add(id);
 				}
 			}
@@ -280,7 +413,7 @@ public class PluginModelManager implements IModelProviderListener {
 		if ((e.getEventTypes() & IModelProviderEvent.MODELS_CHANGED) != 0) {
 			IModel[] changed = e.getChangedModels();
 			for (IModel element : changed) {
-				handleChange((IPluginModelBase) element, delta);
+				handleChange(entries, (IPluginModelBase) element, delta);
 			}
 		}
 
@@ -295,11 +428,13 @@ public class PluginModelManager implements IModelProviderListener {
 				// resolve based on added bundles, in case there are multiple versions of the added bundles
 				stateDelta = fState.resolveState(addedBSNs.toArray(new String[addedBSNs.size()]));
 			}
+			publishEntryTable(entries);
 			// trigger a classpath update for all workspace plug-ins affected by the
 			// processed batch of changes, run asynch for manifest changes
 			updateAffectedEntries(stateDelta);
 			fireStateDelta(stateDelta);
-
+		} else {
+			publishEntryTable(entries);
 		}
 
 		// notify all interested listeners in the changes made to the master table of entries
@@ -471,9 +606,7 @@ public class PluginModelManager implements IModelProviderListener {
 	 * 		<code>false</code> otherwise.
 	 */
 	public boolean isEmpty() {
-		synchronized (fEntriesSynchronizer) {
-			return getEntryTable().isEmpty();
-		}
+		return getEntryTable().isEmpty();
 	}
 
 	/**
@@ -484,9 +617,7 @@ public class PluginModelManager implements IModelProviderListener {
 	 * 		<code>false</code> otherwise.
 	 */
 	public boolean isInitialized() {
-		synchronized (fEntriesSynchronizer) {
-			return fEntries != null;
-		}
+		return fEntries != null;
 	}
 
 	/**
@@ -503,25 +634,222 @@ public class PluginModelManager implements IModelProviderListener {
 	}
 
 	/**
-	 * Clears all existing models and recreates them
+	 * Updates the models after the target has changed. If only a part of the
+	 * target bundles has changed, only those are added to or removed from the
+	 * existing state, otherwise all existing models are cleared and recreated.
 	 */
 	public void targetReloaded(IProgressMonitor monitor) {
 		synchronized (fEntriesSynchronizer) {
-			fEntries = null;
-			initializeTable(monitor);
+			// the cached validation states refer to the models of the old target
+			BundleValidationOperation.clearCachedStates();
+			if (fEntries != null && fState != null && applyTargetChanges(monitor)) {
+				return;
+			}
+			// readers keep using the published table until the new one is
+			// created
+			createTable(monitor);
+		}
+	}
+
+	/**
+	 * Has to be called synchronized with fEntriesSynchronizer. Compares the
+	 * bundles of the resolved workspace target with the current target models
+	 * and only adds and removes the bundles that differ.
+	 *
+	 * @return <code>true</code> if the changes were applied,
+	 *         <code>false</code> if the models have to be recreated from
+	 *         scratch
+	 */
+	private boolean applyTargetChanges(IProgressMonitor monitor) {
+		SubMonitor subMon = SubMonitor.convert(monitor, PDECoreMessages.PluginModelManager_InitializingPluginModels, 100);
+		try {
+			if (TargetPlatformHelper.getUnresolvedRepositoryBasedWorkspaceTarget() != null) {
+				return false;
+			}
+		} catch (CoreException e) {
+			PDECore.log(e);
+			return false;
+		}
+		long startTime = System.currentTimeMillis();
+		TargetBundle[] externalBundles = getExternalBundles(subMon.split(40));
+		if (subMon.isCanceled()) {
+			return false;
+		}
+		URI[] externalUris = PDEState.getLocations(externalBundles);
+
+		Map<String, IPluginModelBase> oldModels = new HashMap<>();
+		for (IPluginModelBase model : fExternalManager.getAllModels()) {
+			oldModels.put(new File(model.getInstallLocation()).getAbsolutePath(), model);
+		}
+		List<TargetBundle> added = new ArrayList<>();
+		for (TargetBundle bundle : externalBundles) {
+			IPath path = URIUtil.toPath(bundle.getBundleInfo().getLocation());
+			String location = path == null ? null : path.toFile().getAbsolutePath();
+			IPluginModelBase existing = location == null ? null : oldModels.remove(location);
+			if (existing == null) {
+				added.add(bundle);
+			} else if (fState.isTargetBundleModified(existing)) {
+				// bundle was replaced in place, remove and add it again
+				oldModels.put(location, existing);
+				added.add(bundle);
+			}
+		}
+		Collection<IPluginModelBase> removed = oldModels.values();
+		int changes = added.size() + removed.size();
+		if (changes > Math.max(externalUris.length, fExternalManager.getAllModels().length) / 2) {
+			// recreating the state is cheaper than applying the changes
+			return false;
+		}
+		String systemBundle = fState.getSystemBundle();
+		for (IPluginModelBase model : removed) {
+			if (systemBundle.equals(model.getPluginBase().getId())) {
+				// platform properties depend on the system bundle
+				return false;
+			}
+		}
+		if (PDECore.DEBUG_MODEL) {
+			System.out.println("\nTarget changed, applying " + added.size() + " added and " + removed.size() //$NON-NLS-1$ //$NON-NLS-2$
+					+ " removed target bundles to PDE models"); //$NON-NLS-1$
+		}
+
+		fCancelled = false;
+		PluginModelDelta delta = new PluginModelDelta();
+		Map<String, LocalModelEntry> entries = copyEntryTable();
+		getModifiableState();
+		Set<String> changedBSNs = new HashSet<>();
+		for (IPluginModelBase model : removed) {
+			String id = model.getPluginBase().getId();
+			if (id != null) {
+				handleRemove(entries, id, model, delta);
+				changedBSNs.add(id);
+			}
+		}
+		fState.removeTargetModels(removed);
+		IPluginModelBase[] addedModels = fState.addTargetBundles(added.toArray(new TargetBundle[added.size()]),
+				subMon.split(30));
+		for (IPluginModelBase model : addedModels) {
+			String id = model.getPluginBase().getId();
+			if (id != null) {
+				handleAddExternal(entries, id, model, delta);
+				changedBSNs.add(id);
+			}
+		}
+		fExternalManager.setModels(fState.getTargetModels());
+		saveExternalPluginList(externalUris);
+
+		// resolve the changed bundles, bundles depending on removed ones are
+		// re-resolved by the state as well
+		StateDelta stateDelta = fState.resolveState(changedBSNs.toArray(new String[changedBSNs.size()]));
+		subMon.split(10);
+		publishEntryTable(entries);
+		// flush the extension registry cache since workspace data (BundleDescription id's) have changed.
+		PDECore.getDefault().getExtensionsRegistry().targetReloaded();
+		updateAffectedEntries(stateDelta);
+		fireStateDelta(stateDelta);
+		fireDelta(delta);
+		subMon.split(20);
+		if (PDECore.DEBUG_MODEL) {
+			System.out.println("PDE plug-in models updated for changed target: " //$NON-NLS-1$
+					+ (System.currentTimeMillis() - startTime) + " ms"); //$NON-NLS-1$
 		}
+		return true;
 	}
 
 	/**
 	 * Allow access to the table only through this getter.
-	 * It always calls initialize to make sure the table is initialized.
+	 * It always makes sure the table is initialized.
 	 * If more than one thread tries to read the table at the same time,
 	 * and the table is not initialized yet, thread2 would wait.
-	 * This way there are no partial reads.
+	 * Once initialized, the current snapshot is returned without locking.
 	 */
 	private Map<String, LocalModelEntry> getEntryTable() {
+		return getPublishedTable().entries();
+	}
+
+	/**
+	 * Returns the published snapshot of the master table and its state,
+	 * initializes it first if necessary.
+	 */
+	private EntryTable getPublishedTable() {
+		EntryTable table = fEntries;
+		if (table == null) {
+			synchronized (fEntriesSynchronizer) {
+				initializeTable(null);
+				table = fEntries;
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Has to be called synchronized with fEntriesSynchronizer. Returns a
+	 * modifiable copy of the initialized master table. The entries are still
+	 * shared with the published table, use
+	 * {@link #getModifiableEntry(Map, String)} before modifying one of them.
+	 */
+	private Map<String, LocalModelEntry> copyEntryTable() {
 		initializeTable(null);
-		return fEntries;
+		return new TreeMap<>(fEntries.entries());
+	}
+
+	/**
+	 * Has to be called synchronized with fEntriesSynchronizer. Returns the
+	 * entry for the given id of the table being modified, an entry that is
+	 * still part of the published table is replaced by a copy first.
+	 *
+	 * @param entries the master table being modified
+	 * @param id the key
+	 * @return the entry that may be modified or <code>null</code> if there is
+	 *         no entry for the id
+	 */
+	private LocalModelEntry getModifiableEntry(Map<String, LocalModelEntry> entries, String id) {
+		LocalModelEntry entry = entries.get(id);
+		EntryTable published = fEntries;
+		if (entry != null && published != null && published.entries().get(id) == entry) {
+			entry = new LocalModelEntry(entry);
+			entries.put(id, entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Has to be called synchronized with fEntriesSynchronizer. Returns the
+	 * state to modify, a state that is still published is replaced by a
+	 * resolved copy first and the models are moved to the bundle descriptions
+	 * of the copy. Readers keep the published state unchanged.
+	 */
+	private PDEState getModifiableState() {
+		EntryTable published = fEntries;
+		if (published != null && published.state() == fState) {
+			PDEState copy = new PDEState(fState);
+			State original = fState.getState();
+			moveToState(copy.getTargetModels(), original, copy);
+			moveToState(fWorkspaceManager.getPluginModels(), original, copy);
+			fState = copy;
+		}
+		return fState;
+	}
+
+	/**
+	 * Sets the bundle descriptions of the copy on the given models whose
+	 * description is contained in the original state
+	 */
+	private static void moveToState(IPluginModelBase[] models, State original, PDEState copy) {
+		for (IPluginModelBase model : models) {
+			BundleDescription desc = model.getBundleDescription();
+			if (desc != null && original.getBundle(desc.getBundleId()) == desc) {
+				model.setBundleDescription(copy.getState().getBundle(desc.getBundleId()));
+			}
+		}
+	}
+
+	/**
+	 * Has to be called synchronized with fEntriesSynchronizer. Publishes the
+	 * given table together with the current state as the new snapshot of the
+	 * master table.
+	 */
+	private void publishEntryTable(Map<String, LocalModelEntry> entries) {
+		fEntries = new EntryTable(Collections.unmodifiableMap(entries), fState);
 	}
 
 	/** Has to be called synchronized with fEntriesSynchronizer **/
@@ -529,7 +857,15 @@ public class PluginModelManager implements IModelProviderListener {
 		if (fEntries != null) {
 			return;
 		}
+		createTable(monitor);
+	}
 
+	/**
+	 * Has to be called synchronized with fEntriesSynchronizer. Creates a new
+	 * state and master table for the current target and publishes them, the
+	 * previously published table is used by readers until then.
+	 */
+	private void createTable(IProgressMonitor monitor) {
 		SubMonitor subMon = SubMonitor.convert(monitor, PDECoreMessages.PluginModelManager_InitializingPluginModels, 100);
 		if (PDECore.DEBUG_MODEL) {
 			if (fState == null) {
@@ -542,7 +878,8 @@ public class PluginModelManager implements IModelProviderListener {
 		PDEState oldState = fState;
 		long startTime = System.currentTimeMillis();
 
-		// Cannot assign to fEntries here - will create a race condition with isInitialized()
+		// Cannot assign to fEntries here - will create a race condition with
+		// isInitialized(), the new state is also only published with the table
 		Map<String, LocalModelEntry> entries = new TreeMap<>();
 		fCancelled = false;
 
@@ -557,14 +894,15 @@ public class PluginModelManager implements IModelProviderListener {
 			//set empty fState, fExternalManager, fEntries- scheduling target platform resolve
 			fState = new PDEState(new URI[0], true, true, subMon);
 			fExternalManager.setModels(new IPluginModelBase[0]);
-			fEntries = entries;
+			publishEntryTable(entries);
 			LoadTargetDefinitionJob.load(unresolvedRepoBasedtarget);
 			return;
 		}
 
 		long startTargetModels = System.currentTimeMillis();
 		// Target models
-		URI[] externalUris = getExternalBundles(subMon.split(40));
+		TargetBundle[] externalBundles = getExternalBundles(subMon.split(40));
+		URI[] externalUris = PDEState.getLocations(externalBundles);
 		if (subMon.isCanceled()) {
 			// If target resolution is cancelled, externalUrls will be empty. Log warning so user knows how to reload the target.
 			if (PDECore.DEBUG_MODEL) {
@@ -575,7 +913,9 @@ public class PluginModelManager implements IModelProviderListener {
 			fCancelled = true;
 		}
 
-		fState = new PDEState(externalUris, true, true, subMon.split(15));
+		// the manifests read during the target resolution are handed over to
+		// the state, so the target bundles are not opened again
+		fState = new PDEState(externalBundles, true, true, subMon.split(15));
 		fExternalManager.setModels(fState.getTargetModels());
 		addToTable(entries, fExternalManager.getAllModels());
 
@@ -607,7 +947,7 @@ public class PluginModelManager implements IModelProviderListener {
 		fState.resolveState(true);
 		subMon.split(5);
 
-		fEntries = entries;
+		publishEntryTable(entries);
 		// flush the extension registry cache since workspace data (BundleDescription id's) have changed.
 		PDECore.getDefault().getExtensionsRegistry().targetReloaded();
 		if (oldState != null) {
@@ -632,24 +972,23 @@ public class PluginModelManager implements IModelProviderListener {
 	}
 
 	/**
-	 * Returns an array of URI plug-in locations for external bundles loaded from the
-	 * current target platform.
+	 * Returns the external bundles loaded from the current target platform.
 	 *
 	 * @param monitor progress monitor
-	 * @return array of URLs for external bundles
+	 * @return array of the resolved external bundles without errors
 	 */
-	private URI[] getExternalBundles(IProgressMonitor monitor) {
+	private TargetBundle[] getExternalBundles(IProgressMonitor monitor) {
 		ITargetDefinition target = null;
 		try {
 			target = TargetPlatformHelper.getWorkspaceTargetResolved(monitor);
 		} catch (CoreException e) {
 			PDECore.log(e);
-			return new URI[0];
+			return new TargetBundle[0];
 		}
 
 		// Resolution was cancelled
 		if (target == null) {
-			return new URI[0];
+			return new TargetBundle[0];
 		}
 
 		// Log any known issues with the target platform to warn user
@@ -665,19 +1004,19 @@ public class PluginModelManager implements IModelProviderListener {
 			}
 		}
 
-		URI[] externalURIs = new URI[0];
+		TargetBundle[] externalBundles = new TargetBundle[0];
 		TargetBundle[] bundles = target.getBundles();
 		if (bundles != null) {
-			List<URI> uris = new ArrayList<>(bundles.length);
+			List<TargetBundle> okBundles = new ArrayList<>(bundles.length);
 			for (TargetBundle bundle : bundles) {
 				if (bundle.getStatus().isOK()) {
-					uris.add(bundle.getBundleInfo().getLocation());
+					okBundles.add(bundle);
 				}
 			}
-			externalURIs = uris.toArray(new URI[uris.size()]);
+			externalBundles = okBundles.toArray(new TargetBundle[okBundles.size()]);
 		}
 
-		return externalURIs;
+		return externalBundles;
 
 	}
 
@@ -692,7 +1031,7 @@ public class PluginModelManager implements IModelProviderListener {
 			if (id == null) {
 				continue;
 			}
-			LocalModelEntry entry = entries.get(id);
+			LocalModelEntry entry = getModifiableEntry(entries, id);
 			// create a new entry for the given ID if none already exists
 			if (entry == null) {
 				entry = new LocalModelEntry(id);
@@ -706,12 +1045,9 @@ public class PluginModelManager implements IModelProviderListener {
 	/**
 	 * Add a workspace bundle to the state
 	 *
+	 * @param entries the master table to look up target models
 	 * @param model  the workspace model
 	 */
-	private void addWorkspaceBundleToState(IPluginModelBase model) {
-		addWorkspaceBundleToState(fEntries, model);
-	}
-
 	private void addWorkspaceBundleToState(Map<String, LocalModelEntry> entries, IPluginModelBase model) {
 		String id = model.getPluginBase().getId();
 		if (id == null) {
@@ -835,16 +1171,18 @@ public class PluginModelManager implements IModelProviderListener {
 	/**
 	 * Adds a model to the master table and state
 	 *
+	 * @param entries the master table being modified
 	 * @param id the key
 	 * @param model  the model being added
 	 */
-	private void handleAdd(String id, IPluginModelBase model, PluginModelDelta delta) {
-		LocalModelEntry entry = getEntryTable().get(id);
+	private void handleAdd(Map<String, LocalModelEntry> entries, String id, IPluginModelBase model,
+			PluginModelDelta delta) {
+		LocalModelEntry entry = getModifiableEntry(entries, id);
 
 		// add model to the corresponding ModelEntry.  Create a new entry if necessary
 		if (entry == null) {
 			entry = new LocalModelEntry(id);
-			getEntryTable().put(id, entry);
+			entries.put(id, entry);
 			delta.addEntry(entry, PluginModelDelta.ADDED);
 		} else {
 			delta.addEntry(entry, PluginModelDelta.CHANGED);
@@ -854,27 +1192,55 @@ public class PluginModelManager implements IModelProviderListener {
 		// if the model added is a workspace model, add it to the state and
 		// remove all its external counterparts
 		if (model.getUnderlyingResource() != null) {
-			addWorkspaceBundleToState(model);
+			addWorkspaceBundleToState(entries, model);
 		} else if (model.isEnabled() && !entry.hasWorkspaceModels()) {
 			// if a target model has went from an unchecked state to a checked state
 			// on the target platform preference page, re-add its bundle description
 			// to the state
-			BundleDescription desc = model.getBundleDescription();
-			if (desc.getContainingState().equals(fState.fState)) {
-				fState.addBundleDescription(desc);
+			// the description is not contained in the state, it may belong to
+			// a previous copy of the state
+			if (fState.isTargetModel(model)) {
+				fState.addBundleDescription(model.getBundleDescription());
 			}
 		}
 	}
 
+	/**
+	 * Adds a target model that is already contained in the state to the master
+	 * table. If the entry has workspace models, they are added to the state
+	 * again so they keep overriding their target counterparts.
+	 *
+	 * @param entries the master table being modified
+	 * @param id the key
+	 * @param model the target model being added
+	 */
+	private void handleAddExternal(Map<String, LocalModelEntry> entries, String id, IPluginModelBase model,
+			PluginModelDelta delta) {
+		LocalModelEntry entry = getModifiableEntry(entries, id);
+		if (entry == null) {
+			entry = new LocalModelEntry(id);
+			entries.put(id, entry);
+			delta.addEntry(entry, PluginModelDelta.ADDED);
+		} else {
+			delta.addEntry(entry, PluginModelDelta.CHANGED);
+		}
+		entry.addModel(model);
+		for (IPluginModelBase workspaceModel : entry.getWorkspaceModels()) {
+			addWorkspaceBundleToState(entries, workspaceModel);
+		}
+	}
+
 	/**
 	 * Removes the model from the ModelEntry and the state.  The entire model entry is removed
 	 * once the last model it retains is removed.
 	 *
+	 * @param entries the master table being modified
 	 * @param id   the key
 	 * @param model  the model to be removed
 	 */
-	private void handleRemove(String id, IPluginModelBase model, PluginModelDelta delta) {
-		LocalModelEntry entry = getEntryTable().get(id);
+	private void handleRemove(Map<String, LocalModelEntry> entries, String id, IPluginModelBase model,
+			PluginModelDelta delta) {
+		LocalModelEntry entry = getModifiableEntry(entries, id);
 		if (entry != null) {
 			// remove model from the entry
 			entry.removeModel(model);
@@ -882,7 +1248,7 @@ public class PluginModelManager implements IModelProviderListener {
 			fState.removeBundleDescription(model.getBundleDescription());
 			if (!entry.hasExternalModels() && !entry.hasWorkspaceModels()) {
 				// remove entire entry if it has no models left
-				getEntryTable().remove(id);
+				entries.remove(id);
 				delta.addEntry(entry, PluginModelDelta.REMOVED);
 				return;
 			} else if (model.getUnderlyingResource() != null && !entry.hasWorkspaceModels()) {
@@ -902,9 +1268,10 @@ public class PluginModelManager implements IModelProviderListener {
 	/**
 	 * Update the state and master table to account for the change in the given model
 	 *
+	 * @param entries the master table being modified
 	 * @param model the model that has changed
 	 */
-	private void handleChange(IPluginModelBase model, PluginModelDelta delta) {
+	private void handleChange(Map<String, LocalModelEntry> entries, IPluginModelBase model, PluginModelDelta delta) {
 		BundleDescription desc = model.getBundleDescription();
 		String oldID = desc == null ? null : desc.getSymbolicName();
 		String newID = model.getPluginBase().getId();
@@ -918,11 +1285,11 @@ public class PluginModelManager implements IModelProviderListener {
 		// if the model used to lack a Bundle-SymbolicName header and now it has one,
 		// treat it as a regular model addition
 		if (oldID == null && newID != null) {
-			handleAdd(newID, model, delta);
+			handleAdd(entries, newID, model, delta);
 		} else if (oldID != null && newID == null) {
 			// if the model used to have a Bundle-SymbolicName header and now it lost it,
 			// treat it as a regular model removal
-			handleRemove(oldID, model, delta);
+			handleRemove(entries, oldID, model, delta);
 			model.setBundleDescription(null);
 		} else if (oldID != null && oldID.equals(newID)) {
 			// if the workspace bundle's MANIFEST.MF was touched or
@@ -932,7 +1299,7 @@ public class PluginModelManager implements IModelProviderListener {
 				// if the state of an inactive bundle changes (external model un/checked that has an
 				// equivalent workspace bundle), then take no action.  We don't want to add the external
 				// model to the state when it is enabled if we have a workspace bundle already in the state.
-				ModelEntry entry = getEntryTable().get(oldID);
+				ModelEntry entry = entries.get(oldID);
 				IPluginModelBase[] activeModels = entry.getActiveModels();
 				boolean isActive = false;
 				for (IPluginModelBase activeModel : activeModels) {
@@ -943,13 +1310,13 @@ public class PluginModelManager implements IModelProviderListener {
 				}
 				if (isActive) {
 					// refresh everything related to this bundle model id
-					fEntries.remove(newID);
+					entries.remove(newID);
 					fState.removeBundleDescription(desc);
 					for (int i = 0; i < fExternalManager.getAllModels().length; i++) {
 						IPluginModelBase modelExternal = fExternalManager.getAllModels()[i];
 						if (modelExternal.getPluginBase().getId() != null) {
 							if (modelExternal.getPluginBase().getId().equals(newID)) {
-								addToTable(fEntries, new IPluginModelBase[] { modelExternal });
+								addToTable(entries, new IPluginModelBase[] { modelExternal });
 							}
 						}
 					}
@@ -957,8 +1324,8 @@ public class PluginModelManager implements IModelProviderListener {
 					for (IPluginModelBase modelWorkspace : models) {
 						if (modelWorkspace.getPluginBase().getId() != null) {
 							if (modelWorkspace.getPluginBase().getId().equals(newID)) {
-								addToTable(fEntries, new IPluginModelBase[] { modelWorkspace });
-								addWorkspaceBundleToState(fEntries, modelWorkspace);
+								addToTable(entries, new IPluginModelBase[] { modelWorkspace });
+								addWorkspaceBundleToState(entries, modelWorkspace);
 							}
 						}
 					}
@@ -968,12 +1335,12 @@ public class PluginModelManager implements IModelProviderListener {
 				// description from the state
 				fState.removeBundleDescription(model.getBundleDescription());
 			}
-			delta.addEntry(findEntry(oldID), PluginModelDelta.CHANGED);
+			delta.addEntry(entries.get(oldID), PluginModelDelta.CHANGED);
 		} else {
 			// if the symbolic name of the bundle has completely changed,
 			// remove the model from the old entry, and add the model to the new entry
-			handleRemove(oldID, model, delta);
-			handleAdd(newID, model, delta);
+			handleRemove(entries, oldID, model, delta);
+			handleAdd(entries, newID, model, delta);
 		}
 	}
 
@@ -985,12 +1352,10 @@ public class PluginModelManager implements IModelProviderListener {
 	 * @return a model entry containing all workspace and target plug-ins by the given ID
 	 */
 	public ModelEntry findEntry(String id) {
-		synchronized (fEntriesSynchronizer) {
-			if ("system.bundle".equals(id)) { //$NON-NLS-1$
-				id = getSystemBundleId();
-			}
-			return id == null ? null : (ModelEntry) getEntryTable().get(id);
+		if ("system.bundle".equals(id)) { //$NON-NLS-1$
+			id = getSystemBundleId();
 		}
+		return id == null ? null : (ModelEntry) getEntryTable().get(id);
 	}
 
 	/**
@@ -1028,10 +1393,8 @@ public class PluginModelManager implements IModelProviderListener {
 	 * 			is not a plug-in project
 	 */
 	public IPluginModelBase findModel(IProject project) {
-		synchronized (fEntriesSynchronizer) {
-			initializeTable(null);
-			return fWorkspaceManager.getModel(project);
-		}
+		getEntryTable();
+		return fWorkspaceManager.getModel(project);
 	}
 
 	/**
@@ -1085,12 +1448,12 @@ public class PluginModelManager implements IModelProviderListener {
 	 * (possibly) fragments that are checked on the Target Platform preference page.
 	 */
 	public IPluginModelBase[] getActiveModels(boolean includeFragments) {
-		synchronized (fEntriesSynchronizer) {
-			int size = getEntryTable().size();
-			ArrayList<IPluginModelBase> result = new ArrayList<>(size);
-			Iterator<LocalModelEntry> iter = getEntryTable().values().iterator();
-			while (iter.hasNext()) {
-				ModelEntry entry = iter.next();
+		Map<String, LocalModelEntry> table = getEntryTable();
+		ActiveModels cached = includeFragments ? fActiveModels : fActivePluginModels;
+		if (cached == null || cached.table() != table) {
+			// the cache is bound to the snapshot it was computed from
+			ArrayList<IPluginModelBase> result = new ArrayList<>(table.size());
+			for (ModelEntry entry : table.values()) {
 				IPluginModelBase[] models = entry.getActiveModels();
 				for (IPluginModelBase model : models) {
 					if (model instanceof IPluginModel || includeFragments) {
@@ -1098,8 +1461,14 @@ public class PluginModelManager implements IModelProviderListener {
 					}
 				}
 			}
-			return result.toArray(new IPluginModelBase[result.size()]);
+			cached = new ActiveModels(table, result.toArray(new IPluginModelBase[result.size()]));
+			if (includeFragments) {
+				fActiveModels = cached;
+			} else {
+				fActivePluginModels = cached;
+			}
 		}
+		return cached.models().clone();
 	}
 
 	/**
@@ -1139,22 +1508,18 @@ public class PluginModelManager implements IModelProviderListener {
 	 * checked on the Target Platform preference page.
 	 */
 	public IPluginModelBase[] getAllModels(boolean includeFragments) {
-		synchronized (fEntriesSynchronizer) {
-			int size = getEntryTable().size();
-			ArrayList<IPluginModelBase> result = new ArrayList<>(size);
-			Iterator<LocalModelEntry> iter = getEntryTable().values().iterator();
-			while (iter.hasNext()) {
-				ModelEntry entry = iter.next();
-				IPluginModelBase[] models = entry.hasWorkspaceModels() ? entry.getWorkspaceModels()
-						: entry.getExternalModels();
-				for (IPluginModelBase model : models) {
-					if (model instanceof IPluginModel || includeFragments) {
-						result.add(model);
-					}
+		Map<String, LocalModelEntry> table = getEntryTable();
+		ArrayList<IPluginModelBase> result = new ArrayList<>(table.size());
+		for (ModelEntry entry : table.values()) {
+			IPluginModelBase[] models = entry.hasWorkspaceModels() ? entry.getWorkspaceModels()
+					: entry.getExternalModels();
+			for (IPluginModelBase model : models) {
+				if (model instanceof IPluginModel || includeFragments) {
+					result.add(model);
 				}
 			}
-			return result.toArray(new IPluginModelBase[result.size()]);
 		}
+		return result.toArray(new IPluginModelBase[result.size()]);
 	}
 
 	/**
@@ -1163,10 +1528,8 @@ public class PluginModelManager implements IModelProviderListener {
 	 * @return  all plug-ins in the target platform
 	 */
 	public IPluginModelBase[] getExternalModels() {
-		synchronized (fEntriesSynchronizer) {
-			initializeTable(null);
-			return fExternalManager.getAllModels();
-		}
+		getEntryTable();
+		return fExternalManager.getAllModels();
 	}
 
 	/**
@@ -1175,10 +1538,8 @@ public class PluginModelManager implements IModelProviderListener {
 	 * @return all plug-in models in the workspace
 	 */
 	public IPluginModelBase[] getWorkspaceModels() {
-		synchronized (fEntriesSynchronizer) {
-			initializeTable(null);
-			return fWorkspaceManager.getPluginModels();
-		}
+		getEntryTable();
+		return fWorkspaceManager.getPluginModels();
 	}
 
 	/**
@@ -1187,10 +1548,8 @@ public class PluginModelManager implements IModelProviderListener {
 	 * @return  the model manager that keeps track of plug-ins in the target platform
 	 */
 	public ExternalModelManager getExternalModelManager() {
-		synchronized (fEntriesSynchronizer) {
-			initializeTable(null);
-			return fExternalManager;
-		}
+		getEntryTable();
+		return fExternalManager;
 	}
 
 	/**
@@ -1198,9 +1557,21 @@ public class PluginModelManager implements IModelProviderListener {
 	 * that form the current PDE state
 	 */
 	public PDEState getState() {
+		return getPublishedTable().state();
+	}
+
+	/**
+	 * Resolves a copy of the state against the system packages of the
+	 * currently known execution environments and publishes it.
+	 *
+	 * @return the delta of the resolution
+	 */
+	StateDelta reloadSystemPackages() {
 		synchronized (fEntriesSynchronizer) {
-			initializeTable(null);
-			return fState;
+			Map<String, LocalModelEntry> entries = copyEntryTable();
+			StateDelta delta = getModifiableState().reloadSystemPackages();
+			publishEntryTable(entries);
+			return delta;
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2023 IBM Corporation and others.
+ *  Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -58,6 +58,7 @@ import org.eclipse.pde.core.plugin.IPluginModelBase;
 import org.eclipse.pde.core.plugin.PluginRegistry;
 import org.eclipse.pde.internal.build.BundleHelper;
 import org.eclipse.pde.internal.build.IBuildPropertiesConstants;
+import org.eclipse.pde.internal.core.ClasspathComputationCache.BundleDependencies;
 import org.eclipse.pde.internal.core.bnd.BndProjectManager;
 import org.eclipse.pde.internal.core.ibundle.IBundlePluginModelBase;
 import org.eclipse.pde.internal.core.natures.BndProject;
@@ -82,7 +83,6 @@ public class RequiredPluginsClasspathContainer extends PDEClasspathContainer imp
 	private final IPluginModelBase fModel;
 	private IBuild fBuild;
 
-	private List<BundleDescription> junit5RuntimeClosure;
 	private IClasspathEntry[] fEntries;
 	private boolean addImportedPackages;
 
@@ -141,6 +141,23 @@ public class RequiredPluginsClasspathContainer extends PDEClasspathContainer imp
 		return fEntries;
 	}
 
+	/**
+	 * Computes the parts of the classpath that only depend on the state, i.e.
+	 * the packages visible to the bundle, and caches them in the
+	 * {@link ClasspathComputationCache}. Unlike {@link #getClasspathEntries()}
+	 * this neither accesses the workspace nor the Java model, so it can be
+	 * called for several containers concurrently.
+	 */
+	void computeStateDependencies() {
+		if (fModel == null || fEntries != null) {
+			return;
+		}
+		BundleDescription desc = fModel.getBundleDescription();
+		if (desc != null) {
+			retrieveVisiblePackagesFromState(desc);
+		}
+	}
+
 	private IClasspathEntry[] computePluginEntriesByProject() {
 		try {
 			Optional<Project> bndProject = BndProjectManager.getBndProject(project);
@@ -315,19 +332,35 @@ public class RequiredPluginsClasspathContainer extends PDEClasspathContainer imp
 
 	private Map<BundleDescription, List<Rule>> retrieveVisiblePackagesFromState(BundleDescription desc) {
 		Map<BundleDescription, List<Rule>> visiblePackages = new HashMap<>();
-		StateHelper helper = BundleHelper.getPlatformAdmin().getStateHelper();
-		addVisiblePackagesFromState(helper, desc, visiblePackages);
+		ClasspathComputationCache cache = ClasspathComputationCache.forBundle(desc);
+		addVisiblePackagesFromState(cache, desc, visiblePackages);
 		if (desc.getHost() != null) {
-			addVisiblePackagesFromState(helper, (BundleDescription) desc.getHost().getSupplier(), visiblePackages);
+			addVisiblePackagesFromState(cache, (BundleDescription) desc.getHost().getSupplier(), visiblePackages);
 		}
 		return visiblePackages;
 	}
 
-	private void addVisiblePackagesFromState(StateHelper helper, BundleDescription desc,
+	private static void addVisiblePackagesFromState(ClasspathComputationCache cache, BundleDescription desc,
 			Map<BundleDescription, List<Rule>> visiblePackages) {
 		if (desc == null) {
 			return;
 		}
+		Map<BundleDescription, List<Rule>> packages = cache != null
+				? cache.getVisiblePackages(desc, RequiredPluginsClasspathContainer::computeVisiblePackages)
+				: computeVisiblePackages(desc);
+		packages.forEach((exporter, rules) -> {
+			List<Rule> list = visiblePackages.computeIfAbsent(exporter, e -> new ArrayList<>());
+			for (Rule rule : rules) {
+				if (!list.contains(rule)) {
+					list.add(rule);
+				}
+			}
+		});
+	}
+
+	private static Map<BundleDescription, List<Rule>> computeVisiblePackages(BundleDescription desc) {
+		Map<BundleDescription, List<Rule>> visiblePackages = new HashMap<>();
+		StateHelper helper = BundleHelper.getPlatformAdmin().getStateHelper();
 		ExportPackageDescription[] exports = helper.getVisiblePackages(desc);
 		for (ExportPackageDescription export : exports) {
 			BundleDescription exporter = export.getExporter();
@@ -340,9 +373,10 @@ public class RequiredPluginsClasspathContainer extends PDEClasspathContainer imp
 				list.add(rule);
 			}
 		}
+		return visiblePackages;
 	}
 
-	private Rule getRule(StateHelper helper, BundleDescription desc, ExportPackageDescription export) {
+	private static Rule getRule(StateHelper helper, BundleDescription desc, ExportPackageDescription export) {
 		boolean discouraged = helper.getAccessCode(desc, export) == StateHelper.ACCESS_DISCOURAGED;
 		String name = export.getName();
 		IPath path = name.equals(".") ? IPath.fromOSString("*") : IPath.fromOSString(name.replace('.', '/') + "/*"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
@@ -379,29 +413,22 @@ public class RequiredPluginsClasspathContainer extends PDEClasspathContainer imp
 			return;
 		}
 
-		BundleDescription[] fragments = hasExtensibleAPI(desc) ? desc.getFragments() : new BundleDescription[0];
+		BundleDependencies dependencies = getDependencies(desc);
 
 		// add fragment patches before host
-		for (BundleDescription fragment : fragments) {
-			if (fragment.isResolved() && ClasspathUtilCore.isPatchFragment(fragment)) {
-				addDependency(fragment, added, map, entries, useInclusion);
-			}
+		for (BundleDescription fragment : dependencies.patchFragments()) {
+			addDependency(fragment, added, map, entries, useInclusion);
 		}
 
 		addPlugin(desc, useInclusion, map, entries);
 
 		// add fragments that are not patches after the host
-		for (int i = 0; i < fragments.length; i++) {
-			if (fragments[i].isResolved() && !ClasspathUtilCore.isPatchFragment(fragments[i])) {
-				addDependency(fragments[i], added, map, entries, useInclusion);
-			}
+		for (BundleDescription fragment : dependencies.fragments()) {
+			addDependency(fragment, added, map, entries, useInclusion);
 		}
 
-		BundleSpecification[] required = desc.getRequiredBundles();
-		for (BundleSpecification element : required) {
-			if (element.isExported()) {
-				addDependency((BundleDescription) element.getSupplier(), added, map, entries, useInclusion);
-			}
+		for (BundleDescription reexported : dependencies.reexportedBundles()) {
+			addDependency(reexported, added, map, entries, useInclusion);
 		}
 
 		if (addImportedPackages) {
@@ -481,7 +508,37 @@ public class RequiredPluginsClasspathContainer extends PDEClasspathContainer imp
 		}
 	}
 
-	private boolean hasExtensibleAPI(Resource desc) {
+	private static BundleDependencies getDependencies(BundleDescription desc) {
+		ClasspathComputationCache cache = ClasspathComputationCache.forBundle(desc);
+		return cache != null ? cache.getDependencies(desc, RequiredPluginsClasspathContainer::computeDependencies)
+				: computeDependencies(desc);
+	}
+
+	private static BundleDependencies computeDependencies(BundleDescription desc) {
+		List<BundleDescription> patchFragments = new ArrayList<>();
+		List<BundleDescription> fragments = new ArrayList<>();
+		if (hasExtensibleAPI(desc)) {
+			for (BundleDescription fragment : desc.getFragments()) {
+				if (!fragment.isResolved()) {
+					continue;
+				}
+				if (ClasspathUtilCore.isPatchFragment(fragment)) {
+					patchFragments.add(fragment);
+				} else {
+					fragments.add(fragment);
+				}
+			}
+		}
+		List<BundleDescription> reexported = new ArrayList<>();
+		for (BundleSpecification element : desc.getRequiredBundles()) {
+			if (element.isExported() && element.getSupplier() instanceof BundleDescription supplier) {
+				reexported.add(supplier);
+			}
+		}
+		return new BundleDependencies(List.copyOf(patchFragments), List.copyOf(fragments), List.copyOf(reexported));
+	}
+
+	private static boolean hasExtensibleAPI(Resource desc) {
 		IPluginModelBase model = PluginRegistry.findModel(desc);
 		return model != null && ClasspathUtilCore.hasExtensibleAPI(model);
 	}
@@ -557,9 +614,10 @@ public class RequiredPluginsClasspathContainer extends PDEClasspathContainer imp
 			return;
 		}
 
-		if (junit5RuntimeClosure == null) {
-			junit5RuntimeClosure = collectJunit5RuntimeRequirements();
-		}
+		ClasspathComputationCache cache = ClasspathComputationCache.forBundle(fModel.getBundleDescription());
+		List<BundleDescription> junit5RuntimeClosure = cache != null
+				? cache.getJunit5RuntimeClosure(RequiredPluginsClasspathContainer::collectJunit5RuntimeRequirements)
+				: collectJunit5RuntimeRequirements();
 
 		String id = fModel.getPluginBase().getId();
 		if (id != null && junit5RuntimeClosure.stream().map(BundleDescription::getSymbolicName).anyMatch(id::equals)) {
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarFile;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.pde.internal.core.util.ManifestUtils;
+
+/**
+ * Persistent cache of the manifest headers of target bundles.
+ * <p>
+ * Entries are keyed by the absolute bundle location and are only used if the
+ * size and the last modification time of the bundle archive (or of the
+ * manifest file for bundles in directory form) are unchanged, so unchanged
+ * target bundles don't have to be opened again when the {@link PDEState} is
+ * created. The auxiliary data kept by the {@link PDEAuxiliaryState} is derived
+ * from the cached headers and therefore not stored separately.
+ * </p>
+ * <p>
+ * Lookups are thread safe, the cache is written back to the PDE state location
+ * through {@link #save(boolean)}.
+ * </p>
+ */
+public class TargetManifestCache {
+
+	private static final String CACHE_FILE = ".target_manifests"; //$NON-NLS-1$
+
+	/**
+	 * Version of the cache file format, increment when the format changes
+	 */
+	private static final int CACHE_VERSION = 1;
+
+	private record Entry(long size, long lastModified, Map<String, String> headers) {
+	}
+
+	private final File fCacheFile;
+	private final Map<String, Entry> fCachedEntries;
+	private final Map<String, Entry> fUsedEntries = new ConcurrentHashMap<>();
+	private final AtomicInteger fHits = new AtomicInteger();
+	private final AtomicInteger fMisses = new AtomicInteger();
+	private final AtomicInteger fResolved = new AtomicInteger();
+
+	private TargetManifestCache(File cacheFile, Map<String, Entry> entries) {
+		fCacheFile = cacheFile;
+		fCachedEntries = entries;
+	}
+
+	/**
+	 * @return the file the manifest cache is persisted to
+	 */
+	public static File getCacheFile() {
+		return new File(PDECore.getDefault().getStateLocation().toFile(), CACHE_FILE);
+	}
+
+	/**
+	 * Reads the manifest cache from the PDE state location. If the cache does
+	 * not exist or can't be read an empty cache is returned.
+	 *
+	 * @return the manifest cache, never <code>null</code>
+	 */
+	public static TargetManifestCache load() {
+		File file = getCacheFile();
+		Map<String, Entry> entries = new HashMap<>();
+		if (file.isFile()) {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+				if (in.readInt() == CACHE_VERSION) {
+					int count = in.readInt();
+					for (int i = 0; i < count; i++) {
+						String location = readString(in);
+						long size = in.readLong();
+						long lastModified = in.readLong();
+						int headerCount = in.readInt();
+						Map<String, String> headers = new HashMap<>(headerCount);
+						for (int j = 0; j < headerCount; j++) {
+							headers.put(readString(in), readString(in));
+						}
+						entries.put(location, new Entry(size, lastModified, headers));
+					}
+				}
+			} catch (IOException e) {
+				// corrupt or outdated cache, the manifests are simply read again
+				entries.clear();
+				if (PDECore.DEBUG_MODEL) {
+					System.out.println("Unable to read target manifest cache: " + e.getMessage()); //$NON-NLS-1$
+				}
+			}
+		}
+		return new TargetManifestCache(file, entries);
+	}
+
+	/**
+	 * Returns the manifest headers of the bundle at the given location, either
+	 * from the cache if the bundle is unchanged or by reading the manifest
+	 * with {@link ManifestUtils#loadManifest(File)}.
+	 * <p>
+	 * A new map is returned on every call, callers may modify it.
+	 * </p>
+	 *
+	 * @param bundleLocation root location of the bundle, may be a archive file
+	 *            or directory
+	 * @return map of bundle manifest headers
+	 * @throws CoreException if the manifest can't be read, see
+	 *             {@link ManifestUtils#loadManifest(File)}
+	 */
+	public Map<String, String> loadManifest(File bundleLocation) throws CoreException {
+		return loadManifest(bundleLocation, null);
+	}
+
+	/**
+	 * Returns the manifest headers of the bundle at the given location, either
+	 * from the cache if the bundle is unchanged, from the given headers that
+	 * were read while the target was resolved or by reading the manifest with
+	 * {@link ManifestUtils#loadManifest(File)}.
+	 * <p>
+	 * A new map is returned on every call, callers may modify it.
+	 * </p>
+	 *
+	 * @param bundleLocation root location of the bundle, may be a archive file
+	 *            or directory
+	 * @param resolvedHeaders the headers of the unchanged bundle read during
+	 *            the target resolution or <code>null</code> if not available,
+	 *            the map is owned by the cache afterwards
+	 * @return map of bundle manifest headers
+	 * @throws CoreException if the manifest can't be read, see
+	 *             {@link ManifestUtils#loadManifest(File)}
+	 */
+	public Map<String, String> loadManifest(File bundleLocation, Map<String, String> resolvedHeaders)
+			throws CoreException {
+		File stampFile = bundleLocation.isDirectory() ? new File(bundleLocation, JarFile.MANIFEST_NAME)
+				: bundleLocation;
+		long lastModified = stampFile.lastModified();
+		if (lastModified == 0) {
+			return resolvedHeaders != null ? resolvedHeaders : ManifestUtils.loadManifest(bundleLocation);
+		}
+		String location = bundleLocation.getAbsolutePath();
+		long size = stampFile.length();
+		Entry entry = fCachedEntries.get(location);
+		if ((entry == null || entry.size() != size || entry.lastModified() != lastModified)
+				&& resolvedHeaders != null) {
+			fResolved.incrementAndGet();
+			fUsedEntries.put(location, new Entry(size, lastModified, new HashMap<>(resolvedHeaders)));
+			return resolvedHeaders;
+		}
+		if (entry == null || entry.size() != size || entry.lastModified() != lastModified) {
+			fMisses.incrementAndGet();
+			Map<String, String> manifest = ManifestUtils.loadManifest(bundleLocation);
+			entry = new Entry(size, lastModified, new HashMap<>(manifest));
+			fUsedEntries.put(location, entry);
+			return manifest;
+		}
+		fHits.incrementAndGet();
+		fUsedEntries.put(location, entry);
+		Map<String, String> manifest = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		manifest.putAll(entry.headers());
+		return manifest;
+	}
+
+	/**
+	 * Writes the cache back to the PDE state location. Does nothing if all
+	 * manifests were read from the cache and no entry is dropped.
+	 *
+	 * @param pruneUnused whether only the entries used since this cache was
+	 *            loaded are kept, <code>false</code> to also keep all
+	 *            previously cached entries
+	 */
+	public void save(boolean pruneUnused) {
+		Map<String, Entry> entries = fUsedEntries;
+		if (!pruneUnused) {
+			entries = new HashMap<>(fCachedEntries);
+			entries.putAll(fUsedEntries);
+		}
+		if (fMisses.get() == 0 && fResolved.get() == 0 && entries.size() == fCachedEntries.size()) {
+			return;
+		}
+		File tmpFile = new File(fCacheFile.getParentFile(), CACHE_FILE + ".tmp"); //$NON-NLS-1$
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath())))) {
+				out.writeInt(CACHE_VERSION);
+				out.writeInt(entries.size());
+				for (Map.Entry<String, Entry> e : entries.entrySet()) {
+					Entry entry = e.getValue();
+					writeString(out, e.getKey());
+					out.writeLong(entry.size());
+					out.writeLong(entry.lastModified());
+					out.writeInt(entry.headers().size());
+					for (Map.Entry<String, String> header : entry.headers().entrySet()) {
+						writeString(out, header.getKey());
+						writeString(out, header.getValue());
+					}
+				}
+			}
+			Files.move(tmpFile.toPath(), fCacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			PDECore.log(e);
+			tmpFile.delete();
+		}
+	}
+
+	/**
+	 * @return number of manifests that were read while the target was resolved
+	 *         and therefore not read again
+	 */
+	public int getResolved() {
+		return fResolved.get();
+	}
+
+	/**
+	 * @return number of manifests that were served from the cache
+	 */
+	public int getHits() {
+		return fHits.get();
+	}
+
+	/**
+	 * @return number of manifests that had to be read from the bundle
+	 */
+	public int getMisses() {
+		return fMisses.get();
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	// DataOutput.writeUTF() is limited to 64k which large headers can exceed
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2007, 2008 IBM Corporation and others.
+ *  Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,8 @@ package org.eclipse.pde.internal.core;
 
 import java.io.File;
 
+import org.eclipse.pde.core.plugin.IPluginModelBase;
+
 public class TargetPDERegistryStrategy extends PDERegistryStrategy {
 
 	public TargetPDERegistryStrategy(File[] storageDirs, boolean[] cacheReadOnly, Object key, PDEExtensionRegistry registry) {
@@ -26,4 +28,10 @@ public class TargetPDERegistryStrategy extends PDERegistryStrategy {
 		// don't attach listeners to ModelManager since we don't need to listen for changes
 	}
 
+	@Override
+	protected void retainCachedContributions(IPluginModelBase[] models) {
+		// the models are only a part of a target, the cached descriptors of
+		// the workspace target must be kept
+	}
+
 }
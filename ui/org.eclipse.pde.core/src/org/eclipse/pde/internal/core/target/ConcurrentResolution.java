@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.core.target;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+/**
+ * Runs the independent parts of a target resolution on a bounded pool shared by
+ * all resolutions. A {@link SubMonitor} may only be used by one thread, so
+ * every task reports to its own monitor and the calling thread forwards the
+ * progress of all tasks and the cancellation of its monitor while it waits for
+ * them. A resolution started by a task of another resolution, for example of a
+ * referenced target, runs its tasks in the calling thread, as it could
+ * otherwise wait for tasks queued behind itself.
+ */
+final class ConcurrentResolution implements AutoCloseable {
+
+	/**
+	 * Number of threads used to resolve the locations of a target
+	 */
+	private static final int RESOLVER_THREADS = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+
+	/**
+	 * Interval in which the calling thread forwards the progress of the tasks
+	 */
+	private static final long POLL_INTERVAL = 100;
+
+	private static final String THREAD_NAME = "PDE Target Location Resolver"; //$NON-NLS-1$
+
+	/**
+	 * The pool shared by all resolutions, idle threads are released
+	 */
+	private static final ThreadPoolExecutor EXECUTOR;
+	static {
+		EXECUTOR = new ThreadPoolExecutor(RESOLVER_THREADS, RESOLVER_THREADS, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), r -> {
+					Thread thread = new Thread(r, THREAD_NAME);
+					thread.setDaemon(true);
+					return thread;
+				});
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Marks the threads of the pool
+	 */
+	private static final ThreadLocal<Boolean> RESOLVER_THREAD = new ThreadLocal<>();
+
+	/**
+	 * A part of the resolution
+	 */
+	@FunctionalInterface
+	interface ResolutionTask<T> {
+		T run(IProgressMonitor monitor) throws CoreException;
+	}
+
+	/**
+	 * The handle of a submitted task
+	 */
+	final class Task<T> {
+
+		private final Future<T> fFuture;
+		private final TaskMonitor fTaskMonitor;
+		private final int fTicks;
+		private int fReported;
+
+		private Task(ResolutionTask<T> task, int ticks) {
+			fTaskMonitor = new TaskMonitor();
+			fTicks = ticks;
+			Callable<T> callable = () -> {
+				if (fCanceled) {
+					throw new OperationCanceledException();
+				}
+				return task.run(fTaskMonitor);
+			};
+			if (RESOLVER_THREAD.get() != null) {
+				FutureTask<T> future = new FutureTask<>(callable);
+				future.run();
+				fFuture = future;
+			} else {
+				fFuture = EXECUTOR.submit(() -> {
+					RESOLVER_THREAD.set(Boolean.TRUE);
+					try {
+						return callable.call();
+					} finally {
+						RESOLVER_THREAD.remove();
+					}
+				});
+			}
+		}
+
+		/**
+		 * Returns the result of the task, must only be called after
+		 * {@link ConcurrentResolution#join()}
+		 *
+		 * @return the result of the task
+		 * @throws CoreException if the task failed
+		 */
+		T get() throws CoreException {
+			try {
+				return fFuture.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof CoreException coreException) {
+					throw coreException;
+				}
+				if (cause instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				if (cause instanceof Error error) {
+					throw error;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+
+		private void reportProgress() {
+			int done = fFuture.isDone() ? fTicks : fTaskMonitor.getWorked(fTicks);
+			if (done > fReported) {
+				fMonitor.worked(done - fReported);
+				fReported = done;
+			}
+		}
+	}
+
+	/**
+	 * Collects the progress of a task and reports the cancellation of the
+	 * resolution
+	 */
+	private final class TaskMonitor extends NullProgressMonitor {
+
+		private double fTotalWork;
+		private double fWorked;
+
+		@Override
+		public synchronized void beginTask(String name, int totalWork) {
+			fTotalWork = totalWork;
+		}
+
+		@Override
+		public void worked(int work) {
+			internalWorked(work);
+		}
+
+		@Override
+		public synchronized void internalWorked(double work) {
+			fWorked += work;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return fCanceled || super.isCanceled();
+		}
+
+		synchronized int getWorked(int ticks) {
+			if (fTotalWork <= 0) {
+				return 0;
+			}
+			return (int) Math.min(ticks, ticks * fWorked / fTotalWork);
+		}
+	}
+
+	private final SubMonitor fMonitor;
+	private final List<Task<?>> fTasks = new ArrayList<>();
+	private volatile boolean fCanceled;
+
+	/**
+	 * @param monitor the monitor of the calling thread, the work of all tasks
+	 *            is reported to it
+	 */
+	ConcurrentResolution(SubMonitor monitor) {
+		fMonitor = monitor;
+	}
+
+	/**
+	 * Submits a task
+	 *
+	 * @param task the task to run
+	 * @param ticks the work of the task in the monitor of the calling thread
+	 * @return the handle of the task
+	 */
+	<T> Task<T> submit(ResolutionTask<T> task, int ticks) {
+		Task<T> handle = new Task<>(task, ticks);
+		fTasks.add(handle);
+		return handle;
+	}
+
+	/**
+	 * Waits until all submitted tasks are done while forwarding their progress.
+	 * If the monitor of the calling thread is canceled, the running tasks are
+	 * canceled too and this method returns once they have stopped.
+	 *
+	 * @throws OperationCanceledException if the resolution was canceled
+	 */
+	void join() throws OperationCanceledException {
+		for (Task<?> task : fTasks) {
+			while (!task.fFuture.isDone()) {
+				if (fMonitor.isCanceled()) {
+					cancel();
+				}
+				try {
+					task.fFuture.get(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+				} catch (TimeoutException | ExecutionException e) {
+					// reported by Task.get()
+				} catch (InterruptedException e) {
+					cancel();
+				}
+				fTasks.forEach(Task::reportProgress);
+			}
+		}
+		fTasks.forEach(Task::reportProgress);
+		fMonitor.checkCanceled();
+	}
+
+	private void cancel() {
+		awaitCanceled();
+		throw new OperationCanceledException();
+	}
+
+	/**
+	 * Cancels the tasks and waits until they have stopped
+	 */
+	private void awaitCanceled() {
+		// running tasks see the canceled monitor, pending tasks do not start
+		fCanceled = true;
+		for (Task<?> task : fTasks) {
+			try {
+				task.fFuture.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (ExecutionException e) {
+				// the resolution is canceled anyways
+			}
+		}
+	}
+
+	/**
+	 * Makes sure no task of this resolution is left running in the shared
+	 * pool, tasks that were not joined are canceled
+	 */
+	@Override
+	public void close() {
+		if (fTasks.stream().anyMatch(task -> !task.fFuture.isDone())) {
+			awaitCanceled();
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.core.target;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarFile;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.equinox.frameworkadmin.BundleInfo;
+import org.eclipse.pde.internal.core.util.ManifestUtils;
+
+/**
+ * The {@link BundleInfo} of a local target bundle that keeps the manifest
+ * headers read while the target was resolved, so the bundle does not have to
+ * be opened again when the target models are created. The headers are only
+ * softly referenced and only handed out as long as the bundle is unchanged.
+ */
+public class ManifestBundleInfo extends BundleInfo {
+
+	private final File fFile;
+	private final long fLastModified;
+	private final long fLength;
+	private SoftReference<Map<String, String>> fHeaders;
+	private String fManifestString;
+
+	/**
+	 * @param file the bundle archive or directory
+	 * @param headers the manifest headers read from the bundle
+	 */
+	public ManifestBundleInfo(File file, Map<String, String> headers) {
+		super(file.toURI());
+		fFile = file;
+		File stampFile = getStampFile(file);
+		fLastModified = stampFile.lastModified();
+		fLength = stampFile.length();
+		fHeaders = new SoftReference<>(headers);
+	}
+
+	/**
+	 * Returns a copy of the manifest headers read while the target was
+	 * resolved.
+	 *
+	 * @return the manifest headers or <code>null</code> if they are no longer
+	 *         available or the bundle has changed since they were read
+	 */
+	public Map<String, String> getManifestHeaders() {
+		Map<String, String> headers = fHeaders.get();
+		if (headers == null) {
+			return null;
+		}
+		File stampFile = getStampFile(fFile);
+		if (stampFile.lastModified() != fLastModified || stampFile.length() != fLength) {
+			return null;
+		}
+		Map<String, String> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		copy.putAll(headers);
+		return copy;
+	}
+
+	@Override
+	public synchronized String getManifest() {
+		if (fManifestString == null) {
+			try {
+				Map<String, String> headers = fHeaders.get();
+				if (headers == null) {
+					headers = ManifestUtils.loadManifest(fFile);
+					fHeaders = new SoftReference<>(headers);
+				}
+				StringWriter writer = new StringWriter();
+				ManifestUtils.writeManifest(headers, writer);
+				fManifestString = writer.toString();
+			} catch (IOException | CoreException e) {
+			}
+		}
+		return fManifestString;
+	}
+
+	private static File getStampFile(File file) {
+		return file.isDirectory() ? new File(file, JarFile.MANIFEST_NAME) : file;
+	}
+
+}
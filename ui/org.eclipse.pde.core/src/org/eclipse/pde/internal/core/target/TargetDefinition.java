@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2018 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -27,11 +27,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -118,7 +120,7 @@ public class TargetDefinition implements ITargetDefinition {
 	public static final int MODE_FEATURE = 1;
 
 	// cache of features found for a given location, maps a string path location to a array of IFeatureModels (IFeatureModel[])
-	private static Map<String, TargetFeature[]> fFeaturesInLocation = new HashMap<>();
+	private static Map<String, TargetFeature[]> fFeaturesInLocation = new ConcurrentHashMap<>();
 
 	// internal cache for features.  A target managed by features will contain a set of features as well as a set of plug-ins that don't belong to a feature
 	private TargetFeature[] fFeatures;
@@ -370,49 +372,68 @@ public class TargetDefinition implements ITargetDefinition {
 			return fResolutionStatus = Status.OK_STATUS;
 		}
 		fResolutionStatus = null;
-		SubMonitor subMonitor = SubMonitor.convert(monitor, Messages.TargetDefinition_1, targetLocations.length * 100);
-		try {
+		// p2 locations are resolved in a separate batch per synchronizer
+		List<ITargetLocation> locations = new ArrayList<>();
+		Map<P2TargetUtils, List<ITargetLocation>> synchronizers = new LinkedHashMap<>();
+		for (ITargetLocation location : targetLocations) {
+			P2TargetUtils synchronizer = location.getAdapter(P2TargetUtils.class);
+			if (synchronizer == null) {
+				locations.add(location);
+			} else {
+				synchronizers.computeIfAbsent(synchronizer, nil -> new ArrayList<>()).add(location);
+			}
+		}
+		List<ITargetLocation> delayedLocations = synchronizers.values().stream().flatMap(Collection::stream).toList();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, Messages.TargetDefinition_1,
+				(locations.size() + synchronizers.size()) * 100 + delayedLocations.size());
+		try (ConcurrentResolution resolution = new ConcurrentResolution(subMonitor)) {
 			MultiStatus status = new MultiStatus(PDECore.PLUGIN_ID, 0, Messages.TargetDefinition_2, null);
-			Map<P2TargetUtils, List<ITargetLocation>> synchronizers = new HashMap<>();
 			// clear all previous maps
 			P2TargetUtils.fgTargetArtifactRepo.clear();
 			P2TargetUtils.fgArtifactKeyRepoFile.clear();
-			for (ITargetLocation location : targetLocations) {
-				subMonitor.checkCanceled();
-				subMonitor.subTask(Messages.TargetDefinition_4);
-				P2TargetUtils synchronizer = location.getAdapter(P2TargetUtils.class);
-				if (synchronizer == null) {
-					// a usual target definition location
-					IStatus s = location.resolve(this, subMonitor.split(100));
+			subMonitor.checkCanceled();
+			subMonitor.subTask(Messages.TargetDefinition_4);
+			// the usual target definition locations and the synchronizers are
+			// independent of each other, the statuses are still collected in
+			// the order of the locations
+			List<ConcurrentResolution.Task<IStatus>> locationTasks = new ArrayList<>(locations.size());
+			for (ITargetLocation location : locations) {
+				locationTasks.add(resolution.submit(m -> location.resolve(this, m), 100));
+			}
+			List<ConcurrentResolution.Task<Void>> synchronizerTasks = new ArrayList<>(synchronizers.size());
+			for (P2TargetUtils synchronizer : synchronizers.keySet()) {
+				synchronizerTasks.add(resolution.submit(m -> {
+					synchronizer.synchronize(this, m);
+					return null;
+				}, 100));
+			}
+			resolution.join();
+			for (ConcurrentResolution.Task<IStatus> task : locationTasks) {
+				try {
+					IStatus s = task.get();
 					if (!s.isOK()) {
 						status.add(s);
 					}
-				} else {
-					// has to be performed later on in a separate batch
-					synchronizers.computeIfAbsent(synchronizer, nil -> new ArrayList<>()).add(location);
+				} catch (CoreException e) {
+					status.add(e.getStatus());
 				}
 			}
-			if (!synchronizers.isEmpty()) {
-				List<ITargetLocation> delayedLocations = synchronizers.values().stream().flatMap(Collection::stream)
-						.toList();
-				subMonitor.setWorkRemaining(synchronizers.size() * 100 + delayedLocations.size());
-				for (Entry<P2TargetUtils, List<ITargetLocation>> entry : synchronizers.entrySet()) {
-					subMonitor.checkCanceled();
-					try {
-						entry.getKey().synchronize(this, subMonitor.split(100));
-						entry.getValue().stream().map(loc -> loc.getStatus()).filter(Objects::nonNull)
-								.filter(s -> !s.isOK()).forEach(status::add);
-					} catch (CoreException e) {
-						PDECore.log(e.getStatus());
-						status.add(e.getStatus());
-					}
+			int i = 0;
+			for (List<ITargetLocation> synchronizedLocations : synchronizers.values()) {
+				try {
+					synchronizerTasks.get(i++).get();
+					synchronizedLocations.stream().map(loc -> loc.getStatus()).filter(Objects::nonNull)
+							.filter(s -> !s.isOK()).forEach(status::add);
+				} catch (CoreException e) {
+					PDECore.log(e.getStatus());
+					status.add(e.getStatus());
 				}
-				for (ITargetLocation location : delayedLocations) {
-					subMonitor.checkCanceled();
-					IStatus s = location.resolve(this, subMonitor.split(1));
-					if (!s.isOK()) {
-						status.add(s);
-					}
+			}
+			for (ITargetLocation location : delayedLocations) {
+				subMonitor.checkCanceled();
+				IStatus s = location.resolve(this, subMonitor.split(1));
+				if (!s.isOK()) {
+					status.add(s);
 				}
 			}
 			if (status.isOK()) {
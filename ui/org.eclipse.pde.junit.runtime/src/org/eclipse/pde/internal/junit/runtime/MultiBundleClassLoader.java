@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2018, 2023 IBM Corporation and others.
+ *  Copyright (c) 2018, 2024 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -16,15 +16,69 @@ package org.eclipse.pde.internal.junit.runtime;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import org.eclipse.core.runtime.FileLocator;
 import org.osgi.framework.Bundle;
+import org.osgi.framework.namespace.BundleNamespace;
+import org.osgi.framework.namespace.PackageNamespace;
+import org.osgi.framework.wiring.BundleCapability;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
 
-class MultiBundleClassLoader extends ClassLoader {
+/**
+ * Loads classes and resources from a list of bundles. Lookups are dispatched
+ * to the bundles that contain or export the package of a class (or the
+ * directory of a resource) first, the remaining bundles are only asked if
+ * none of them knows the class, e.g. if it is only visible to a bundle
+ * through its imports. All resources of a directory are only collected from
+ * the bundles that contain it if no bundle gets the directory through its
+ * imports or required bundles, otherwise all bundles are asked. Classes that
+ * can't be found in any bundle are remembered, so repeated lookups of missing
+ * classes (as done by the JUnit Platform during engine discovery) don't ask
+ * all bundles again. The index and the missing classes are discarded when
+ * the wiring of any of the bundles changes.
+ */
+public class MultiBundleClassLoader extends ClassLoader {
 	private final List<Bundle> bundleList;
+	private volatile PackageIndex packageIndex;
+
+	/**
+	 * The owners of the directories of the bundles as of the wirings the
+	 * index was created from
+	 */
+	private static final class PackageIndex {
+		final List<BundleWiring> wirings;
+		/**
+		 * The bundles that contain or export a directory
+		 */
+		final Map<String, List<Bundle>> owners;
+		/**
+		 * The directories that a bundle gets through its imports or required
+		 * bundles, they may also be provided by bundles that don't contain
+		 * them
+		 */
+		final Set<String> wired;
+		/**
+		 * The classes no bundle could load
+		 */
+		final Set<String> missingClasses = ConcurrentHashMap.newKeySet();
+
+		PackageIndex(List<BundleWiring> wirings, Map<String, List<Bundle>> owners, Set<String> wired) {
+			this.wirings = wirings;
+			this.owners = owners;
+			this.wired = wired;
+		}
+	}
 
 	public MultiBundleClassLoader(List<Bundle> platformEngineBundles) {
 		super(null); // never delegate to system classloader, only load classes via given Bundles
@@ -33,37 +87,74 @@ class MultiBundleClassLoader extends ClassLoader {
 
 	@Override
 	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		PackageIndex index = getPackageIndex();
+		if (index.missingClasses.contains(name)) {
+			throw new ClassNotFoundException(name);
+		}
+		List<Bundle> owners = getOwners(index, name.replace('.', '/'));
+		for (Bundle temp : owners) {
+			Class<?> c = loadClass(temp, name);
+			if (c != null) {
+				return c;
+			}
+		}
 		for (Bundle temp : bundleList) {
-			try {
-				Class<?> c = temp.loadClass(name);
+			if (!owners.contains(temp)) {
+				Class<?> c = loadClass(temp, name);
 				if (c != null) {
 					return c;
 				}
-			} catch (ClassNotFoundException e) {
 			}
 		}
+		index.missingClasses.add(name);
 		throw new ClassNotFoundException(name);
 	}
 
+	private static Class<?> loadClass(Bundle bundle, String name) {
+		try {
+			return bundle.loadClass(name);
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+	}
+
 	@Override
 	protected URL findResource(String name) {
-		for (Bundle temp : bundleList) {
+		List<Bundle> owners = getOwners(getPackageIndex(), name);
+		for (Bundle temp : owners) {
 			URL url = temp.getResource(name);
 			if (url != null) {
-				try {
-					return FileLocator.resolve(url);
-				} catch (IOException e) {
-					return null;
+				return resolve(url);
+			}
+		}
+		for (Bundle temp : bundleList) {
+			if (!owners.contains(temp)) {
+				URL url = temp.getResource(name);
+				if (url != null) {
+					return resolve(url);
 				}
 			}
 		}
 		return null;
 	}
 
+	private static URL resolve(URL url) {
+		try {
+			return FileLocator.resolve(url);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
 	@Override
 	protected Enumeration<URL> findResources(String name) throws IOException {
+		PackageIndex index = getPackageIndex();
+		List<Bundle> owners = getOwners(index, name);
+		// split packages and imported directories may be provided by bundles
+		// that don't contain them
+		boolean complete = !owners.isEmpty() && !index.wired.contains(getDirectory(name));
 		List<URL> merged = new ArrayList<>();
-		for (Bundle bundle : bundleList) {
+		for (Bundle bundle : complete ? owners : bundleList) {
 			Enumeration<URL> resources = bundle.getResources(name);
 			while (resources != null && resources.hasMoreElements()) {
 				merged.add(FileLocator.resolve(resources.nextElement()));
@@ -71,4 +162,89 @@ class MultiBundleClassLoader extends ClassLoader {
 		}
 		return Collections.enumeration(merged);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * @param path the path of a class or resource
+	 * @return the bundles that contain or export the directory of the given
+	 *         path, in the order of the bundle list
+	 */
+	private static List<Bundle> getOwners(PackageIndex index, String path) {
+		List<Bundle> owners = index.owners.get(getDirectory(path));
+		return owners == null ? Collections.emptyList() : owners;
+	}
+
+	private static String getDirectory(String path) {
+		int index = path.lastIndexOf('/');
+		return index < 0 ? "" : path.substring(0, index); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return the index for the current wirings of the bundles
+	 */
+	private PackageIndex getPackageIndex() {
+		PackageIndex index = packageIndex;
+		if (index == null || !isCurrent(index)) {
+			synchronized (this) {
+				index = packageIndex;
+				if (index == null || !isCurrent(index)) {
+					packageIndex = index = createPackageIndex(bundleList);
+				}
+			}
+		}
+		return index;
+	}
+
+	private boolean isCurrent(PackageIndex index) {
+		for (int i = 0; i < bundleList.size(); i++) {
+			if (bundleList.get(i).adapt(BundleWiring.class) != index.wirings.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static PackageIndex createPackageIndex(List<Bundle> bundles) {
+		List<BundleWiring> wirings = new ArrayList<>(bundles.size());
+		Map<String, List<Bundle>> owners = new HashMap<>();
+		Set<String> wired = new HashSet<>();
+		for (Bundle bundle : bundles) {
+			BundleWiring wiring = bundle.adapt(BundleWiring.class);
+			wirings.add(wiring);
+			if (wiring == null) {
+				continue;
+			}
+			// the local content includes the Bundle-ClassPath and attached fragments
+			Collection<String> resources = wiring.listResources("/", "*", //$NON-NLS-1$ //$NON-NLS-2$
+					BundleWiring.LISTRESOURCES_LOCAL | BundleWiring.LISTRESOURCES_RECURSE);
+			for (String resource : resources) {
+				addOwner(owners, getDirectory(resource), bundle);
+			}
+			for (BundleCapability capability : wiring.getCapabilities(PackageNamespace.PACKAGE_NAMESPACE)) {
+				addPackage(capability, name -> addOwner(owners, name, bundle));
+			}
+			for (BundleWire wire : wiring.getRequiredWires(PackageNamespace.PACKAGE_NAMESPACE)) {
+				addPackage(wire.getCapability(), wired::add);
+			}
+			for (BundleWire wire : wiring.getRequiredWires(BundleNamespace.BUNDLE_NAMESPACE)) {
+				for (BundleCapability capability : wire.getProviderWiring().getCapabilities(PackageNamespace.PACKAGE_NAMESPACE)) {
+					addPackage(capability, wired::add);
+				}
+			}
+		}
+		return new PackageIndex(wirings, owners, wired);
+	}
+
+	private static void addPackage(BundleCapability capability, Consumer<String> consumer) {
+		Object packageName = capability.getAttributes().get(PackageNamespace.PACKAGE_NAMESPACE);
+		if (packageName instanceof String) {
+			consumer.accept(((String) packageName).replace('.', '/'));
+		}
+	}
+
+	private static void addOwner(Map<String, List<Bundle>> index, String directory, Bundle bundle) {
+		List<Bundle> owners = index.computeIfAbsent(directory, d -> new ArrayList<>(1));
+		if (!owners.contains(bundle)) {
+			owners.add(bundle);
+		}
+	}
+}
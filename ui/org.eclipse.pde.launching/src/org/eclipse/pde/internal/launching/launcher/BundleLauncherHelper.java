@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2022 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -40,6 +40,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -108,13 +110,73 @@ public class BundleLauncherHelper {
 		return getMergedBundleMap(configuration, osgi, null);
 	}
 
-	public static Map<IPluginModelBase, String> getMergedBundleMap(ILaunchConfiguration configuration, boolean osgi, Map<IFeature, Boolean> features) throws CoreException {
+	/**
+	 * The last merged bundle map computed for a launch configuration
+	 */
+	private record MergedBundleMap(long generation, Map<String, Object> attributes, Map<IPluginModelBase, String> bundles, Map<IFeature, Boolean> features) {
+	}
 
+	/**
+	 * The merged bundle maps by launch configuration, cleared whenever a
+	 * plug-in or feature model changes
+	 */
+	private static final Map<String, MergedBundleMap> MERGED_BUNDLE_MAPS = new ConcurrentHashMap<>();
+
+	/**
+	 * Incremented on every plug-in or feature model change, a map computed
+	 * from models of an older generation is never used
+	 */
+	private static final AtomicLong MODEL_GENERATION = new AtomicLong();
+	private static boolean fModelListenersAdded;
+
+	public static Map<IPluginModelBase, String> getMergedBundleMap(ILaunchConfiguration configuration, boolean osgi, Map<IFeature, Boolean> features) throws CoreException {
 		ILaunchConfigurationWorkingCopy wc = getWorkingCopy(configuration);
 		if (!osgi) {
-
 			migrateLaunchConfiguration(wc);
+		} else {
+			migrateOsgiLaunchConfiguration(wc);
+		}
+		addModelListeners();
+		// the result only depends on the (migrated) attributes of the
+		// configuration and the models, so it is reused by repeated launches
+		// and by the different phases of one launch
+		String key = configuration.getName() + '/' + osgi + '/' + (features != null);
+		Map<String, Object> attributes = new HashMap<>(wc.getAttributes());
+		long generation = MODEL_GENERATION.get();
+		MergedBundleMap cached = MERGED_BUNDLE_MAPS.get(key);
+		if (cached == null || cached.generation() != generation || !cached.attributes().equals(attributes)) {
+			Map<IFeature, Boolean> computedFeatures = features != null ? new LinkedHashMap<>() : null;
+			Map<IPluginModelBase, String> bundles = computeMergedBundleMap(configuration, wc, osgi, computedFeatures);
+			cached = new MergedBundleMap(generation, attributes, bundles, computedFeatures);
+			// a map computed while the models changed may be stale, it is
+			// still returned to this caller but is not reused
+			if (MODEL_GENERATION.get() == generation) {
+				MERGED_BUNDLE_MAPS.put(key, cached);
+			}
+		}
+		if (features != null) {
+			features.putAll(cached.features());
+		}
+		return new LinkedHashMap<>(cached.bundles());
+	}
+
+	private static synchronized void addModelListeners() {
+		if (!fModelListenersAdded) {
+			PDECore.getDefault().getModelManager().addPluginModelListener(delta -> clearMergedBundleMaps());
+			PDECore.getDefault().getFeatureModelManager().addFeatureModelListener(delta -> clearMergedBundleMaps());
+			fModelListenersAdded = true;
+		}
+	}
+
+	private static void clearMergedBundleMaps() {
+		// increment first, a computation finishing in between must not put
+		// its result after the maps were cleared
+		MODEL_GENERATION.incrementAndGet();
+		MERGED_BUNDLE_MAPS.clear();
+	}
 
+	private static Map<IPluginModelBase, String> computeMergedBundleMap(ILaunchConfiguration configuration, ILaunchConfigurationWorkingCopy wc, boolean osgi, Map<IFeature, Boolean> features) throws CoreException {
+		if (!osgi) {
 			if (wc.getAttribute(IPDELauncherConstants.USE_DEFAULT, true)) {
 				Map<IPluginModelBase, String> map = new LinkedHashMap<>();
 				for (IPluginModelBase model : PluginRegistry.getActiveModels()) {
@@ -132,9 +194,6 @@ public class BundleLauncherHelper {
 				}
 				return map;
 			}
-
-		} else {
-			migrateOsgiLaunchConfiguration(wc);
 		}
 
 		if (wc.getAttribute(IPDELauncherConstants.USE_CUSTOM_FEATURES, false)) {
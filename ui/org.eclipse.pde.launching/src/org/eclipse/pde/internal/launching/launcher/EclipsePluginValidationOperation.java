@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2022 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,7 +26,6 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.IStatusHandler;
-import org.eclipse.osgi.service.resolver.BundleDescription;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.pde.core.plugin.IPluginModelBase;
 import org.eclipse.pde.internal.launching.IPDEConstants;
@@ -59,8 +58,7 @@ public class EclipsePluginValidationOperation extends LaunchValidationOperation
 		try {
 			List<String> required = RequirementHelper.getApplicationLaunchRequirements(fLaunchConfiguration);
 			for (String element : required) {
-				BundleDescription bundle = getState().getBundle(element, null);
-				if (bundle == null) {
+				if (!containsBundle(element)) {
 					String message = NLS.bind(PDEMessages.EclipsePluginValidationOperation_pluginMissing, element);
 					Status status = new Status(IStatus.ERROR, IPDEConstants.PLUGIN_ID, CREATE_EXTENSION_ERROR_CODE, message, null);
 					IStatusHandler statusHandler = DebugPlugin.getDefault().getStatusHandler(status);
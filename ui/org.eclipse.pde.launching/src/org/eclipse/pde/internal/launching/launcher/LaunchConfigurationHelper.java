@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2021 IBM Corporation and others.
+ * Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,15 +17,23 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.StringJoiner;
 import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -46,6 +54,7 @@ import org.eclipse.pde.internal.core.PDECore;
 import org.eclipse.pde.internal.core.TargetPlatformHelper;
 import org.eclipse.pde.internal.core.ifeature.IFeature;
 import org.eclipse.pde.internal.launching.IPDEConstants;
+import org.eclipse.pde.internal.launching.PDELaunchingPlugin;
 import org.eclipse.pde.launching.IPDELauncherConstants;
 
 /**
@@ -67,6 +76,16 @@ public class LaunchConfigurationHelper {
 	 */
 	private static final String DEFAULT_P2_DIRECTORY = ".p2"; //$NON-NLS-1$
 
+	private static final String CONFIG_INI = "config.ini"; //$NON-NLS-1$
+
+	private static final String PROP_SIMPLE_CONFIGURATOR_URL = "org.eclipse.equinox.simpleconfigurator.configUrl"; //$NON-NLS-1$
+
+	/**
+	 * File in the configuration area that stores the fingerprint of the inputs
+	 * the config.ini and bundles.info were generated from
+	 */
+	private static final String FINGERPRINT_FILE = ".pde.fingerprint"; //$NON-NLS-1$
+
 	public static void synchronizeManifests(ILaunchConfiguration config, File configDir) {
 		try {
 			String programArgs = config.getAttribute(IJavaLaunchConfigurationConstants.ATTR_PROGRAM_ARGUMENTS, ""); //$NON-NLS-1$
@@ -142,6 +161,110 @@ public class LaunchConfigurationHelper {
 	 * @return a properties object containing the properties written out to config.ini
 	 */
 	public static Properties createConfigIniFile(ILaunchConfiguration configuration, String productID, Map<String, List<IPluginModelBase>> bundles, Map<IFeature, Boolean> features, Map<IPluginModelBase, String> bundlesWithStartLevels, File configurationDirectory) throws CoreException {
+		// a generated profile is rewritten on every launch, otherwise the
+		// configuration is only regenerated if any of its inputs have changed
+		String fingerprint = null;
+		if (!configuration.getAttribute(IPDELauncherConstants.GENERATE_PROFILE, false)) {
+			fingerprint = computeFingerprint(configuration, productID, bundles, features, bundlesWithStartLevels, configurationDirectory);
+			Properties properties = loadUnchangedConfigIni(configurationDirectory, fingerprint);
+			if (properties != null) {
+				if (PDELaunchingPlugin.DEBUG_LAUNCH) {
+					System.out.println("Launch of " + configuration.getName() + ": configuration area is up to date"); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				return properties;
+			}
+		}
+		Properties properties = generateConfigIniFile(configuration, productID, bundles, features, bundlesWithStartLevels, configurationDirectory);
+		File fingerprintFile = new File(configurationDirectory, FINGERPRINT_FILE);
+		try {
+			if (fingerprint != null) {
+				Files.writeString(fingerprintFile.toPath(), fingerprint, StandardCharsets.UTF_8);
+			} else {
+				Files.deleteIfExists(fingerprintFile.toPath());
+			}
+		} catch (IOException e) {
+			PDECore.logException(e);
+		}
+		if (PDELaunchingPlugin.DEBUG_LAUNCH) {
+			System.out.println("Launch of " + configuration.getName() + ": configuration area regenerated"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return properties;
+	}
+
+	/**
+	 * Returns the properties of the config.ini in the given configuration area
+	 * if it was generated from inputs with the given fingerprint and neither it
+	 * nor the bundles.info it refers to have been modified since.
+	 *
+	 * @return the properties or <code>null</code> if the configuration area
+	 *         must be regenerated
+	 */
+	private static Properties loadUnchangedConfigIni(File configurationDirectory, String fingerprint) {
+		File fingerprintFile = new File(configurationDirectory, FINGERPRINT_FILE);
+		File configIni = new File(configurationDirectory, CONFIG_INI);
+		if (!fingerprintFile.isFile() || !configIni.isFile() || configIni.lastModified() > fingerprintFile.lastModified()) {
+			return null;
+		}
+		try {
+			if (!fingerprint.equals(Files.readString(fingerprintFile.toPath(), StandardCharsets.UTF_8))) {
+				return null;
+			}
+			Properties properties = new Properties();
+			try (FileInputStream stream = new FileInputStream(configIni)) {
+				properties.load(stream);
+			}
+			String bundlesInfo = properties.getProperty(PROP_SIMPLE_CONFIGURATOR_URL);
+			if (bundlesInfo != null) {
+				File bundlesInfoFile = new File(new URL(bundlesInfo).toURI());
+				if (!bundlesInfoFile.isFile() || bundlesInfoFile.lastModified() > fingerprintFile.lastModified()) {
+					return null;
+				}
+			}
+			return properties;
+		} catch (IOException | URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Computes a fingerprint of everything the generated configuration files
+	 * depend on: the launch configuration, the target platform and the
+	 * locations, versions and start levels of the launched bundles and
+	 * features.
+	 */
+	private static String computeFingerprint(ILaunchConfiguration configuration, String productID, Map<String, List<IPluginModelBase>> bundles, Map<IFeature, Boolean> features, Map<IPluginModelBase, String> bundlesWithStartLevels, File configurationDirectory) throws CoreException {
+		StringBuilder buffer = new StringBuilder();
+		buffer.append(configurationDirectory.getAbsolutePath()).append('\n');
+		buffer.append(productID).append('\n');
+		buffer.append(new TreeMap<>(configuration.getAttributes())).append('\n');
+		File targetConfigIni = new File(TargetPlatform.getLocation(), "configuration/config.ini"); //$NON-NLS-1$
+		buffer.append(targetConfigIni.getAbsolutePath()).append('@').append(targetConfigIni.lastModified()).append('\n');
+		buffer.append(TargetPlatformHelper.getTargetVersion()).append('\n');
+		String templateLoc = configuration.getAttribute(IPDELauncherConstants.CONFIG_TEMPLATE_LOCATION, (String) null);
+		if (templateLoc != null) {
+			File templateFile = new File(getSubstitutedString(templateLoc));
+			buffer.append(templateFile.getAbsolutePath()).append('@').append(templateFile.lastModified()).append('\n');
+		}
+		TreeSet<String> entries = new TreeSet<>();
+		bundlesWithStartLevels.forEach((model, startLevel) -> entries.add(getModelKey(model) + '@' + startLevel));
+		bundles.forEach((id, models) -> models.forEach(model -> entries.add(id + '=' + getModelKey(model))));
+		if (features != null) {
+			features.forEach((feature, value) -> entries.add(feature.getId() + '_' + feature.getVersion() + '@' + feature.getModel().getInstallLocation() + '=' + value));
+		}
+		entries.forEach(entry -> buffer.append(entry).append('\n'));
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			return HexFormat.of().formatHex(digest.digest(buffer.toString().getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String getModelKey(IPluginModelBase model) {
+		return model.getPluginBase().getId() + '_' + model.getPluginBase().getVersion() + '@' + model.getInstallLocation();
+	}
+
+	private static Properties generateConfigIniFile(ILaunchConfiguration configuration, String productID, Map<String, List<IPluginModelBase>> bundles, Map<IFeature, Boolean> features, Map<IPluginModelBase, String> bundlesWithStartLevels, File configurationDirectory) throws CoreException {
 		Properties properties = null;
 		// if we are to generate a config.ini, start with the values in the target platform's config.ini - bug 141918
 		if (configuration.getAttribute(IPDELauncherConstants.CONFIG_GENERATE_DEFAULT, true)) {
@@ -198,7 +321,7 @@ public class LaunchConfigurationHelper {
 
 			// Add bundles.txt as p2 config data
 			if (bundlesTxt != null) {
-				properties.setProperty("org.eclipse.equinox.simpleconfigurator.configUrl", bundlesTxt.toString()); //$NON-NLS-1$
+				properties.setProperty(PROP_SIMPLE_CONFIGURATOR_URL, bundlesTxt.toString());
 				if (bundles.get("org.eclipse.update.configurator") != null) { //$NON-NLS-1$
 					// this argument is required as long as we support old target platforms containing o.e.update.configurator
 					// otherwise both simpleconfigurator and update.configurator will try to install bundles, slowing down launches.
@@ -234,7 +357,7 @@ public class LaunchConfigurationHelper {
 
 		setBundleLocations(bundles, properties, autostart);
 
-		save(new File(configurationDirectory, "config.ini"), properties); //$NON-NLS-1$
+		save(new File(configurationDirectory, CONFIG_INI), properties);
 		return properties;
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2005, 2015 IBM Corporation and others.
+ *  Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationListener;
+import org.eclipse.pde.internal.core.BundleValidationOperation;
 import org.eclipse.pde.internal.core.util.CoreUtility;
 
 public class LaunchConfigurationListener implements ILaunchConfigurationListener {
@@ -36,6 +37,7 @@ public class LaunchConfigurationListener implements ILaunchConfigurationListener
 
 	@Override
 	public void launchConfigurationRemoved(ILaunchConfiguration configuration) {
+		BundleValidationOperation.clearCachedStates(LaunchValidationOperation.getCacheKeyPrefix(configuration));
 		final File configDir = LaunchConfigurationHelper.getConfigurationLocation(configuration);
 		if (configDir.exists()) {
 			// rename the config area if it was auto-set by PDE when the launch configuration is renamed
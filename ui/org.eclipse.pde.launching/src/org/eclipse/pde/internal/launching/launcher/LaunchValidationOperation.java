@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2007, 2023 IBM Corporation and others.
+ *  Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -30,6 +30,7 @@ import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.jdt.launching.IVMInstall;
 import org.eclipse.jdt.launching.JavaRuntime;
 import org.eclipse.jdt.launching.environments.IExecutionEnvironment;
@@ -58,10 +59,34 @@ public class LaunchValidationOperation implements IWorkspaceRunnable {
 
 	@Override
 	public void run(IProgressMonitor monitor) throws CoreException {
-		fOperation = new BundleValidationOperation(fModels, getPlatformProperties());
+		fOperation = new BundleValidationOperation(fModels, getPlatformProperties(), getCacheKey());
 		fOperation.run(monitor);
 	}
 
+	/**
+	 * The resolver state of a validation is kept per launch configuration, so
+	 * repeated launches only resolve the bundles that have changed
+	 *
+	 * @return the key of the cached resolver state or <code>null</code>
+	 */
+	private String getCacheKey() {
+		ILaunchConfiguration configuration = fLaunchConfiguration;
+		if (configuration instanceof ILaunchConfigurationWorkingCopy workingCopy
+				&& workingCopy.getOriginal() != null) {
+			configuration = workingCopy.getOriginal();
+		}
+		return configuration == null ? null : getCacheKeyPrefix(configuration) + getClass().getName();
+	}
+
+	/**
+	 * @param configuration the launch configuration
+	 * @return the common prefix of the keys of all resolver states cached for
+	 *         the given launch configuration
+	 */
+	static String getCacheKeyPrefix(ILaunchConfiguration configuration) {
+		return configuration.getName() + '/';
+	}
+
 	@SuppressWarnings("unchecked")
 	protected Dictionary<String, String>[] getPlatformProperties() throws CoreException {
 		IExecutionEnvironment[] envs = getMatchingEnvironments();
@@ -138,7 +163,16 @@ public class LaunchValidationOperation implements IWorkspaceRunnable {
 	}
 
 	public boolean isEmpty() {
-		return fOperation.getState().getHighestBundleId() == -1;
+		return fOperation.isEmpty();
+	}
+
+	/**
+	 * @param symbolicName the symbolic name of the bundle
+	 * @return whether the validated bundles contain a bundle with the given
+	 *         symbolic name
+	 */
+	protected boolean containsBundle(String symbolicName) {
+		return fOperation.containsBundle(symbolicName);
 	}
 
 	protected State getState() {
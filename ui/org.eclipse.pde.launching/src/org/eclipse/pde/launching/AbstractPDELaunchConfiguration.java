@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2005, 2022 IBM Corporation and others.
+ *  Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -136,6 +136,7 @@ public abstract class AbstractPDELaunchConfiguration extends LaunchConfiguration
 	public void launch(ILaunchConfiguration configuration, String mode, ILaunch launch, IProgressMonitor monitor) throws CoreException {
 		fConfigDir = null;
 		SubMonitor subMonitor = SubMonitor.convert(monitor, 100);
+		long time = System.nanoTime();
 		try {
 			preLaunchCheck(configuration, launch, subMonitor.split(50));
 		} catch (CoreException e) {
@@ -145,12 +146,16 @@ public abstract class AbstractPDELaunchConfiguration extends LaunchConfiguration
 			}
 			throw e;
 		}
+		time = tracePhase(configuration, "pre-launch check", time); //$NON-NLS-1$
 
 		VMRunnerConfiguration runnerConfig = new VMRunnerConfiguration(getMainClass(), getClasspath(configuration));
+		time = tracePhase(configuration, "classpath", time); //$NON-NLS-1$
 		IVMInstall launcher = VMHelper.createLauncher(configuration);
 		boolean isModular = JavaRuntime.isModularJava(launcher);
 		runnerConfig.setVMArguments(updateVMArgumentWithAdditionalArguments(getVMArguments(configuration), isModular, configuration));
+		time = tracePhase(configuration, "VM arguments", time); //$NON-NLS-1$
 		runnerConfig.setProgramArguments(getProgramArguments(configuration));
+		time = tracePhase(configuration, "program arguments and configuration area", time); //$NON-NLS-1$
 		runnerConfig.setWorkingDirectory(getWorkingDirectory(configuration).getAbsolutePath());
 		runnerConfig.setEnvironment(getEnvironment(configuration));
 		runnerConfig.setVMSpecificAttributesMap(getVMSpecificAttributesMap(configuration));
@@ -159,12 +164,28 @@ public abstract class AbstractPDELaunchConfiguration extends LaunchConfiguration
 
 		setDefaultSourceLocator(configuration);
 		manageLaunch(launch);
+		time = tracePhase(configuration, "environment and source lookup", time); //$NON-NLS-1$
 		IVMRunner runner = getVMRunner(configuration, mode);
 		if (runner != null)
 			runner.run(runnerConfig, launch, subMonitor.split(25));
 		else
 			subMonitor.setCanceled(true);
+		tracePhase(configuration, "VM start", time); //$NON-NLS-1$
+	}
 
+	/**
+	 * Prints the time taken by a phase of the launch if launch tracing is
+	 * enabled
+	 *
+	 * @return the end time of the phase
+	 */
+	private static long tracePhase(ILaunchConfiguration configuration, String phase, long start) {
+		long end = System.nanoTime();
+		if (PDELaunchingPlugin.DEBUG_LAUNCH) {
+			System.out.println("Launch of " + configuration.getName() + ": " + phase + " took " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ (end - start) / 1_000_000 + " ms"); //$NON-NLS-1$
+		}
+		return end;
 	}
 
 	private String[] updateVMArgumentWithAdditionalArguments(String[] args, boolean isModular, ILaunchConfiguration configuration) {
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.core.tests.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.pde.internal.core.ExtensionContributionCache;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the persistent {@link ExtensionContributionCache}
+ */
+public class ExtensionContributionCacheTest {
+
+	private static final String PLUGIN_XML = "plugin.xml";
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private File cacheFile;
+
+	@Before
+	public void setUp() {
+		cacheFile = new File(folder.getRoot(), ".extension_contributions");
+	}
+
+	@Test
+	public void testStoredContributionsAreReused() throws IOException {
+		File a = createArchive("a.jar", "<plugin>a</plugin>");
+		File b = createArchive("b.jar", null);
+
+		ExtensionContributionCache cache = ExtensionContributionCache.load(cacheFile);
+		assertArrayEquals(bytes("<plugin>a</plugin>"), cache.getContents(a, PLUGIN_XML));
+		assertNull(cache.getContents(b, PLUGIN_XML));
+		assertEquals(2, cache.getMisses());
+		cache.save();
+		assertTrue(cacheFile.isFile());
+		// the written descriptors are read back from the file
+		assertArrayEquals(bytes("<plugin>a</plugin>"), cache.getContents(a, PLUGIN_XML));
+		assertEquals(1, cache.getHits());
+
+		ExtensionContributionCache loaded = ExtensionContributionCache.load(cacheFile);
+		assertArrayEquals(bytes("<plugin>a</plugin>"), loaded.getContents(a, PLUGIN_XML));
+		assertNull(loaded.getContents(b, PLUGIN_XML));
+		assertEquals(2, loaded.getHits());
+		assertEquals(0, loaded.getMisses());
+	}
+
+	@Test
+	public void testChangedArchiveIsReadAgain() throws IOException {
+		File a = createArchive("a.jar", "<plugin>a</plugin>");
+		ExtensionContributionCache cache = ExtensionContributionCache.load(cacheFile);
+		cache.getContents(a, PLUGIN_XML);
+		cache.save();
+
+		createArchive("a.jar", "<plugin>changed</plugin>");
+		assertTrue(a.setLastModified(a.lastModified() + 2000));
+		ExtensionContributionCache loaded = ExtensionContributionCache.load(cacheFile);
+		assertArrayEquals(bytes("<plugin>changed</plugin>"), loaded.getContents(a, PLUGIN_XML));
+		assertEquals(0, loaded.getHits());
+		assertEquals(1, loaded.getMisses());
+		// another descriptor of the same archive is not served from the cache
+		assertNull(loaded.getContents(a, "fragment.xml"));
+		assertEquals(2, loaded.getMisses());
+	}
+
+	@Test
+	public void testRemovedArchivesArePruned() throws IOException {
+		File a = createArchive("a.jar", "<plugin>a</plugin>");
+		File b = createArchive("b.jar", "<plugin>b</plugin>");
+		File c = createArchive("c.jar", "<plugin>c</plugin>");
+		ExtensionContributionCache cache = ExtensionContributionCache.load(cacheFile);
+		for (File archive : List.of(a, b, c)) {
+			cache.getContents(archive, PLUGIN_XML);
+		}
+		cache.save();
+		long size = cacheFile.length();
+
+		// b is no longer part of the models, c no longer exists
+		assertTrue(c.delete());
+		cache.retainAll(List.of(a.getAbsolutePath(), c.getAbsolutePath()));
+		cache.save();
+		assertTrue(cacheFile.length() < size);
+
+		ExtensionContributionCache loaded = ExtensionContributionCache.load(cacheFile);
+		assertArrayEquals(bytes("<plugin>a</plugin>"), loaded.getContents(a, PLUGIN_XML));
+		assertArrayEquals(bytes("<plugin>b</plugin>"), loaded.getContents(b, PLUGIN_XML));
+		assertEquals(1, loaded.getHits());
+		assertEquals(1, loaded.getMisses());
+	}
+
+	@Test
+	public void testCorruptedCacheFileIsIgnored() throws IOException {
+		File a = createArchive("a.jar", "<plugin>a</plugin>");
+		ExtensionContributionCache cache = ExtensionContributionCache.load(cacheFile);
+		cache.getContents(a, PLUGIN_XML);
+		cache.save();
+		byte[] contents = Files.readAllBytes(cacheFile.toPath());
+		Files.write(cacheFile.toPath(), Arrays.copyOf(contents, contents.length - 2));
+
+		ExtensionContributionCache loaded = ExtensionContributionCache.load(cacheFile);
+		assertArrayEquals(bytes("<plugin>a</plugin>"), loaded.getContents(a, PLUGIN_XML));
+		assertEquals(0, loaded.getHits());
+		assertEquals(1, loaded.getMisses());
+	}
+
+	private File createArchive(String name, String pluginXml) throws IOException {
+		File archive = new File(folder.getRoot(), name);
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(archive.toPath()))) {
+			out.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+			out.write(bytes("Manifest-Version: 1.0\n"));
+			if (pluginXml != null) {
+				out.putNextEntry(new ZipEntry(PLUGIN_XML));
+				out.write(bytes(pluginXml));
+			}
+		}
+		return archive;
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.core.tests.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.pde.core.plugin.IPluginModelBase;
+import org.eclipse.pde.core.plugin.PluginRegistry;
+import org.eclipse.pde.internal.core.IPluginModelListener;
+import org.eclipse.pde.internal.core.PDEState;
+import org.eclipse.pde.internal.core.PluginModelManager;
+import org.eclipse.pde.ui.tests.util.ProjectUtils;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+/**
+ * Tests that the state published by the {@link PluginModelManager} is a
+ * snapshot that is read without locking and never modified
+ */
+public class PluginModelManagerStateTest {
+
+	@ClassRule
+	public static final TestRule CLEAR_WORKSPACE = ProjectUtils.DELETE_ALL_WORKSPACE_PROJECTS_BEFORE_AND_AFTER;
+	@Rule
+	public final TestRule deleteCreatedTestProjectsAfter = ProjectUtils.DELETE_CREATED_WORKSPACE_PROJECTS_AFTER;
+
+	private PluginModelManager manager;
+
+	@Before
+	public void setUp() {
+		manager = PluginModelManager.getInstance();
+		// ensure PluginModelManager is initialized
+		manager.getState();
+	}
+
+	@Test
+	public void testPublishedStateIsNotModified() throws Exception {
+		PDEState published = manager.getState();
+		State state = published.getState();
+		long timeStamp = state.getTimeStamp();
+		int bundles = state.getBundles().length;
+
+		IProject project = ProjectUtils.createPluginProject("state.snapshot", "1.0.0");
+		IPluginModelBase model = PluginRegistry.findModel(project);
+		assertNotNull(model);
+
+		PDEState current = manager.getState();
+		assertNotSame(published, current);
+		// the previously published state is unchanged
+		assertEquals(timeStamp, state.getTimeStamp());
+		assertEquals(bundles, state.getBundles().length);
+		assertNull(state.getBundle("state.snapshot", null));
+		// the models refer to the bundles of the new state
+		BundleDescription desc = model.getBundleDescription();
+		assertSame(current.getState(), desc.getContainingState());
+		assertTrue(desc.isResolved());
+		assertEquals(bundles + 1, current.getState().getBundles().length);
+	}
+
+	@Test
+	public void testStateIsReadWhileModelsChange() throws Exception {
+		AtomicReference<PDEState> read = new AtomicReference<>();
+		PDEState published = manager.getState();
+		// the listeners are notified while the model changes are applied
+		IPluginModelListener listener = delta -> {
+			try {
+				read.compareAndSet(null,
+						CompletableFuture.supplyAsync(manager::getState).get(10, TimeUnit.SECONDS));
+			} catch (Exception e) {
+				// the state could not be read while the models are changed
+			}
+		};
+		manager.addPluginModelListener(listener);
+		try {
+			ProjectUtils.createPluginProject("state.reader", "1.0.0");
+		} finally {
+			manager.removePluginModelListener(listener);
+		}
+		assertNotNull("the state must be read without waiting for the model change", read.get());
+		assertNotSame(published, read.get());
+	}
+
+}
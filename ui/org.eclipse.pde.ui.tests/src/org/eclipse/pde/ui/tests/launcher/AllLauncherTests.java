@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2021 EclipseSource Corporation and others.
+ * Copyright (c) 2009, 2024 EclipseSource Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -29,6 +29,8 @@ import org.junit.runners.Suite.SuiteClasses;
 	LaunchConfigurationMigrationTest.class, //
 	ProductEditorLaunchingTest.class, //
 	ValidationDialogTest.class, //
+	BundleValidationOperationTest.class, //
+	MultiBundleClassLoaderTest.class, //
 })
 public class AllLauncherTests {
 
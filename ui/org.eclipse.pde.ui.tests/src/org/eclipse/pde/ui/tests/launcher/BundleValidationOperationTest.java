@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.ui.tests.launcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Dictionary;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.pde.core.plugin.IPluginModelBase;
+import org.eclipse.pde.core.plugin.PluginRegistry;
+import org.eclipse.pde.internal.core.BundleValidationOperation;
+import org.eclipse.pde.internal.core.TargetPlatformHelper;
+import org.eclipse.pde.launching.IPDELauncherConstants;
+import org.eclipse.pde.ui.tests.util.TargetPlatformUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+/**
+ * Tests the reuse and invalidation of the resolver states cached by
+ * {@link BundleValidationOperation}
+ */
+public class BundleValidationOperationTest {
+
+	@ClassRule
+	public static final TestRule RESTORE_TARGET_DEFINITION = TargetPlatformUtil.RESTORE_CURRENT_TARGET_DEFINITION_AFTER;
+
+	private static final String CACHE_KEY_PREFIX = BundleValidationOperationTest.class.getSimpleName() + '/';
+
+	@BeforeClass
+	public static void setupTargetPlatform() throws Exception {
+		TargetPlatformUtil.setRunningPlatformAsTarget();
+	}
+
+	@Before
+	@After
+	public void clearCache() {
+		BundleValidationOperation.clearCachedStates();
+	}
+
+	@Test
+	public void testCachedStateIsReused() throws Exception {
+		Set<IPluginModelBase> models = getModels();
+		assertTrue(models.contains(PluginRegistry.findModel("org.eclipse.equinox.common")));
+
+		BundleValidationOperation first = validate(models, CACHE_KEY_PREFIX + "reuse");
+		assertEquals(1, BundleValidationOperation.getCachedStateCount());
+		assertFalse(first.isEmpty());
+		assertTrue(first.containsBundle("org.eclipse.core.runtime"));
+
+		BundleValidationOperation second = validate(models, CACHE_KEY_PREFIX + "reuse");
+		assertEquals(1, BundleValidationOperation.getCachedStateCount());
+		assertEquals(getErrors(first), getErrors(second));
+		assertEquals(getErrors(validate(models, null)), getErrors(second));
+
+		// a bundle removed from the reused state is gone after the update and
+		// its dependents are resolved again
+		IPluginModelBase removed = PluginRegistry.findModel("org.eclipse.equinox.common");
+		models.remove(removed);
+		BundleValidationOperation third = validate(models, CACHE_KEY_PREFIX + "reuse");
+		assertEquals(1, BundleValidationOperation.getCachedStateCount());
+		assertFalse(third.containsBundle("org.eclipse.equinox.common"));
+		assertEquals(getErrors(validate(models, null)), getErrors(third));
+		assertTrue(third.hasErrors());
+	}
+
+	@Test
+	public void testResultsAreKeptWhenCachedStateIsUpdated() throws Exception {
+		Set<IPluginModelBase> models = getModels();
+		BundleValidationOperation first = validate(models, CACHE_KEY_PREFIX + "shared");
+		Set<String> errors = getErrors(first);
+		boolean hasErrors = first.hasErrors();
+		int bundles = first.getState().getBundles().length;
+
+		// a working copy validates another model set with the same key
+		Set<IPluginModelBase> changed = new LinkedHashSet<>(models);
+		changed.remove(PluginRegistry.findModel("org.eclipse.equinox.common"));
+		BundleValidationOperation second = validate(changed, CACHE_KEY_PREFIX + "shared");
+		assertTrue(second.hasErrors());
+		assertFalse(second.containsBundle("org.eclipse.equinox.common"));
+
+		// the results of the first validation are those of its models
+		assertEquals(hasErrors, first.hasErrors());
+		assertEquals(errors, getErrors(first));
+		assertTrue(first.containsBundle("org.eclipse.equinox.common"));
+		assertFalse(first.isEmpty());
+		assertEquals(models.size(), bundles);
+		assertEquals(bundles, first.getState().getBundles().length);
+	}
+
+	@Test
+	public void testCachedStatesAreInvalidated() throws Exception {
+		Set<IPluginModelBase> models = getModels();
+		validate(models, CACHE_KEY_PREFIX + "a/1");
+		validate(models, CACHE_KEY_PREFIX + "a/2");
+		validate(models, CACHE_KEY_PREFIX + "b/1");
+		assertEquals(3, BundleValidationOperation.getCachedStateCount());
+
+		BundleValidationOperation.clearCachedStates(CACHE_KEY_PREFIX + "a/");
+		assertEquals(1, BundleValidationOperation.getCachedStateCount());
+
+		// reloading the target discards all cached states
+		TargetPlatformUtil.setRunningPlatformAsTarget();
+		validate(models, CACHE_KEY_PREFIX + "a/1");
+		assertEquals(1, BundleValidationOperation.getCachedStateCount());
+	}
+
+	@Test
+	public void testCachedStatesOfDeletedLaunchConfigurationAreDiscarded() throws Exception {
+		ILaunchManager launchManager = DebugPlugin.getDefault().getLaunchManager();
+		ILaunchConfigurationType type = launchManager
+				.getLaunchConfigurationType(IPDELauncherConstants.ECLIPSE_APPLICATION_LAUNCH_CONFIGURATION_TYPE);
+		String name = launchManager.generateLaunchConfigurationName("validationCache");
+		ILaunchConfiguration configuration = type.newInstance(null, name).doSave();
+
+		Set<IPluginModelBase> models = getModels();
+		validate(models, name + '/' + "org.eclipse.pde.internal.launching.launcher.LaunchValidationOperation");
+		validate(models, CACHE_KEY_PREFIX + "other");
+		assertEquals(2, BundleValidationOperation.getCachedStateCount());
+
+		configuration.delete();
+		assertEquals(1, BundleValidationOperation.getCachedStateCount());
+	}
+
+	private static Set<IPluginModelBase> getModels() {
+		Set<IPluginModelBase> models = new LinkedHashSet<>();
+		for (String id : new String[] { "org.eclipse.osgi", "org.eclipse.equinox.common", "org.eclipse.core.jobs",
+				"org.eclipse.equinox.registry", "org.eclipse.equinox.preferences", "org.eclipse.core.contenttype",
+				"org.eclipse.equinox.app", "org.eclipse.core.runtime" }) {
+			IPluginModelBase model = PluginRegistry.findModel(id);
+			if (model != null) {
+				models.add(model);
+			}
+		}
+		assertTrue(models.size() > 1);
+		return models;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BundleValidationOperation validate(Set<IPluginModelBase> models, String cacheKey)
+			throws Exception {
+		BundleValidationOperation operation = new BundleValidationOperation(models,
+				new Dictionary[] { TargetPlatformHelper.getTargetEnvironment() }, cacheKey);
+		operation.run(new NullProgressMonitor());
+		return operation;
+	}
+
+	private static Set<String> getErrors(BundleValidationOperation operation) {
+		Set<String> errors = new TreeSet<>();
+		operation.getResolverErrors().forEach((bundle, problems) -> {
+			for (Object problem : problems) {
+				errors.add(bundle + ": " + problem);
+			}
+		});
+		return errors;
+	}
+}
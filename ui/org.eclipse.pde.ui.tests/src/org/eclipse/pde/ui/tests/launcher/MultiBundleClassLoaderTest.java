@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.ui.tests.launcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.eclipse.pde.internal.junit.runtime.MultiBundleClassLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.wiring.BundleWiring;
+import org.osgi.framework.wiring.FrameworkWiring;
+
+/**
+ * Tests that the {@link MultiBundleClassLoader} finds classes and resources of
+ * a directory that is split across several bundles
+ */
+public class MultiBundleClassLoaderTest {
+
+	private static final String PACKAGE_PATH = MultiBundleClassLoaderTest.class.getPackageName().replace('.', '/');
+	private static final String RESOURCE_DIRECTORY = "split/resources/";
+
+	/**
+	 * Packed into the first bundle
+	 */
+	public static class First {
+	}
+
+	/**
+	 * Packed into the second bundle
+	 */
+	public static class Second {
+	}
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<Bundle> installed = new ArrayList<>();
+	private Bundle first;
+	private Bundle second;
+
+	@Before
+	public void setUp() throws Exception {
+		first = install("split.first", First.class, "first.txt");
+		second = install("split.second", Second.class, "second.txt");
+		BundleContext context = FrameworkUtil.getBundle(getClass()).getBundleContext();
+		assertTrue(context.getBundle(Constants.SYSTEM_BUNDLE_LOCATION).adapt(FrameworkWiring.class)
+				.resolveBundles(installed));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		for (Bundle bundle : installed) {
+			bundle.uninstall();
+		}
+	}
+
+	@Test
+	public void testLoadClassOfSplitPackage() throws Exception {
+		MultiBundleClassLoader loader = new MultiBundleClassLoader(List.of(first, second));
+
+		Class<?> loaded = loader.loadClass(Second.class.getName());
+		assertNotSame(Second.class, loaded);
+		assertSame(second.adapt(BundleWiring.class).getClassLoader(), loaded.getClassLoader());
+		loaded = loader.loadClass(First.class.getName());
+		assertSame(first.adapt(BundleWiring.class).getClassLoader(), loaded.getClassLoader());
+
+		// missing classes are not found, also when looked up again
+		String missing = MultiBundleClassLoaderTest.class.getPackageName() + ".DoesNotExist";
+		assertThrows(ClassNotFoundException.class, () -> loader.loadClass(missing));
+		assertThrows(ClassNotFoundException.class, () -> loader.loadClass(missing));
+	}
+
+	@Test
+	public void testFindResourcesOfSplitDirectory() throws Exception {
+		MultiBundleClassLoader loader = new MultiBundleClassLoader(List.of(first, second));
+
+		List<URL> common = Collections.list(loader.getResources(RESOURCE_DIRECTORY + "common.txt"));
+		assertEquals(common.toString(), 2, common.size());
+		assertEquals("split.first", read(common.get(0)));
+		assertEquals("split.second", read(common.get(1)));
+
+		URL resource = loader.getResource(RESOURCE_DIRECTORY + "second.txt");
+		assertNotNull(resource);
+		assertEquals("split.second", read(resource));
+		assertEquals(1, Collections.list(loader.getResources(RESOURCE_DIRECTORY + "first.txt")).size());
+		assertTrue(Collections.list(loader.getResources(RESOURCE_DIRECTORY + "missing.txt")).isEmpty());
+	}
+
+	private Bundle install(String symbolicName, Class<?> type, String resource) throws Exception {
+		Manifest manifest = new Manifest();
+		Attributes attributes = manifest.getMainAttributes();
+		attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		attributes.putValue(Constants.BUNDLE_MANIFESTVERSION, "2");
+		attributes.putValue(Constants.BUNDLE_SYMBOLICNAME, symbolicName);
+		attributes.putValue(Constants.BUNDLE_VERSION, "1.0.0");
+		File jar = folder.newFile(symbolicName + ".jar");
+		try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()), manifest)) {
+			String className = type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class";
+			out.putNextEntry(new JarEntry(PACKAGE_PATH + '/' + className));
+			try (InputStream in = type.getResourceAsStream(className)) {
+				in.transferTo(out);
+			}
+			write(out, RESOURCE_DIRECTORY + "common.txt", symbolicName);
+			write(out, RESOURCE_DIRECTORY + resource, symbolicName);
+		}
+		BundleContext context = FrameworkUtil.getBundle(getClass()).getBundleContext();
+		Bundle bundle = context.installBundle(jar.toURI().toString());
+		installed.add(bundle);
+		return bundle;
+	}
+
+	private static void write(JarOutputStream out, String name, String content) throws Exception {
+		out.putNextEntry(new JarEntry(name));
+		out.write(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String read(URL url) throws Exception {
+		try (InputStream in = url.openStream()) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+}
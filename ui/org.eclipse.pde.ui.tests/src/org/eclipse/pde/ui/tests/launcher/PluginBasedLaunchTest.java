@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2021, 2022 Hannes Wellmann and others.
+ *  Copyright (c) 2021, 2024 Hannes Wellmann and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -20,18 +20,23 @@ import static org.eclipse.pde.ui.tests.launcher.FeatureBasedLaunchTest.toDefault
 import static org.eclipse.pde.ui.tests.util.TargetPlatformUtil.bundle;
 import static org.eclipse.pde.ui.tests.util.TargetPlatformUtil.resolution;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.osgi.framework.Constants.REQUIRE_BUNDLE;
 import static org.osgi.framework.Constants.RESOLUTION_OPTIONAL;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
@@ -996,6 +1001,124 @@ public class PluginBasedLaunchTest extends AbstractLaunchTest {
 		assertEquals("plugin.a*1.0.0@:false", BundleLauncherHelper.formatBundleEntry(plugin, null, "false"));
 	}
 
+	// --- test cases for the caching of launch data ---
+
+	@Test
+	public void testGetMergedBundleMap_cachedUntilModelsChange() throws Exception {
+		var workspacePlugins = ofEntries( //
+				bundle("plugin.a", "1.0.0"));
+		setUpWorkspace(workspacePlugins, Map.of());
+
+		ILaunchConfigurationWorkingCopy wc = createPluginLaunchConfig("testGetMergedBundleMap_cached");
+		wc.setAttribute(IPDELauncherConstants.USE_DEFAULT, true);
+		Map<IPluginModelBase, String> bundleMap = BundleLauncherHelper.getMergedBundleMap(wc, false);
+		assertTrue(bundleMap.containsKey(workspaceBundle("plugin.a", "1.0.0").findModel()));
+
+		// the cached result is returned as a copy
+		bundleMap.clear();
+		Map<IPluginModelBase, String> cachedMap = BundleLauncherHelper.getMergedBundleMap(wc, false);
+		assertTrue(cachedMap.containsKey(workspaceBundle("plugin.a", "1.0.0").findModel()));
+
+		// a new workspace bundle changes the models but not the configuration
+		ProjectUtils.createWorkspacePluginProjects(List.of(new NameVersionDescriptor("plugin.b", "1.0.0")));
+		Map<IPluginModelBase, String> changedMap = BundleLauncherHelper.getMergedBundleMap(wc, false);
+		assertTrue(changedMap.containsKey(workspaceBundle("plugin.b", "1.0.0").findModel()));
+	}
+
+	@Test
+	public void testGetMergedBundleMap_recomputedWhenAttributesChange() throws Exception {
+		var workspacePlugins = ofEntries( //
+				bundle("plugin.a", "1.0.0"), //
+				bundle("plugin.b", "1.0.0"));
+		setUpWorkspace(workspacePlugins, Map.of());
+
+		ILaunchConfigurationWorkingCopy wc = createPluginLaunchConfig("testGetMergedBundleMap_attributes");
+		wc.setAttribute(IPDELauncherConstants.SELECTED_WORKSPACE_BUNDLES, Set.of("plugin.a"));
+		assertEquals(Set.of(workspaceBundle("plugin.a", "1.0.0").findModel()),
+				BundleLauncherHelper.getMergedBundleMap(wc, false).keySet());
+
+		wc.setAttribute(IPDELauncherConstants.SELECTED_WORKSPACE_BUNDLES, Set.of("plugin.a", "plugin.b"));
+		assertEquals(
+				Set.of(workspaceBundle("plugin.a", "1.0.0").findModel(),
+						workspaceBundle("plugin.b", "1.0.0").findModel()),
+				BundleLauncherHelper.getMergedBundleMap(wc, false).keySet());
+	}
+
+	@Test
+	public void testConfigIniReusedWhenUnchanged() throws Exception {
+		var workspacePlugins = ofEntries( //
+				bundle("plugin.a", "1.0.0"));
+		setUpWorkspace(workspacePlugins, Map.of());
+
+		ILaunchConfigurationWorkingCopy launchConfig = createPluginLaunchConfig("testConfigIniReusedWhenUnchanged");
+		launchConfig.setAttribute(IPDELauncherConstants.SELECTED_WORKSPACE_BUNDLES, Set.of("plugin.a"));
+		Path configurationFolder = getConfigurationFolder(launchConfig);
+		Path configIniFile = configurationFolder.resolve("config.ini");
+		Path fingerprintFile = configurationFolder.resolve(".pde.fingerprint");
+		assertTrue(Files.isRegularFile(fingerprintFile));
+		String fingerprint = Files.readString(fingerprintFile);
+		// an older time stamp reveals whether the file is written again
+		FileTime written = FileTime.fromMillis(Files.getLastModifiedTime(configIniFile).toMillis() - 10_000);
+		Files.setLastModifiedTime(configIniFile, written);
+
+		assertEquals(configurationFolder, getConfigurationFolder(launchConfig));
+		assertEquals(written, Files.getLastModifiedTime(configIniFile));
+		assertEquals(fingerprint, Files.readString(fingerprintFile));
+	}
+
+	@Test
+	public void testConfigIniRegeneratedWhenBundlesChange() throws Exception {
+		var workspacePlugins = ofEntries( //
+				bundle("plugin.a", "1.0.0"), //
+				bundle("plugin.b", "1.0.0"));
+		setUpWorkspace(workspacePlugins, Map.of());
+
+		ILaunchConfigurationWorkingCopy launchConfig = createPluginLaunchConfig(
+				"testConfigIniRegeneratedWhenBundlesChange");
+		launchConfig.setAttribute(IPDELauncherConstants.SELECTED_WORKSPACE_BUNDLES, Set.of("plugin.a"));
+		Path configurationFolder = getConfigurationFolder(launchConfig);
+		String fingerprint = Files.readString(configurationFolder.resolve(".pde.fingerprint"));
+		IPluginModelBase pluginB = workspaceBundle("plugin.b", "1.0.0").findModel();
+		assertThat(readConfigIni(configurationFolder).getProperty("osgi.bundles"),
+				not(containsString(getInstallLocation(pluginB))));
+
+		launchConfig.setAttribute(IPDELauncherConstants.SELECTED_WORKSPACE_BUNDLES, Set.of("plugin.a", "plugin.b"));
+		getConfigurationFolder(launchConfig);
+		assertNotEquals(fingerprint, Files.readString(configurationFolder.resolve(".pde.fingerprint")));
+		assertThat(readConfigIni(configurationFolder).getProperty("osgi.bundles"),
+				containsString(getInstallLocation(pluginB)));
+	}
+
+	@Test
+	public void testConfigIniRegeneratedWhenModified() throws Exception {
+		var workspacePlugins = ofEntries( //
+				bundle("plugin.a", "1.0.0"));
+		setUpWorkspace(workspacePlugins, Map.of());
+
+		ILaunchConfigurationWorkingCopy launchConfig = createPluginLaunchConfig("testConfigIniRegeneratedWhenModified");
+		launchConfig.setAttribute(IPDELauncherConstants.SELECTED_WORKSPACE_BUNDLES, Set.of("plugin.a"));
+		Path configurationFolder = getConfigurationFolder(launchConfig);
+		Path configIniFile = configurationFolder.resolve("config.ini");
+		Path fingerprintFile = configurationFolder.resolve(".pde.fingerprint");
+		String osgiBundles = readConfigIni(configurationFolder).getProperty("osgi.bundles");
+
+		// edited after it was generated
+		Files.writeString(configIniFile, "osgi.bundles=modified\n");
+		Files.setLastModifiedTime(configIniFile,
+				FileTime.fromMillis(Files.getLastModifiedTime(fingerprintFile).toMillis() + 10_000));
+
+		getConfigurationFolder(launchConfig);
+		assertEquals(osgiBundles, readConfigIni(configurationFolder).getProperty("osgi.bundles"));
+	}
+
+	private static Properties readConfigIni(Path configurationFolder) throws IOException {
+		Properties configIni = new Properties();
+		try (InputStream input = Files.newInputStream(configurationFolder.resolve("config.ini"))) {
+			configIni.load(input);
+		}
+		return configIni;
+	}
+
 	// --- utilities ---
 
 	private void assertGetMergedBundleMap(Map<NameVersionDescriptor, Map<String, String>> workspacePlugins,
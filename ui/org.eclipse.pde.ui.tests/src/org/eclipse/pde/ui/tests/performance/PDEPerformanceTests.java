@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2017 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,10 +13,12 @@
  *******************************************************************************/
 package org.eclipse.pde.ui.tests.performance;
 
+import org.eclipse.pde.ui.tests.performance.parts.MultiBundleClassLoaderPerfTest;
 import org.eclipse.pde.ui.tests.performance.parts.OpenManifestEditorPerfTest;
 import org.eclipse.pde.ui.tests.performance.parts.PDEModelManagerPerfTest;
 import org.eclipse.pde.ui.tests.performance.parts.SchemaLoaderPerfTest;
 import org.eclipse.pde.ui.tests.performance.parts.SchemaTraversePerfTest;
+import org.eclipse.pde.ui.tests.performance.parts.TargetManifestCachePerfTest;
 import org.eclipse.pde.ui.tests.performance.parts.TargetPlatformPerfTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -25,7 +27,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
 	PDEModelManagerPerfTest.class, SchemaLoaderPerfTest.class, SchemaTraversePerfTest.class,
-	OpenManifestEditorPerfTest.class, TargetPlatformPerfTest.class
+	OpenManifestEditorPerfTest.class, TargetPlatformPerfTest.class, TargetManifestCachePerfTest.class,
+	MultiBundleClassLoaderPerfTest.class
 })
 public class PDEPerformanceTests {
 
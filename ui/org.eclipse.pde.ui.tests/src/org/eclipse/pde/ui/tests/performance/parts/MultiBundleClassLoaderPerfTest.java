@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.ui.tests.performance.parts;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.pde.internal.junit.runtime.MultiBundleClassLoader;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.PerformanceTestCase;
+import org.junit.Assert;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.wiring.BundleWiring;
+
+/**
+ * Measures the class loading throughput of the {@link MultiBundleClassLoader}
+ * used for the JUnit Platform engine discovery.
+ *
+ * The loader is created for all JUnit bundles of the running platform, like
+ * for a test run. Every class of these bundles is loaded through it, and
+ * every package is probed twice for a class that does not exist, as the
+ * engine discovery does for optional dependencies.
+ */
+public class MultiBundleClassLoaderPerfTest extends PerformanceTestCase {
+
+	private List<Bundle> fBundles;
+	private List<String> fClassNames;
+	private List<String> fMissingNames;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fBundles = new ArrayList<>();
+		fClassNames = new ArrayList<>();
+		Set<String> packages = new LinkedHashSet<>();
+		for (Bundle bundle : FrameworkUtil.getBundle(getClass()).getBundleContext().getBundles()) {
+			String name = bundle.getSymbolicName();
+			BundleWiring wiring = bundle.adapt(BundleWiring.class);
+			if (name == null || wiring == null || !(name.startsWith("junit-") || name.startsWith("org.junit"))) {
+				continue;
+			}
+			fBundles.add(bundle);
+			Collection<String> classes = wiring.listResources("/", "*.class",
+					BundleWiring.LISTRESOURCES_LOCAL | BundleWiring.LISTRESOURCES_RECURSE);
+			for (String path : classes) {
+				String className = path.substring(0, path.length() - ".class".length()).replace('/', '.');
+				if (!className.endsWith("module-info") && !className.endsWith("package-info")) {
+					fClassNames.add(className);
+					int index = className.lastIndexOf('.');
+					if (index > 0) {
+						packages.add(className.substring(0, index));
+					}
+				}
+			}
+		}
+		fMissingNames = new ArrayList<>();
+		for (String packageName : packages) {
+			fMissingNames.add(packageName + ".DoesNotExist");
+		}
+		Assert.assertFalse("No JUnit bundles found", fBundles.isEmpty());
+	}
+
+	public void testEngineDiscoveryClassLoading() throws Exception {
+		tagAsSummary("Load JUnit Platform classes through MultiBundleClassLoader", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+
+		// Warm-up Iterations
+		for (int i = 0; i < 2; i++) {
+			loadClasses();
+		}
+		// Test Iterations
+		for (int i = 0; i < 10; i++) {
+			startMeasuring();
+			loadClasses();
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void loadClasses() {
+		// a new loader for every test run
+		MultiBundleClassLoader loader = new MultiBundleClassLoader(fBundles);
+		for (String className : fClassNames) {
+			try {
+				loader.loadClass(className);
+			} catch (ClassNotFoundException | LinkageError e) {
+				// not loadable with the dependencies of the platform
+			}
+		}
+		for (int i = 0; i < 2; i++) {
+			for (String className : fMissingNames) {
+				try {
+					loader.loadClass(className);
+					Assert.fail("Class should not exist: " + className);
+				} catch (ClassNotFoundException e) {
+					// expected
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.ui.tests.performance.parts;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.pde.internal.core.PDEState;
+import org.eclipse.pde.internal.core.TargetManifestCache;
+import org.eclipse.pde.ui.tests.PDETestCase;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.PerformanceTestCase;
+import org.junit.Assert;
+import org.osgi.framework.Constants;
+
+/**
+ * Compares the time it takes to create the target {@link PDEState} without
+ * (cold) and with (warm) a {@link TargetManifestCache}.
+ *
+ * The target consists of 2000 generated bundles only containing a manifest,
+ * each requiring its predecessor and exporting one package.
+ */
+public class TargetManifestCachePerfTest extends PerformanceTestCase {
+
+	private static final int BUNDLE_COUNT = 2000;
+
+	public void testColdTargetState() throws Exception {
+		tagAsSummary("Create target state without manifest cache", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+		URI[] target = createTargetBundles();
+
+		// Warm-up Iterations
+		for (int i = 0; i < 2; i++) {
+			Files.deleteIfExists(TargetManifestCache.getCacheFile().toPath());
+			createState(target);
+		}
+		// Test Iterations
+		for (int i = 0; i < 10; i++) {
+			Files.deleteIfExists(TargetManifestCache.getCacheFile().toPath());
+			startMeasuring();
+			createState(target);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testWarmTargetState() throws Exception {
+		tagAsSummary("Create target state with manifest cache", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+		URI[] target = createTargetBundles();
+
+		// Warm-up Iterations, the first one fills the cache
+		for (int i = 0; i < 2; i++) {
+			createState(target);
+		}
+		// Test Iterations
+		for (int i = 0; i < 10; i++) {
+			startMeasuring();
+			createState(target);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		Files.deleteIfExists(TargetManifestCache.getCacheFile().toPath());
+		super.tearDown();
+	}
+
+	private static void createState(URI[] target) {
+		PDEState state = new PDEState(target, true, true, new NullProgressMonitor());
+		Assert.assertEquals(BUNDLE_COUNT, state.getTargetModels().length);
+	}
+
+	private static URI[] createTargetBundles() throws Exception {
+		Path location = PDETestCase.getThisBundlesStateLocation().resolve("manifestCachePerfTestPlugins");
+		URI[] uris = new URI[BUNDLE_COUNT];
+		for (int i = 0; i < BUNDLE_COUNT; i++) {
+			Path jar = location.resolve("CachedBundle_" + i + ".jar");
+			if (!Files.exists(jar)) {
+				Files.createDirectories(location);
+				Manifest manifest = new Manifest();
+				Attributes attributes = manifest.getMainAttributes();
+				attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+				attributes.putValue(Constants.BUNDLE_MANIFESTVERSION, "2");
+				attributes.putValue(Constants.BUNDLE_SYMBOLICNAME, "CachedBundle_" + i);
+				attributes.putValue(Constants.BUNDLE_VERSION, "1.0.0." + i);
+				attributes.putValue(Constants.EXPORT_PACKAGE, "cached.bundle" + i + ";version=\"1.0.0\"");
+				if (i > 0) {
+					attributes.putValue(Constants.REQUIRE_BUNDLE, "CachedBundle_" + (i - 1));
+				}
+				try (OutputStream out = Files.newOutputStream(jar);
+						JarOutputStream jarOut = new JarOutputStream(out, manifest)) {
+					// manifest only
+				}
+			}
+			uris[i] = jar.toUri();
+		}
+		return uris;
+	}
+
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.ui.tests.target;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.pde.core.target.ITargetDefinition;
+import org.eclipse.pde.core.target.ITargetLocation;
+import org.eclipse.pde.core.target.TargetBundle;
+import org.eclipse.pde.core.target.TargetFeature;
+import org.eclipse.pde.internal.core.target.AbstractBundleContainer;
+import org.junit.Test;
+
+/**
+ * Tests that resolving the locations of a target concurrently keeps the
+ * order of the statuses, the progress reporting and the cancellation of a
+ * sequential resolution.
+ */
+public class ConcurrentTargetResolutionTests extends AbstractTargetTest {
+
+	private static final long TIMEOUT = 10_000;
+
+	/**
+	 * A location that reports its progress in ten steps
+	 */
+	private static class TestLocation extends AbstractBundleContainer {
+
+		final String fName;
+		final long fDelay;
+		final IStatus fResult;
+		final AtomicInteger fRunning;
+		BooleanSupplier fFinishWhen = () -> true;
+		boolean fConditionMet;
+
+		TestLocation(String name, long delay, IStatus result, AtomicInteger running) {
+			fName = name;
+			fDelay = delay;
+			fResult = result;
+			fRunning = running;
+		}
+
+		@Override
+		protected TargetBundle[] resolveBundles(ITargetDefinition definition, IProgressMonitor monitor)
+				throws CoreException {
+			fRunning.incrementAndGet();
+			try {
+				SubMonitor subMonitor = SubMonitor.convert(monitor, 10);
+				for (int i = 0; i < 10; i++) {
+					sleep(fDelay / 10);
+					subMonitor.split(1);
+				}
+				fConditionMet = waitFor(fFinishWhen, subMonitor);
+				if (!fResult.isOK()) {
+					throw new CoreException(fResult);
+				}
+				return new TargetBundle[0];
+			} finally {
+				fRunning.decrementAndGet();
+			}
+		}
+
+		@Override
+		protected TargetFeature[] resolveFeatures(ITargetDefinition definition, IProgressMonitor monitor) {
+			return new TargetFeature[0];
+		}
+
+		@Override
+		public String getType() {
+			return "test";
+		}
+
+		@Override
+		public String getLocation(boolean resolve) {
+			return fName;
+		}
+	}
+
+	/**
+	 * Records the progress reported to the monitor of the resolution
+	 */
+	private static class RecordingMonitor extends NullProgressMonitor {
+		volatile int fTotalWork;
+		volatile double fWorked;
+		volatile boolean fDone;
+
+		@Override
+		public void beginTask(String name, int totalWork) {
+			fTotalWork = totalWork;
+		}
+
+		@Override
+		public void worked(int work) {
+			internalWorked(work);
+		}
+
+		@Override
+		public synchronized void internalWorked(double work) {
+			fWorked += work;
+		}
+
+		@Override
+		public void done() {
+			fDone = true;
+		}
+	}
+
+	@Test
+	public void testStatusOrder() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		ITargetLocation[] locations = new ITargetLocation[6];
+		for (int i = 0; i < locations.length; i++) {
+			// the first locations take longest
+			IStatus result = i % 2 == 0 ? Status.error("location" + i) : Status.OK_STATUS;
+			locations[i] = new TestLocation("location" + i, (locations.length - i) * 50, result, running);
+		}
+		ITargetDefinition definition = getNewTarget();
+		definition.setTargetLocations(locations);
+
+		IStatus status = definition.resolve(new NullProgressMonitor());
+		assertTrue(status.isMultiStatus());
+		IStatus[] children = status.getChildren();
+		assertEquals(3, children.length);
+		assertEquals("location0", children[0].getMessage());
+		assertEquals("location2", children[1].getMessage());
+		assertEquals("location4", children[2].getMessage());
+		assertEquals(0, running.get());
+	}
+
+	@Test
+	public void testCancellation() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		ITargetLocation[] locations = new ITargetLocation[4];
+		for (int i = 0; i < locations.length; i++) {
+			TestLocation location = new TestLocation("location" + i, 0, Status.OK_STATUS, running);
+			if (i == 0) {
+				location.fFinishWhen = () -> {
+					monitor.setCanceled(true);
+					return true;
+				};
+			} else {
+				// only the cancellation ends the other locations
+				location.fFinishWhen = () -> false;
+			}
+			locations[i] = location;
+		}
+		ITargetDefinition definition = getNewTarget();
+		definition.setTargetLocations(locations);
+
+		long start = System.currentTimeMillis();
+		IStatus status = definition.resolve(monitor);
+		assertEquals(IStatus.CANCEL, status.getSeverity());
+		assertTrue(System.currentTimeMillis() - start < TIMEOUT);
+		// all locations have stopped when the resolution returns
+		assertEquals(0, running.get());
+	}
+
+	@Test
+	public void testProgress() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		RecordingMonitor monitor = new RecordingMonitor();
+		TestLocation slow = new TestLocation("slow", 0, Status.OK_STATUS, running);
+		// the progress of the other locations is reported while this one runs
+		slow.fFinishWhen = () -> monitor.fWorked > 0;
+		ITargetLocation[] locations = new ITargetLocation[] { slow,
+				new TestLocation("fast1", 50, Status.OK_STATUS, running),
+				new TestLocation("fast2", 50, Status.OK_STATUS, running) };
+		ITargetDefinition definition = getNewTarget();
+		definition.setTargetLocations(locations);
+
+		IStatus status = definition.resolve(monitor);
+		assertTrue(status.isOK());
+		assertTrue("Progress should be reported while locations are resolved", slow.fConditionMet);
+		assertTrue(monitor.fTotalWork > 0);
+		assertEquals(monitor.fTotalWork, monitor.fWorked, 1);
+		assertTrue(monitor.fDone);
+	}
+
+	@Test(timeout = 60_000)
+	public void testNestedResolution() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		// more locations resolving other targets than threads of the pool
+		ITargetLocation[] locations = new ITargetLocation[2 * Runtime.getRuntime().availableProcessors() + 16];
+		for (int i = 0; i < locations.length; i++) {
+			TestLocation location = new TestLocation("outer" + i, 0, Status.OK_STATUS, running);
+			location.fFinishWhen = () -> {
+				ITargetDefinition nested = getNewTarget();
+				nested.setTargetLocations(new ITargetLocation[] {
+						new TestLocation("inner1", 10, Status.OK_STATUS, new AtomicInteger()),
+						new TestLocation("inner2", 10, Status.OK_STATUS, new AtomicInteger()) });
+				return nested.resolve(new NullProgressMonitor()).isOK();
+			};
+			locations[i] = location;
+		}
+		ITargetDefinition definition = getNewTarget();
+		definition.setTargetLocations(locations);
+
+		assertTrue(definition.resolve(new NullProgressMonitor()).isOK());
+		for (ITargetLocation location : locations) {
+			assertTrue(((TestLocation) location).fConditionMet);
+		}
+	}
+
+	/**
+	 * Waits until the condition is met, the monitor is canceled or the
+	 * timeout elapsed
+	 */
+	static boolean waitFor(BooleanSupplier condition, IProgressMonitor monitor) {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (!condition.getAsBoolean()) {
+			if (monitor.isCanceled() || System.currentTimeMillis() > end) {
+				return false;
+			}
+			sleep(10);
+		}
+		return true;
+	}
+
+	static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.ui.tests.target;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.pde.internal.core.ExtensionContributionCache;
+import org.eclipse.pde.internal.core.ICoreConstants;
+import org.eclipse.pde.internal.core.PDECore;
+import org.eclipse.pde.internal.core.PDEExtensionRegistry;
+import org.eclipse.pde.ui.tests.util.ProjectUtils;
+import org.eclipse.pde.ui.tests.util.TargetPlatformUtil;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestRule;
+import org.osgi.framework.Constants;
+
+/**
+ * Tests that the extension registry only replaces the contributions of
+ * changed target bundles when the target is reloaded.
+ */
+public class ExtensionRegistryReloadTests {
+
+	@ClassRule
+	public static final TestRule CLEAR_WORKSPACE = ProjectUtils.DELETE_ALL_WORKSPACE_PROJECTS_BEFORE_AND_AFTER;
+	@ClassRule
+	public static final TestRule RESTORE_TARGET_DEFINITION = TargetPlatformUtil.RESTORE_CURRENT_TARGET_DEFINITION_AFTER;
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private static final String POINT_ID = "registry.point.p";
+
+	@Test
+	public void testReloadedTargetReplacesChangedContributions() throws Exception {
+		Path plugins = folder.newFolder("plugins").toPath();
+		createBundle(plugins, "registry.point", "<extension-point id=\"p\" name=\"p\"/>");
+		for (int i = 0; i < 8; i++) {
+			createBundle(plugins, "registry.bundle" + i, extension("ext"));
+		}
+		setTarget(plugins);
+
+		PDEExtensionRegistry registry = PDECore.getDefault().getExtensionsRegistry();
+		assertEquals(Set.of("registry.bundle0.ext", "registry.bundle1.ext", "registry.bundle2.ext",
+				"registry.bundle3.ext", "registry.bundle4.ext", "registry.bundle5.ext", "registry.bundle6.ext",
+				"registry.bundle7.ext"), getExtensions(registry));
+
+		// bundle1 is changed, bundle2 is removed, all others are unchanged
+		Path changed = createBundle(plugins, "registry.bundle1", extension("changed"));
+		File changedFile = changed.toFile();
+		assertTrue(changedFile.setLastModified(changedFile.lastModified() + 2000));
+		Files.delete(plugins.resolve("registry.bundle2_1.0.0.jar"));
+		setTarget(plugins);
+
+		ExtensionContributionCache cache = ExtensionContributionCache.getDefault();
+		int hits = cache.getHits();
+		int misses = cache.getMisses();
+		assertEquals(Set.of("registry.bundle0.ext", "registry.bundle1.changed", "registry.bundle3.ext",
+				"registry.bundle4.ext", "registry.bundle5.ext", "registry.bundle6.ext", "registry.bundle7.ext"),
+				getExtensions(registry));
+		// only the changed bundle is read again, the contributions of the
+		// unchanged bundles are reused without a lookup
+		assertEquals(hits, cache.getHits());
+		assertEquals(misses + 1, cache.getMisses());
+
+		// the descriptor of the changed bundle is stored in the cache file
+		ExtensionContributionCache stored = ExtensionContributionCache
+				.load(ExtensionContributionCache.getCacheFile());
+		assertArrayEquals(pluginXml(extension("changed")),
+				stored.getContents(changedFile, ICoreConstants.PLUGIN_FILENAME_DESCRIPTOR));
+		assertEquals(1, stored.getHits());
+		assertEquals(0, stored.getMisses());
+	}
+
+	private static Set<String> getExtensions(PDEExtensionRegistry registry) {
+		return Arrays.stream(registry.findExtensions(POINT_ID, false)).map(IExtension::getUniqueIdentifier)
+				.collect(Collectors.toSet());
+	}
+
+	private static void setTarget(Path plugins) throws InterruptedException {
+		TargetPlatformUtil.createAndSetTarget(null,
+				List.of(TargetPlatformUtil.TPS.newDirectoryLocation(plugins.getParent().toString())), null);
+	}
+
+	private static String extension(String id) {
+		return "<extension id=\"" + id + "\" point=\"" + POINT_ID + "\"/>";
+	}
+
+	private static byte[] pluginXml(String contents) {
+		return ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<?eclipse version=\"3.4\"?>\n<plugin>\n" + contents
+				+ "\n</plugin>\n").getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static Path createBundle(Path plugins, String id, String contents) throws Exception {
+		Manifest manifest = new Manifest();
+		Attributes attributes = manifest.getMainAttributes();
+		attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		attributes.putValue(Constants.BUNDLE_MANIFESTVERSION, "2");
+		attributes.putValue(Constants.BUNDLE_SYMBOLICNAME, id + ";singleton:=true");
+		attributes.putValue(Constants.BUNDLE_VERSION, "1.0.0");
+		Path jar = plugins.resolve(id + "_1.0.0.jar");
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+			out.putNextEntry(new ZipEntry(JarFile.MANIFEST_NAME));
+			manifest.write(out);
+			out.putNextEntry(new ZipEntry(ICoreConstants.PLUGIN_FILENAME_DESCRIPTOR));
+			out.write(pluginXml(contents));
+		}
+		return jar;
+	}
+
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.ui.tests.target;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.pde.core.plugin.IPluginModelBase;
+import org.eclipse.pde.core.plugin.PluginRegistry;
+import org.eclipse.pde.core.target.NameVersionDescriptor;
+import org.eclipse.pde.internal.core.PDECore;
+import org.eclipse.pde.internal.core.PDEState;
+import org.eclipse.pde.ui.tests.util.ProjectUtils;
+import org.eclipse.pde.ui.tests.util.TargetPlatformUtil;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestRule;
+import org.osgi.framework.Constants;
+
+/**
+ * Tests that a changed target only adds and removes the changed bundles from
+ * the existing PDE models.
+ */
+public class TargetReloadTests {
+
+	@ClassRule
+	public static final TestRule CLEAR_WORKSPACE = ProjectUtils.DELETE_ALL_WORKSPACE_PROJECTS_BEFORE_AND_AFTER;
+	@ClassRule
+	public static final TestRule RESTORE_TARGET_DEFINITION = TargetPlatformUtil.RESTORE_CURRENT_TARGET_DEFINITION_AFTER;
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testChangedTargetKeepsUnchangedModels() throws Exception {
+		Path jarDirectory = folder.newFolder("bundles").toPath();
+		Map<NameVersionDescriptor, Map<String, String>> bundles = new LinkedHashMap<>();
+		for (int i = 0; i < 10; i++) {
+			bundles.put(new NameVersionDescriptor("reload.bundle" + i, "1.0.0"), Map.of());
+		}
+		TargetPlatformUtil.setDummyBundlesAsTarget(bundles, List.of(), jarDirectory);
+
+		IPluginModelBase unchanged = PluginRegistry.findModel("reload.bundle1");
+		assertNotNull(unchanged);
+		IPluginModelBase removed = PluginRegistry.findModel("reload.bundle0");
+		assertNotNull(removed);
+		long removedId = removed.getBundleDescription().getBundleId();
+		PDEState state = PDECore.getDefault().getModelManager().getState();
+		assertNotNull(state.getPluginName(removedId));
+
+		bundles.remove(new NameVersionDescriptor("reload.bundle0", "1.0.0"));
+		bundles.put(new NameVersionDescriptor("reload.added", "1.0.0"),
+				Map.of(Constants.REQUIRE_BUNDLE, "reload.bundle1"));
+		TargetPlatformUtil.setDummyBundlesAsTarget(bundles, List.of(), jarDirectory);
+
+		assertNull(PluginRegistry.findModel("reload.bundle0"));
+		IPluginModelBase added = PluginRegistry.findModel("reload.added");
+		assertNotNull(added);
+		assertTrue(added.getBundleDescription().isResolved());
+		assertSame(unchanged, PluginRegistry.findModel("reload.bundle1"));
+		// the auxiliary data of the removed bundle is dropped with it
+		assertSame(state, PDECore.getDefault().getModelManager().getState());
+		assertNull(state.getPluginName(removedId));
+		assertNotNull(state.getPluginName(added.getBundleDescription().getBundleId()));
+	}
+
+}